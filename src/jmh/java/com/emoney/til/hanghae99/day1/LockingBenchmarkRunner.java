@@ -0,0 +1,37 @@
+package com.emoney.til.hanghae99.day1;
+
+import java.io.File;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 스레드 수를 1 ~ 64로 바꿔 가며 락 벤치마크를 실행하는 러너
+ * (./gradlew jmhSweep -PjmhInclude=StockLockingBenchmark)
+ *
+ * JMH는 한 번 실행할 때 스레드 수를 하나만 지정할 수 있으므로, 스레드 수마다 따로 실행하고
+ * 결과를 locking-{스레드 수}t.json 파일로 남깁니다.
+ */
+public class LockingBenchmarkRunner {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*LockingBenchmark.*";
+        File outputDir = new File(args.length > 1 ? args[1] : "build/reports/jmh");
+        outputDir.mkdirs();
+
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(outputDir, "locking-" + threads + "t.json").getPath())
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.emoney.til.hanghae99.day1;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 읽기 95% / 쓰기 5% 재고 조회 벤치마크
+ *
+ * - locked: Product (읽기마다 ReentrantLock)
+ * - stamped: StampedProduct (낙관적 읽기, 실패 시 읽기 락)
+ * - cas: LockFreeProduct (volatile 읽기 + CAS 쓰기)
+ * 스레드마다 20번 중 1번은 재고를 1 감소시키고 나머지는 재고를 읽습니다.
+ * batchRead는 읽기 한 번이 상품 32개의 일괄 조회인 경우입니다.
+ *
+ * 방식마다 DatabaseConcurrencyExample의 다른 테이블(products, stampedProducts, lockFreeProducts)을 쓰므로
+ * 각 방식은 자기 테이블에 쓰고 자기 테이블을 읽습니다. 결과는 같은 작업을 방식별로 처리하는 비용의 비교이고,
+ * 일괄 조회는 어느 방식이든 상품들 사이의 같은 시점(스냅샷)을 보장하지 않습니다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadMostlyLockingBenchmark {
+
+    private static final int PRODUCT_COUNT = 1_000;
+
+    // 측정 중 재고가 바닥나지 않도록 충분히 큰 값
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    // WRITE_INTERVAL번 중 1번이 쓰기 (5%)
+    private static final int WRITE_INTERVAL = 20;
+
+    private static final int SNAPSHOT_SIZE = 32;
+
+    @Param({"locked", "stamped", "cas"})
+    public String variant;
+
+    @Param({"uniform", "zipf", "hot"})
+    public String skew;
+
+    private DatabaseConcurrencyExample example;
+    private String[] productIds;
+    private DatabaseConcurrencyExample.Product[] products;
+    private StampedProduct[] stampedProducts;
+    private LockFreeProduct[] lockFreeProducts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        example = new DatabaseConcurrencyExample();
+        productIds = new String[PRODUCT_COUNT];
+        products = new DatabaseConcurrencyExample.Product[PRODUCT_COUNT];
+        stampedProducts = new StampedProduct[PRODUCT_COUNT];
+        lockFreeProducts = new LockFreeProduct[PRODUCT_COUNT];
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            productIds[i] = "BENCH-" + i;
+            example.addProduct(productIds[i], INITIAL_STOCK);
+            products[i] = example.getProduct(productIds[i]);
+            stampedProducts[i] = example.getStampedProduct(productIds[i]);
+            lockFreeProducts[i] = example.getLockFreeProduct(productIds[i]);
+        }
+    }
+
+    /**
+     * 스레드마다 다른 키 시퀀스를 사용
+     */
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private static final AtomicLong SEEDS = new AtomicLong(42);
+
+        private int[] sequence;
+        private int cursor;
+        private int operation;
+
+        @Setup(Level.Trial)
+        public void setUp(ReadMostlyLockingBenchmark benchmark) {
+            sequence = KeySkew.sequence(benchmark.skew, PRODUCT_COUNT, SEEDS.getAndIncrement());
+        }
+
+        int next() {
+            return sequence[cursor++ & (KeySkew.SEQUENCE_LENGTH - 1)];
+        }
+
+        boolean nextIsWrite() {
+            if (++operation == WRITE_INTERVAL) {
+                operation = 0;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @Benchmark
+    public long readMostly(ThreadKeys keys) {
+        int index = keys.next();
+        if (keys.nextIsWrite()) {
+            return write(index) ? 1 : 0;
+        }
+        return read(index);
+    }
+
+    @Benchmark
+    public Object batchRead(ThreadKeys keys) {
+        if (keys.nextIsWrite()) {
+            return write(keys.next());
+        }
+
+        List<String> ids = new ArrayList<>(SNAPSHOT_SIZE);
+        for (int i = 0; i < SNAPSHOT_SIZE; i++) {
+            ids.add(productIds[keys.next()]);
+        }
+        if ("stamped".equals(variant)) {
+            return example.snapshotStampedStock(ids);
+        }
+
+        // 다른 방식은 자기 테이블에서 같은 조회를 상품별로 반복
+        Map<String, Integer> stocks = new LinkedHashMap<>();
+        for (String id : ids) {
+            stocks.put(id, "cas".equals(variant)
+                    ? example.getLockFreeProduct(id).getStock()
+                    : example.getProduct(id).getStock());
+        }
+        return stocks;
+    }
+
+    private long read(int index) {
+        switch (variant) {
+            case "stamped":
+                return stampedProducts[index].getStock();
+            case "cas":
+                return lockFreeProducts[index].getStock();
+            default:
+                return products[index].getStock();
+        }
+    }
+
+    private boolean write(int index) {
+        switch (variant) {
+            case "stamped":
+                return stampedProducts[index].decreaseStock(1);
+            case "cas":
+                return lockFreeProducts[index].decreaseStock(1);
+            default:
+                products[index].decreaseStock(1);
+                return true;
+        }
+    }
+}
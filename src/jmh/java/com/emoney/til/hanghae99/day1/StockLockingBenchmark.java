@@ -0,0 +1,78 @@
+package com.emoney.til.hanghae99.day1;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DatabaseConcurrencyExample 재고 감소 전략 벤치마크
+ * 처리량(Throughput)과 지연 시간 백분위(SampleTime)를 함께 측정합니다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockLockingBenchmark {
+
+    private static final int PRODUCT_COUNT = 1_000;
+
+    // 측정 중 재고가 바닥나지 않도록 충분히 큰 값
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    @Param({"optimistic", "pessimistic", "cas", "stamped", "sharded", "combining"})
+    public String method;
+
+    @Param({"uniform", "zipf", "hot"})
+    public String skew;
+
+    private DatabaseConcurrencyExample example;
+    private String[] productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        example = new DatabaseConcurrencyExample();
+        productIds = new String[PRODUCT_COUNT];
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            productIds[i] = "BENCH-" + i;
+            example.addProduct(productIds[i], INITIAL_STOCK);
+        }
+    }
+
+    /**
+     * 스레드마다 다른 키 시퀀스를 사용
+     */
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private static final AtomicLong SEEDS = new AtomicLong(42);
+
+        private int[] sequence;
+        private int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp(StockLockingBenchmark benchmark) {
+            sequence = KeySkew.sequence(benchmark.skew, PRODUCT_COUNT, SEEDS.getAndIncrement());
+        }
+
+        int next() {
+            return sequence[cursor++ & (KeySkew.SEQUENCE_LENGTH - 1)];
+        }
+    }
+
+    @Benchmark
+    public boolean decreaseStock(ThreadKeys keys) {
+        return example.decreaseStock(method, productIds[keys.next()], 1);
+    }
+}
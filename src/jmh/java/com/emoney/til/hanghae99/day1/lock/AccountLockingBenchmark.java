@@ -0,0 +1,95 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import com.emoney.til.hanghae99.day1.KeySkew;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SafeAccountTransfer.transfer / OrderedResourceLock.processResources 벤치마크
+ *
+ * 두 메서드 모두 작업 시뮬레이션용 sleep과 로그 출력을 포함하고 있으므로,
+ * 측정값은 락 자체의 비용보다 "락을 잡은 채로 기다리는 시간"이 경합 상황에서
+ * 얼마나 증폭되는지를 보여줍니다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountLockingBenchmark {
+
+    private static final int ACCOUNT_COUNT = 64;
+
+    @Param({"uniform", "zipf", "hot"})
+    public String skew;
+
+    private SafeAccountTransfer.Account[] accounts;
+    private OrderedResourceLock.Resource[] resources;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        accounts = new SafeAccountTransfer.Account[ACCOUNT_COUNT];
+        resources = new OrderedResourceLock.Resource[ACCOUNT_COUNT];
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            accounts[i] = new SafeAccountTransfer.Account(i, Integer.MAX_VALUE / 2);
+            resources[i] = new OrderedResourceLock.Resource(i, "Resource-" + i);
+        }
+    }
+
+    /**
+     * 스레드마다 다른 키 시퀀스를 사용
+     * "hot"이면 모든 요청이 0번 계좌(자원)와 다른 하나를 묶어서 사용합니다.
+     */
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private static final AtomicLong SEEDS = new AtomicLong(42);
+
+        private int[] sequence;
+        private int[] partners;
+        private int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp(AccountLockingBenchmark benchmark) {
+            long seed = SEEDS.getAndIncrement();
+            sequence = KeySkew.sequence(benchmark.skew, ACCOUNT_COUNT, seed);
+            partners = KeySkew.sequence("uniform", ACCOUNT_COUNT, seed + 1_000);
+        }
+
+        int first() {
+            return sequence[cursor & (KeySkew.SEQUENCE_LENGTH - 1)];
+        }
+
+        // 같은 키끼리 묶이지 않도록 다른 인덱스를 선택
+        int second(int first) {
+            int partner = partners[cursor++ & (KeySkew.SEQUENCE_LENGTH - 1)];
+            return partner == first ? (partner + 1) % ACCOUNT_COUNT : partner;
+        }
+    }
+
+    @Benchmark
+    public boolean transfer(ThreadKeys keys) {
+        int from = keys.first();
+        int to = keys.second(from);
+        return SafeAccountTransfer.transfer(accounts[from], accounts[to], 1);
+    }
+
+    @Benchmark
+    public void processResources(ThreadKeys keys) {
+        int first = keys.first();
+        int second = keys.second(first);
+        OrderedResourceLock.processResources(resources[first], resources[second]);
+    }
+}
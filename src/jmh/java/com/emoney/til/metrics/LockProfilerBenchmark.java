@@ -0,0 +1,64 @@
+package com.emoney.til.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 경합이 없는 락 획득/해제에 ProfiledLock이 더하는 비용
+ *
+ * - plain: ReentrantLock
+ * - profiled: 같은 ReentrantLock을 감싼 ProfiledLock
+ * 임계 구역은 1µs 정도의 계산이고, 두 결과의 차이가 프로파일링 비용입니다. (몇 퍼센트 수준이어야 함)
+ * 스레드 1개로 실행해야 경합 없는 경우가 됩니다. (./gradlew jmh, 기본 스레드 수 1)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LockProfilerBenchmark {
+
+    // 임계 구역 안에서 반복하는 계산 횟수 (약 1µs)
+    private static final int CRITICAL_SECTION_WORK = 500;
+
+    @Param({"plain", "profiled"})
+    public String variant;
+
+    private Lock lock;
+    private long value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ReentrantLock delegate = new ReentrantLock();
+        lock = "profiled".equals(variant) ? new LockProfiler().wrap("bench.overhead", delegate) : delegate;
+    }
+
+    @Benchmark
+    public long lockAndWork() {
+        lock.lock();
+        try {
+            long result = value;
+            for (int j = 0; j < CRITICAL_SECTION_WORK; j++) {
+                result = result * 31 + j;
+            }
+            value = result;
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
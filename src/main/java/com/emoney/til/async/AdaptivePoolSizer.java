@@ -0,0 +1,116 @@
+package com.emoney.til.async;
+
+/**
+ * 큐 대기 시간과 작업 처리 시간으로 스레드 풀 크기를 정하는 컨트롤러
+ *
+ * 리틀의 법칙(L = λ × W)을 서버(스레드)에 적용하면, 처리율 λ로 평균 S만큼 걸리는 작업을 처리하는 데
+ * 동시에 필요한 스레드 수는 λ × S 입니다. 여기에 목표 사용률(예: 0.8)로 나눈 값을 기본 목표로 삼고,
+ * 큐 대기 시간이 목표를 넘으면 쌓인 작업을 한 주기 안에 비울 만큼의 스레드를 더합니다.
+ * 풀이 포화되면 측정되는 처리율이 풀 크기에 묶이지만, 사용률로 나누고 밀린 작업을 더하므로
+ * 주기마다 풀이 커지면서 실제 수요에 도달합니다.
+ *
+ * 진동 방지
+ * - 목표값은 지수 이동 평균으로 완만하게
+ * - 현재 크기와의 차이가 데드밴드(10%, 최소 1) 안이면 그대로
+ * - 한 주기에 최대 2배까지 늘리고, 줄일 때는 25%씩만 (빨리 늘리고 천천히 줄임)
+ */
+public class AdaptivePoolSizer {
+
+  private static final double SMOOTHING = 0.5;
+  private static final double DEADBAND = 0.1;
+  private static final double MAX_GROWTH = 2.0;
+  private static final double MAX_SHRINK = 0.25;
+
+  private final int minSize;
+  private final int maxSize;
+  private final double targetUtilization;
+  private final long targetQueueWaitNanos;
+
+  // 지수 이동 평균한 목표 스레드 수 (첫 주기 전에는 음수)
+  private double smoothedTarget = -1;
+
+  /**
+   * 한 주기 동안의 측정값
+   *
+   * @param intervalNanos 측정 주기 길이
+   * @param completed 이 주기에 끝난 작업 수
+   * @param totalServiceNanos 끝난 작업들의 실행 시간 합
+   * @param totalQueueWaitNanos 끝난 작업들의 큐 대기 시간 합
+   * @param queued 주기 끝에 큐에 남아 있는 작업 수
+   */
+  public record Sample(long intervalNanos, long completed, long totalServiceNanos,
+                       long totalQueueWaitNanos, int queued) {
+
+    double meanServiceNanos() {
+      return completed == 0 ? 0 : (double) totalServiceNanos / completed;
+    }
+
+    double meanQueueWaitNanos() {
+      return completed == 0 ? 0 : (double) totalQueueWaitNanos / completed;
+    }
+  }
+
+  /**
+   * @param targetUtilization 스레드가 바쁜 시간 비율 목표 (0 ~ 1, 남는 비율이 순간 부하를 흡수)
+   * @param targetQueueWaitNanos 이보다 오래 기다린 작업이 있으면 밀린 작업을 비울 스레드를 더함
+   */
+  public AdaptivePoolSizer(int minSize, int maxSize, double targetUtilization, long targetQueueWaitNanos) {
+    if (minSize <= 0 || maxSize < minSize) {
+      throw new IllegalArgumentException("0 < minSize <= maxSize 이어야 합니다: " + minSize + ", " + maxSize);
+    }
+    if (targetUtilization <= 0 || targetUtilization > 1) {
+      throw new IllegalArgumentException("targetUtilization은 0 ~ 1 사이여야 합니다: " + targetUtilization);
+    }
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.targetUtilization = targetUtilization;
+    this.targetQueueWaitNanos = targetQueueWaitNanos;
+  }
+
+  public int getMinSize() {
+    return minSize;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * 다음 주기의 풀 크기
+   */
+  public synchronized int nextSize(int currentSize, Sample sample) {
+    if (sample.completed() == 0) {
+      // 아무 일도 없으면 천천히 줄이고, 끝난 작업 없이 큐만 쌓였으면(처리 시간을 모름) 최대한 늘림
+      int target = sample.queued() == 0 ? minSize : Integer.MAX_VALUE;
+      return clamp(limitStep(currentSize, target));
+    }
+
+    double serviceNanos = sample.meanServiceNanos();
+    double throughput = (double) sample.completed() / sample.intervalNanos();
+    double demand = throughput * serviceNanos / targetUtilization;
+
+    // 큐 대기가 목표를 넘으면 밀린 작업을 한 주기 안에 비울 만큼 추가
+    if (sample.meanQueueWaitNanos() > targetQueueWaitNanos) {
+      demand += sample.queued() * serviceNanos / sample.intervalNanos();
+    }
+
+    smoothedTarget = smoothedTarget < 0 ? demand : SMOOTHING * demand + (1 - SMOOTHING) * smoothedTarget;
+    int target = (int) Math.ceil(smoothedTarget);
+
+    if (Math.abs(target - currentSize) <= Math.max(1, currentSize * DEADBAND)) {
+      return clamp(currentSize);
+    }
+    return clamp(limitStep(currentSize, target));
+  }
+
+  private static int limitStep(int currentSize, int target) {
+    if (target > currentSize) {
+      return (int) Math.min(target, Math.ceil(currentSize * MAX_GROWTH));
+    }
+    return (int) Math.max(target, Math.floor(currentSize * (1 - MAX_SHRINK)));
+  }
+
+  private int clamp(int size) {
+    return Math.min(Math.max(size, minSize), maxSize);
+  }
+}
@@ -0,0 +1,138 @@
+package com.emoney.til.async;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 큐 대기 시간과 처리 시간을 측정해서 core/max 풀 크기를 주기적으로 조정하는 스레드 풀
+ *
+ * 작업을 제출할 때 시각을 기록하고(TaskDecorator), 실행 시작/종료 시각으로 큐 대기 시간과 처리 시간을 잽니다.
+ * 주기마다 AdaptivePoolSizer가 정한 크기로 core를 맞추고, max는 순간 부하용으로 core의 1.5배까지 둡니다.
+ */
+@Slf4j
+public class AdaptiveThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
+
+  private final AdaptivePoolSizer sizer;
+  private final long intervalNanos;
+
+  // 이번 주기에 끝난 작업의 측정값
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder serviceNanos = new LongAdder();
+  private final LongAdder queueWaitNanos = new LongAdder();
+
+  private TaskDecorator userDecorator;
+  private boolean priorityQueue;
+  private ScheduledExecutorService controller;
+  private long lastSampleAt;
+
+  public AdaptiveThreadPoolTaskExecutor(AdaptivePoolSizer sizer, long interval, TimeUnit unit) {
+    this.sizer = sizer;
+    this.intervalNanos = unit.toNanos(interval);
+    setCorePoolSize(sizer.getMinSize());
+    setMaxPoolSize(maxFor(sizer.getMinSize()));
+    super.setTaskDecorator(this::measure);
+  }
+
+  /**
+   * 다른 TaskDecorator를 지정해도 측정은 유지 (지정한 decorator를 측정 안쪽에서 적용)
+   */
+  @Override
+  public void setTaskDecorator(TaskDecorator taskDecorator) {
+    this.userDecorator = taskDecorator;
+  }
+
+  /**
+   * 대기 큐를 @AsyncPriority 순서로 꺼내는 BoundedPriorityBlockingQueue로 사용 (initialize 전에 설정)
+   */
+  public void setPriorityQueue(boolean priorityQueue) {
+    this.priorityQueue = priorityQueue;
+  }
+
+  @Override
+  protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+    if (priorityQueue && queueCapacity > 0) {
+      return new BoundedPriorityBlockingQueue(queueCapacity);
+    }
+    return super.createQueue(queueCapacity);
+  }
+
+  @Override
+  public void initialize() {
+    super.initialize();
+    lastSampleAt = System.nanoTime();
+    controller = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "adaptive-pool-controller");
+      thread.setDaemon(true);
+      return thread;
+    });
+    controller.scheduleAtFixedRate(this::adjust, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void shutdown() {
+    if (controller != null) {
+      controller.shutdownNow();
+    }
+    super.shutdown();
+  }
+
+  private Runnable measure(Runnable task) {
+    Runnable decorated = userDecorator == null ? task : userDecorator.decorate(task);
+    long submittedAt = System.nanoTime();
+    return () -> {
+      long startedAt = System.nanoTime();
+      try {
+        decorated.run();
+      } finally {
+        long finishedAt = System.nanoTime();
+        queueWaitNanos.add(startedAt - submittedAt);
+        serviceNanos.add(finishedAt - startedAt);
+        completed.increment();
+      }
+    };
+  }
+
+  /**
+   * 이번 주기의 측정값으로 풀 크기 조정
+   */
+  void adjust() {
+    try {
+      long now = System.nanoTime();
+      AdaptivePoolSizer.Sample sample = new AdaptivePoolSizer.Sample(now - lastSampleAt,
+          completed.sumThenReset(), serviceNanos.sumThenReset(), queueWaitNanos.sumThenReset(), getQueueSize());
+      lastSampleAt = now;
+
+      int current = getCorePoolSize();
+      int next = sizer.nextSize(current, sample);
+      if (next != current) {
+        resize(next);
+        log.info("Adaptive pool resized {} -> {} (completed={}, queued={})",
+            current, next, sample.completed(), sample.queued());
+      }
+    } catch (RuntimeException e) {
+      // 조정이 실패해도 다음 주기는 계속
+      log.warn("Adaptive pool adjustment failed", e);
+    }
+  }
+
+  private void resize(int coreSize) {
+    // ThreadPoolExecutor는 core > max가 되는 순간 예외를 던지므로 늘릴 때는 max부터, 줄일 때는 core부터
+    if (coreSize > getCorePoolSize()) {
+      setMaxPoolSize(maxFor(coreSize));
+      setCorePoolSize(coreSize);
+    } else {
+      setCorePoolSize(coreSize);
+      setMaxPoolSize(maxFor(coreSize));
+    }
+  }
+
+  private int maxFor(int coreSize) {
+    return Math.min(sizer.getMaxSize(), Math.max(coreSize, (int) Math.ceil(coreSize * 1.5)));
+  }
+}
@@ -1,34 +1,157 @@
 package com.emoney.til.async;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.tomcat.util.threads.ThreadPoolExecutor;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
-@EnableAsync
+// AsyncDispatchPostProcessor가 @Async 어드바이저 바깥에 붙을 수 있도록 @Async 프록시를 먼저 만듦
+@EnableAsync(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(AsyncExecutorProperties.class)
 @Slf4j
 public class AsyncConfig implements AsyncConfigurer {
 
+  /**
+   * async.executor.mode
+   * - platform (기본값): 고정 스레드 풀 (core 5, max 10, queue 25)
+   * - virtual: 작업마다 가상 스레드, 동시 실행 수는 세마포어로 제한 (async.executor.virtual.*)
+   * - adaptive: 큐 대기/처리 시간으로 core/max 크기를 주기적으로 조정 (async.executor.adaptive.*)
+   * 그 밖의 값이면 애플리케이션이 시작되지 않습니다.
+   * 풀과 큐가 가득 찼을 때는 overloadPolicy를 따르고, 최종 거부는 호출자에게 실패한 future로 전달됩니다.
+   */
   @Bean(name = "taskExecutor")
-  public Executor taskExecutor() {
-    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+  public Executor taskExecutor(AsyncExecutorProperties properties, OverloadPolicy overloadPolicy) {
+    Executor executor;
+    switch (properties.getMode()) {
+      case "virtual":
+        executor = virtualThreadExecutor(properties.getVirtual());
+        break;
+      case "adaptive":
+        executor = adaptiveThreadExecutor(properties.getAdaptive(), overloadPolicy);
+        break;
+      case "platform":
+        executor = platformThreadExecutor(overloadPolicy);
+        break;
+      default:
+        // 오타로 기본 풀이 조용히 선택되지 않도록 시작 시 실패
+        throw new IllegalArgumentException("Unknown async.executor.mode '" + properties.getMode()
+            + "' (expected platform, virtual or adaptive)");
+    }
+    return properties.getBulkhead().isEnabled()
+        ? bulkheadExecutor(executor, properties.getBulkhead(), overloadPolicy)
+        : executor;
+  }
+
+  /**
+   * @Bulkhead 메서드는 구획별로 동시 실행 수를 제한해서, 나머지는 그대로 위에서 만든 Executor에서 실행
+   * (async.executor.bulkhead.shared-capacity: 구획끼리 빌려 쓰는 공유 자리 수, 구획 큐가 가득 차면 overloadPolicy)
+   */
+  private Executor bulkheadExecutor(Executor delegate, AsyncExecutorProperties.Bulkheads bulkheads,
+      OverloadPolicy overloadPolicy) {
+    BulkheadExecutor executor = new BulkheadExecutor(delegate, bulkheads.getSharedCapacity(), overloadPolicy);
+    executor.setTaskDecorator(new AsyncMetricsTaskDecorator());
+    executor.setAwaitTerminationSeconds(60);
+    return executor;
+  }
+
+  /**
+   * async.executor.overload.policy
+   * - fail (기본값): 바로 거부
+   * - caller-runs: 호출 스레드에서 실행 (호출 스레드마다 1초에 caller-run-budget까지)
+   * - blocking-submit: 큐에 자리가 날 때까지 최대 block-timeout 대기
+   * - shed-lowest-priority: 우선순위 큐를 쓰고, 들어온 작업보다 @AsyncPriority가 낮은 대기 작업을 버림
+   */
+  @Bean
+  public OverloadPolicy overloadPolicy(AsyncExecutorProperties properties) {
+    AsyncExecutorProperties.Overload overload = properties.getOverload();
+    switch (overload.getPolicy()) {
+      case "caller-runs":
+        return OverloadPolicy.callerRuns(overload.getCallerRunBudget().toNanos(), TimeUnit.NANOSECONDS);
+      case "blocking-submit":
+        return OverloadPolicy.blockingSubmit(overload.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS);
+      case "shed-lowest-priority":
+        return OverloadPolicy.shedLowestPriority();
+      case "fail":
+        return OverloadPolicy.fail();
+      default:
+        // 오타로 fail이 조용히 선택되지 않도록 시작 시 실패
+        throw new IllegalArgumentException("Unknown async.executor.overload.policy '" + overload.getPolicy()
+            + "' (expected fail, caller-runs, blocking-submit or shed-lowest-priority)");
+    }
+  }
+
+  /**
+   * @Async 호출을 제출하는 동안 메서드/우선순위를 알리고, 거부된 호출을 실패한 future로 바꿈
+   */
+  @Bean
+  public static AsyncDispatchPostProcessor asyncDispatchPostProcessor() {
+    return new AsyncDispatchPostProcessor(new CustomAsyncExceptionHandler());
+  }
+
+  private Executor virtualThreadExecutor(AsyncExecutorProperties.Virtual virtual) {
+    BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(
+        "Async-vt-", virtual.getMaxConcurrency(), virtual.getMaxWaiting(), task -> {
+          logRejectedTask();
+          throw new RejectedExecutionException("Task " + task + " rejected, virtual thread executor is full");
+        });
+
+    executor.setTaskDecorator(new AsyncMetricsTaskDecorator());
+    // 종료 시 실행 중인 작업이 완료될 때까지 최대 60초 대기 (close는 스프링이 빈 종료 시 호출)
+    executor.setAwaitTerminationSeconds(60);
+    log.info("Async executor mode: virtual threads (maxConcurrency={}, maxWaiting={})",
+        virtual.getMaxConcurrency(), virtual.getMaxWaiting());
+    return executor;
+  }
+
+  private Executor adaptiveThreadExecutor(AsyncExecutorProperties.Adaptive adaptive, OverloadPolicy overloadPolicy) {
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(adaptive.getMinPoolSize(), adaptive.getMaxPoolSize(),
+        adaptive.getTargetUtilization(), adaptive.getTargetQueueWait().toNanos());
+    AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor(
+        sizer, adaptive.getInterval().toNanos(), TimeUnit.NANOSECONDS);
+    executor.setQueueCapacity(adaptive.getQueueCapacity());
+    executor.setThreadNamePrefix("Async-adaptive-");
+    executor.setTaskDecorator(new AsyncMetricsTaskDecorator());
+    executor.setPriorityQueue(overloadPolicy.requiresPriorityQueue());
+    executor.setRejectedExecutionHandler(loggingRejections(overloadPolicy));
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(60);
+
+    executor.initialize();
+    log.info("Async executor mode: adaptive pool ({} ~ {} threads)",
+        adaptive.getMinPoolSize(), adaptive.getMaxPoolSize());
+    return executor;
+  }
+
+  private Executor platformThreadExecutor(OverloadPolicy overloadPolicy) {
+    boolean priorityQueue = overloadPolicy.requiresPriorityQueue();
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+      @Override
+      protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+        return priorityQueue ? new BoundedPriorityBlockingQueue(queueCapacity) : super.createQueue(queueCapacity);
+      }
+    };
     executor.setCorePoolSize(5);
     executor.setMaxPoolSize(10);
     executor.setQueueCapacity(25); // 대기 큐 용량이 넘어 갈 경우 새로운 스레드를 생성하여 작업을 처리하고 다시 반환한giut 다.
     executor.setThreadNamePrefix("Async-");
+    // 메서드별 큐 대기/실행 시간 기록 (/metrics/async)
+    executor.setTaskDecorator(new AsyncMetricsTaskDecorator());
 
     // 거부 정책 설정 (큐가 가득 차고 모든 스레드가 사용 중일 때)
-    executor.setRejectedExecutionHandler((r, e) -> {
-      log.warn("Task rejected, thread pool is full and queue is full");
-      // 여기서 알림 전송이나 추가 대응 로직 구현 가능
-    });
+    executor.setRejectedExecutionHandler(loggingRejections(overloadPolicy));
 
     // 종료 시 실행 중인 작업이 완료될 때까지 대기
     executor.setWaitForTasksToCompleteOnShutdown(true);
@@ -38,6 +161,23 @@ public class AsyncConfig implements AsyncConfigurer {
     return executor;
   }
 
+  // 정책이 끝내 거부한 작업만 로그를 남김
+  private static RejectedExecutionHandler loggingRejections(OverloadPolicy overloadPolicy) {
+    return (r, e) -> {
+      try {
+        overloadPolicy.rejectedExecution(r, e);
+      } catch (RejectedExecutionException ex) {
+        logRejectedTask();
+        throw ex;
+      }
+    };
+  }
+
+  private static void logRejectedTask() {
+    log.warn("Task rejected, thread pool is full and queue is full");
+    // 여기서 알림 전송이나 추가 대응 로직 구현 가능
+  }
+
   @Override
   public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
     return new CustomAsyncExceptionHandler();
@@ -51,6 +191,11 @@ public class AsyncConfig implements AsyncConfigurer {
       log.error("Async method '{}' threw exception: {}", method.getName(), ex.getMessage());
       log.error("Method parameters: {}", params);
 
+      // 거부/버려진 호출은 AsyncDispatchInterceptor가 rejected로 따로 셈
+      if (!(ex instanceof RejectedExecutionException)) {
+        AsyncMetrics.global().stats(method).recordFailure();
+      }
+
       // 중요한 비동기 작업의 실패 시 추가 대응 예시
       // emailService.sendAlertEmail("Async method failed: " + method.getName());
       // retryService.scheduleRetry(method, params);
@@ -0,0 +1,106 @@
+package com.emoney.til.async;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * @Async 메서드 호출 하나가 Executor에 제출되는 동안의 정보
+ *
+ * 스프링은 @Async 메서드를 Runnable로 감싸 Executor에 넘기므로 Executor, 큐, 거부 정책에서는
+ * 어떤 메서드의 작업인지 알 수 없습니다.
+ * AsyncDispatchInterceptor가 호출한 스레드에서 제출 직전에 이 정보를 ThreadLocal에 두고,
+ * 같은 스레드에서 실행되는 execute/큐 offer/거부 정책이 current()로 읽습니다.
+ */
+public final class AsyncDispatch {
+
+  private static final ThreadLocal<AsyncDispatch> CURRENT = new ThreadLocal<>();
+
+  private final Method method;
+  private final int priority;
+  private final AsyncMethodStats stats;
+  private final boolean nonBlocking;
+  private final long submittedAt = System.nanoTime();
+
+  // 큐에 들어간 뒤 버려진 경우 (우선순위 밀림 등) 예외로 완료됨
+  private final CompletableFuture<Void> dropped = new CompletableFuture<>();
+
+  AsyncDispatch(Method method, int priority) {
+    this(method, priority, null);
+  }
+
+  AsyncDispatch(Method method, int priority, AsyncMethodStats stats) {
+    this(method, priority, stats, false);
+  }
+
+  AsyncDispatch(Method method, int priority, AsyncMethodStats stats, boolean nonBlocking) {
+    this.method = method;
+    this.priority = priority;
+    this.stats = stats;
+    this.nonBlocking = nonBlocking;
+  }
+
+  /**
+   * 지금 이 스레드에서 제출 중인 @Async 호출 (Executor를 직접 사용한 경우 null)
+   */
+  public static AsyncDispatch current() {
+    return CURRENT.get();
+  }
+
+  static AsyncDispatch enter(AsyncDispatch dispatch) {
+    AsyncDispatch previous = CURRENT.get();
+    CURRENT.set(dispatch);
+    return previous;
+  }
+
+  static void exit(AsyncDispatch previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  public Method getMethod() {
+    return method;
+  }
+
+  public int getPriority() {
+    return priority;
+  }
+
+  /**
+   * 이 메서드의 통계 (기록하지 않으면 null)
+   */
+  public AsyncMethodStats getStats() {
+    return stats;
+  }
+
+  /**
+   * 제출하는 스레드를 막으면 안 되는지 (MicroBatcher 타이머 스레드 등)
+   * true면 과부하 정책은 호출 스레드에서 실행하거나 자리가 날 때까지 기다리지 않고 바로 거부합니다.
+   */
+  public boolean isNonBlocking() {
+    return nonBlocking;
+  }
+
+  /**
+   * 제출 시각 (System.nanoTime)
+   */
+  public long getSubmittedAt() {
+    return submittedAt;
+  }
+
+  /**
+   * 이미 받아들인 작업을 실행하지 못하고 버림 (호출자에게 실패로 알림)
+   */
+  public void drop(RejectedExecutionException reason) {
+    if (dropped.completeExceptionally(reason) && stats != null) {
+      stats.recordRejected();
+    }
+  }
+
+  CompletableFuture<Void> getDropped() {
+    return dropped;
+  }
+}
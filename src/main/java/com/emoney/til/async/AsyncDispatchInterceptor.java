@@ -0,0 +1,291 @@
+package com.emoney.til.async;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.DefaultAdvisorChainFactory;
+import org.springframework.aop.framework.ReflectiveMethodInvocation;
+import org.springframework.aop.interceptor.AsyncExecutionInterceptor;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * @Async 프록시 바깥(호출한 스레드)에서 제출을 감싸는 인터셉터
+ *
+ * - 제출하는 동안 AsyncDispatch(메서드, 우선순위)를 ThreadLocal에 둠
+ * - Executor가 거부하면 예외를 호출자에게 던지는 대신
+ *   CompletableFuture/Future를 반환하는 메서드에는 실패한 CompletableFuture를 돌려주고,
+ *   void 메서드는 AsyncUncaughtExceptionHandler로 넘김
+ * - 받아들인 뒤 큐에서 버려진 작업도 같은 방식으로 실패를 알림
+ * - 메서드별 제출/거부/실패 횟수를 AsyncMetrics에 기록
+ * - @Batchable 메서드는 @Async 어드바이저로 넘기지 않고 호출을 모아 작업 하나로 제출
+ *   (작업 스레드에서는 이 인터셉터 안쪽의 어드바이스를 @Async 인터셉터만 빼고 그대로 거쳐 호출)
+ * 그래서 과부하 상황에서도 작업이 소리 없이 사라지지 않습니다.
+ */
+@Slf4j
+public class AsyncDispatchInterceptor implements MethodInterceptor, AutoCloseable {
+
+  private static final DefaultAdvisorChainFactory CHAIN_FACTORY = new DefaultAdvisorChainFactory();
+
+  private final AsyncUncaughtExceptionHandler exceptionHandler;
+  private final AsyncMetrics metrics;
+  private final Function<Method, Executor> executorResolver;
+
+  // 메서드 -> 호출을 모으는 버퍼 (@Batchable이 아니면 empty)
+  private final Map<Method, Optional<MicroBatcher<BatchedCall>>> batchers = new ConcurrentHashMap<>();
+
+  public AsyncDispatchInterceptor(AsyncUncaughtExceptionHandler exceptionHandler, AsyncMetrics metrics) {
+    this(exceptionHandler, metrics, null);
+  }
+
+  /**
+   * @param executorResolver @Batchable 메서드의 모인 호출을 실행할 Executor (null이면 @Batchable을 무시)
+   */
+  public AsyncDispatchInterceptor(AsyncUncaughtExceptionHandler exceptionHandler, AsyncMetrics metrics,
+      Function<Method, Executor> executorResolver) {
+    this.exceptionHandler = exceptionHandler;
+    this.metrics = metrics;
+    this.executorResolver = executorResolver;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    Method method = invocation.getMethod();
+    if (executorResolver != null) {
+      Optional<MicroBatcher<BatchedCall>> batcher = batchers.get(method);
+      if (batcher == null) {
+        batcher = batchers.computeIfAbsent(method, this::newBatcher);
+      }
+      if (batcher.isPresent()) {
+        return batch(invocation, batcher.get());
+      }
+    }
+
+    AsyncMethodStats stats = metrics.stats(method);
+    AsyncDispatch dispatch = new AsyncDispatch(method, priorityOf(method, invocation.getThis()), stats);
+
+    Object result;
+    AsyncDispatch previous = AsyncDispatch.enter(dispatch);
+    stats.recordSubmitted();
+    try {
+      result = invocation.proceed();
+    } catch (RejectedExecutionException e) {
+      stats.recordRejected();
+      return rejected(invocation, e);
+    } finally {
+      AsyncDispatch.exit(previous);
+    }
+
+    if (result instanceof CompletableFuture<?> future) {
+      // void 메서드의 실패는 CustomAsyncExceptionHandler가 기록
+      CompletableFuture<?> tracked = future.whenComplete((value, ex) -> {
+        if (ex != null) {
+          stats.recordFailure();
+        }
+      });
+      return bind(tracked, dispatch.getDropped());
+    }
+    if (result == null && method.getReturnType() == void.class) {
+      dispatch.getDropped().whenComplete((ignored, ex) ->
+          exceptionHandler.handleUncaughtException(ex, method, invocation.getArguments()));
+    }
+    return result;
+  }
+
+  private Object rejected(MethodInvocation invocation, RejectedExecutionException e) {
+    Method method = invocation.getMethod();
+    log.warn("Async method '{}' rejected: {}", method.getName(), e.getMessage());
+    if (Future.class.isAssignableFrom(method.getReturnType())) {
+      return CompletableFuture.failedFuture(e);
+    }
+    exceptionHandler.handleUncaughtException(e, method, invocation.getArguments());
+    return null;
+  }
+
+  /**
+   * 모여 있는 @Batchable 호출을 모두 제출하고, 이후의 @Batchable 호출은 거부 (컨텍스트 종료 시)
+   */
+  @Override
+  public void close() {
+    for (Optional<MicroBatcher<BatchedCall>> batcher : batchers.values()) {
+      batcher.ifPresent(MicroBatcher::close);
+    }
+  }
+
+  /**
+   * 버퍼에 넣은 @Batchable 호출 하나
+   *
+   * @param proxy 호출된 프록시 (프록시를 거치지 않은 호출이면 null)
+   */
+  record BatchedCall(Object proxy, Object target, Method method, Object[] arguments,
+                     CompletableFuture<Object> result, long submittedAt) {
+  }
+
+  private Object batch(MethodInvocation invocation, MicroBatcher<BatchedCall> batcher) {
+    Method method = invocation.getMethod();
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    Object proxy = invocation instanceof ProxyMethodInvocation proxyInvocation ? proxyInvocation.getProxy() : null;
+    BatchedCall call = new BatchedCall(proxy, invocation.getThis(), method, invocation.getArguments(), result,
+        System.nanoTime());
+    metrics.stats(method).recordSubmitted();
+    try {
+      batcher.add(call);
+    } catch (RejectedExecutionException e) {
+      log.warn("Batched call to '{}' rejected: {}", method.getName(), e.getMessage());
+      failAll(List.of(call), e);
+    }
+    return Future.class.isAssignableFrom(method.getReturnType()) ? result : null;
+  }
+
+  private Optional<MicroBatcher<BatchedCall>> newBatcher(Method method) {
+    Batchable batchable = AnnotatedElementUtils.findMergedAnnotation(method, Batchable.class);
+    if (batchable == null) {
+      return Optional.empty();
+    }
+    Executor executor = executorResolver.apply(method);
+    // 작업 단위 통계는 "[batch]"를 붙인 이름으로, 호출 단위 통계는 메서드 이름으로 기록
+    AsyncMethodStats batchStats = metrics.stats(AsyncMetrics.nameOf(method) + "[batch]");
+    int priority = priorityOf(method, null);
+    // 타이머 스레드는 모든 MicroBatcher가 함께 쓰므로, 거기서 제출할 때는 과부하 정책이 스레드를 막지 않게 함
+    return Optional.of(new MicroBatcher<>(AsyncMetrics.nameOf(method), batchable.maxSize(),
+        batchable.maxDelayMillis(), TimeUnit.MILLISECONDS,
+        calls -> submitBatch(executor,
+            new AsyncDispatch(method, priority, batchStats, MicroBatcher.isTimerThread()), calls)));
+  }
+
+  /**
+   * 모인 호출을 작업 하나로 제출 (호출한 스레드 또는 MicroBatcher 타이머 스레드에서 실행)
+   * 타이머 스레드에서는 호출 스레드 실행/대기 없이 받아들여지거나 바로 거부됩니다.
+   */
+  private void submitBatch(Executor executor, AsyncDispatch dispatch, List<BatchedCall> calls) {
+    dispatch.getDropped().whenComplete((ignored, ex) -> failAll(calls, ex));
+    AsyncDispatch previous = AsyncDispatch.enter(dispatch);
+    dispatch.getStats().recordSubmitted();
+    try {
+      executor.execute(() -> runBatch(calls));
+    } catch (RejectedExecutionException e) {
+      dispatch.getStats().recordRejected();
+      log.warn("Batch of {} calls to '{}' rejected: {}", calls.size(), dispatch.getMethod().getName(), e.getMessage());
+      failAll(calls, e);
+    } finally {
+      AsyncDispatch.exit(previous);
+    }
+  }
+
+  private void runBatch(List<BatchedCall> calls) {
+    // 묶인 호출은 보통 같은 프록시를 거치므로 어드바이스 목록은 프록시마다 한 번만 구함
+    Map<Object, List<Object>> chains = new IdentityHashMap<>();
+    for (BatchedCall call : calls) {
+      AsyncMethodStats stats = metrics.stats(call.method());
+      long startedAt = System.nanoTime();
+      stats.recordStarted(startedAt - call.submittedAt());
+      try {
+        List<Object> chain = call.proxy() instanceof Advised advised
+            ? chains.computeIfAbsent(advised, ignored -> remainingChain(advised, call))
+            : List.of();
+        Object value = new ReflectiveMethodInvocation(call.proxy(), call.target(), call.method(), call.arguments(),
+            call.target().getClass(), chain) {
+        }.proceed();
+        if (value instanceof CompletableFuture<?> future) {
+          future.whenComplete((result, ex) -> complete(call, result, ex));
+        } else if (value instanceof Future<?> future) {
+          complete(call, future.get(), null);
+        } else {
+          complete(call, null, null);
+        }
+      } catch (ExecutionException e) {
+        complete(call, null, e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        complete(call, null, e);
+      } catch (Throwable ex) {
+        complete(call, null, ex);
+      } finally {
+        stats.recordFinished(System.nanoTime() - startedAt);
+      }
+    }
+  }
+
+  /**
+   * 프록시의 어드바이스 중 이 인터셉터 안쪽에 있는 것 (@Async 인터셉터는 이미 묶어서 제출했으므로 뺌)
+   */
+  private List<Object> remainingChain(Advised advised, BatchedCall call) {
+    List<Object> chain = CHAIN_FACTORY.getInterceptorsAndDynamicInterceptionAdvice(
+        advised, call.method(), call.target().getClass());
+    List<Object> remaining = new ArrayList<>();
+    boolean inner = !chain.contains(this);
+    for (Object interceptor : chain) {
+      if (interceptor == this) {
+        inner = true;
+      } else if (inner && !(interceptor instanceof AsyncExecutionInterceptor)) {
+        remaining.add(interceptor);
+      }
+    }
+    return remaining;
+  }
+
+  private void complete(BatchedCall call, Object value, Throwable ex) {
+    if (ex == null) {
+      call.result().complete(value);
+    } else if (call.method().getReturnType() == void.class) {
+      // 실패 기록은 CustomAsyncExceptionHandler가 함
+      exceptionHandler.handleUncaughtException(ex, call.method(), call.arguments());
+    } else {
+      metrics.stats(call.method()).recordFailure();
+      call.result().completeExceptionally(ex);
+    }
+  }
+
+  // 제출이 거부되었거나 큐에서 버려진 호출
+  private void failAll(List<BatchedCall> calls, Throwable ex) {
+    for (BatchedCall call : calls) {
+      metrics.stats(call.method()).recordRejected();
+      if (call.method().getReturnType() == void.class) {
+        exceptionHandler.handleUncaughtException(ex, call.method(), call.arguments());
+      } else {
+        call.result().completeExceptionally(ex);
+      }
+    }
+  }
+
+  /**
+   * 작업 결과와 "버려짐" 중 먼저 일어난 쪽으로 완료되는 future
+   */
+  private static <T> CompletableFuture<T> bind(CompletableFuture<T> result, CompletableFuture<Void> dropped) {
+    CompletableFuture<T> bound = new CompletableFuture<>();
+    result.whenComplete((value, ex) -> {
+      if (ex != null) {
+        bound.completeExceptionally(ex);
+      } else {
+        bound.complete(value);
+      }
+    });
+    dropped.whenComplete((ignored, ex) -> bound.completeExceptionally(ex));
+    return bound;
+  }
+
+  private static int priorityOf(Method method, Object target) {
+    AsyncPriority priority = AnnotatedElementUtils.findMergedAnnotation(method, AsyncPriority.class);
+    if (priority == null) {
+      Class<?> targetClass = target != null ? target.getClass() : method.getDeclaringClass();
+      priority = AnnotatedElementUtils.findMergedAnnotation(targetClass, AsyncPriority.class);
+    }
+    return priority == null ? 0 : priority.value();
+  }
+}
@@ -0,0 +1,67 @@
+package com.emoney.til.async;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Async;
+
+/**
+ * @Async 메서드에 AsyncDispatchInterceptor를 @Async 어드바이저보다 바깥에 붙이는 후처리기
+ *
+ * 보통의 @Aspect는 @Async 어드바이저 안쪽(작업 스레드)에서 실행되므로 제출 시점의 정보를 다룰 수 없습니다.
+ * @Async 후처리기(AsyncConfig에서 order = LOWEST_PRECEDENCE - 1)가 프록시를 만든 뒤에 실행되면서
+ * 어드바이저 목록의 맨 앞에 인터셉터를 넣으므로, 호출한 스레드에서 제출을 감쌀 수 있습니다.
+ * 컨텍스트가 닫히기 시작하면 (Executor 빈이 종료되기 전에) 모여 있는 @Batchable 호출을 제출합니다.
+ */
+public class AsyncDispatchPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor
+    implements ApplicationListener<ContextClosedEvent> {
+
+  // @Async에 Executor 이름이 없을 때 (AsyncConfig의 taskExecutor)
+  private static final String DEFAULT_EXECUTOR = "taskExecutor";
+
+  private final AsyncDispatchInterceptor interceptor;
+  private BeanFactory beanFactory;
+
+  public AsyncDispatchPostProcessor(AsyncUncaughtExceptionHandler exceptionHandler) {
+    // @Async가 붙은 클래스의 메서드 또는 @Async 메서드 (AsyncAnnotationAdvisor와 같은 기준)
+    Pointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Async.class, true))
+        .union(AnnotationMatchingPointcut.forMethodAnnotation(Async.class));
+    this.interceptor = new AsyncDispatchInterceptor(exceptionHandler, AsyncMetrics.global(), this::resolveExecutor);
+    this.advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+    setBeforeExistingAdvisors(true);
+    setOrder(Ordered.LOWEST_PRECEDENCE);
+  }
+
+  @Override
+  public void setBeanFactory(BeanFactory beanFactory) {
+    super.setBeanFactory(beanFactory);
+    this.beanFactory = beanFactory;
+  }
+
+  @Override
+  public void onApplicationEvent(ContextClosedEvent event) {
+    interceptor.close();
+  }
+
+  /**
+   * @Batchable 메서드의 모인 호출을 실행할 Executor (@Async에 지정한 이름의 빈, 처음 호출될 때 찾음)
+   */
+  private Executor resolveExecutor(Method method) {
+    Async async = AnnotatedElementUtils.findMergedAnnotation(method, Async.class);
+    if (async == null) {
+      async = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Async.class);
+    }
+    String name = async == null || async.value().isEmpty() ? DEFAULT_EXECUTOR : async.value();
+    return beanFactory.getBean(name, Executor.class);
+  }
+}
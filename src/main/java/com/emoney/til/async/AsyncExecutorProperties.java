@@ -0,0 +1,214 @@
+package com.emoney.til.async;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * taskExecutor 설정 (async.executor.*)
+ */
+@ConfigurationProperties(prefix = "async.executor")
+public class AsyncExecutorProperties {
+
+  /**
+   * platform (기본값, 고정 스레드 풀), virtual (가상 스레드), adaptive (풀 크기 자동 조정)
+   */
+  private String mode = "platform";
+
+  private final Virtual virtual = new Virtual();
+
+  private final Adaptive adaptive = new Adaptive();
+
+  private final Overload overload = new Overload();
+
+  private final Bulkheads bulkhead = new Bulkheads();
+
+  public String getMode() {
+    return mode;
+  }
+
+  public void setMode(String mode) {
+    this.mode = mode;
+  }
+
+  public Virtual getVirtual() {
+    return virtual;
+  }
+
+  public Adaptive getAdaptive() {
+    return adaptive;
+  }
+
+  public Overload getOverload() {
+    return overload;
+  }
+
+  public Bulkheads getBulkhead() {
+    return bulkhead;
+  }
+
+  /**
+   * 가상 스레드 모드
+   */
+  public static class Virtual {
+
+    // 동시에 실행할 수 있는 작업 수
+    private int maxConcurrency = 1000;
+
+    // 실행 허가를 기다릴 수 있는 작업 수
+    private int maxWaiting = 10000;
+
+    public int getMaxConcurrency() {
+      return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+      this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMaxWaiting() {
+      return maxWaiting;
+    }
+
+    public void setMaxWaiting(int maxWaiting) {
+      this.maxWaiting = maxWaiting;
+    }
+  }
+
+  /**
+   * 풀 크기 자동 조정 모드
+   */
+  public static class Adaptive {
+
+    private int minPoolSize = 5;
+
+    private int maxPoolSize = 50;
+
+    private int queueCapacity = 100;
+
+    // 스레드가 바쁜 시간 비율 목표
+    private double targetUtilization = 0.8;
+
+    // 평균 큐 대기 시간이 이보다 길면 밀린 작업을 비울 스레드를 더함
+    private Duration targetQueueWait = Duration.ofMillis(50);
+
+    // 풀 크기 조정 주기
+    private Duration interval = Duration.ofSeconds(5);
+
+    public int getMinPoolSize() {
+      return minPoolSize;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+      this.minPoolSize = minPoolSize;
+    }
+
+    public int getMaxPoolSize() {
+      return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+      this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getQueueCapacity() {
+      return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+    }
+
+    public double getTargetUtilization() {
+      return targetUtilization;
+    }
+
+    public void setTargetUtilization(double targetUtilization) {
+      this.targetUtilization = targetUtilization;
+    }
+
+    public Duration getTargetQueueWait() {
+      return targetQueueWait;
+    }
+
+    public void setTargetQueueWait(Duration targetQueueWait) {
+      this.targetQueueWait = targetQueueWait;
+    }
+
+    public Duration getInterval() {
+      return interval;
+    }
+
+    public void setInterval(Duration interval) {
+      this.interval = interval;
+    }
+  }
+
+  /**
+   * 스레드 풀과 큐가 모두 가득 찼을 때의 처리 (platform, adaptive 모드)
+   */
+  public static class Overload {
+
+    /**
+     * fail (기본값), caller-runs, blocking-submit, shed-lowest-priority
+     */
+    private String policy = "fail";
+
+    // caller-runs: 호출 스레드마다 1초에 직접 실행할 수 있는 시간
+    private Duration callerRunBudget = Duration.ofMillis(100);
+
+    // blocking-submit: 큐에 자리가 나기를 기다리는 최대 시간
+    private Duration blockTimeout = Duration.ofMillis(500);
+
+    public String getPolicy() {
+      return policy;
+    }
+
+    public void setPolicy(String policy) {
+      this.policy = policy;
+    }
+
+    public Duration getCallerRunBudget() {
+      return callerRunBudget;
+    }
+
+    public void setCallerRunBudget(Duration callerRunBudget) {
+      this.callerRunBudget = callerRunBudget;
+    }
+
+    public Duration getBlockTimeout() {
+      return blockTimeout;
+    }
+
+    public void setBlockTimeout(Duration blockTimeout) {
+      this.blockTimeout = blockTimeout;
+    }
+  }
+
+  /**
+   * @Bulkhead 메서드의 구획 실행 (모든 모드)
+   */
+  public static class Bulkheads {
+
+    // false면 @Bulkhead를 무시하고 모든 메서드를 taskExecutor에서 실행
+    private boolean enabled = true;
+
+    // 어느 구획에도 예약되지 않고 빌려 쓰기에만 쓰이는 실행 자리 수
+    private int sharedCapacity = 2;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getSharedCapacity() {
+      return sharedCapacity;
+    }
+
+    public void setSharedCapacity(int sharedCapacity) {
+      this.sharedCapacity = sharedCapacity;
+    }
+  }
+}
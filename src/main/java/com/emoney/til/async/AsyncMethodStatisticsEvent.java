@@ -0,0 +1,56 @@
+package com.emoney.til.async;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * @Async 메서드별 누적 통계를 주기적으로 남기는 JFR 이벤트 (AsyncMetrics가 등록)
+ */
+@Name("com.emoney.til.AsyncMethodStatistics")
+@Label("Async Method Statistics")
+@Category({"Application", "Async"})
+@Description("@Async 메서드별 호출 수와 큐 대기/실행 시간 백분위")
+@Period("1 s")
+@StackTrace(false)
+class AsyncMethodStatisticsEvent extends Event {
+
+  @Label("Method")
+  String method;
+
+  @Label("Submitted")
+  long submitted;
+
+  @Label("Completed")
+  long completed;
+
+  @Label("Failed")
+  long failed;
+
+  @Label("Rejected")
+  long rejected;
+
+  @Label("In Flight")
+  int inFlight;
+
+  @Label("Queue Wait p50")
+  @Timespan(Timespan.NANOSECONDS)
+  long queueWaitP50;
+
+  @Label("Queue Wait p99")
+  @Timespan(Timespan.NANOSECONDS)
+  long queueWaitP99;
+
+  @Label("Run Time p50")
+  @Timespan(Timespan.NANOSECONDS)
+  long runTimeP50;
+
+  @Label("Run Time p99")
+  @Timespan(Timespan.NANOSECONDS)
+  long runTimeP99;
+}
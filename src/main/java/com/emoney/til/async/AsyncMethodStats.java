@@ -0,0 +1,129 @@
+package com.emoney.til.async;
+
+import com.emoney.til.metrics.LatencyHistogram;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Async 메서드별 실행 통계
+ *
+ * - queueWait: 제출부터 작업 스레드에서 실행을 시작하기까지 기다린 시간 (나노초)
+ * - runTime: 메서드를 실행한 시간 (나노초)
+ * - inFlight: 제출되어 아직 끝나지 않은 호출 수 (큐 대기 + 실행 중)
+ * - rejected: 과부하로 거부되거나 큐에서 버려진 호출 수 (실패와 따로 셈)
+ */
+public class AsyncMethodStats {
+
+  private final String name;
+
+  private final LatencyHistogram queueWait = new LatencyHistogram();
+  private final LatencyHistogram runTime = new LatencyHistogram();
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger running = new AtomicInteger();
+
+  AsyncMethodStats(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getSubmitted() {
+    return submitted.sum();
+  }
+
+  /**
+   * 실행이 끝난 호출 수 (실패 포함)
+   */
+  public long getCompleted() {
+    return completed.sum();
+  }
+
+  public long getFailed() {
+    return failed.sum();
+  }
+
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * 실행이 끝난 호출 중 실패한 비율 (0 ~ 1)
+   */
+  public double getFailureRate() {
+    long done = completed.sum();
+    return done == 0 ? 0 : Math.min(1.0, (double) failed.sum() / done);
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public int getRunning() {
+    return running.get();
+  }
+
+  public LatencyHistogram getQueueWait() {
+    return queueWait;
+  }
+
+  public LatencyHistogram getRunTime() {
+    return runTime;
+  }
+
+  public void reset() {
+    queueWait.reset();
+    runTime.reset();
+    submitted.reset();
+    completed.reset();
+    failed.reset();
+    rejected.reset();
+  }
+
+  void recordSubmitted() {
+    submitted.increment();
+    inFlight.incrementAndGet();
+  }
+
+  void recordRejected() {
+    rejected.increment();
+    inFlight.decrementAndGet();
+  }
+
+  void recordStarted(long queueWaitNanos) {
+    queueWait.record(queueWaitNanos);
+    running.incrementAndGet();
+  }
+
+  void recordFinished(long runNanos) {
+    runTime.record(runNanos);
+    completed.increment();
+    running.decrementAndGet();
+    inFlight.decrementAndGet();
+  }
+
+  void recordFailure() {
+    failed.increment();
+  }
+
+  @Override
+  public String toString() {
+    return "AsyncMethodStats{" +
+        "name='" + name + '\'' +
+        ", submitted=" + getSubmitted() +
+        ", completed=" + getCompleted() +
+        ", failed=" + getFailed() +
+        ", rejected=" + getRejected() +
+        ", inFlight=" + getInFlight() +
+        ", queueWait=" + queueWait +
+        ", runTime=" + runTime +
+        '}';
+  }
+}
@@ -0,0 +1,84 @@
+package com.emoney.til.async;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * @Async 메서드별 통계 저장소
+ *
+ * AsyncDispatchInterceptor가 제출/거부를, AsyncMetricsTaskDecorator가 작업 스레드에서의 시작/종료를,
+ * CustomAsyncExceptionHandler와 반환된 future가 실패를 기록합니다.
+ * 어떤 메서드가 taskExecutor를 차지하고 있는지는 메서드별 inFlight와 runTime, queueWait를 비교해 보면 알 수 있습니다.
+ *
+ * 통계는 /metrics/async 엔드포인트와 JFR 이벤트(com.emoney.til.AsyncMethodStatistics, com.emoney.til.AsyncTask)로 볼 수 있습니다.
+ */
+public class AsyncMetrics {
+
+  private static final AsyncMetrics GLOBAL = new AsyncMetrics();
+
+  static {
+    // JFR 기록 중에만 주기적으로 호출됨
+    FlightRecorder.addPeriodicEvent(AsyncMethodStatisticsEvent.class, GLOBAL::emitStatistics);
+  }
+
+  private final ConcurrentHashMap<String, AsyncMethodStats> methods = new ConcurrentHashMap<>();
+
+  /**
+   * 애플리케이션 전체에서 공유하는 저장소
+   */
+  public static AsyncMetrics global() {
+    return GLOBAL;
+  }
+
+  /**
+   * 통계 이름 (클래스 단순 이름.메서드 이름, 예: AsyncService.asyncMethod)
+   */
+  public static String nameOf(Method method) {
+    return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+  }
+
+  public AsyncMethodStats stats(Method method) {
+    return stats(nameOf(method));
+  }
+
+  public AsyncMethodStats stats(String name) {
+    AsyncMethodStats stats = methods.get(name);
+    return stats != null ? stats : methods.computeIfAbsent(name, AsyncMethodStats::new);
+  }
+
+  /**
+   * 이름 순으로 정렬한 모든 메서드 통계
+   */
+  public List<AsyncMethodStats> getMethods() {
+    List<AsyncMethodStats> result = new ArrayList<>(methods.values());
+    result.sort(Comparator.comparing(AsyncMethodStats::getName));
+    return result;
+  }
+
+  public void reset() {
+    for (AsyncMethodStats stats : methods.values()) {
+      stats.reset();
+    }
+  }
+
+  private void emitStatistics() {
+    for (AsyncMethodStats stats : methods.values()) {
+      AsyncMethodStatisticsEvent event = new AsyncMethodStatisticsEvent();
+      event.method = stats.getName();
+      event.submitted = stats.getSubmitted();
+      event.completed = stats.getCompleted();
+      event.failed = stats.getFailed();
+      event.rejected = stats.getRejected();
+      event.inFlight = stats.getInFlight();
+      event.queueWaitP50 = stats.getQueueWait().getPercentile(50);
+      event.queueWaitP99 = stats.getQueueWait().getPercentile(99);
+      event.runTimeP50 = stats.getRunTime().getPercentile(50);
+      event.runTimeP99 = stats.getRunTime().getPercentile(99);
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.emoney.til.async;
+
+import com.emoney.til.metrics.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * @Async 메서드별 통계 조회 API
+ *
+ * GET    /metrics/async : 메서드별 통계 (시간 단위는 나노초)
+ * DELETE /metrics/async : 통계 초기화 (inFlight/running은 현재 값이라 유지)
+ */
+@RestController
+@RequestMapping("/metrics/async")
+public class AsyncMetricsController {
+
+  private final AsyncMetrics metrics = AsyncMetrics.global();
+
+  @GetMapping
+  public List<Map<String, Object>> methods() {
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (AsyncMethodStats stats : metrics.getMethods()) {
+      Map<String, Object> summary = new LinkedHashMap<>();
+      summary.put("method", stats.getName());
+      summary.put("submitted", stats.getSubmitted());
+      summary.put("completed", stats.getCompleted());
+      summary.put("failed", stats.getFailed());
+      summary.put("failureRate", stats.getFailureRate());
+      summary.put("rejected", stats.getRejected());
+      summary.put("inFlight", stats.getInFlight());
+      summary.put("running", stats.getRunning());
+      summary.put("queueWaitNanos", summarize(stats.getQueueWait()));
+      summary.put("runTimeNanos", summarize(stats.getRunTime()));
+      result.add(summary);
+    }
+    return result;
+  }
+
+  @DeleteMapping
+  public void reset() {
+    metrics.reset();
+  }
+
+  private static Map<String, Object> summarize(LatencyHistogram histogram) {
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("count", histogram.getCount());
+    summary.put("mean", histogram.getMean());
+    summary.put("p50", histogram.getPercentile(50));
+    summary.put("p90", histogram.getPercentile(90));
+    summary.put("p99", histogram.getPercentile(99));
+    summary.put("max", histogram.getMax());
+    return summary;
+  }
+}
@@ -0,0 +1,39 @@
+package com.emoney.til.async;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * @Async 작업의 큐 대기 시간과 실행 시간을 메서드별로 기록하는 TaskDecorator
+ *
+ * decorate는 제출한 스레드에서 호출되므로 AsyncDispatch.current()로 어떤 메서드의 작업인지 알 수 있습니다.
+ * Executor를 직접 사용한 작업(AsyncDispatch 없음)은 감싸지 않습니다.
+ */
+public class AsyncMetricsTaskDecorator implements TaskDecorator {
+
+  @Override
+  public Runnable decorate(Runnable task) {
+    AsyncDispatch dispatch = AsyncDispatch.current();
+    if (dispatch == null || dispatch.getStats() == null) {
+      return task;
+    }
+    AsyncMethodStats stats = dispatch.getStats();
+    long submittedAt = dispatch.getSubmittedAt();
+    return () -> {
+      AsyncTaskEvent event = new AsyncTaskEvent();
+      event.begin();
+      long startedAt = System.nanoTime();
+      stats.recordStarted(startedAt - submittedAt);
+      try {
+        task.run();
+      } finally {
+        stats.recordFinished(System.nanoTime() - startedAt);
+        event.end();
+        if (event.shouldCommit()) {
+          event.method = stats.getName();
+          event.queueWait = startedAt - submittedAt;
+          event.commit();
+        }
+      }
+    };
+  }
+}
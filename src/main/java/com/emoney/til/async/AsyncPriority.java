@@ -0,0 +1,21 @@
+package com.emoney.til.async;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @Async 메서드의 우선순위 (클수록 중요, 기본값 0)
+ *
+ * 과부하 정책이 shed-lowest-priority이면 큐가 가득 찼을 때 가장 낮은 우선순위의 대기 작업부터 버리고,
+ * 큐에서도 우선순위가 높은 작업을 먼저 꺼냅니다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AsyncPriority {
+
+  int value();
+}
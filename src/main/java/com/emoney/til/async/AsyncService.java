@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 public class AsyncService {
   /**
    * 기본 비동기 메서드 (void 반환)
+   * 호출마다 1초씩 걸리므로 @Batchable로 묶지 않음 (묶인 호출은 한 작업에서 차례로 실행되어 100건이면 100초가 걸림)
    */
   @Async("taskExecutor")
   public void asyncMethod(int i) {
@@ -55,6 +56,42 @@ public class AsyncService {
     }
   }
 
+  /**
+   * 오래 걸리는 보고서 생성 비동기 메서드 (@Bulkhead 예시)
+   * 한 번에 2초씩 걸리므로 다른 메서드의 스레드를 차지하지 않도록 별도 구획에서 실행
+   * (동시 5건 + 빌리기 2건, 나머지는 구획 큐에서 25건까지 대기)
+   */
+  @Async("taskExecutor")
+  @Bulkhead(value = "slow-report", maxConcurrent = 5, maxBorrow = 2, queueCapacity = 25)
+  public CompletableFuture<String> asyncReportMethod(String reportId) {
+    try {
+      log.info("Build report asynchronously. Thread: {} - Report: {}",
+          Thread.currentThread().getName(), reportId);
+
+      // 작업 시뮬레이션
+      Thread.sleep(2000);
+
+      return CompletableFuture.completedFuture("Report: " + reportId);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Async report method was interrupted", e);
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * 이벤트 하나를 처리하는 아주 짧은 비동기 메서드
+   * 초당 수만 건씩 호출되므로 호출마다 작업을 제출하지 않고 모아서 한 작업으로 실행 (최대 100건 또는 10ms)
+   * 결과가 필요 없는 void 메서드도 같은 방식으로 묶을 수 있음
+   */
+  @Async("taskExecutor")
+  @Batchable(maxSize = 100, maxDelayMillis = 10)
+  public CompletableFuture<Integer> asyncBatchedMethod(int eventId) {
+    log.debug("Handle event {} in batch. Thread: {}", eventId, Thread.currentThread().getName());
+    return CompletableFuture.completedFuture(eventId);
+  }
+
   /**
    * 의도적으로 예외를 발생시키는 비동기 메서드
    */
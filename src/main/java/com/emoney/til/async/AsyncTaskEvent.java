@@ -0,0 +1,31 @@
+package com.emoney.til.async;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * @Async 메서드 한 번의 실행 JFR 이벤트
+ * 이벤트의 duration이 실행 시간입니다. (기본 임계값 10ms 이상만 기록)
+ */
+@Name("com.emoney.til.AsyncTask")
+@Label("Async Task")
+@Category({"Application", "Async"})
+@Description("작업 스레드에서 @Async 메서드를 실행한 구간")
+@Threshold("10 ms")
+@StackTrace(false)
+class AsyncTaskEvent extends Event {
+
+  @Label("Method")
+  String method;
+
+  @Label("Queue Wait")
+  @Description("제출부터 실행 시작까지 기다린 시간")
+  @Timespan(Timespan.NANOSECONDS)
+  long queueWait;
+}
@@ -0,0 +1,33 @@
+package com.emoney.til.async;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @Async 메서드 호출을 모아서 한 번의 작업으로 실행
+ *
+ * 아주 짧은 호출을 초당 수만 건 하면 호출마다 작업을 제출하고 스레드를 깨우는 비용이 실제 일보다 커집니다.
+ * 이 메서드의 호출은 바로 제출하지 않고 모아 두었다가, maxSize건이 모이거나 첫 호출 뒤 maxDelayMillis가 지나면
+ * 모인 호출을 작업 하나로 제출해서 순서대로 실행합니다. (MicroBatcher 참고)
+ * 호출자는 지금처럼 각자의 CompletableFuture를 받고, 각 호출이 끝나는 대로 따로 완료됩니다.
+ *
+ * @Async와 함께 써야 하며, 한 건씩 차례로 실행되므로 오래 걸리는 메서드에는 맞지 않습니다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Batchable {
+
+  /**
+   * 한 작업으로 묶을 최대 호출 수
+   */
+  int maxSize() default 100;
+
+  /**
+   * 첫 호출이 모인 뒤 이 시간이 지나면 모인 만큼 제출
+   */
+  long maxDelayMillis() default 10;
+}
@@ -0,0 +1,305 @@
+package com.emoney.til.async;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 용량 제한이 있는 우선순위 작업 큐
+ *
+ * 작업을 넣을 때 AsyncDispatch.current()의 우선순위(@AsyncPriority)를 함께 저장하고,
+ * 우선순위가 높은 작업부터, 같은 우선순위에서는 먼저 들어온 작업부터 꺼냅니다.
+ * PriorityBlockingQueue는 용량 제한이 없어서 스레드 풀의 거부 정책이 동작하지 않으므로 직접 구현했습니다.
+ * 가득 찼을 때 가장 낮은 우선순위의 작업을 새 작업으로 바꾸는 offerReplacingLowerThan은 OverloadPolicy.shedLowestPriority가 사용합니다.
+ */
+public class BoundedPriorityBlockingQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+  /**
+   * 큐에 들어간 작업 (dispatch는 @Async 호출이 아니면 null)
+   */
+  public record Entry(Runnable task, int priority, long seq, AsyncDispatch dispatch) {
+  }
+
+  private static final Comparator<Entry> ORDER =
+      Comparator.comparingInt(Entry::priority).reversed().thenComparingLong(Entry::seq);
+
+  private final int capacity;
+  private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  private long nextSeq;
+
+  public BoundedPriorityBlockingQueue(int capacity) {
+    // 0이면 항상 가득 찬 큐 (offerReplacingLowerThan도 바꿀 작업이 없으므로 거부)
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity는 0 이상이어야 합니다: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  @Override
+  public boolean offer(Runnable task) {
+    checkNotNull(task);
+    lock.lock();
+    try {
+      if (entries.size() >= capacity) {
+        return false;
+      }
+      insert(task);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+    checkNotNull(task);
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (entries.size() >= capacity) {
+        if (nanos <= 0) {
+          return false;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      insert(task);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(Runnable task) throws InterruptedException {
+    checkNotNull(task);
+    lock.lockInterruptibly();
+    try {
+      while (entries.size() >= capacity) {
+        notFull.await();
+      }
+      insert(task);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 큐에 넣되, 가득 찼으면 priority보다 낮은 우선순위의 작업 중 가장 늦게 꺼낼 작업을 빼고 그 자리에 넣음
+   *
+   * @param onEvicted 빠진 작업을 받음 (lock을 푼 뒤 호출)
+   * @return task가 큐에 들어갔으면 true
+   */
+  public boolean offerReplacingLowerThan(Runnable task, int priority, Consumer<Entry> onEvicted) {
+    checkNotNull(task);
+    Entry evicted = null;
+    lock.lock();
+    try {
+      if (entries.size() >= capacity) {
+        if (entries.isEmpty()) {
+          return false;
+        }
+        Entry lowest = entries.last();
+        if (lowest.priority() >= priority) {
+          return false;
+        }
+        evicted = entries.pollLast();
+      }
+      insert(task);
+    } finally {
+      lock.unlock();
+    }
+    if (evicted != null) {
+      onEvicted.accept(evicted);
+    }
+    return true;
+  }
+
+  @Override
+  public Runnable take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (entries.isEmpty()) {
+        notEmpty.await();
+      }
+      return extractFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (entries.isEmpty()) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      return extractFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable poll() {
+    lock.lock();
+    try {
+      return entries.isEmpty() ? null : extractFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable peek() {
+    lock.lock();
+    try {
+      return entries.isEmpty() ? null : entries.first().task();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    lock.lock();
+    try {
+      return capacity - entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean remove(Object task) {
+    lock.lock();
+    try {
+      for (Iterator<Entry> it = entries.iterator(); it.hasNext(); ) {
+        if (it.next().task() == task) {
+          it.remove();
+          notFull.signal();
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int drainTo(Collection<? super Runnable> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super Runnable> c, int maxElements) {
+    if (c == this) {
+      throw new IllegalArgumentException();
+    }
+    lock.lock();
+    try {
+      int drained = 0;
+      while (drained < maxElements && !entries.isEmpty()) {
+        c.add(entries.pollFirst().task());
+        drained++;
+      }
+      if (drained > 0) {
+        notFull.signalAll();
+      }
+      return drained;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 호출 시점의 스냅샷을 꺼내는 순서대로 순회 (remove는 큐에 반영)
+   */
+  @Override
+  public Iterator<Runnable> iterator() {
+    List<Runnable> snapshot = new ArrayList<>(size());
+    lock.lock();
+    try {
+      for (Entry entry : entries) {
+        snapshot.add(entry.task());
+      }
+    } finally {
+      lock.unlock();
+    }
+    return new Iterator<>() {
+      private int next;
+      private Runnable last;
+
+      @Override
+      public boolean hasNext() {
+        return next < snapshot.size();
+      }
+
+      @Override
+      public Runnable next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        last = snapshot.get(next++);
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        if (last == null) {
+          throw new IllegalStateException();
+        }
+        BoundedPriorityBlockingQueue.this.remove(last);
+        last = null;
+      }
+    };
+  }
+
+  private static void checkNotNull(Runnable task) {
+    if (task == null) {
+      throw new NullPointerException();
+    }
+  }
+
+  // lock을 잡은 상태에서 호출 (제출한 스레드의 AsyncDispatch로 우선순위를 정함)
+  private void insert(Runnable task) {
+    AsyncDispatch dispatch = AsyncDispatch.current();
+    int priority = dispatch == null ? 0 : dispatch.getPriority();
+    entries.add(new Entry(task, priority, nextSeq++, dispatch));
+    notEmpty.signal();
+  }
+
+  private Runnable extractFirst() {
+    Runnable task = entries.pollFirst().task();
+    notFull.signal();
+    return task;
+  }
+}
@@ -0,0 +1,186 @@
+package com.emoney.til.async;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 작업마다 가상 스레드 하나를 쓰고, 동시에 실행되는 작업 수만 세마포어로 제한하는 Executor
+ *
+ * 고정 스레드 풀(core 5, max 10)은 Thread.sleep이나 I/O로 대부분 기다리는 작업도 스레드 하나를 통째로 차지하므로
+ * 동시 처리량이 최대 스레드 수에서 막힙니다.
+ * 가상 스레드는 블로킹 중에 캐리어 스레드를 내려놓으므로 수만 개를 동시에 띄울 수 있고,
+ * 대신 하위 자원(DB 커넥션, 외부 API)을 보호하기 위해 동시 실행 수를 maxConcurrency로 제한합니다.
+ *
+ * - 실행 중: 세마포어 허가를 얻은 작업 (최대 maxConcurrency)
+ * - 대기 중: 허가를 기다리며 파킹된 가상 스레드 (최대 maxWaiting, 스레드 풀의 큐에 해당)
+ * 둘 다 가득 차면 rejectionHandler로 넘깁니다.
+ */
+@Slf4j
+public class BoundedVirtualThreadExecutor implements Executor, AutoCloseable {
+
+  private final Semaphore permits;
+  private final int maxConcurrency;
+  private final int maxInFlight;
+  private final ThreadFactory threadFactory;
+  private final Consumer<Runnable> rejectionHandler;
+
+  // 실행 중 + 대기 중인 작업 수
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  // 종료 시 남은 작업이 모두 끝나기를 기다림 (가상 스레드가 모니터에 고정되지 않도록 ReentrantLock 사용)
+  private final ReentrantLock terminationLock = new ReentrantLock();
+  private final Condition terminated = terminationLock.newCondition();
+
+  private volatile boolean closed;
+  private long awaitTerminationMillis = TimeUnit.SECONDS.toMillis(60);
+  private TaskDecorator taskDecorator;
+
+  /**
+   * @param threadNamePrefix 가상 스레드 이름 접두사 (뒤에 번호가 붙음)
+   * @param maxConcurrency 동시에 실행할 수 있는 작업 수
+   * @param maxWaiting 허가를 기다릴 수 있는 작업 수
+   * @param rejectionHandler 실행 중/대기 중이 모두 가득 찼거나 종료된 뒤 들어온 작업 처리
+   */
+  public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency, int maxWaiting,
+      Consumer<Runnable> rejectionHandler) {
+    if (maxConcurrency <= 0 || maxWaiting < 0) {
+      throw new IllegalArgumentException(
+          "maxConcurrency > 0, maxWaiting >= 0 이어야 합니다: " + maxConcurrency + ", " + maxWaiting);
+    }
+    this.permits = new Semaphore(maxConcurrency);
+    this.maxConcurrency = maxConcurrency;
+    this.maxInFlight = maxConcurrency + maxWaiting;
+    this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+    this.rejectionHandler = rejectionHandler;
+  }
+
+  /**
+   * 종료 시 실행 중인 작업을 기다리는 최대 시간
+   */
+  public void setAwaitTerminationSeconds(long seconds) {
+    this.awaitTerminationMillis = TimeUnit.SECONDS.toMillis(seconds);
+  }
+
+  /**
+   * 작업을 가상 스레드에 넘기기 전에 감쌀 TaskDecorator (제출한 스레드에서 호출됨)
+   */
+  public void setTaskDecorator(TaskDecorator taskDecorator) {
+    this.taskDecorator = taskDecorator;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    if (closed || !tryAdmit()) {
+      rejected.increment();
+      rejectionHandler.accept(task);
+      return;
+    }
+
+    Runnable decorated = taskDecorator == null ? task : taskDecorator.decorate(task);
+    try {
+      threadFactory.newThread(() -> run(decorated)).start();
+    } catch (RuntimeException | OutOfMemoryError e) {
+      // 가상 스레드를 만들지 못한 경우 (메모리 부족 등)
+      inFlight.decrementAndGet();
+      throw new RejectedExecutionException("가상 스레드를 시작하지 못했습니다", e);
+    }
+  }
+
+  private boolean tryAdmit() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= maxInFlight) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private void run(Runnable task) {
+    boolean acquired = false;
+    try {
+      permits.acquire();
+      acquired = true;
+      task.run();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Task interrupted while waiting for a permit");
+    } catch (Throwable t) {
+      // @Async 메서드의 예외는 스프링이 감싼 작업 안에서 AsyncUncaughtExceptionHandler로 처리되므로
+      // 여기까지 오는 것은 Executor를 직접 사용한 작업의 예외뿐
+      log.error("Uncaught exception in virtual thread task", t);
+    } finally {
+      if (acquired) {
+        permits.release();
+      }
+      completed.increment();
+      if (inFlight.decrementAndGet() == 0 && closed) {
+        terminationLock.lock();
+        try {
+          terminated.signalAll();
+        } finally {
+          terminationLock.unlock();
+        }
+      }
+    }
+  }
+
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * 지금 실행 중인 작업 수
+   */
+  public int getActiveCount() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  /**
+   * 허가를 기다리는 작업 수
+   */
+  public int getWaitingCount() {
+    return Math.max(0, inFlight.get() - getActiveCount());
+  }
+
+  public long getCompletedCount() {
+    return completed.sum();
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * 새 작업을 받지 않고, 실행 중/대기 중인 작업이 끝날 때까지 최대 awaitTermination만큼 기다림
+   */
+  @Override
+  public void close() throws InterruptedException {
+    closed = true;
+    long remaining = TimeUnit.MILLISECONDS.toNanos(awaitTerminationMillis);
+    terminationLock.lock();
+    try {
+      while (inFlight.get() > 0 && remaining > 0) {
+        remaining = terminated.awaitNanos(remaining);
+      }
+    } finally {
+      terminationLock.unlock();
+    }
+    if (inFlight.get() > 0) {
+      log.warn("Executor closed with {} tasks still running", inFlight.get());
+    }
+  }
+}
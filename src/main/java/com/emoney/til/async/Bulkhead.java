@@ -0,0 +1,42 @@
+package com.emoney.til.async;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @Async 메서드를 별도의 구획(bulkhead)에서 실행
+ *
+ * 같은 이름(value)의 메서드는 하나의 구획을 공유하고, 이름을 비우면 메서드마다 구획을 만듭니다.
+ * 구획은 maxConcurrent만큼의 실행 자리를 예약하므로 느린 메서드가 다른 메서드의 스레드를 차지하지 못하고,
+ * 다른 구획이 쓰지 않는 자리나 taskExecutor에 남는 자리를 maxBorrow까지 빌려 쓸 수 있습니다.
+ * 구획의 작업도 taskExecutor에서 실행되고, 큐까지 가득 차면 taskExecutor와 같은 과부하 정책을 따릅니다. (BulkheadExecutor 참고)
+ * 같은 이름의 구획 설정이 서로 다르면 처음 실행된 메서드의 설정을 따릅니다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+  /**
+   * 구획 이름 (비우면 "클래스.메서드")
+   */
+  String value() default "";
+
+  /**
+   * 예약된 동시 실행 수
+   */
+  int maxConcurrent() default 2;
+
+  /**
+   * 예약분을 넘어 빌려 쓸 수 있는 실행 자리 수 (taskExecutor의 남는 자리를 빌리는 것도 포함)
+   */
+  int maxBorrow() default 2;
+
+  /**
+   * 실행 자리를 기다릴 수 있는 작업 수 (넘으면 async.executor.overload.policy를 따름)
+   */
+  int queueCapacity() default 10;
+}
@@ -0,0 +1,656 @@
+package com.emoney.til.async;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * @Bulkhead 메서드를 구획별로 격리해서 실행하는 Executor
+ *
+ * 모든 @Async 메서드가 스레드 10개를 나눠 쓰면 2초씩 걸리는 메서드 하나가 스레드를 모두 차지해서
+ * 다른 메서드는 큐에서 기다리기만 합니다.
+ * @Bulkhead가 붙은 메서드는 구획마다 delegate(기존 taskExecutor)에 동시에 넘길 수 있는 작업 수를 제한하고,
+ * 나머지 메서드와 Executor를 직접 사용한 작업은 그대로 delegate로 넘깁니다.
+ * 구획의 작업도 delegate에서 실행되므로 가상 스레드 모드에서는 가상 스레드에서 실행됩니다.
+ *
+ * 실행 자리는 구획별 예약분(maxConcurrent)의 합 + sharedCapacity 입니다.
+ * - 구획은 예약분까지는 언제든 실행할 수 있고, 나머지는 자기 큐(queueCapacity)에서 기다림
+ * - 빈 자리가 있으면 maxBorrow까지 예약분을 넘어 실행 (다른 구획의 쉬고 있는 예약분과 공유분을 빌려 씀)
+ *   단, 예약분 안에서 기다리는 작업이 있는 구획의 몫은 빌려주지 않음
+ * - 실행 자리가 모자라도 delegate의 남는 자리가 비어 있는 실행 자리 수보다 많으면 그 차이를 빌려 씀
+ *   (남는 자리는 ThreadPoolTaskExecutor/BoundedVirtualThreadExecutor의 현재 상태로 추정, 그 외 Executor는 빌리지 않음)
+ * - 어디서 빌리든 구획의 동시 실행 수는 maxConcurrent + maxBorrow를 넘지 않음
+ *   (느린 구획이 delegate의 스레드를 모두 차지하면 격리한 의미가 없음)
+ * - 자리가 나면 예약분 안쪽의 대기 작업을 먼저 실행하고, 그다음 빌려 쓰는 대기 작업을 실행
+ * - 큐까지 가득 차면 taskExecutor와 같은 OverloadPolicy를 따름 (대기 순서와 밀어내기는 @AsyncPriority 기준)
+ * 그래서 빌려 간 작업이 끝날 때까지만 주인 구획이 기다릴 수 있고, 격리하면서도 스레드를 놀리지 않습니다.
+ * close()는 큐에서 기다리던 작업을 실행하지 않고 거부로 알립니다. (호출자의 future가 실패로 완료됨)
+ */
+@Slf4j
+public class BulkheadExecutor implements Executor, AutoCloseable {
+
+  private static final Compartment NONE = new Compartment("none", 0, 0, 0);
+
+  // CompartmentTask 상태
+  private static final int QUEUED = 0;
+  private static final int LAUNCHED = 1;
+  private static final int RUNNING = 2;
+  private static final int ABANDONED = 3;
+
+  // canStart 결과
+  private static final int NO_SLOT = 0;
+  private static final int RESERVED_OR_SHARED = 1;
+  private static final int DELEGATE = 2;
+
+  private final Executor delegate;
+  private final int sharedCapacity;
+  private final OverloadPolicy overloadPolicy;
+
+  // 메서드 -> 구획 (구획이 없는 메서드는 NONE)
+  private final Map<Method, Compartment> methodCompartments = new ConcurrentHashMap<>();
+  private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+  // 아래는 모두 lock으로 보호
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition idle = lock.newCondition();
+  private final List<Compartment> scheduleOrder = new ArrayList<>();
+  private int totalSlots;
+  // 실행 자리(예약분 + 공유분)에서 실행 중인 작업 수
+  private int busy;
+  // delegate의 남는 자리를 빌려 실행 중인 작업 수
+  private int delegateBorrowed;
+  private int nextStart;
+  private boolean closed;
+
+  private TaskDecorator taskDecorator;
+  private long awaitTerminationMillis = TimeUnit.SECONDS.toMillis(60);
+
+  public BulkheadExecutor(Executor delegate, int sharedCapacity) {
+    this(delegate, sharedCapacity, OverloadPolicy.fail());
+  }
+
+  /**
+   * @param delegate 모든 작업을 실행할 Executor (@Bulkhead가 없는 작업은 바로 넘김)
+   * @param sharedCapacity 어느 구획에도 예약되지 않은 실행 자리 수 (빌려 쓰기 전용)
+   * @param overloadPolicy 구획의 큐까지 가득 찼을 때의 처리
+   */
+  public BulkheadExecutor(Executor delegate, int sharedCapacity, OverloadPolicy overloadPolicy) {
+    if (sharedCapacity < 0) {
+      throw new IllegalArgumentException("sharedCapacity는 0 이상이어야 합니다: " + sharedCapacity);
+    }
+    this.delegate = delegate;
+    this.sharedCapacity = sharedCapacity;
+    this.overloadPolicy = overloadPolicy;
+    this.totalSlots = sharedCapacity;
+  }
+
+  /**
+   * 구획에 넣기 전에 작업을 감쌀 TaskDecorator (제출한 스레드에서 호출됨)
+   * 구획의 작업은 통계 없이 delegate에 넘기므로 delegate의 TaskDecorator는 기록하지 않습니다.
+   */
+  public void setTaskDecorator(TaskDecorator taskDecorator) {
+    this.taskDecorator = taskDecorator;
+  }
+
+  public void setAwaitTerminationSeconds(long seconds) {
+    this.awaitTerminationMillis = TimeUnit.SECONDS.toMillis(seconds);
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    AsyncDispatch dispatch = AsyncDispatch.current();
+    Compartment compartment = compartmentOf(dispatch);
+    if (compartment == null) {
+      delegate.execute(task);
+      return;
+    }
+
+    CompartmentTask entry = new CompartmentTask(compartment, taskDecorator == null ? task : taskDecorator.decorate(task),
+        dispatch);
+    boolean start = false;
+    lock.lock();
+    try {
+      if (closed) {
+        compartment.rejected.increment();
+        throw new RejectedExecutionException("Bulkhead executor is closed");
+      }
+      // 앞에서 기다리는 작업이 있으면 순서를 지키기 위해 뒤에 줄 섬
+      int slot = compartment.queue.isEmpty() ? canStart(compartment, true) : NO_SLOT;
+      if (slot != NO_SLOT) {
+        acquire(entry, slot);
+        start = true;
+      } else if (compartment.queue.offer(entry)) {
+        return;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (start) {
+      launch(entry, true);
+      return;
+    }
+    // 구획의 큐까지 가득 참: 호출 스레드에서 실행 / 자리가 날 때까지 대기 / 낮은 우선순위 작업 밀어내기 / 거부
+    try {
+      overloadPolicy.rejectedExecution(entry, new CompartmentTarget(compartment));
+    } catch (RejectedExecutionException e) {
+      compartment.rejected.increment();
+      throw e;
+    }
+  }
+
+  /**
+   * 이름 순 구획 목록
+   */
+  public List<Compartment> getCompartments() {
+    List<Compartment> result = new ArrayList<>(compartments.values());
+    result.sort((a, b) -> a.name.compareTo(b.name));
+    return result;
+  }
+
+  public Compartment getCompartment(String name) {
+    return compartments.get(name);
+  }
+
+  public int getSharedCapacity() {
+    return sharedCapacity;
+  }
+
+  /**
+   * 전체 실행 자리 수 (예약분 합 + 공유분)
+   */
+  public int getTotalSlots() {
+    lock.lock();
+    try {
+      return totalSlots;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 실행 자리(예약분 + 공유분)에서 실행 중인 구획 작업 수
+   */
+  public int getBusySlots() {
+    lock.lock();
+    try {
+      return busy;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * delegate의 남는 자리를 빌려 실행 중인 구획 작업 수
+   */
+  public int getDelegateBorrowed() {
+    lock.lock();
+    try {
+      return delegateBorrowed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * lock 안에서 호출: 구획의 작업 하나를 지금 시작할 수 있는 자리
+   *
+   * @param mayBorrowDelegate delegate의 남는 자리를 빌려도 되는지
+   */
+  private int canStart(Compartment compartment, boolean mayBorrowDelegate) {
+    if (busy < totalSlots && compartment.running < compartment.reserved) {
+      return RESERVED_OR_SHARED;
+    }
+    // 예약분을 넘는 자리는 실행 자리든 delegate의 남는 자리든 maxBorrow까지만 빌림
+    if (compartment.running >= compartment.reserved + compartment.maxBorrow) {
+      return NO_SLOT;
+    }
+    if (busy < totalSlots && busy + owedSlots() < totalSlots) {
+      return RESERVED_OR_SHARED;
+    }
+    // 비어 있는 실행 자리가 나중에 쓸 delegate의 자리는 남겨 둠
+    if (mayBorrowDelegate && delegateIdleCapacity() - (totalSlots - busy) > 0) {
+      return DELEGATE;
+    }
+    return NO_SLOT;
+  }
+
+  // 예약분 안에서 실행을 기다리는 작업 수 (빌려주면 안 되는 자리)
+  private int owedSlots() {
+    int owed = 0;
+    for (Compartment compartment : scheduleOrder) {
+      owed += Math.min(compartment.queue.size(), Math.max(0, compartment.reserved - compartment.running));
+    }
+    return owed;
+  }
+
+  /**
+   * delegate가 지금 더 실행할 수 있는 작업 수 (알 수 없는 Executor면 0)
+   */
+  private int delegateIdleCapacity() {
+    if (delegate instanceof ThreadPoolTaskExecutor pool) {
+      return pool.getMaxPoolSize() - pool.getActiveCount() - pool.getQueueSize();
+    }
+    if (delegate instanceof BoundedVirtualThreadExecutor executor) {
+      return executor.getMaxConcurrency() - executor.getActiveCount() - executor.getWaitingCount();
+    }
+    return 0;
+  }
+
+  // lock 안에서 호출
+  private void acquire(CompartmentTask task, int slot) {
+    Compartment compartment = task.compartment;
+    task.onDelegate = slot == DELEGATE;
+    if (task.onDelegate) {
+      delegateBorrowed++;
+    } else {
+      busy++;
+    }
+    compartment.running++;
+    compartment.started.increment();
+    if (compartment.running > compartment.reserved) {
+      compartment.borrowed.increment();
+    }
+    task.state.set(LAUNCHED);
+  }
+
+  /**
+   * 자리를 얻은 작업을 delegate에 넘김
+   * delegate의 과부하 정책이 우선순위를 알 수 있도록 메서드/우선순위만 가진 AsyncDispatch를 두고 넘기고
+   * (통계는 제출할 때 이미 감쌌으므로 delegate의 TaskDecorator는 건너뜀),
+   * delegate가 거부하거나 큐에서 버리면 자리를 돌려받고 호출자에게 거부로 알림
+   *
+   * 대기 작업을 넘기는 것은 작업을 마친 delegate의 스레드이므로 delegate의 과부하 정책이 그 스레드에서
+   * 실행하거나(caller-runs) 그 스레드를 재우지(blocking-submit) 않도록 막으면 안 되는 제출로 표시
+   *
+   * @param onCallerThread execute를 호출한 스레드면 true (거부를 예외로 던짐)
+   */
+  private void launch(CompartmentTask task, boolean onCallerThread) {
+    AsyncDispatch original = task.dispatch;
+    AsyncDispatch launched = new AsyncDispatch(original.getMethod(), original.getPriority(), null,
+        !onCallerThread || original.isNonBlocking());
+    launched.getDropped().whenComplete((ignored, ex) -> abandon(task, (RejectedExecutionException) ex));
+
+    AsyncDispatch previous = AsyncDispatch.enter(launched);
+    try {
+      delegate.execute(task);
+    } catch (RejectedExecutionException e) {
+      if (onCallerThread) {
+        // 호출자에게는 AsyncDispatchInterceptor가 실패한 future로 알림
+        if (task.state.compareAndSet(LAUNCHED, ABANDONED)) {
+          task.compartment.rejected.increment();
+          release(task, false);
+        }
+        throw e;
+      }
+      abandon(task, e);
+    } finally {
+      AsyncDispatch.exit(previous);
+    }
+  }
+
+  // 자리를 얻었지만 실행되지 못한 작업: 자리를 돌려받고 (완료로 세지 않음) 호출자에게 거부로 알림
+  private void abandon(CompartmentTask task, RejectedExecutionException reason) {
+    if (task.state.compareAndSet(LAUNCHED, ABANDONED)) {
+      task.compartment.rejected.increment();
+      release(task, false);
+      task.dispatch.drop(reason);
+    }
+  }
+
+  private void release(CompartmentTask finished, boolean completed) {
+    Compartment compartment = finished.compartment;
+    List<CompartmentTask> toLaunch;
+    lock.lock();
+    try {
+      if (finished.onDelegate) {
+        delegateBorrowed--;
+      } else {
+        busy--;
+      }
+      compartment.running--;
+      if (completed) {
+        compartment.completed.increment();
+      }
+      toLaunch = startQueued();
+      if (busy == 0 && delegateBorrowed == 0) {
+        idle.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+    for (CompartmentTask task : toLaunch) {
+      launch(task, false);
+    }
+  }
+
+  /**
+   * lock 안에서 호출: 자리가 난 만큼 대기 작업을 꺼내 자리를 줌
+   * 예약분 안쪽의 대기 작업을 먼저, 그다음 빌려 쓰는 대기 작업 (구획을 돌아가며 골라서 한 구획만 계속 먼저 실행되지 않도록 함)
+   * delegate의 남는 자리는 넘긴 작업이 반영되기 전에는 알 수 없으므로 한 번에 하나만 빌림
+   */
+  private List<CompartmentTask> startQueued() {
+    List<CompartmentTask> started = new ArrayList<>(1);
+    if (closed || scheduleOrder.isEmpty()) {
+      return started;
+    }
+    boolean mayBorrowDelegate = true;
+    int size = scheduleOrder.size();
+    boolean found = true;
+    while (found) {
+      found = false;
+      for (int pass = 0; pass < 2 && !found; pass++) {
+        for (int i = 0; i < size; i++) {
+          Compartment candidate = scheduleOrder.get((nextStart + i) % size);
+          if (candidate.queue.isEmpty() || (pass == 0 && candidate.running >= candidate.reserved)) {
+            continue;
+          }
+          int slot = canStart(candidate, mayBorrowDelegate);
+          if (slot == NO_SLOT) {
+            continue;
+          }
+          // 큐는 과부하 정책이 lock 밖에서도 넣고 빼므로 꺼낸 뒤에 확인
+          CompartmentTask task = (CompartmentTask) candidate.queue.poll();
+          if (task == null) {
+            continue;
+          }
+          acquire(task, slot);
+          started.add(task);
+          mayBorrowDelegate &= slot != DELEGATE;
+          nextStart = (nextStart + i + 1) % size;
+          found = true;
+          break;
+        }
+      }
+    }
+    return started;
+  }
+
+  private Compartment compartmentOf(AsyncDispatch dispatch) {
+    if (dispatch == null || dispatch.getMethod() == null) {
+      return null;
+    }
+    Method method = dispatch.getMethod();
+    Compartment compartment = methodCompartments.get(method);
+    if (compartment == null) {
+      compartment = methodCompartments.computeIfAbsent(method, this::resolve);
+    }
+    return compartment == NONE ? null : compartment;
+  }
+
+  private Compartment resolve(Method method) {
+    Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(method, Bulkhead.class);
+    if (bulkhead == null) {
+      bulkhead = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Bulkhead.class);
+    }
+    if (bulkhead == null) {
+      return NONE;
+    }
+    String name = bulkhead.value().isEmpty() ? AsyncMetrics.nameOf(method) : bulkhead.value();
+    Bulkhead settings = bulkhead;
+    Compartment compartment = compartments.computeIfAbsent(name, key -> register(key, settings));
+    if (compartment.reserved != bulkhead.maxConcurrent() || compartment.maxBorrow != bulkhead.maxBorrow()
+        || compartment.queueCapacity != bulkhead.queueCapacity()) {
+      log.warn("Bulkhead '{}' on {} has different settings, using the first: {}", name, method, compartment);
+    }
+    return compartment;
+  }
+
+  private Compartment register(String name, Bulkhead bulkhead) {
+    if (bulkhead.maxConcurrent() <= 0 || bulkhead.maxBorrow() < 0 || bulkhead.queueCapacity() < 0) {
+      throw new IllegalArgumentException("Bulkhead '" + name
+          + "': maxConcurrent > 0, maxBorrow >= 0, queueCapacity >= 0 이어야 합니다");
+    }
+    Compartment compartment =
+        new Compartment(name, bulkhead.maxConcurrent(), bulkhead.maxBorrow(), bulkhead.queueCapacity());
+    lock.lock();
+    try {
+      scheduleOrder.add(compartment);
+      totalSlots += compartment.reserved;
+    } finally {
+      lock.unlock();
+    }
+    log.info("Bulkhead '{}' registered (maxConcurrent={}, maxBorrow={}, queueCapacity={}, totalSlots={})",
+        name, compartment.reserved, compartment.maxBorrow, compartment.queueCapacity, totalSlots);
+    return compartment;
+  }
+
+  /**
+   * 새 작업을 받지 않고, 큐에서 기다리던 작업은 거부로 알린 뒤 실행 중인 작업이 끝나기를 기다리고 delegate도 종료
+   */
+  @Override
+  public void close() throws Exception {
+    List<Runnable> queued = new ArrayList<>();
+    lock.lock();
+    try {
+      closed = true;
+      for (Compartment compartment : scheduleOrder) {
+        compartment.queue.drainTo(queued);
+      }
+    } finally {
+      lock.unlock();
+    }
+    RejectedExecutionException reason = new RejectedExecutionException("Bulkhead executor is closed");
+    for (Runnable task : queued) {
+      CompartmentTask entry = (CompartmentTask) task;
+      if (entry.state.compareAndSet(QUEUED, ABANDONED)) {
+        entry.compartment.rejected.increment();
+        entry.dispatch.drop(reason);
+      }
+    }
+    if (!queued.isEmpty()) {
+      log.warn("Bulkhead executor closed, {} queued tasks rejected", queued.size());
+    }
+
+    long remaining = TimeUnit.MILLISECONDS.toNanos(awaitTerminationMillis);
+    lock.lock();
+    try {
+      while ((busy > 0 || delegateBorrowed > 0) && remaining > 0) {
+        remaining = idle.awaitNanos(remaining);
+      }
+      if (busy > 0 || delegateBorrowed > 0) {
+        log.warn("Bulkhead executor closed with {} tasks still running", busy + delegateBorrowed);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    // delegate는 빈으로 등록되지 않으므로 여기서 종료
+    if (delegate instanceof ThreadPoolTaskExecutor executor) {
+      executor.shutdown();
+    } else if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+
+  /**
+   * 구획의 작업 하나 (과부하 정책이 호출 스레드에서 실행하면 자리 없이 바로 실행)
+   */
+  private final class CompartmentTask implements Runnable {
+
+    private final Compartment compartment;
+    private final Runnable task;
+    private final AsyncDispatch dispatch;
+    private final AtomicInteger state = new AtomicInteger(QUEUED);
+    // lock 안에서 acquire가 정함
+    private boolean onDelegate;
+
+    private CompartmentTask(Compartment compartment, Runnable task, AsyncDispatch dispatch) {
+      this.compartment = compartment;
+      this.task = task;
+      this.dispatch = dispatch;
+    }
+
+    @Override
+    public void run() {
+      if (state.compareAndSet(LAUNCHED, RUNNING)) {
+        try {
+          task.run();
+        } finally {
+          release(this, true);
+        }
+      } else if (state.compareAndSet(QUEUED, RUNNING)) {
+        // 과부하 정책(caller-runs)이 자리를 얻지 않고 호출 스레드에서 실행
+        task.run();
+      }
+    }
+
+    @Override
+    public String toString() {
+      return task.toString();
+    }
+  }
+
+  /**
+   * 과부하 정책이 보는 구획 (큐에 직접 넣은 작업은 afterQueued에서 자리가 있으면 바로 시작)
+   */
+  private final class CompartmentTarget implements OverloadPolicy.Target {
+
+    private final Compartment compartment;
+
+    private CompartmentTarget(Compartment compartment) {
+      this.compartment = compartment;
+    }
+
+    @Override
+    public boolean isShutdown() {
+      lock.lock();
+      try {
+        return closed;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public BlockingQueue<Runnable> getQueue() {
+      return compartment.queue;
+    }
+
+    @Override
+    public boolean afterQueued(Runnable task) {
+      List<CompartmentTask> toLaunch;
+      lock.lock();
+      try {
+        if (closed) {
+          return !compartment.queue.remove(task);
+        }
+        toLaunch = startQueued();
+      } finally {
+        lock.unlock();
+      }
+      for (CompartmentTask started : toLaunch) {
+        launch(started, false);
+      }
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return "Bulkhead '" + compartment.name + "'";
+    }
+  }
+
+  /**
+   * 구획 하나의 설정과 상태
+   */
+  public static final class Compartment {
+
+    private final String name;
+    private final int reserved;
+    private final int maxBorrow;
+    private final int queueCapacity;
+
+    // 대기 작업 (@AsyncPriority 순, 과부하 정책이 lock 밖에서도 넣고 뺌)
+    private final BoundedPriorityBlockingQueue queue;
+    // lock으로 보호
+    private int running;
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private Compartment(String name, int reserved, int maxBorrow, int queueCapacity) {
+      this.name = name;
+      this.reserved = reserved;
+      this.maxBorrow = maxBorrow;
+      this.queueCapacity = queueCapacity;
+      this.queue = new BoundedPriorityBlockingQueue(queueCapacity);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getMaxConcurrent() {
+      return reserved;
+    }
+
+    public int getMaxBorrow() {
+      return maxBorrow;
+    }
+
+    public int getQueueCapacity() {
+      return queueCapacity;
+    }
+
+    /**
+     * 실행을 시작한 작업 수
+     */
+    public long getStarted() {
+      return started.sum();
+    }
+
+    /**
+     * 예약분을 넘어 빌린 자리에서 시작한 작업 수
+     */
+    public long getBorrowed() {
+      return borrowed.sum();
+    }
+
+    /**
+     * 실행 자리를 기다리는 작업 수
+     */
+    public int getQueued() {
+      return queue.size();
+    }
+
+    public long getCompleted() {
+      return completed.sum();
+    }
+
+    public long getRejected() {
+      return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+      return "Compartment{" +
+          "name='" + name + '\'' +
+          ", maxConcurrent=" + reserved +
+          ", maxBorrow=" + maxBorrow +
+          ", queueCapacity=" + queueCapacity +
+          ", started=" + getStarted() +
+          ", borrowed=" + getBorrowed() +
+          ", queued=" + getQueued() +
+          ", completed=" + getCompleted() +
+          ", rejected=" + getRejected() +
+          '}';
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package com.emoney.til.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 항목을 모아 두었다가 크기 또는 시간 기준으로 한 번에 넘기는 버퍼
+ *
+ * - 크기 기준: maxSize개가 모이면 add를 호출한 스레드에서 바로 넘김
+ * - 시간 기준: 빈 버퍼에 첫 항목이 들어온 뒤 maxDelay가 지나면 타이머 스레드에서 넘김
+ * 모인 항목은 flushHandler가 받습니다. (보통 작업 하나로 Executor에 제출)
+ * flushHandler는 타이머 스레드에서도 호출되므로 오래 막히면 안 됩니다. (isTimerThread()로 구분)
+ * close() 뒤에는 남은 항목을 넘기고, 새 항목은 RejectedExecutionException으로 거부합니다.
+ */
+@Slf4j
+public class MicroBatcher<T> {
+
+  // 시간 기준 flush용 타이머 (모든 MicroBatcher가 공유, 넘기기만 하므로 스레드 하나로 충분)
+  private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, TimerThread::new);
+
+  static {
+    TIMER.setRemoveOnCancelPolicy(true);
+  }
+
+  private final String name;
+  private final int maxSize;
+  private final long maxDelayNanos;
+  private final Consumer<List<T>> flushHandler;
+
+  // 아래 필드는 lock으로 보호
+  private final ReentrantLock lock = new ReentrantLock();
+  private List<T> buffer;
+  private ScheduledFuture<?> timer;
+  // 버퍼를 꺼낼 때마다 증가 (이전 버퍼의 타이머가 늦게 실행되어도 무시하기 위함)
+  private long generation;
+  private boolean closed;
+
+  private final LongAdder items = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder sizeFlushes = new LongAdder();
+  private final LongAdder timeFlushes = new LongAdder();
+
+  public MicroBatcher(String name, int maxSize, long maxDelay, TimeUnit unit, Consumer<List<T>> flushHandler) {
+    if (maxSize <= 0 || maxDelay < 0) {
+      throw new IllegalArgumentException("maxSize > 0, maxDelay >= 0 이어야 합니다: " + maxSize + ", " + maxDelay);
+    }
+    this.name = name;
+    this.maxSize = maxSize;
+    this.maxDelayNanos = unit.toNanos(maxDelay);
+    this.flushHandler = flushHandler;
+    this.buffer = new ArrayList<>(maxSize);
+  }
+
+  /**
+   * 항목 추가 (maxSize가 차면 이 스레드에서 바로 넘김)
+   */
+  public void add(T item) {
+    List<T> full = null;
+    lock.lock();
+    try {
+      if (closed) {
+        throw new RejectedExecutionException("MicroBatcher '" + name + "' is closed");
+      }
+      items.increment();
+      buffer.add(item);
+      if (buffer.size() >= maxSize) {
+        full = takeBuffer();
+      } else if (buffer.size() == 1) {
+        long current = generation;
+        timer = TIMER.schedule(() -> flushOnTimer(current), maxDelayNanos, TimeUnit.NANOSECONDS);
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (full != null) {
+      sizeFlushes.increment();
+      handOver(full);
+    }
+  }
+
+  /**
+   * 모인 항목을 기다리지 않고 바로 넘김
+   */
+  public void flush() {
+    List<T> batch;
+    lock.lock();
+    try {
+      batch = buffer.isEmpty() ? null : takeBuffer();
+    } finally {
+      lock.unlock();
+    }
+    if (batch != null) {
+      handOver(batch);
+    }
+  }
+
+  /**
+   * 남은 항목을 이 스레드에서 넘기고, 이후의 add는 거부
+   */
+  public void close() {
+    List<T> batch;
+    lock.lock();
+    try {
+      closed = true;
+      batch = buffer.isEmpty() ? null : takeBuffer();
+    } finally {
+      lock.unlock();
+    }
+    if (batch != null) {
+      handOver(batch);
+    }
+  }
+
+  /**
+   * 지금 스레드가 시간 기준 flush를 실행하는 타이머 스레드인지
+   */
+  public static boolean isTimerThread() {
+    return Thread.currentThread() instanceof TimerThread;
+  }
+
+  private void flushOnTimer(long scheduledGeneration) {
+    List<T> batch;
+    lock.lock();
+    try {
+      // 그사이 크기 기준이나 flush로 이미 제출되었으면 새 버퍼의 타이머가 따로 있음
+      if (scheduledGeneration != generation || buffer.isEmpty()) {
+        return;
+      }
+      timer = null;
+      batch = takeBuffer();
+    } finally {
+      lock.unlock();
+    }
+    timeFlushes.increment();
+    handOver(batch);
+  }
+
+  // lock 안에서 호출
+  private List<T> takeBuffer() {
+    List<T> batch = buffer;
+    buffer = new ArrayList<>(maxSize);
+    generation++;
+    if (timer != null) {
+      timer.cancel(false);
+      timer = null;
+    }
+    return batch;
+  }
+
+  private void handOver(List<T> batch) {
+    batches.increment();
+    try {
+      flushHandler.accept(batch);
+    } catch (RuntimeException e) {
+      // 타이머 스레드가 죽지 않도록 여기서 끊음 (항목 실패 처리는 flushHandler 몫)
+      log.error("Flushing {} items of '{}' failed", batch.size(), name, e);
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * 지금 버퍼에 모여 있는 항목 수
+   */
+  public int getPending() {
+    lock.lock();
+    try {
+      return buffer.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getItemCount() {
+    return items.sum();
+  }
+
+  public long getBatchCount() {
+    return batches.sum();
+  }
+
+  public long getSizeFlushCount() {
+    return sizeFlushes.sum();
+  }
+
+  public long getTimeFlushCount() {
+    return timeFlushes.sum();
+  }
+
+  /**
+   * 작업 하나에 묶인 평균 항목 수
+   */
+  public double getAverageBatchSize() {
+    long count = batches.sum();
+    return count == 0 ? 0 : (double) items.sum() / count;
+  }
+
+  private static final class TimerThread extends Thread {
+
+    private TimerThread(Runnable task) {
+      super(task, "micro-batch-timer");
+      setDaemon(true);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "MicroBatcher{" +
+        "name='" + name + '\'' +
+        ", items=" + getItemCount() +
+        ", batches=" + getBatchCount() +
+        ", sizeFlushes=" + getSizeFlushCount() +
+        ", timeFlushes=" + getTimeFlushCount() +
+        '}';
+  }
+}
@@ -0,0 +1,347 @@
+package com.emoney.til.async;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 스레드 풀과 큐가 모두 가득 찼을 때의 처리 정책 (과부하 시 역압)
+ *
+ * 로그만 남기고 작업을 버리면 @Async 호출자는 영영 완료되지 않는 future를 기다리게 됩니다.
+ * 여기의 정책은 모두 마지막에는 RejectedExecutionException을 던지고,
+ * AsyncDispatchInterceptor가 이를 호출자에게 실패한 CompletableFuture로 돌려줍니다.
+ * - fail: 바로 거부
+ * - callerRuns: 호출한 스레드에서 직접 실행 (호출자가 느려지면서 자연스럽게 제출 속도가 줄어듦),
+ *   단 호출 스레드마다 1초에 쓸 수 있는 실행 시간을 제한하고 넘으면 거부
+ *   (실행 전에 예상 시간으로 판단하는 느슨한 한도라 작업 하나가 예상보다 오래 걸린 만큼은 넘칠 수 있음)
+ * - blockingSubmit: 큐에 자리가 날 때까지 최대 timeout만큼 호출자를 대기시키고 그래도 없으면 거부
+ * - shedLowestPriority: 큐에서 들어온 작업보다 우선순위가 낮은 작업을 버리고 그 자리에 넣음 (BoundedPriorityBlockingQueue 필요)
+ * 제출하는 스레드를 막으면 안 되는 작업(AsyncDispatch.isNonBlocking)은 callerRuns/blockingSubmit에서도 바로 거부합니다.
+ * 스레드 풀뿐 아니라 BulkheadExecutor의 구획처럼 대기열이 있는 다른 Executor도 Target으로 같은 정책을 씁니다.
+ */
+public abstract class OverloadPolicy implements RejectedExecutionHandler {
+
+  protected final LongAdder rejected = new LongAdder();
+
+  /**
+   * 자리가 없어 정책이 처리할 작업을 받은 곳 (스레드 풀 또는 BulkheadExecutor의 구획)
+   */
+  public interface Target {
+
+    boolean isShutdown();
+
+    /**
+     * 작업 대기열 (blockingSubmit, shedLowestPriority가 직접 넣음)
+     */
+    BlockingQueue<Runnable> getQueue();
+
+    /**
+     * 정책이 getQueue()에 작업을 넣은 뒤 호출
+     *
+     * @return 그사이 종료되어 작업을 다시 뺐으면 false
+     */
+    boolean afterQueued(Runnable task);
+  }
+
+  public static OverloadPolicy fail() {
+    return new Fail();
+  }
+
+  public static OverloadPolicy callerRuns(long budget, TimeUnit unit) {
+    return new CallerRuns(unit.toNanos(budget));
+  }
+
+  public static OverloadPolicy blockingSubmit(long timeout, TimeUnit unit) {
+    return new BlockingSubmit(unit.toNanos(timeout));
+  }
+
+  public static OverloadPolicy shedLowestPriority() {
+    return new ShedLowestPriority();
+  }
+
+  public abstract String getName();
+
+  /**
+   * 정책별 카운터 (이름 -> 값, 추가된 순서 유지)
+   */
+  public Map<String, Long> getCounters() {
+    Map<String, Long> counters = new LinkedHashMap<>();
+    addCounters(counters);
+    counters.put("rejected", rejected.sum());
+    return counters;
+  }
+
+  /**
+   * 스레드 풀의 대기 큐가 BoundedPriorityBlockingQueue여야 하는지
+   */
+  public boolean requiresPriorityQueue() {
+    return false;
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  protected void addCounters(Map<String, Long> counters) {
+  }
+
+  // 지금 제출하는 스레드를 막으면 안 되는지 (타이머 스레드에서 제출한 묶음 작업 등)
+  protected static boolean submitterMustNotBlock() {
+    AsyncDispatch dispatch = AsyncDispatch.current();
+    return dispatch != null && dispatch.isNonBlocking();
+  }
+
+  @Override
+  public final void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+    rejectedExecution(task, new PoolTarget(executor));
+  }
+
+  /**
+   * 자리가 없는 작업 처리 (받아들이지 못하면 RejectedExecutionException)
+   */
+  public abstract void rejectedExecution(Runnable task, Target target);
+
+  protected RejectedExecutionException reject(Runnable task, Target target, String reason) {
+    rejected.increment();
+    return new RejectedExecutionException(
+        "Task " + task + " rejected from " + target + " by " + getName() + " policy: " + reason);
+  }
+
+  @Override
+  public String toString() {
+    return getName() + getCounters();
+  }
+
+  private record PoolTarget(ThreadPoolExecutor executor) implements Target {
+
+    @Override
+    public boolean isShutdown() {
+      return executor.isShutdown();
+    }
+
+    @Override
+    public BlockingQueue<Runnable> getQueue() {
+      return executor.getQueue();
+    }
+
+    @Override
+    public boolean afterQueued(Runnable task) {
+      // 기다리는 사이 종료되었으면 큐에 남은 작업은 실행되지 않음
+      return !(executor.isShutdown() && executor.remove(task));
+    }
+
+    @Override
+    public String toString() {
+      return executor.toString();
+    }
+  }
+
+  /**
+   * 바로 거부
+   */
+  static final class Fail extends OverloadPolicy {
+
+    @Override
+    public String getName() {
+      return "fail";
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, Target target) {
+      throw reject(task, target, "pool and queue are full");
+    }
+  }
+
+  /**
+   * 호출 스레드에서 실행, 호출 스레드마다 1초 구간에 budgetNanos까지만
+   *
+   * 실행 중인 작업을 멈출 수는 없으므로 실행 전에 "이미 쓴 시간 + 이 작업의 예상 시간"이 예산을 넘으면 거부합니다.
+   * 예상 시간은 @Async 메서드의 실행 시간 중앙값(AsyncMethodStats.runTime)이고, 기록이 없으면 0으로 봅니다.
+   * 따라서 예산은 느슨한 한도로, 구간마다 마지막 작업 하나가 예상보다 오래 걸린 만큼 넘칠 수 있습니다.
+   * (기록이 없는 작업은 예산이 남아 있는 한 실행되므로 그 작업의 실행 시간만큼 넘칠 수 있음)
+   */
+  static final class CallerRuns extends OverloadPolicy {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long budgetNanos;
+    private final LongAdder callerRan = new LongAdder();
+    private final LongAdder callerRunNanos = new LongAdder();
+
+    // 호출 스레드별 [구간 시작 시각, 구간 안에서 쓴 시간]
+    private final ThreadLocal<long[]> usage = ThreadLocal.withInitial(() -> new long[2]);
+
+    CallerRuns(long budgetNanos) {
+      if (budgetNanos <= 0) {
+        throw new IllegalArgumentException("budget은 0보다 커야 합니다: " + budgetNanos);
+      }
+      this.budgetNanos = budgetNanos;
+    }
+
+    @Override
+    public String getName() {
+      return "caller-runs";
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, Target target) {
+      if (target.isShutdown()) {
+        throw reject(task, target, "executor is shut down");
+      }
+      if (submitterMustNotBlock()) {
+        throw reject(task, target, "submitting thread must not run tasks");
+      }
+      long[] window = usage.get();
+      long now = System.nanoTime();
+      if (now - window[0] >= WINDOW_NANOS) {
+        window[0] = now;
+        window[1] = 0;
+      }
+      if (window[1] >= budgetNanos || window[1] + expectedRunNanos() > budgetNanos) {
+        throw reject(task, target, "caller-run budget exhausted");
+      }
+
+      callerRan.increment();
+      try {
+        task.run();
+      } finally {
+        long elapsed = System.nanoTime() - now;
+        window[1] += elapsed;
+        callerRunNanos.add(elapsed);
+      }
+    }
+
+    // 지금 제출하는 @Async 메서드의 실행 시간 중앙값 (기록이 없으면 0)
+    private static long expectedRunNanos() {
+      AsyncDispatch dispatch = AsyncDispatch.current();
+      AsyncMethodStats stats = dispatch == null ? null : dispatch.getStats();
+      if (stats == null || stats.getRunTime().getCount() == 0) {
+        return 0;
+      }
+      return stats.getRunTime().getPercentile(50);
+    }
+
+    @Override
+    protected void addCounters(Map<String, Long> counters) {
+      counters.put("callerRan", callerRan.sum());
+      counters.put("callerRunMillis", TimeUnit.NANOSECONDS.toMillis(callerRunNanos.sum()));
+    }
+  }
+
+  /**
+   * 큐에 자리가 날 때까지 최대 timeoutNanos 대기
+   */
+  static final class BlockingSubmit extends OverloadPolicy {
+
+    private final long timeoutNanos;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+
+    BlockingSubmit(long timeoutNanos) {
+      if (timeoutNanos < 0) {
+        throw new IllegalArgumentException("timeout은 0 이상이어야 합니다: " + timeoutNanos);
+      }
+      this.timeoutNanos = timeoutNanos;
+    }
+
+    @Override
+    public String getName() {
+      return "blocking-submit";
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, Target target) {
+      if (target.isShutdown()) {
+        throw reject(task, target, "executor is shut down");
+      }
+      if (submitterMustNotBlock()) {
+        throw reject(task, target, "submitting thread must not block");
+      }
+      long startedAt = System.nanoTime();
+      boolean queued;
+      try {
+        queued = target.getQueue().offer(task, timeoutNanos, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw reject(task, target, "interrupted while waiting for queue space");
+      } finally {
+        blockedNanos.add(System.nanoTime() - startedAt);
+      }
+      if (!queued) {
+        timedOut.increment();
+        throw reject(task, target, "no queue space within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms");
+      }
+      if (!target.afterQueued(task)) {
+        throw reject(task, target, "executor is shut down");
+      }
+      accepted.increment();
+    }
+
+    @Override
+    protected void addCounters(Map<String, Long> counters) {
+      counters.put("acceptedAfterWait", accepted.sum());
+      counters.put("timedOut", timedOut.sum());
+      counters.put("blockedMillis", TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum()));
+    }
+  }
+
+  /**
+   * 들어온 작업보다 우선순위가 낮은 대기 작업을 버림
+   */
+  static final class ShedLowestPriority extends OverloadPolicy {
+
+    private final LongAdder shed = new LongAdder();
+
+    @Override
+    public String getName() {
+      return "shed-lowest-priority";
+    }
+
+    @Override
+    public boolean requiresPriorityQueue() {
+      return true;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, Target target) {
+      if (target.isShutdown()) {
+        throw reject(task, target, "executor is shut down");
+      }
+      if (!(target.getQueue() instanceof BoundedPriorityBlockingQueue queue)) {
+        throw reject(task, target, "queue is not a BoundedPriorityBlockingQueue");
+      }
+      AsyncDispatch dispatch = AsyncDispatch.current();
+      int priority = dispatch == null ? 0 : dispatch.getPriority();
+
+      if (!queue.offerReplacingLowerThan(task, priority, evicted -> drop(evicted, target))) {
+        throw reject(task, target, "no queued task with priority lower than " + priority);
+      }
+      if (!target.afterQueued(task)) {
+        throw reject(task, target, "executor is shut down");
+      }
+    }
+
+    private void drop(BoundedPriorityBlockingQueue.Entry evicted, Target target) {
+      shed.increment();
+      RejectedExecutionException reason = new RejectedExecutionException("Task " + evicted.task() + " shed from "
+          + target + " for a higher priority task (priority " + evicted.priority() + ")");
+      if (evicted.dispatch() != null) {
+        evicted.dispatch().drop(reason);
+      } else if (evicted.task() instanceof Future<?> future) {
+        future.cancel(false);
+      }
+    }
+
+    @Override
+    protected void addCounters(Map<String, Long> counters) {
+      counters.put("shed", shed.sum());
+    }
+  }
+}
@@ -1,9 +1,18 @@
 package com.emoney.til.hanghae99.day1;
 
+import com.emoney.til.hanghae99.day1.lock.BackoffPolicy;
+import com.emoney.til.hanghae99.day1.lock.StripedLock;
+import com.emoney.til.metrics.LatencyHistogram;
+import com.emoney.til.metrics.LockProfiler;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -12,8 +21,30 @@ import java.util.concurrent.locks.ReentrantLock;
  * 데이터베이스 동시성 문제 해결 예제
  * 이 클래스는 실제 데이터베이스를 사용하진 않지만, 데이터베이스 동시성 문제를 시뮬레이션하고
  * 다양한 해결책을 보여줍니다.
+ *
+ * 방식마다 자료구조가 달라서 재고를 저장하는 테이블도 방식별로 따로 있습니다. (addProduct가 모두 같은 재고로 만듦)
+ * - products: 낙관적/비관적 락, MVCC, 요청 합치기, 재고 예약 (MVCC 테이블은 이 테이블의 변경 이력)
+ * - lockFreeProducts: CAS
+ * - stampedProducts: StampedLock
+ * - shardedStocks: 분산 카운터 (처음 사용할 때 products의 그 시점 재고로 시작하고, 이후에는 따로 관리)
+ * 그래서 한 방식으로 줄인 재고는 다른 방식의 테이블에 반영되지 않습니다.
+ * 각 방식을 같은 조건에서 비교하려고 일부러 테이블을 나눈 것이므로, 조회도 그 방식의 테이블만 읽습니다.
+ * 예를 들어 snapshotStampedStock은 stampedProducts만 읽는 일괄 조회이고(상품들 사이의 같은 시점도 보장하지 않음),
+ * products 전체를 한 시점 기준으로 읽으려면 MVCC를 켜고 scanAllStock을 사용해야 합니다.
+ *
+ * MVCC 테이블은 new DatabaseConcurrencyExample(true)로 만든 경우에만 사용합니다.
+ * 켜면 products의 모든 쓰기가 하나의 커밋 시각 카운터를 거치므로, 스트라이프로 나눈 쓰기도 그 지점에서 다시 모입니다.
+ * 락 방식끼리 비교할 때(기본 생성자, 벤치마크)는 이 비용이 섞이지 않도록 꺼 둡니다.
+ *
+ * 스트라이프 락을 쓰면 products와 MVCC 테이블의 락은 상품 수와 관계없이 일정합니다.
+ * (상품은 비관적 락의 stripe를 함께 쓰고, MVCC 테이블은 자체 stripe로 행을 보호)
+ * stampedProducts만 상품마다 StampedLock을 둡니다. 낙관적 읽기는 스탬프로 그 사이의 쓰기를 확인하는데,
+ * 여러 상품이 stripe를 나눠 쓰면 다른 상품의 쓰기에도 읽기가 실패하므로 비교용 방식 그대로 상품별로 둡니다.
+ * 조회 메서드도 방식별로 나뉘어 있으므로 getStock(method, productId)처럼 방식을 지정하거나 방식 이름이 붙은 메서드로 읽어야 합니다.
+ *
+ * 재고를 예약하면 만료를 처리하는 스레드가 시작되므로 다 쓰고 나면 close()로 멈춰야 합니다.
  */
-public class DatabaseConcurrencyExample {
+public class DatabaseConcurrencyExample implements AutoCloseable {
     
     // 데이터베이스 테이블을 시뮬레이션하는 맵
     private final ConcurrentHashMap<String, Product> products = new ConcurrentHashMap<>();
@@ -21,52 +52,156 @@ public class DatabaseConcurrencyExample {
     // 낙관적 락을 사용하는 방식에서의 버전 충돌 카운터
     private final AtomicInteger versionConflicts = new AtomicInteger(0);
     
+    // 낙관적 락의 요청당 충돌 횟수와 시도별 소요 시간(나노초) 분포
+    private final LatencyHistogram conflictsPerRequest = new LatencyHistogram();
+    private final LatencyHistogram attemptLatency = new LatencyHistogram();
+    
+    // 낙관적 락 충돌 시 재시도 정책 (기본값: 3회 시도, 10ms 고정 대기)
+    private volatile BackoffPolicy backoffPolicy = BackoffPolicy.fixed(3, 10, TimeUnit.MILLISECONDS);
+    
     // 특정 제품에 대한 락을 관리하는 맵 (비관적 락 시뮬레이션)
     private final ConcurrentHashMap<String, Lock> productLocks = new ConcurrentHashMap<>();
     
+    // 락 없이 CAS로 재고를 관리하는 테이블 (CAS 방식 시뮬레이션)
+    private final ConcurrentHashMap<String, LockFreeProduct> lockFreeProducts = new ConcurrentHashMap<>();
+    
+    // 낙관적 읽기(StampedLock)로 조회하는 테이블 (읽기가 대부분인 상품 조회)
+    private final ConcurrentHashMap<String, StampedProduct> stampedProducts = new ConcurrentHashMap<>();
+    
+    // 상품 테이블(products)의 쓰기마다 새 버전을 추가하는 테이블 (보고용 전체 조회를 락 없이 한 시점 기준으로 읽음)
+    // MVCC를 켜지 않았으면 null
+    private final MvccProductTable mvccProducts;
+    
+    // 재고를 여러 버킷으로 나누어 관리하는 테이블 (인기 상품 분산 카운터)
+    // 버킷마다 캐시 라인을 하나씩 쓰므로 처음 요청된 상품만 생성
+    private final ConcurrentHashMap<String, ShardedStockCounter> shardedStocks = new ConcurrentHashMap<>();
+    
+    // 분산 카운터의 버킷 개수
+    private final int stockShards = Runtime.getRuntime().availableProcessors();
+    
+    // 같은 상품에 대한 요청을 모아 한 번에 처리하는 combiner (플랫 컴바이닝)
+    private final ConcurrentHashMap<String, StockCombiner> combiners = new ConcurrentHashMap<>();
+    
+    // 스트라이프 락 테이블 (null이면 제품별 락 맵을 사용)
+    private final StripedLock stripedLock;
+    
+    // 유효 시간이 있는 재고 예약 (상품 테이블의 재고를 비관적 락으로 차감/반환, 10ms 단위로 만료 처리)
+    private final StockReservations reservations = new StockReservations(this, 10, TimeUnit.MILLISECONDS, System::nanoTime);
+    
     /**
      * 제품 모델 클래스 - 낙관적 락을 위한 버전 필드 포함
+     *
+     * synchronized 메서드 안에서 가상 스레드가 블로킹되면 캐리어 스레드에 고정(pinning)되어
+     * 다른 가상 스레드가 그 캐리어를 쓸 수 없게 되므로, 모니터 대신 Lock으로 보호합니다.
+     * 테이블의 상품은 상품마다 락을 만들지 않고 비관적 락(스트라이프 락 또는 상품별 락)을 함께 쓰므로
+     * 비관적 락 방식은 같은 락을 재진입할 뿐 락을 두 개 잡지 않습니다.
+     * MVCC를 켠 경우 재고가 바뀔 때마다 같은 락 안에서 MVCC 테이블에 새 버전을 추가하므로 버전은 변경 순서대로 쌓입니다.
      */
     public static class Product {
         private final String id;
+        private final Lock lock;
+        private final MvccProductTable versions;
         private int stock;
         private long version;
         
         public Product(String id, int stock) {
+            this(id, stock, null, new ReentrantLock());
+        }
+        
+        /**
+         * @param lock 상품 테이블의 비관적 락 (재진입 가능해야 하고, 스트라이프 락이면 다른 상품과 공유)
+         */
+        Product(String id, int stock, MvccProductTable versions, Lock lock) {
             this.id = id;
             this.stock = stock;
             this.version = 1;
+            this.versions = versions;
+            this.lock = lock;
         }
         
-        public synchronized int getStock() {
-            return stock;
+        public int getStock() {
+            lock.lock();
+            try {
+                return stock;
+            } finally {
+                lock.unlock();
+            }
         }
         
-        public synchronized long getVersion() {
-            return version;
+        public long getVersion() {
+            lock.lock();
+            try {
+                return version;
+            } finally {
+                lock.unlock();
+            }
         }
         
-        public synchronized void setStock(int stock) {
-            this.stock = stock;
+        public void setStock(int stock) {
+            lock.lock();
+            try {
+                this.stock = stock;
+                publish();
+            } finally {
+                lock.unlock();
+            }
         }
         
-        public synchronized boolean decreaseStock(int quantity, long expectedVersion) {
-            if (this.version != expectedVersion) {
-                return false; // 낙관적 락 충돌
-            }
-            
-            if (stock < quantity) {
-                return false; // 재고 부족
+        public boolean decreaseStock(int quantity, long expectedVersion) {
+            lock.lock();
+            try {
+                if (this.version != expectedVersion) {
+                    return false; // 낙관적 락 충돌
+                }
+                
+                if (stock < quantity) {
+                    return false; // 재고 부족
+                }
+                
+                stock -= quantity;
+                version++; // 버전 증가
+                publish();
+                return true;
+            } finally {
+                lock.unlock();
             }
-            
-            stock -= quantity;
-            version++; // 버전 증가
-            return true;
         }
         
-        public synchronized void decreaseStock(int quantity) {
-            if (stock >= quantity) {
+        public void decreaseStock(int quantity) {
+            tryDecreaseStock(quantity);
+        }
+        
+        /**
+         * 재고가 충분하면 감소
+         */
+        public boolean tryDecreaseStock(int quantity) {
+            lock.lock();
+            try {
+                if (stock < quantity) {
+                    return false;
+                }
                 stock -= quantity;
+                publish();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        public void increaseStock(int quantity) {
+            lock.lock();
+            try {
+                stock += quantity;
+                publish();
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        // lock을 잡은 상태에서 호출
+        private void publish() {
+            if (versions != null) {
+                versions.insert(id, stock);
             }
         }
         
@@ -81,57 +216,311 @@ public class DatabaseConcurrencyExample {
     }
     
     /**
-     * 초기 데이터 설정
+     * 초기 데이터 설정 (MVCC 테이블 없음)
      */
     public DatabaseConcurrencyExample() {
+        this(null, false);
+    }
+    
+    /**
+     * MVCC 테이블 사용 여부를 지정하는 설정
+     *
+     * @param mvcc true면 상품 테이블의 쓰기마다 MVCC 테이블에 새 버전을 추가 (scanAllStock, 스냅샷, mvcc 방식)
+     */
+    public DatabaseConcurrencyExample(boolean mvcc) {
+        this(null, mvcc);
+    }
+    
+    /**
+     * 스트라이프 락을 사용하는 비관적 락 설정
+     * 제품 수와 관계없이 락은 stripe 개수만큼만 생성됩니다.
+     *
+     * @param lockStripes 비관적 락에 사용할 stripe 개수
+     */
+    public DatabaseConcurrencyExample(int lockStripes) {
+        this(new StripedLock(lockStripes), false);
+    }
+    
+    private DatabaseConcurrencyExample(StripedLock stripedLock, boolean mvcc) {
+        this.stripedLock = stripedLock;
+        this.mvccProducts = mvcc ? new MvccProductTable() : null;
+        
         // 초기 상품 데이터 추가
-        products.put("P1", new Product("P1", 100));
-        products.put("P2", new Product("P2", 200));
-        products.put("P3", new Product("P3", 150));
+        addProduct("P1", 100);
+        addProduct("P2", 200);
+        addProduct("P3", 150);
+    }
+    
+    /**
+     * 상품 추가 (INSERT 시뮬레이션)
+     * 스트라이프 락을 사용하지 않는 경우에만 제품별 락을 함께 생성하고, 상품은 그 락(또는 stripe)으로 보호합니다.
+     */
+    public void addProduct(String productId, int stock) {
+        Lock lock;
+        if (stripedLock != null) {
+            lock = stripedLock.getLock(productId);
+        } else {
+            lock = LockProfiler.global().newLock("DatabaseConcurrencyExample.product");
+            productLocks.put(productId, lock);
+        }
         
-        // 제품별 락 초기화
-        products.keySet().forEach(key -> productLocks.put(key, new ReentrantLock()));
+        // 첫 버전을 먼저 넣어야 새 상품의 쓰기가 남긴 버전을 초기 재고가 덮어쓰지 않음
+        if (mvccProducts != null) {
+            mvccProducts.insert(productId, stock);
+        }
+        products.put(productId, new Product(productId, stock, mvccProducts, lock));
+        lockFreeProducts.put(productId, new LockFreeProduct(productId, stock));
+        stampedProducts.put(productId, new StampedProduct(productId, stock));
+        shardedStocks.remove(productId);
+        combiners.remove(productId);
     }
     
     /**
-     * 낙관적 락을 사용한 재고 감소 (JPA @Version 어노테이션 시뮬레이션)
+     * 상품 테이블(products)의 상품 조회
      */
-    public boolean decreaseStockWithOptimisticLock(String productId, int quantity) {
-        boolean success = false;
-        int maxRetries = 3;
-        int retries = 0;
+    public Product getProduct(String productId) {
+        return products.get(productId);
+    }
+    
+    /**
+     * CAS 방식으로 관리되는 상품 조회
+     */
+    public LockFreeProduct getLockFreeProduct(String productId) {
+        return lockFreeProducts.get(productId);
+    }
+    
+    /**
+     * 낙관적 읽기(StampedLock) 방식으로 관리되는 상품 조회
+     */
+    public StampedProduct getStampedProduct(String productId) {
+        return stampedProducts.get(productId);
+    }
+    
+    /**
+     * 다중 버전(MVCC) 상품 테이블 조회 (상품 테이블의 변경 이력, 스냅샷 조회용)
+     *
+     * @throws IllegalStateException MVCC를 켜지 않고 만든 경우
+     */
+    public MvccProductTable getMvccProducts() {
+        if (mvccProducts == null) {
+            throw new IllegalStateException("MVCC 테이블을 사용하려면 new DatabaseConcurrencyExample(true)로 만들어야 합니다.");
+        }
+        return mvccProducts;
+    }
+    
+    /**
+     * 상품 테이블(products)의 전체 재고를 한 시점 기준으로 조회 (MVCC 테이블, 보고용 조회)
+     * 행 락을 잡지 않으므로 조회 중에도 쓰기가 막히지 않고, 조회 중의 쓰기는 결과에 섞이지 않습니다.
+     *
+     * @return 상품 ID 순서의 상품 ID -> 재고
+     */
+    public Map<String, Integer> scanAllStock() {
+        return getMvccProducts().scan();
+    }
+    
+    /**
+     * StampedLock 테이블(stampedProducts)에서 여러 상품의 재고를 한 번에 조회
+     * decreaseStockWithStampedLock으로 줄인 재고만 반영되고, 다른 방식의 테이블은 읽지 않습니다.
+     * 상품마다 낙관적 읽기로 읽으므로 재고를 변경하는 쓰기를 막지 않습니다.
+     * 상품 하나의 재고와 버전은 같은 시점의 값이지만, 상품들 사이에서는 같은 시점이 보장되지 않습니다.
+     *
+     * @return 요청한 순서대로 상품 ID -> 재고 (없는 상품은 제외)
+     */
+    public Map<String, Integer> snapshotStampedStock(Collection<String> productIds) {
+        Map<String, Integer> result = new LinkedHashMap<>(Math.max(16, productIds.size() * 4 / 3 + 1));
+        for (String productId : productIds) {
+            StampedProduct product = stampedProducts.get(productId);
+            if (product != null) {
+                result.put(productId, product.getStock());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 분산 카운터로 관리되는 상품 조회 (아직 생성되지 않았으면 상품 테이블의 지금 재고로 생성)
+     */
+    public ShardedStockCounter getShardedStock(String productId) {
+        ShardedStockCounter counter = shardedStocks.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        
+        Product product = products.get(productId);
+        if (product == null) {
+            return null;
+        }
+        return shardedStocks.computeIfAbsent(productId,
+                key -> new ShardedStockCounter(stockShards, product.getStock()));
+    }
+    
+    /**
+     * 상품의 요청 combiner 조회 (아직 생성되지 않았으면 생성)
+     */
+    public StockCombiner getCombiner(String productId) {
+        StockCombiner combiner = combiners.get(productId);
+        if (combiner != null) {
+            return combiner;
+        }
+        
+        Product product = products.get(productId);
+        Lock lock = lockFor(productId);
+        if (product == null || lock == null) {
+            return null;
+        }
+        return combiners.computeIfAbsent(productId, key -> new StockCombiner(product, lock));
+    }
+    
+    /**
+     * 재고 예약 (재고를 바로 차감하고, TTL 안에 확정하지 않으면 되돌림)
+     *
+     * @return 예약 ID (재고가 부족하면 -1)
+     */
+    public long reserveStock(String productId, int quantity, long ttl, TimeUnit unit) {
+        return reservations.start().reserve(productId, quantity, ttl, unit);
+    }
+    
+    /**
+     * 예약 확정
+     */
+    public boolean confirmReservation(long reservationId) {
+        return reservations.confirm(reservationId);
+    }
+    
+    /**
+     * 예약 취소 (재고 반환)
+     */
+    public boolean cancelReservation(long reservationId) {
+        return reservations.cancel(reservationId);
+    }
+    
+    public StockReservations getReservations() {
+        return reservations;
+    }
+    
+    /**
+     * 재고 예약의 만료 스레드 종료 (예약을 쓰지 않았으면 아무 일도 하지 않음)
+     * 닫은 뒤에 다시 예약하면 만료 스레드가 다시 시작되므로 그때도 닫아야 합니다.
+     */
+    @Override
+    public void close() {
+        reservations.close();
+    }
+    
+    /**
+     * 재고 반환 (예약 취소/만료 시, 비관적 락 사용)
+     */
+    public void releaseStock(String productId, int quantity) {
+        Lock lock = lockFor(productId);
+        if (lock == null) {
+            return;
+        }
         
-        while (!success && retries < maxRetries) {
+        lock.lock();
+        try {
             Product product = products.get(productId);
-            if (product == null) {
-                return false;
+            if (product != null) {
+                product.increaseStock(quantity);
             }
-            
-            long currentVersion = product.getVersion();
-            
-            if (product.decreaseStock(quantity, currentVersion)) {
-                success = true;
-            } else {
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 낙관적 락 충돌 시 재시도 정책 변경
+     */
+    public void setBackoffPolicy(BackoffPolicy backoffPolicy) {
+        this.backoffPolicy = backoffPolicy;
+    }
+    
+    public int getVersionConflicts() {
+        return versionConflicts.get();
+    }
+    
+    /**
+     * 낙관적 락 요청당 버전 충돌 횟수 분포
+     */
+    public LatencyHistogram getConflictsPerRequest() {
+        return conflictsPerRequest;
+    }
+    
+    /**
+     * 낙관적 락 시도 한 번(버전 조회 ~ 갱신)의 소요 시간 분포 (나노초)
+     */
+    public LatencyHistogram getAttemptLatency() {
+        return attemptLatency;
+    }
+    
+    /**
+     * 비관적 락에 사용 중인 락 객체의 개수
+     */
+    public int getLockCount() {
+        return stripedLock != null ? stripedLock.size() : productLocks.size();
+    }
+    
+    /**
+     * 제품에 해당하는 비관적 락 조회
+     */
+    private Lock lockFor(String productId) {
+        if (stripedLock != null) {
+            return products.containsKey(productId) ? stripedLock.getLock(productId) : null;
+        }
+        return productLocks.get(productId);
+    }
+    
+    /**
+     * 낙관적 락을 사용한 재고 감소 (JPA @Version 어노테이션 시뮬레이션)
+     */
+    public boolean decreaseStockWithOptimisticLock(String productId, int quantity) {
+        BackoffPolicy policy = backoffPolicy;
+        int conflicts = 0;
+        long delayNanos = 0;
+        
+        try {
+            while (conflicts < policy.maxAttempts()) {
+                Product product = products.get(productId);
+                if (product == null) {
+                    return false;
+                }
+                
+                long attemptStart = System.nanoTime();
+                long currentVersion = product.getVersion();
+                boolean success = product.decreaseStock(quantity, currentVersion);
+                attemptLatency.record(System.nanoTime() - attemptStart);
+                
+                if (success) {
+                    return true;
+                }
+                
+                // 재고 부족은 재시도해도 성공할 수 없으므로 충돌로 세지 않고 바로 실패
+                if (product.getStock() < quantity) {
+                    return false;
+                }
+                
                 versionConflicts.incrementAndGet();
-                retries++;
+                conflicts++;
                 
-                // 실제 환경에서는 여기서 약간의 지연을 추가할 수 있음
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+                // 마지막 시도가 아니라면 정책에 따라 대기 후 재시도
+                if (conflicts < policy.maxAttempts()) {
+                    delayNanos = policy.delayNanos(conflicts, delayNanos);
+                    if (!BackoffPolicy.pause(delayNanos)) {
+                        return false;
+                    }
                 }
             }
+            
+            return false;
+        } finally {
+            conflictsPerRequest.record(conflicts);
         }
-        
-        return success;
     }
     
     /**
      * 비관적 락을 사용한 재고 감소 (SELECT FOR UPDATE 시뮬레이션)
      */
     public boolean decreaseStockWithPessimisticLock(String productId, int quantity) {
-        Lock lock = productLocks.get(productId);
+        Lock lock = lockFor(productId);
         if (lock == null) {
             return false;
         }
@@ -154,26 +543,161 @@ public class DatabaseConcurrencyExample {
         }
     }
     
+    /**
+     * CAS(Compare-And-Swap)를 사용한 재고 감소
+     * 재고와 버전을 하나의 값으로 묶어 원자적으로 갱신하므로 모니터를 잡지 않습니다.
+     */
+    public boolean decreaseStockWithCas(String productId, int quantity) {
+        LockFreeProduct product = lockFreeProducts.get(productId);
+        if (product == null) {
+            return false;
+        }
+        
+        return product.decreaseStock(quantity);
+    }
+    
+    /**
+     * StampedLock을 사용한 재고 감소
+     * 조회는 낙관적 읽기로 쓰기를 막지 않고, 재고 감소만 쓰기 락을 잡습니다.
+     */
+    public boolean decreaseStockWithStampedLock(String productId, int quantity) {
+        StampedProduct product = stampedProducts.get(productId);
+        if (product == null) {
+            return false;
+        }
+        
+        return product.decreaseStock(quantity);
+    }
+    
+    /**
+     * MVCC 방식의 재고 감소
+     * 상품 행 락을 잡고 재고를 바꾼 뒤 같은 락 안에서 새 버전을 추가하고,
+     * 조회(scanAllStock, 스냅샷)는 행 락 없이 버전을 읽으므로 쓰기를 막지 않습니다.
+     *
+     * @throws IllegalStateException MVCC를 켜지 않고 만든 경우
+     */
+    public boolean decreaseStockWithMvcc(String productId, int quantity) {
+        getMvccProducts();
+        Product product = products.get(productId);
+        return product != null && product.tryDecreaseStock(quantity);
+    }
+    
+    /**
+     * 분산 카운터를 사용한 재고 감소
+     * 스레드마다 다른 버킷에서 차감하므로 하나의 값을 두고 경쟁하지 않습니다.
+     */
+    public boolean decreaseStockWithShardedCounter(String productId, int quantity) {
+        ShardedStockCounter counter = getShardedStock(productId);
+        if (counter == null) {
+            return false;
+        }
+        
+        return counter.tryDecrease(quantity);
+    }
+    
+    /**
+     * 요청을 모아서 처리하는 재고 감소 (플랫 컴바이닝)
+     * 락을 잡은 스레드 하나가 대기 중인 요청을 한꺼번에 처리하고 각자의 결과를 돌려줍니다.
+     */
+    public boolean decreaseStockWithCombining(String productId, int quantity) {
+        StockCombiner combiner = getCombiner(productId);
+        if (combiner == null) {
+            return false;
+        }
+        
+        return combiner.decrease(quantity);
+    }
+    
+    /**
+     * 전략 이름에 해당하는 방식으로 재고 감소
+     */
+    public boolean decreaseStock(String method, String productId, int quantity) {
+        switch (method) {
+            case "optimistic":
+                return decreaseStockWithOptimisticLock(productId, quantity);
+            case "cas":
+                return decreaseStockWithCas(productId, quantity);
+            case "stamped":
+                return decreaseStockWithStampedLock(productId, quantity);
+            case "mvcc":
+                return decreaseStockWithMvcc(productId, quantity);
+            case "sharded":
+                return decreaseStockWithShardedCounter(productId, quantity);
+            case "combining":
+                return decreaseStockWithCombining(productId, quantity);
+            default:
+                return decreaseStockWithPessimisticLock(productId, quantity);
+        }
+    }
+    
+    /**
+     * 전략에 해당하는 테이블의 상품 상태
+     */
+    private Object stateOf(String method, String productId) {
+        if ("cas".equals(method)) {
+            return lockFreeProducts.get(productId);
+        }
+        if ("stamped".equals(method)) {
+            return stampedProducts.get(productId);
+        }
+        if ("mvcc".equals(method)) {
+            return getMvccProducts().getStock(productId);
+        }
+        if ("sharded".equals(method)) {
+            return getShardedStock(productId);
+        }
+        return products.get(productId);
+    }
+    
+    /**
+     * 전략에 해당하는 테이블의 현재 재고 (상품이 없으면 -1)
+     */
+    public int getStock(String method, String productId) {
+        Object state = stateOf(method, productId);
+        if (state instanceof LockFreeProduct product) {
+            return product.getStock();
+        }
+        if (state instanceof StampedProduct product) {
+            return product.getStock();
+        }
+        if (state instanceof ShardedStockCounter counter) {
+            return counter.getStock();
+        }
+        if (state instanceof Product product) {
+            return product.getStock();
+        }
+        if (state instanceof Integer stock) {
+            return stock;
+        }
+        return -1;
+    }
+    
     /**
      * 동시성 테스트를 위한 메서드
      */
     public void testConcurrency(int threadCount, String method) throws InterruptedException {
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-        CountDownLatch latch = new CountDownLatch(threadCount);
+        testConcurrency(threadCount, method, false);
+    }
+    
+    /**
+     * 동시성 테스트 실행
+     *
+     * @param requestCount 동시 요청 수
+     * @param virtualThreads true면 요청마다 가상 스레드 하나를 사용 (10만 건 이상의 동시 요청도 가능)
+     */
+    public void testConcurrency(int requestCount, String method, boolean virtualThreads) throws InterruptedException {
+        ExecutorService executor = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(requestCount);
+        CountDownLatch latch = new CountDownLatch(requestCount);
         
         // 테스트 전 상품 상태 출력
-        System.out.println("테스트 전 상태: " + products.get("P1"));
+        System.out.println("테스트 전 상태: " + stateOf(method, "P1"));
         
-        for (int i = 0; i < threadCount; i++) {
+        for (int i = 0; i < requestCount; i++) {
             executor.submit(() -> {
                 try {
-                    boolean result;
-                    
-                    if ("optimistic".equals(method)) {
-                        result = decreaseStockWithOptimisticLock("P1", 1);
-                    } else {
-                        result = decreaseStockWithPessimisticLock("P1", 1);
-                    }
+                    boolean result = decreaseStock(method, "P1", 1);
                     
                     // System.out.println(Thread.currentThread().getName() + ": " + result);
                 } finally {
@@ -186,9 +710,11 @@ public class DatabaseConcurrencyExample {
         executor.shutdown();
         
         // 테스트 후 상품 상태 출력
-        System.out.println("테스트 후 상태: " + products.get("P1"));
+        System.out.println("테스트 후 상태: " + stateOf(method, "P1"));
         if ("optimistic".equals(method)) {
             System.out.println("낙관적 락 충돌 횟수: " + versionConflicts.get());
+            System.out.println("요청당 충돌 횟수 분포: " + conflictsPerRequest);
+            System.out.println("시도별 소요 시간 분포(ns): " + attemptLatency);
         }
     }
     
@@ -205,5 +731,51 @@ public class DatabaseConcurrencyExample {
         System.out.println("\n===== 비관적 락 테스트 =====");
         DatabaseConcurrencyExample pessimisticTest = new DatabaseConcurrencyExample();
         pessimisticTest.testConcurrency(threadCount, "pessimistic");
+        
+        System.out.println("\n===== CAS 테스트 =====");
+        DatabaseConcurrencyExample casTest = new DatabaseConcurrencyExample();
+        casTest.testConcurrency(threadCount, "cas");
+        
+        System.out.println("\n===== StampedLock 테스트 =====");
+        DatabaseConcurrencyExample stampedTest = new DatabaseConcurrencyExample();
+        stampedTest.testConcurrency(threadCount, "stamped");
+        System.out.println("재고 일괄 조회: " + stampedTest.snapshotStampedStock(List.of("P1", "P2", "P3")));
+        
+        System.out.println("\n===== MVCC 테스트 =====");
+        DatabaseConcurrencyExample mvccTest = new DatabaseConcurrencyExample(true);
+        try (MvccProductTable.Snapshot snapshot = mvccTest.getMvccProducts().openSnapshot()) {
+            mvccTest.testConcurrency(threadCount, "mvcc");
+            System.out.println("테스트 전 시점의 전체 재고: " + snapshot.scan());
+            System.out.println("현재 전체 재고: " + mvccTest.scanAllStock());
+            System.out.println("남아 있는 버전 수: " + mvccTest.getMvccProducts().getVersionCount());
+        }
+        System.out.println("스냅샷을 닫은 뒤 버전 수: " + mvccTest.getMvccProducts().getVersionCount());
+        
+        System.out.println("\n===== 분산 카운터 테스트 =====");
+        DatabaseConcurrencyExample shardedTest = new DatabaseConcurrencyExample();
+        shardedTest.testConcurrency(threadCount, "sharded");
+        
+        System.out.println("\n===== 요청 합치기(플랫 컴바이닝) 테스트 =====");
+        DatabaseConcurrencyExample combiningTest = new DatabaseConcurrencyExample();
+        combiningTest.testConcurrency(threadCount, "combining");
+
+        System.out.println("\n===== 재고 예약 테스트 =====");
+        try (DatabaseConcurrencyExample reservationTest = new DatabaseConcurrencyExample()) {
+            long confirmed = reservationTest.reserveStock("P1", 3, 1, TimeUnit.MINUTES);
+            long expiring = reservationTest.reserveStock("P1", 2, 100, TimeUnit.MILLISECONDS);
+            reservationTest.confirmReservation(confirmed);
+            System.out.println("예약 직후 재고: " + reservationTest.getProduct("P1").getStock() + " (예약 " + expiring + " 대기 중)");
+            Thread.sleep(300);
+            System.out.println("만료 후 재고: " + reservationTest.getProduct("P1").getStock()
+                    + ", 만료 " + reservationTest.getReservations().getExpiredCount() + "건");
+        }
+
+        // 가상 스레드 모드: 요청마다 가상 스레드 하나 (10만 건 동시 요청)
+        int virtualRequestCount = 100_000;
+        for (String method : new String[]{"optimistic", "pessimistic", "cas", "stamped", "mvcc", "sharded", "combining"}) {
+            System.out.println("\n===== 가상 스레드 " + method + " 테스트 (" + virtualRequestCount + "건) =====");
+            DatabaseConcurrencyExample virtualTest = new DatabaseConcurrencyExample("mvcc".equals(method));
+            virtualTest.testConcurrency(virtualRequestCount, method, true);
+        }
     }
 }
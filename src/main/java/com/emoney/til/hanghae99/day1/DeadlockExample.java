@@ -1,5 +1,12 @@
 package com.emoney.til.hanghae99.day1;
 
+import com.emoney.til.hanghae99.day1.lock.DeadlockDetector;
+import com.emoney.til.hanghae99.day1.lock.DeadlockVictimException;
+import com.emoney.til.hanghae99.day1.lock.InstrumentedLock;
+import com.emoney.til.hanghae99.day1.lock.WaitForGraph;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
 /**
  * 데드락을 발생시키는 예제 클래스
  * 두 스레드가 서로 다른 순서로 두 개의 리소스를 획득하려고 할 때 데드락이 발생합니다.
@@ -77,6 +84,60 @@ public class DeadlockExample {
         }
     }
 
+    /**
+     * 같은 교착 상태를 InstrumentedLock으로 재현하고, 데드락 탐지기로 찾아서 푸는 시연
+     * 탐지기가 희생자 스레드 하나를 중단시키므로 이 메서드는 정상적으로 끝납니다.
+     */
+    public void demonstrateDeadlockDetection() {
+        WaitForGraph graph = new WaitForGraph();
+        Lock lock1 = new InstrumentedLock("resource1", graph, 10, TimeUnit.MILLISECONDS);
+        Lock lock2 = new InstrumentedLock("resource2", graph, 10, TimeUnit.MILLISECONDS);
+
+        try (DeadlockDetector detector = new DeadlockDetector(graph, 100, TimeUnit.MILLISECONDS, true,
+                report -> System.out.println(report))) {
+            detector.start();
+
+            Thread thread1 = new Thread(() -> lockInOrder(lock1, lock2), "Thread-1");
+            Thread thread2 = new Thread(() -> lockInOrder(lock2, lock1), "Thread-2");
+
+            thread1.start();
+            thread2.start();
+
+            try {
+                thread1.join();
+                thread2.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void lockInOrder(Lock first, Lock second) {
+        String name = Thread.currentThread().getName();
+        first.lock();
+        try {
+            System.out.println(name + ": 첫 번째 락 획득");
+
+            try {
+                // 데드락 발생 가능성을 높이기 위해 잠시 대기
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            second.lock();
+            try {
+                System.out.println(name + ": 두 번째 락 획득");
+            } finally {
+                second.unlock();
+            }
+        } catch (DeadlockVictimException e) {
+            System.out.println(name + ": " + e.getMessage());
+        } finally {
+            first.unlock();
+        }
+    }
+
     public static void main(String[] args) {
         DeadlockExample example = new DeadlockExample();
         example.demonstrateDeadlock();
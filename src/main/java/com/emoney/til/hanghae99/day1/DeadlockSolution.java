@@ -1,7 +1,9 @@
 package com.emoney.til.hanghae99.day1;
 
+import com.emoney.til.hanghae99.day1.lock.AdaptiveLockTimeout;
+import com.emoney.til.metrics.LockProfiler;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 데드락 문제를 해결한 예제 클래스
@@ -12,22 +14,31 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class DeadlockSolution {
     
-    // 두 개의 리소스에 대한 잠금
-    private final Lock lock1 = new ReentrantLock();
-    private final Lock lock2 = new ReentrantLock();
+    // 두 개의 리소스에 대한 잠금 (경합 통계는 LockProfiler에 기록)
+    private final Lock lock1 = LockProfiler.global().newLock("DeadlockSolution.lock1");
+    private final Lock lock2 = LockProfiler.global().newLock("DeadlockSolution.lock2");
+
+    // 락 획득 타임아웃과 재시도 대기 시간 (각 락의 최근 보유 시간으로 결정, 기록이 없으면 10ms)
+    private final AdaptiveLockTimeout lockTimeout = new AdaptiveLockTimeout(10, 0, 1_000, TimeUnit.MILLISECONDS);
 
     /**
      * 첫 번째 해결책: tryLock() 메서드를 사용하여 타임아웃 설정
      * 잠금을 획득하지 못하면 모든 잠금을 해제하고 다시 시도합니다.
+     * 타임아웃과 재시도 전 대기 시간은 각 락의 최근 보유 시간에 맞춰 정합니다.
+     *
+     * @return 두 락을 모두 얻어 작업했으면 true (false면 backoff만큼 기다린 뒤이므로 바로 다시 호출해도 됨,
+     *         인터럽트되었으면 인터럽트 상태를 남기고 false)
      */
     public boolean operationWithTryLock() {
+        Lock contendedLock = lock1;
         try {
-            if (lock1.tryLock()) {
+            if (lockTimeout.tryLock(lock1)) {
                 try {
                     System.out.println(Thread.currentThread().getName() + ": lock1 획득");
                     Thread.sleep(50); // 실제 작업 시뮬레이션
                     
-                    if (lock2.tryLock()) {
+                    contendedLock = lock2;
+                    if (lockTimeout.tryLock(lock2)) {
                         try {
                             System.out.println(Thread.currentThread().getName() + ": lock2 획득");
                             // 두 리소스를 모두 획득한 후 수행할 작업
@@ -43,8 +54,11 @@ public class DeadlockSolution {
                 }
             }
             
-            // 잠금 획득 실패 시 잠시 대기 후 재시도 (백오프 전략)
-            Thread.sleep(10 + (long)(Math.random() * 50));
+            // 잠금 획득 실패 시 얻지 못한 락의 보유 시간만큼 대기 후 재시도 (백오프 전략)
+            // 인터럽트되면 대기가 바로 끝나므로, 호출자가 기다리지 않고 재시도를 반복하지 않도록 알림
+            if (!lockTimeout.backoff(contendedLock)) {
+                System.out.println(Thread.currentThread().getName() + ": 재시도 대기 중 인터럽트");
+            }
             return false;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -87,14 +101,14 @@ public class DeadlockSolution {
     public void executeWithTryLock() {
         Thread thread1 = new Thread(() -> {
             boolean done = false;
-            while (!done) {
+            while (!done && !Thread.currentThread().isInterrupted()) {
                 done = operationWithTryLock();
             }
         }, "Thread-1");
         
         Thread thread2 = new Thread(() -> {
             boolean done = false;
-            while (!done) {
+            while (!done && !Thread.currentThread().isInterrupted()) {
                 done = operationWithTryLock();
             }
         }, "Thread-2");
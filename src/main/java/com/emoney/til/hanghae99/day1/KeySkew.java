@@ -0,0 +1,74 @@
+package com.emoney.til.hanghae99.day1;
+
+import java.util.SplittableRandom;
+
+/**
+ * 벤치마크와 스트레스 테스트에서 사용할 키 분포
+ * - uniform: 모든 키가 같은 확률
+ * - zipf: 소수의 인기 키에 요청이 몰리는 분포 (s = 1.0)
+ * - hot: 모든 요청이 키 하나에 집중
+ */
+public final class KeySkew {
+
+    // 스레드마다 미리 뽑아 둔 키 시퀀스 길이 (2의 거듭제곱)
+    public static final int SEQUENCE_LENGTH = 1 << 14;
+
+    private KeySkew() {
+    }
+
+    /**
+     * 분포에 따라 키 인덱스 시퀀스를 만듭니다.
+     * 벤치마크 루프 안에서 난수를 뽑는 비용이 측정에 섞이지 않도록 미리 생성합니다.
+     */
+    public static int[] sequence(String skew, int keyCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] sequence = new int[SEQUENCE_LENGTH];
+
+        switch (skew) {
+            case "uniform":
+                for (int i = 0; i < sequence.length; i++) {
+                    sequence[i] = random.nextInt(keyCount);
+                }
+                break;
+            case "zipf":
+                double[] cdf = zipfCdf(keyCount);
+                for (int i = 0; i < sequence.length; i++) {
+                    sequence[i] = search(cdf, random.nextDouble());
+                }
+                break;
+            case "hot":
+                // 모든 요청이 0번 키로
+                break;
+            default:
+                throw new IllegalArgumentException("알 수 없는 키 분포: " + skew);
+        }
+        return sequence;
+    }
+
+    private static double[] zipfCdf(int keyCount) {
+        double[] cdf = new double[keyCount];
+        double sum = 0;
+        for (int i = 0; i < keyCount; i++) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < keyCount; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int search(double[] cdf, double value) {
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,129 @@
+package com.emoney.til.hanghae99.day1;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 락 없이(lock-free) 재고를 관리하는 제품 클래스
+ *
+ * 재고(stock)와 버전(version)을 하나의 long 값에 함께 담아(packing)
+ * CAS(Compare-And-Swap) 한 번으로 두 값을 원자적으로 갱신합니다.
+ * - 하위 32비트: 재고
+ * - 상위 32비트: 버전
+ *
+ * 모니터(synchronized)를 전혀 사용하지 않으므로, 인기 상품(hot SKU)에 요청이 몰려도
+ * 스레드가 블로킹되지 않고 실패한 스레드만 다시 시도합니다.
+ */
+public class LockFreeProduct {
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(LockFreeProduct.class, "state", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final long STOCK_MASK = 0xFFFF_FFFFL;
+
+    private final String id;
+
+    // 재고와 버전을 함께 담은 값 (VarHandle을 통해서만 갱신)
+    private volatile long state;
+
+    public LockFreeProduct(String id, int stock) {
+        if (stock < 0) {
+            throw new IllegalArgumentException("재고는 음수일 수 없습니다: " + stock);
+        }
+        this.id = id;
+        this.state = pack(stock, 1);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getStock() {
+        return stockOf(state);
+    }
+
+    public long getVersion() {
+        return versionOf(state);
+    }
+
+    public void setStock(int stock) {
+        if (stock < 0) {
+            throw new IllegalArgumentException("재고는 음수일 수 없습니다: " + stock);
+        }
+
+        long current;
+        do {
+            current = state;
+        } while (!STATE.compareAndSet(this, current, pack(stock, versionOf(current) + 1)));
+    }
+
+    /**
+     * 기대한 버전일 때만 재고를 감소 (낙관적 락과 같은 의미의 단일 CAS 시도)
+     *
+     * @return 버전이 일치하고 재고가 충분해서 감소에 성공하면 true
+     */
+    public boolean decreaseStock(int quantity, long expectedVersion) {
+        long current = state;
+        if (versionOf(current) != expectedVersion) {
+            return false; // 버전 충돌
+        }
+
+        int stock = stockOf(current);
+        if (stock < quantity) {
+            return false; // 재고 부족
+        }
+
+        return STATE.compareAndSet(this, current, pack(stock - quantity, expectedVersion + 1));
+    }
+
+    /**
+     * 재고가 충분한 동안 CAS가 성공할 때까지 재시도하며 감소
+     *
+     * @return 재고 부족이면 false, 감소에 성공하면 true
+     */
+    public boolean decreaseStock(int quantity) {
+        while (true) {
+            long current = state;
+            int stock = stockOf(current);
+            if (stock < quantity) {
+                return false; // 재고 부족
+            }
+
+            if (STATE.compareAndSet(this, current, pack(stock - quantity, versionOf(current) + 1))) {
+                return true;
+            }
+            // 다른 스레드가 먼저 갱신했으므로 최신 값으로 다시 시도
+            Thread.onSpinWait();
+        }
+    }
+
+    private static long pack(int stock, long version) {
+        return (version << 32) | (stock & STOCK_MASK);
+    }
+
+    private static int stockOf(long state) {
+        return (int) (state & STOCK_MASK);
+    }
+
+    // 버전은 32비트에서 순환하지만, 비교는 같은 순환 안에서만 일어나므로 문제되지 않음
+    private static long versionOf(long state) {
+        return state >>> 32;
+    }
+
+    @Override
+    public String toString() {
+        long current = state;
+        return "LockFreeProduct{" +
+                "id='" + id + '\'' +
+                ", stock=" + stockOf(current) +
+                ", version=" + versionOf(current) +
+                '}';
+    }
+}
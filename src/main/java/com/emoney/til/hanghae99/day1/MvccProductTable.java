@@ -0,0 +1,409 @@
+package com.emoney.til.hanghae99.day1;
+
+import com.emoney.til.hanghae99.day1.lock.StripedLock;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 다중 버전(MVCC) 상품 테이블
+ *
+ * 전체 상품을 훑는 보고용 조회가 락 없이 products 맵을 읽으면 갱신 도중의 상태(일부 상품만 바뀐 상태)를 보게 되고,
+ * 락을 잡고 읽으면 조회가 끝날 때까지 쓰기가 막힙니다.
+ * 이 테이블은 쓰기마다 새 버전을 추가하고 기존 버전은 그대로 둡니다. (PostgreSQL/InnoDB의 MVCC와 같은 방식)
+ * - 쓰기: 행 락을 잡고 새 값을 계산한 뒤, 커밋 시각(타임스탬프)을 붙인 새 버전을 버전 체인의 맨 앞에 추가
+ *   커밋 시각은 카운터에서 바로 발급하고, 행 락을 놓은 뒤 "설치 완료"로 표시만 하고 돌아갑니다.
+ *   앞선 시각이 모두 설치 완료인 커밋은 표시한 스레드 중 하나가 이어서 공개(committedTs)하므로
+ *   어떤 쓰기도 다른 쓰기의 공개를 기다리지 않고, 서로 다른 행의 쓰기는 테이블 전체 락 없이 동시에 진행됩니다.
+ *   (설치 도중 선점된 쓰기가 있으면 그 뒤의 커밋은 스냅샷에 늦게 보일 뿐 다른 쓰기를 막지 않음)
+ * - 읽기: 스냅샷을 열 때의 공개된 커밋 시각 S를 기억하고, 행마다 커밋 시각이 S 이하인 가장 최근 버전을 읽음
+ *   (행 락을 잡지 않으므로 쓰기를 막지 않고, 아직 공개되지 않았거나 스냅샷을 연 뒤의 쓰기는 보이지 않음)
+ * 여러 행을 바꾸는 쓰기(transferStock)도 커밋 시각 하나로 설치되므로, 스냅샷에서는 전부 보이거나 전부 안 보입니다.
+ * 행 락은 행마다 만들지 않고 스트라이프 락을 쓰므로 상품 수가 늘어도 락 메모리는 일정합니다.
+ *
+ * 오래된 버전은 열려 있는 스냅샷 중 가장 오래된 것(없으면 현재 커밋 시각)을 기준선으로
+ * 기준선 시점에 보이는 버전보다 오래된 버전을 체인에서 끊어 GC가 회수하게 합니다.
+ * - 쓰기: 자기 행의 체인을 기준선까지 정리
+ * - 가장 오래된 스냅샷을 닫을 때: 기준선을 올리고 전체 행을 정리
+ *
+ * 이 테이블은 상품 테이블(DatabaseConcurrencyExample.products)의 변경 이력이므로
+ * 쓰기 메서드는 같은 패키지에서만 호출할 수 있습니다. (밖에서 바꾸면 두 테이블의 재고가 달라짐)
+ */
+public class MvccProductTable {
+
+    // 기준선을 다시 계산하는 커밋 간격
+    private static final int WATERMARK_REFRESH_INTERVAL = 256;
+
+    // 행 락 stripe 개수
+    private static final int ROW_LOCK_STRIPES = 64;
+
+    private final ConcurrentHashMap<String, Row> rows = new ConcurrentHashMap<>();
+
+    // 행 락 (같은 stripe의 행끼리는 쓰기가 순서대로 진행됨)
+    private final StripedLock rowLocks = new StripedLock(ROW_LOCK_STRIPES);
+
+    // 마지막으로 발급한 커밋 시각
+    private final AtomicLong issuedTs = new AtomicLong();
+
+    // 마지막으로 공개한 커밋 시각 (이 값 이하의 버전은 모두 설치되어 있음)
+    private final AtomicLong committedTs = new AtomicLong();
+
+    // 설치는 끝났지만 앞선 커밋이 아직 설치 중이라 공개되지 않은 커밋 시각
+    private final Set<Long> installed = ConcurrentHashMap.newKeySet();
+
+    // 열린 스냅샷의 시각 -> 개수
+    private final ConcurrentSkipListMap<Long, Integer> activeSnapshots = new ConcurrentSkipListMap<>();
+
+    // 스냅샷 등록(read)과 기준선 계산(write)이 엇갈리지 않도록 보호
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    // 이 시각에 보이는 버전보다 오래된 버전은 아무 스냅샷도 읽지 않음
+    private volatile long gcWatermark;
+
+    private final LongAdder collectedVersions = new LongAdder();
+
+    /**
+     * 행 하나의 버전
+     */
+    private static final class Version {
+        private final int stock;
+        private final long commitTs;
+        // 바로 이전 버전 (GC 시 null로 끊음)
+        private volatile Version prev;
+
+        private Version(int stock, long commitTs, Version prev) {
+            this.stock = stock;
+            this.commitTs = commitTs;
+            this.prev = prev;
+        }
+    }
+
+    /**
+     * 상품 행 (버전 체인의 머리)
+     */
+    private static final class Row {
+        private final String id;
+        private volatile Version head;
+
+        private Row(String id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * 한 시점의 테이블 상태
+     * 닫을 때까지 그 시점의 버전이 유지되므로 조회가 끝나면 반드시 닫아야 합니다.
+     */
+    public final class Snapshot implements AutoCloseable {
+        private final long timestamp;
+        private boolean closed;
+
+        private Snapshot(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * 스냅샷 시점의 재고 (그 시점에 없던 상품이면 -1)
+         */
+        public int getStock(String productId) {
+            Row row = rows.get(productId);
+            Version version = row == null ? null : visible(row, timestamp);
+            return version == null ? -1 : version.stock;
+        }
+
+        /**
+         * 스냅샷 시점의 전체 재고 (상품 ID 순)
+         */
+        public Map<String, Integer> scan() {
+            Map<String, Integer> result = new TreeMap<>();
+            for (Row row : rows.values()) {
+                Version version = visible(row, timestamp);
+                if (version != null) {
+                    result.put(row.id, version.stock);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            activeSnapshots.compute(timestamp, (ts, count) -> count == 1 ? null : count - 1);
+
+            // 가장 오래된 스냅샷이었다면 기준선이 올라가므로 정리
+            Long oldest = activeSnapshots.isEmpty() ? null : activeSnapshots.firstKey();
+            if (oldest == null || oldest > timestamp) {
+                collectGarbage();
+            }
+        }
+    }
+
+    /**
+     * 상품 추가 (이미 있으면 재고를 새 버전으로 덮어씀)
+     */
+    void insert(String productId, int stock) {
+        Row row = rows.computeIfAbsent(productId, Row::new);
+        Lock lock = rowLocks.getLock(productId);
+        long timestamp;
+        lock.lock();
+        try {
+            timestamp = install(row, stock);
+        } finally {
+            lock.unlock();
+        }
+        publish(timestamp);
+    }
+
+    /**
+     * 최신 재고 (없으면 -1)
+     * 설치된 버전은 되돌려지지 않으므로 아직 공개되지 않았더라도 가장 최근 버전을 읽습니다. (자기 쓰기는 항상 보임)
+     */
+    public int getStock(String productId) {
+        Row row = rows.get(productId);
+        Version version = row == null ? null : row.head;
+        return version == null ? -1 : version.stock;
+    }
+
+    /**
+     * 재고가 충분하면 감소
+     */
+    boolean decreaseStock(String productId, int quantity) {
+        Row row = rows.get(productId);
+        if (row == null) {
+            return false;
+        }
+
+        Lock lock = rowLocks.getLock(productId);
+        long timestamp;
+        lock.lock();
+        try {
+            Version head = row.head;
+            if (head == null || head.stock < quantity) {
+                return false;
+            }
+            timestamp = install(row, head.stock - quantity);
+        } finally {
+            lock.unlock();
+        }
+        publish(timestamp);
+        return true;
+    }
+
+    boolean increaseStock(String productId, int quantity) {
+        Row row = rows.get(productId);
+        if (row == null) {
+            return false;
+        }
+
+        Lock lock = rowLocks.getLock(productId);
+        long timestamp;
+        lock.lock();
+        try {
+            Version head = row.head;
+            if (head == null) {
+                return false;
+            }
+            timestamp = install(row, head.stock + quantity);
+        } finally {
+            lock.unlock();
+        }
+        publish(timestamp);
+        return true;
+    }
+
+    /**
+     * 두 상품 사이의 재고 이동 (창고 간 이동 등)
+     * 두 행의 새 버전이 같은 커밋 시각으로 설치되므로 어떤 스냅샷에서도 합계가 유지됩니다.
+     */
+    boolean transferStock(String fromId, String toId, int quantity) {
+        Row from = rows.get(fromId);
+        Row to = rows.get(toId);
+        if (from == null || to == null || from == to) {
+            return false;
+        }
+
+        // 데드락 방지: 항상 stripe 순서로 행 락 획득 (같은 stripe면 한 번만)
+        int fromStripe = rowLocks.indexFor(fromId);
+        int toStripe = rowLocks.indexFor(toId);
+        Lock first = rowLocks.getLock(fromStripe <= toStripe ? fromId : toId);
+        Lock second = rowLocks.getLock(fromStripe <= toStripe ? toId : fromId);
+        long timestamp;
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                Version fromHead = from.head;
+                Version toHead = to.head;
+                if (fromHead == null || toHead == null || fromHead.stock < quantity) {
+                    return false;
+                }
+                timestamp = install(new Row[]{from, to}, new int[]{fromHead.stock - quantity, toHead.stock + quantity});
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+        publish(timestamp);
+        return true;
+    }
+
+    /**
+     * 현재 시점의 스냅샷 열기
+     */
+    public Snapshot openSnapshot() {
+        snapshotLock.readLock().lock();
+        try {
+            long timestamp = committedTs.get();
+            activeSnapshots.merge(timestamp, 1, Integer::sum);
+            return new Snapshot(timestamp);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 현재 시점의 전체 재고 (스냅샷을 열고 바로 닫음)
+     */
+    public Map<String, Integer> scan() {
+        try (Snapshot snapshot = openSnapshot()) {
+            return snapshot.scan();
+        }
+    }
+
+    /**
+     * 기준선을 올리고 모든 행에서 아무 스냅샷도 읽지 않는 버전을 정리
+     *
+     * @return 이번에 체인에서 끊은 버전 수
+     */
+    public int collectGarbage() {
+        long watermark = refreshWatermark();
+        int collected = 0;
+        for (Row row : rows.values()) {
+            collected += prune(row, watermark);
+        }
+        return collected;
+    }
+
+    /**
+     * 체인에 남아 있는 전체 버전 수
+     */
+    public int getVersionCount() {
+        int count = 0;
+        for (Row row : rows.values()) {
+            for (Version version = row.head; version != null; version = version.prev) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getCollectedVersions() {
+        return collectedVersions.sum();
+    }
+
+    public int getActiveSnapshotCount() {
+        int count = 0;
+        for (int snapshots : activeSnapshots.values()) {
+            count += snapshots;
+        }
+        return count;
+    }
+
+    private long install(Row row, int stock) {
+        return install(new Row[]{row}, new int[]{stock});
+    }
+
+    /**
+     * 행 락을 모두 잡은 상태에서 새 버전 설치 (공개는 행 락을 놓은 뒤 publish)
+     * 같은 행의 쓰기는 행 락 때문에 발급 순서대로 체인에 쌓입니다.
+     *
+     * @return 발급한 커밋 시각
+     */
+    private long install(Row[] targets, int[] stocks) {
+        long timestamp = issuedTs.incrementAndGet();
+        for (int i = 0; i < targets.length; i++) {
+            targets[i].head = new Version(stocks[i], timestamp, targets[i].head);
+        }
+
+        long watermark = timestamp % WATERMARK_REFRESH_INTERVAL == 0 ? refreshWatermark() : gcWatermark;
+        for (Row target : targets) {
+            prune(target, watermark);
+        }
+        return timestamp;
+    }
+
+    /**
+     * 설치가 끝난 커밋을 표시하고, 공개된 시각 바로 다음부터 설치가 끝난 커밋을 이어서 공개
+     * 다음 시각을 installed에서 꺼낸 스레드만 committedTs를 올리므로 공개는 발급 순서대로 진행되고,
+     * 앞선 커밋이 아직 설치 중이면 기다리지 않고 돌아갑니다. (그 커밋을 공개하는 스레드가 이 커밋까지 공개)
+     * 표시(add) 후 committedTs를 읽고, committedTs를 올린 뒤 다음 시각을 찾으므로 둘 중 하나는 반드시 상대를 봅니다.
+     */
+    private void publish(long timestamp) {
+        installed.add(timestamp);
+        for (long next = committedTs.get() + 1; installed.remove(next); next++) {
+            committedTs.set(next);
+        }
+    }
+
+    /**
+     * 기준선 = 가장 오래된 열린 스냅샷 시각 (없으면 현재 커밋 시각)
+     * 스냅샷 등록과 겹치지 않게 계산해야, 막 열린 스냅샷이 기준선보다 오래된 시각을 갖는 일이 없습니다.
+     */
+    private long refreshWatermark() {
+        snapshotLock.writeLock().lock();
+        try {
+            long watermark = activeSnapshots.isEmpty() ? committedTs.get() : activeSnapshots.firstKey();
+            if (watermark > gcWatermark) {
+                gcWatermark = watermark;
+            }
+            return gcWatermark;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 기준선 시점에 보이는 버전만 남기고 그보다 오래된 버전을 끊음
+     */
+    private int prune(Row row, long watermark) {
+        Version keep = visible(row, watermark);
+        if (keep == null) {
+            return 0;
+        }
+        int collected = 0;
+        for (Version version = keep.prev; version != null; version = version.prev) {
+            collected++;
+        }
+        if (collected > 0) {
+            keep.prev = null;
+            collectedVersions.add(collected);
+        }
+        return collected;
+    }
+
+    private static Version visible(Row row, long timestamp) {
+        Version version = row.head;
+        while (version != null && version.commitTs > timestamp) {
+            version = version.prev;
+        }
+        return version;
+    }
+}
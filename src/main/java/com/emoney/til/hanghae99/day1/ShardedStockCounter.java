@@ -0,0 +1,216 @@
+package com.emoney.til.hanghae99.day1;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 여러 버킷으로 나누어 관리하는 재고 카운터 (split counter)
+ *
+ * 인기 상품에 수천 개의 요청이 동시에 몰리면, 재고 값 하나를 두고 모든 스레드가 경쟁합니다.
+ * 이 클래스는 재고를 N개의 버킷에 나누어 두고 스레드마다 자기 버킷(home bucket)에서
+ * 독립적으로 차감하게 해서 경쟁을 버킷 수만큼 분산시킵니다.
+ *
+ * 자기 버킷이 바닥나면 다른 버킷에서 필요한 수량만큼 바로 차감하고(borrow),
+ * 그래도 부족하면 모든 버킷을 모아 한 번 더 확인합니다.
+ * 각 버킷은 CAS로만 차감되고 0 아래로 내려가지 않으므로 전체 재고도 절대 음수가 되지 않습니다.
+ *
+ * 버킷 사이에서 재고를 옮기는 작업(모으기, 재분배)은 drainLock 안에서만 하므로
+ * 재고가 어느 버킷에도 없는 순간이 다른 차감에 보이지 않고, 재고가 있는데 실패하는 일이 없습니다.
+ */
+public class ShardedStockCounter {
+
+    // 버킷끼리 같은 캐시 라인을 공유하지 않도록 long 16개(128바이트) 간격으로 배치
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray buckets;
+    private final int bucketCount;
+
+    // 모든 버킷을 모으거나 재분배하는 느린 경로는 한 번에 하나만 실행
+    private final Lock drainLock = new ReentrantLock();
+
+    /**
+     * @param bucketCount 버킷 개수 (보통 CPU 코어 수)
+     * @param initialStock 초기 재고 (버킷에 균등 분배)
+     */
+    public ShardedStockCounter(int bucketCount, int initialStock) {
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("버킷 개수는 1 이상이어야 합니다: " + bucketCount);
+        }
+        if (initialStock < 0) {
+            throw new IllegalArgumentException("재고는 음수일 수 없습니다: " + initialStock);
+        }
+
+        this.bucketCount = bucketCount;
+        this.buckets = new AtomicLongArray(bucketCount * PADDING);
+        distribute(initialStock);
+    }
+
+    /**
+     * 재고 감소
+     *
+     * @return 재고가 충분해서 감소에 성공하면 true
+     */
+    public boolean tryDecrease(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("수량은 1 이상이어야 합니다: " + quantity);
+        }
+
+        int home = homeBucket();
+
+        // 1. 빠른 경로: 자기 버킷에서 차감
+        if (tryTake(home, quantity)) {
+            return true;
+        }
+
+        // 2. 다른 버킷에서 빌려오기
+        if (borrow(home, quantity)) {
+            return true;
+        }
+
+        // 3. 느린 경로: 흩어진 재고를 모아서 확인
+        return gather(home, quantity);
+    }
+
+    /**
+     * 재고 추가 (입고)
+     */
+    public void increase(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("수량은 1 이상이어야 합니다: " + quantity);
+        }
+        buckets.addAndGet(slot(homeBucket()), quantity);
+    }
+
+    /**
+     * 현재 전체 재고
+     * 동시에 차감 중이면 근사값이며, 요청이 없는 시점에는 정확한 값입니다.
+     */
+    public int getStock() {
+        long total = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            total += buckets.get(slot(i));
+        }
+        return (int) total;
+    }
+
+    /**
+     * 버킷별 재고 (모니터링/테스트용)
+     */
+    public int[] getBucketStocks() {
+        int[] result = new int[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            result[i] = (int) buckets.get(slot(i));
+        }
+        return result;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * 버킷 간 재고 편차가 커졌을 때 전체 재고를 다시 균등하게 나눕니다.
+     */
+    public void rebalance() {
+        drainLock.lock();
+        try {
+            long total = 0;
+            for (int i = 0; i < bucketCount; i++) {
+                total += buckets.getAndSet(slot(i), 0);
+            }
+            distribute(total);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private boolean tryTake(int bucket, int quantity) {
+        int slot = slot(bucket);
+        while (true) {
+            long current = buckets.get(slot);
+            if (current < quantity) {
+                return false;
+            }
+            if (buckets.compareAndSet(slot, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 다른 버킷에서 필요한 수량만큼 차감합니다.
+     * 상대 버킷의 재고를 자기 버킷으로 옮겨 두면 옮기는 동안 그 재고가 어느 버킷에도 없어서
+     * 동시에 모으는 스레드가 재고 부족으로 실패할 수 있으므로, 옮기지 않고 그 자리에서 차감합니다.
+     * (버킷 간 편차는 rebalance로 정리)
+     */
+    private boolean borrow(int home, int quantity) {
+        for (int offset = 1; offset < bucketCount; offset++) {
+            if (tryTake((home + offset) % bucketCount, quantity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 모든 버킷에서 조금씩 모아 필요한 수량을 채웁니다.
+     * 모자라면 모은 재고를 돌려놓고 실패합니다.
+     */
+    private boolean gather(int home, int quantity) {
+        drainLock.lock();
+        try {
+            long gathered = 0;
+            for (int i = 0; i < bucketCount && gathered < quantity; i++) {
+                int slot = slot(i);
+                while (true) {
+                    long current = buckets.get(slot);
+                    long take = Math.min(current, quantity - gathered);
+                    if (take <= 0 || buckets.compareAndSet(slot, current, current - take)) {
+                        gathered += Math.max(take, 0);
+                        break;
+                    }
+                }
+            }
+
+            if (gathered == quantity) {
+                return true;
+            }
+
+            // 재고 부족: 모은 재고를 되돌림
+            if (gathered > 0) {
+                buckets.addAndGet(slot(home), gathered);
+            }
+            return false;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void distribute(long total) {
+        long share = total / bucketCount;
+        long remainder = total % bucketCount;
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.addAndGet(slot(i), share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    // 스레드마다 고정된 버킷을 사용해서 같은 스레드의 연속 요청이 같은 캐시 라인에 머물도록 함
+    private int homeBucket() {
+        int h = System.identityHashCode(Thread.currentThread());
+        h ^= (h >>> 16);
+        return (h & 0x7FFF_FFFF) % bucketCount;
+    }
+
+    private static int slot(int bucket) {
+        return bucket * PADDING;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedStockCounter{" +
+                "buckets=" + bucketCount +
+                ", stock=" + getStock() +
+                '}';
+    }
+}
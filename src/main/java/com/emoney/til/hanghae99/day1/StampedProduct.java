@@ -0,0 +1,173 @@
+package com.emoney.til.hanghae99.day1;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 읽기가 훨씬 많은 상품을 위한 StampedLock 기반 제품 클래스
+ *
+ * 상품 목록, 재고 표시처럼 조회가 대부분인 경우에는 읽을 때마다 락을 잡는 것 자체가 비용입니다.
+ * (읽기끼리도 락 상태 값을 두고 캐시 라인을 주고받음)
+ * 이 클래스는 StampedLock의 낙관적 읽기(optimistic read)를 사용합니다.
+ * 1. tryOptimisticRead()로 스탬프를 받고 (락을 잡지 않음, 쓰기를 막지 않음)
+ * 2. 필드를 읽은 뒤
+ * 3. validate(stamp)로 그 사이에 쓰기가 없었는지 확인
+ * 쓰기가 끼어들었다면 몇 번 더 낙관적으로 읽어 보고, 그래도 실패하면 읽기 락으로 읽습니다.
+ *
+ * StampedLock은 재진입이 안 되므로 락을 잡은 상태에서 이 클래스의 다른 메서드를 부르면 안 됩니다.
+ */
+public class StampedProduct {
+
+    // 읽기 락으로 넘어가기 전에 낙관적 읽기를 시도하는 횟수
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    private final String id;
+    private final StampedLock lock = new StampedLock();
+    private int stock;
+    private long version;
+
+    /**
+     * 한 시점에 함께 읽은 재고와 버전
+     */
+    public static final class Snapshot {
+        private final int stock;
+        private final long version;
+
+        Snapshot(int stock, long version) {
+            this.stock = stock;
+            this.version = version;
+        }
+
+        public int getStock() {
+            return stock;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    public StampedProduct(String id, int stock) {
+        this.id = id;
+        this.stock = stock;
+        this.version = 1;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getStock() {
+        for (int i = 0; i < OPTIMISTIC_ATTEMPTS; i++) {
+            long stamp = lock.tryOptimisticRead();
+            int current = stock;
+            if (stamp != 0 && lock.validate(stamp)) {
+                return current;
+            }
+        }
+
+        long stamp = lock.readLock();
+        try {
+            return stock;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long getVersion() {
+        for (int i = 0; i < OPTIMISTIC_ATTEMPTS; i++) {
+            long stamp = lock.tryOptimisticRead();
+            long current = version;
+            if (stamp != 0 && lock.validate(stamp)) {
+                return current;
+            }
+        }
+
+        long stamp = lock.readLock();
+        try {
+            return version;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 재고와 버전을 같은 시점의 값으로 함께 읽음
+     */
+    public Snapshot snapshot() {
+        for (int i = 0; i < OPTIMISTIC_ATTEMPTS; i++) {
+            long stamp = lock.tryOptimisticRead();
+            int currentStock = stock;
+            long currentVersion = version;
+            if (stamp != 0 && lock.validate(stamp)) {
+                return new Snapshot(currentStock, currentVersion);
+            }
+        }
+
+        long stamp = lock.readLock();
+        try {
+            return new Snapshot(stock, version);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void setStock(int stock) {
+        long stamp = lock.writeLock();
+        try {
+            this.stock = stock;
+            version++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 버전이 같을 때만 재고 감소 (낙관적 락)
+     */
+    public boolean decreaseStock(int quantity, long expectedVersion) {
+        long stamp = lock.writeLock();
+        try {
+            if (version != expectedVersion || stock < quantity) {
+                return false;
+            }
+            stock -= quantity;
+            version++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 재고가 충분하면 감소
+     * 재고가 부족한 경우에는 쓰기 락 없이 낙관적 읽기만으로 실패를 돌려줍니다.
+     */
+    public boolean decreaseStock(int quantity) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0 && stock < quantity && lock.validate(stamp)) {
+            return false;
+        }
+
+        stamp = lock.writeLock();
+        try {
+            if (stock < quantity) {
+                return false;
+            }
+            stock -= quantity;
+            version++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public String toString() {
+        Snapshot snapshot = snapshot();
+        return "StampedProduct{" +
+                "id='" + id + '\'' +
+                ", stock=" + snapshot.getStock() +
+                ", version=" + snapshot.getVersion() +
+                '}';
+    }
+}
@@ -0,0 +1,134 @@
+package com.emoney.til.hanghae99.day1;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 플랫 컴바이닝(flat combining) 방식의 재고 감소 처리기
+ *
+ * 같은 상품에 요청이 몰리면 스레드마다 락을 잡고 놓는 과정이 반복되면서
+ * 락 자체가 병목이 됩니다. 이 클래스는 요청을 큐에 넣어 두고,
+ * 락을 잡은 스레드 하나(combiner)가 쌓인 요청을 한 번에 처리한 뒤
+ * 요청마다 결과(성공/재고 부족)를 따로 돌려줍니다.
+ * DB의 group commit처럼, 락 획득 한 번으로 여러 요청을 처리하는 것이 핵심입니다.
+ *
+ * combiner 역할에는 비관적 락과 같은 상품 락을 사용하므로 두 방식을 섞어 써도 안전합니다.
+ */
+public class StockCombiner {
+
+    private static final int PENDING = 0;
+    private static final int SUCCESS = 1;
+    private static final int INSUFFICIENT = 2;
+
+    // combiner가 한 번 락을 잡았을 때 처리할 최대 요청 수 (한 스레드가 계속 일만 하는 것 방지)
+    private static final int MAX_BATCH = 256;
+
+    // 대기 중인 스레드가 park하기 전에 스핀하는 횟수와 park 시간
+    private static final int SPIN_LIMIT = 64;
+    private static final long PARK_NANOS = 50_000;
+
+    private final DatabaseConcurrencyExample.Product product;
+    private final Lock productLock;
+    private final ConcurrentLinkedQueue<Request> pending = new ConcurrentLinkedQueue<>();
+
+    // 통계: 처리한 배치 수, 처리한 요청 수
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder combinedRequests = new LongAdder();
+
+    /**
+     * 대기 중인 요청
+     */
+    private static final class Request {
+        private final int quantity;
+        private final Thread waiter;
+        private volatile int status = PENDING;
+
+        private Request(int quantity, Thread waiter) {
+            this.quantity = quantity;
+            this.waiter = waiter;
+        }
+    }
+
+    public StockCombiner(DatabaseConcurrencyExample.Product product, Lock productLock) {
+        this.product = product;
+        this.productLock = productLock;
+    }
+
+    /**
+     * 재고 감소 요청
+     * 다른 스레드가 combiner라면 그 스레드가 대신 처리해 줄 때까지 기다립니다.
+     *
+     * @return 재고가 충분해서 감소에 성공하면 true
+     */
+    public boolean decrease(int quantity) {
+        Request request = new Request(quantity, Thread.currentThread());
+        pending.add(request);
+
+        int spins = 0;
+        while (true) {
+            int status = request.status;
+            if (status != PENDING) {
+                return status == SUCCESS;
+            }
+
+            // 락을 얻으면 직접 combiner가 되어 쌓인 요청을 처리
+            if (productLock.tryLock()) {
+                try {
+                    combine();
+                } finally {
+                    productLock.unlock();
+                }
+                continue;
+            }
+
+            // 다른 combiner가 처리 중이면 잠시 기다렸다가 결과를 다시 확인
+            // (combiner가 끝났는데 내 요청이 남아 있으면 다음 루프에서 내가 combiner가 됨)
+            if (spins < SPIN_LIMIT) {
+                spins++;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * 락을 잡은 상태에서 쌓인 요청을 순서대로 처리
+     */
+    private void combine() {
+        int processed = 0;
+        Request request;
+        while (processed < MAX_BATCH && (request = pending.poll()) != null) {
+            if (product.getStock() >= request.quantity) {
+                product.decreaseStock(request.quantity);
+                request.status = SUCCESS;
+            } else {
+                request.status = INSUFFICIENT;
+            }
+            processed++;
+
+            if (request.waiter != Thread.currentThread()) {
+                LockSupport.unpark(request.waiter);
+            }
+        }
+
+        if (processed > 0) {
+            batches.increment();
+            combinedRequests.add(processed);
+        }
+    }
+
+    /**
+     * 배치 하나당 평균 요청 수 (1에 가까우면 합칠 요청이 거의 없었다는 뜻)
+     */
+    public double getAverageBatchSize() {
+        long count = batches.sum();
+        return count == 0 ? 0 : (double) combinedRequests.sum() / count;
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+}
@@ -0,0 +1,204 @@
+package com.emoney.til.hanghae99.day1;
+
+import com.emoney.til.hanghae99.day1.timer.HierarchicalTimingWheel;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 유효 시간이 있는 재고 예약 (reserve -> confirm / cancel / 만료)
+ *
+ * 주문서 작성 시 재고를 먼저 잡아 두고(reserve), 결제가 끝나면 확정(confirm)합니다.
+ * 취소하거나 유효 시간(TTL) 안에 확정하지 않으면 잡아 둔 재고를 상품에 되돌립니다.
+ *
+ * 만료는 예약마다 예약 작업을 만드는 대신 계층형 타이밍 휠 하나로 처리하므로
+ * 대기 중인 예약이 수백만 개여도 tick당 비용은 O(1) + 만료 건수이고, 예약당 추가 메모리는 노드 하나입니다.
+ * 확정/취소/만료가 동시에 일어나도 상태 CAS에 성공한 쪽 하나만 처리합니다.
+ */
+public class StockReservations implements AutoCloseable {
+
+    private static final int PENDING = 0;
+    private static final int CONFIRMED = 1;
+    private static final int CANCELLED = 2;
+    private static final int EXPIRED = 3;
+
+    private static final int WHEEL_SIZE = 256;
+
+    private final DatabaseConcurrencyExample example;
+    private final LongSupplier clock;
+    private final HierarchicalTimingWheel<Reservation> wheel;
+    private final ConcurrentHashMap<Long, Reservation> pending = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    // 통계
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    private volatile Thread ticker;
+
+    /**
+     * 예약 한 건
+     */
+    private static final class Reservation {
+        private final long id;
+        private final String productId;
+        private final int quantity;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        // 휠에 등록한 뒤 pending에 넣기 전에 설정 (pending을 통해 다른 스레드에 공개됨)
+        private HierarchicalTimingWheel.Timeout<Reservation> timeout;
+
+        private Reservation(long id, String productId, int quantity) {
+            this.id = id;
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * @param tick 만료 처리 간격 (만료 시각의 정밀도)
+     * @param clock 현재 시각 (나노초, 보통 System::nanoTime)
+     */
+    public StockReservations(DatabaseConcurrencyExample example, long tick, TimeUnit unit, LongSupplier clock) {
+        this.example = example;
+        this.clock = clock;
+        this.wheel = new HierarchicalTimingWheel<>(tick, unit, WHEEL_SIZE, clock.getAsLong());
+    }
+
+    /**
+     * tick마다 만료를 처리하는 데몬 스레드 시작
+     */
+    public StockReservations start() {
+        if (ticker != null) {
+            return this;
+        }
+        synchronized (this) {
+            if (ticker != null) {
+                return this;
+            }
+            long tickMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(wheel.getTickNanos()));
+            Thread thread = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        Thread.sleep(tickMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    expireDue();
+                }
+            }, "stock-reservation-timer");
+            thread.setDaemon(true);
+            thread.start();
+            ticker = thread;
+            return this;
+        }
+    }
+
+    /**
+     * 재고 예약 (재고를 바로 차감하고 TTL이 지나면 되돌림)
+     *
+     * @return 예약 ID (재고가 부족하거나 상품이 없으면 -1)
+     */
+    public long reserve(String productId, int quantity, long ttl, TimeUnit unit) {
+        if (quantity <= 0 || ttl <= 0) {
+            throw new IllegalArgumentException("수량과 유효 시간은 0보다 커야 합니다: " + quantity + ", " + ttl);
+        }
+        if (!example.decreaseStockWithPessimisticLock(productId, quantity)) {
+            return -1;
+        }
+
+        Reservation reservation = new Reservation(nextId.getAndIncrement(), productId, quantity);
+        reservation.timeout = wheel.schedule(reservation, clock.getAsLong() + unit.toNanos(ttl));
+        pending.put(reservation.id, reservation);
+
+        // pending에 넣기 전에 이미 만료 처리되었다면 남은 항목을 치움
+        if (reservation.state.get() != PENDING) {
+            pending.remove(reservation.id);
+        }
+        return reservation.id;
+    }
+
+    /**
+     * 예약 확정 (차감된 재고를 그대로 유지)
+     *
+     * @return 대기 중인 예약을 확정했으면 true (이미 만료/취소되었거나 없는 예약이면 false)
+     */
+    public boolean confirm(long reservationId) {
+        Reservation reservation = finish(reservationId, CONFIRMED);
+        if (reservation == null) {
+            return false;
+        }
+        confirmed.increment();
+        return true;
+    }
+
+    /**
+     * 예약 취소 (차감된 재고를 되돌림)
+     */
+    public boolean cancel(long reservationId) {
+        Reservation reservation = finish(reservationId, CANCELLED);
+        if (reservation == null) {
+            return false;
+        }
+        example.releaseStock(reservation.productId, reservation.quantity);
+        cancelled.increment();
+        return true;
+    }
+
+    /**
+     * 현재 시각까지 만료된 예약의 재고를 되돌림
+     *
+     * @return 이번에 만료 처리한 예약 수
+     */
+    public int expireDue() {
+        List<Reservation> due = wheel.advanceTo(clock.getAsLong());
+        int count = 0;
+        for (Reservation reservation : due) {
+            if (reservation.state.compareAndSet(PENDING, EXPIRED)) {
+                pending.remove(reservation.id);
+                example.releaseStock(reservation.productId, reservation.quantity);
+                expired.increment();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getConfirmedCount() {
+        return confirmed.sum();
+    }
+
+    public long getCancelledCount() {
+        return cancelled.sum();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    private Reservation finish(long reservationId, int finalState) {
+        Reservation reservation = pending.get(reservationId);
+        if (reservation == null || !reservation.state.compareAndSet(PENDING, finalState)) {
+            return null;
+        }
+        pending.remove(reservationId);
+        wheel.cancel(reservation.timeout);
+        return reservation;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker = null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.emoney.til.hanghae99.day1.db;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 조건부 UPDATE 한 문장으로 재고를 차감하는 저장소
+ *
+ * "UPDATE ... SET stock = stock - ? WHERE id = ? AND stock >= ?"는 DB가 행 락을 잡은 상태에서
+ * 조건 확인과 차감을 한 번에 수행하므로, 조회 후 갱신하는 방식과 달리 애플리케이션과
+ * DB 사이를 오가는 동안 락을 붙잡고 있지 않습니다.
+ */
+@Repository
+public class ConditionalUpdateInventoryRepository implements InventoryRepository {
+
+    private static final String DECREASE_SQL =
+            "UPDATE inventory_item SET stock = stock - ?, version = version + 1 WHERE id = ? AND stock >= ?";
+
+    private static final String SELECT_STOCK_SQL =
+            "SELECT stock FROM inventory_item WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConditionalUpdateInventoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean decreaseStock(String productId, int quantity) {
+        return jdbcTemplate.update(DECREASE_SQL, quantity, productId, quantity) == 1;
+    }
+
+    @Override
+    public int getStock(String productId) {
+        return jdbcTemplate.query(SELECT_STOCK_SQL, rs -> rs.next() ? rs.getInt(1) : -1, productId);
+    }
+}
@@ -0,0 +1,70 @@
+package com.emoney.til.hanghae99.day1.db;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * 재고 엔티티
+ * DatabaseConcurrencyExample.Product를 실제 테이블로 옮긴 형태로,
+ * version 컬럼은 JPA 낙관적 락(@Version)에 사용됩니다.
+ */
+@Entity
+@Table(name = "inventory_item")
+public class InventoryItem {
+
+    @Id
+    @Column(name = "id", length = 64)
+    private String id;
+
+    @Column(name = "stock", nullable = false)
+    private int stock;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    protected InventoryItem() {
+    }
+
+    public InventoryItem(String id, int stock) {
+        this.id = id;
+        this.stock = stock;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * 재고 감소
+     *
+     * @return 재고가 부족하면 false (값은 변경되지 않음)
+     */
+    public boolean decreaseStock(int quantity) {
+        if (stock < quantity) {
+            return false;
+        }
+        stock -= quantity;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryItem{" +
+                "id='" + id + '\'' +
+                ", stock=" + stock +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.emoney.til.hanghae99.day1.db;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface InventoryItemJpaRepository extends JpaRepository<InventoryItem, String> {
+
+    /**
+     * SELECT ... FOR UPDATE로 행 락을 잡고 조회
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventoryItem i WHERE i.id = :id")
+    Optional<InventoryItem> findByIdForUpdate(@Param("id") String id);
+}
@@ -0,0 +1,25 @@
+package com.emoney.til.hanghae99.day1.db;
+
+/**
+ * 실제 DB 행 락을 사용하는 재고 저장소
+ *
+ * DatabaseConcurrencyExample이 ConcurrentHashMap으로 시뮬레이션하던 락 전략을
+ * 실제 데이터베이스에서 수행합니다.
+ * - OptimisticInventoryRepository: @Version 낙관적 락 + 재시도
+ * - PessimisticInventoryRepository: SELECT ... FOR UPDATE
+ * - ConditionalUpdateInventoryRepository: UPDATE ... WHERE stock >= ? 한 문장으로 차감
+ */
+public interface InventoryRepository {
+
+    /**
+     * 재고 감소
+     *
+     * @return 재고가 충분해서 감소에 성공하면 true
+     */
+    boolean decreaseStock(String productId, int quantity);
+
+    /**
+     * 현재 재고 (상품이 없으면 -1)
+     */
+    int getStock(String productId);
+}
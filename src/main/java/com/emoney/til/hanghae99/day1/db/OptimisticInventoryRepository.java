@@ -0,0 +1,64 @@
+package com.emoney.til.hanghae99.day1.db;
+
+import com.emoney.til.hanghae99.day1.lock.BackoffPolicy;
+import java.util.concurrent.TimeUnit;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * JPA @Version을 사용한 낙관적 락 재고 저장소
+ *
+ * 커밋 시점에 "UPDATE ... WHERE id = ? AND version = ?"가 0건이면 충돌로 보고
+ * 새 트랜잭션에서 다시 시도합니다. 재시도 간격은 BackoffPolicy로 조절합니다.
+ */
+@Repository
+public class OptimisticInventoryRepository implements InventoryRepository {
+
+    private final InventoryItemJpaRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile BackoffPolicy backoffPolicy =
+            BackoffPolicy.decorrelatedJitter(30, 1, 50, TimeUnit.MILLISECONDS);
+
+    public OptimisticInventoryRepository(InventoryItemJpaRepository itemRepository,
+                                         PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void setBackoffPolicy(BackoffPolicy backoffPolicy) {
+        this.backoffPolicy = backoffPolicy;
+    }
+
+    @Override
+    public boolean decreaseStock(String productId, int quantity) {
+        BackoffPolicy policy = backoffPolicy;
+        long delayNanos = 0;
+
+        for (int attempt = 1; attempt <= policy.maxAttempts(); attempt++) {
+            try {
+                Boolean success = transactionTemplate.execute(status ->
+                        itemRepository.findById(productId)
+                                .map(item -> item.decreaseStock(quantity))
+                                .orElse(false));
+                return Boolean.TRUE.equals(success);
+            } catch (OptimisticLockingFailureException e) {
+                // 다른 트랜잭션이 먼저 커밋함 - 최신 버전으로 다시 시도
+                if (attempt < policy.maxAttempts()) {
+                    delayNanos = policy.delayNanos(attempt, delayNanos);
+                    if (!BackoffPolicy.pause(delayNanos)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getStock(String productId) {
+        return itemRepository.findById(productId).map(InventoryItem::getStock).orElse(-1);
+    }
+}
@@ -0,0 +1,37 @@
+package com.emoney.til.hanghae99.day1.db;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * SELECT ... FOR UPDATE를 사용한 비관적 락 재고 저장소
+ *
+ * 조회 시점에 행 락을 잡으므로 같은 상품에 대한 다른 트랜잭션은 커밋될 때까지 대기합니다.
+ */
+@Repository
+public class PessimisticInventoryRepository implements InventoryRepository {
+
+    private final InventoryItemJpaRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public PessimisticInventoryRepository(InventoryItemJpaRepository itemRepository,
+                                          PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public boolean decreaseStock(String productId, int quantity) {
+        Boolean success = transactionTemplate.execute(status ->
+                itemRepository.findByIdForUpdate(productId)
+                        .map(item -> item.decreaseStock(quantity))
+                        .orElse(false));
+        return Boolean.TRUE.equals(success);
+    }
+
+    @Override
+    public int getStock(String productId) {
+        return itemRepository.findById(productId).map(InventoryItem::getStock).orElse(-1);
+    }
+}
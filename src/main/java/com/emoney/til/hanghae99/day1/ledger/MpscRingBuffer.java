@@ -0,0 +1,98 @@
+package com.emoney.til.hanghae99.day1.ledger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 고정 크기 링 버퍼 (여러 생산자, 하나의 소비자)
+ *
+ * 슬롯마다 시퀀스 번호를 두어, 생산자는 tail을 CAS로 예약한 뒤 값을 쓰고
+ * 시퀀스를 올려 "읽어도 된다"고 알립니다. 소비자는 하나뿐이므로 head는 CAS 없이 증가합니다.
+ * (Dmitry Vyukov의 bounded queue 방식)
+ * 락을 쓰지 않으며, 배열을 미리 할당해 두므로 넣고 빼는 동안 객체를 만들지 않습니다.
+ */
+public class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    // 소비자 스레드만 접근
+    private long head;
+
+    /**
+     * @param capacity 용량 (2의 거듭제곱으로 올림됨)
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("용량은 1 이상이어야 합니다: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 값 추가 (여러 스레드에서 호출 가능)
+     *
+     * @return 버퍼가 가득 찼으면 false
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long diff = sequence - position;
+
+            if (diff == 0) {
+                // 비어 있는 슬롯: tail을 예약하고 기록
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // 소비자가 아직 한 바퀴 전 값을 읽지 않음 = 가득 참
+                return false;
+            }
+            // diff > 0: 다른 생산자가 먼저 예약함 - 다시 시도
+        }
+    }
+
+    /**
+     * 값 꺼내기 (소비자 스레드 하나에서만 호출)
+     *
+     * @return 비어 있으면 null
+     */
+    public E poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+
+        E element = slots.get(index);
+        slots.lazySet(index, null);
+        // 다음 바퀴의 생산자가 쓸 수 있도록 시퀀스를 한 바퀴 뒤로
+        sequences.set(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    /**
+     * 비어 있는지 확인 (소비자 스레드에서만 호출)
+     */
+    public boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
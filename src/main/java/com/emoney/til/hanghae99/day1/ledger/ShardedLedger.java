@@ -0,0 +1,419 @@
+package com.emoney.til.hanghae99.day1.ledger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 단일 작성자(single-writer) 샤드 원장
+ *
+ * SafeAccountTransfer는 이체마다 두 계좌의 락을 잡고, 경합이 심하면 타임아웃으로 실패합니다.
+ * 이 원장은 계좌를 여러 샤드로 나누고, 샤드마다 전용 스레드 하나만 자기 계좌의 잔액을 변경합니다.
+ * 잔액을 건드리는 스레드가 하나뿐이므로 락이 필요 없고, 락 타임아웃으로 인한 실패도 없습니다.
+ *
+ * 요청은 링 버퍼를 통해 샤드로 전달되며, 다른 샤드 계좌로의 이체는 두 단계로 처리됩니다.
+ * 1. 출금 샤드: 잔액 확인 후 출금(debit)하고 입금 메시지를 상대 샤드로 전송
+ * 2. 입금 샤드: 입금(credit) 후 결과 완료 (계좌가 없으면 출금 샤드로 환불 메시지 전송)
+ * 출금과 입금 사이에는 금액이 "전송 중" 상태이지만, 모든 이체가 끝나면 전체 잔액은 보존됩니다.
+ *
+ * close()는 새 요청을 거부하고, 이미 받은 요청은 (다른 샤드로 넘어간 입금/환불까지) 모두 처리한 뒤 샤드를 멈춥니다.
+ *
+ * 결과 future는 샤드 스레드가 완료하므로, 완료 전에 건 콜백(thenApply, whenComplete 등)도 그 샤드 스레드에서 실행됩니다.
+ * 콜백이 블로킹하거나 오래 걸리면 그동안 샤드의 모든 계좌가 멈추므로, 그런 작업은 executor를 넘긴 *Async 메서드로 실행해야 합니다.
+ */
+public class ShardedLedger implements AutoCloseable {
+
+    /**
+     * 이체 결과
+     */
+    public enum TransferResult {
+        SUCCESS,
+        INSUFFICIENT_FUNDS,
+        UNKNOWN_ACCOUNT
+    }
+
+    private enum CommandType {
+        OPEN, DEBIT, CREDIT, REFUND, BALANCE, TOTAL
+    }
+
+    /**
+     * 샤드로 전달되는 명령
+     */
+    private static final class Command {
+        private final CommandType type;
+        private final long from;
+        private final long to;
+        private final long amount;
+        private final CompletableFuture<Object> future;
+
+        private Command(CommandType type, long from, long to, long amount, CompletableFuture<Object> future) {
+            this.type = type;
+            this.from = from;
+            this.to = to;
+            this.amount = amount;
+            this.future = future;
+        }
+
+        // 같은 이체의 다음 단계 명령 (결과 future를 그대로 넘김)
+        private Command next(CommandType nextType) {
+            return new Command(nextType, from, to, amount, future);
+        }
+    }
+
+    private final Shard[] shards;
+
+    private volatile boolean closed;
+
+    /**
+     * @param shardCount 샤드(전용 스레드) 개수
+     * @param ringCapacity 샤드마다 요청을 받는 링 버퍼 크기
+     */
+    public ShardedLedger(int shardCount, int ringCapacity) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("샤드 개수는 1 이상이어야 합니다: " + shardCount);
+        }
+
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, ringCapacity);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * 계좌 개설 (이미 있으면 잔액을 덮어씀)
+     */
+    public CompletableFuture<Void> openAccount(long accountId, long initialBalance) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        shardOf(accountId).submit(new Command(CommandType.OPEN, accountId, accountId, initialBalance, future));
+        return future.thenApply(result -> null);
+    }
+
+    /**
+     * 이체 요청
+     * 락을 잡지 않고 출금 계좌의 샤드로 명령을 전달하며, 결과는 future로 돌려줍니다.
+     * (future는 샤드 스레드에서 완료되므로 콜백에서 블로킹하면 안 됨)
+     */
+    public CompletableFuture<TransferResult> transfer(long fromAccountId, long toAccountId, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("이체 금액은 0보다 커야 합니다: " + amount);
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        shardOf(fromAccountId).submit(new Command(CommandType.DEBIT, fromAccountId, toAccountId, amount, future));
+        return future.thenApply(TransferResult.class::cast);
+    }
+
+    /**
+     * 잔액 조회 (계좌가 없으면 -1)
+     */
+    public CompletableFuture<Long> balance(long accountId) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        shardOf(accountId).submit(new Command(CommandType.BALANCE, accountId, accountId, 0, future));
+        return future.thenApply(Long.class::cast);
+    }
+
+    /**
+     * 모든 계좌의 잔액 합계
+     * 처리 중인 이체가 없을 때 호출해야 정확합니다.
+     */
+    public long totalBalance() {
+        long total = 0;
+        for (Shard shard : shards) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            shard.submit(new Command(CommandType.TOTAL, 0, 0, 0, future));
+            total += (Long) future.join();
+        }
+        return total;
+    }
+
+    private Shard shardOf(long accountId) {
+        return shards[(int) Math.floorMod(mix(accountId), (long) shards.length)];
+    }
+
+    // 연속된 계좌 번호가 한 샤드에 몰리지 않도록 비트를 섞음
+    private static long mix(long value) {
+        value ^= (value >>> 33);
+        value *= 0xff51afd7ed558ccdL;
+        value ^= (value >>> 33);
+        return value;
+    }
+
+    /**
+     * 원장을 닫습니다.
+     * 새 요청은 IllegalStateException으로 거부하고, 이미 받은 요청이 모두 끝날 때까지 기다린 뒤 샤드를 멈춥니다.
+     * 기다리는 중에 인터럽트되면 남은 요청은 처리하지 않고 IllegalStateException으로 실패시킵니다.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        boolean interrupted = false;
+        while (hasPending()) {
+            if (Thread.interrupted()) {
+                interrupted = true;
+                break;
+            }
+            LockSupport.parkNanos(this, 1_000_000);
+        }
+
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        // 샤드가 멈춘 뒤에도 남은 요청이 있으면 (인터럽트로 기다리기를 중단한 경우) 실패시킴
+        for (Shard shard : shards) {
+            shard.failRemaining();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 받았지만 아직 결과가 나오지 않은 요청이 있는지 확인 (이체는 입금/환불 단계까지 끝나야 하나로 셈)
+     * 이체는 받은 샤드와 끝낸 샤드가 다를 수 있으므로 샤드별 카운터를 모두 합해서 비교합니다.
+     */
+    private boolean hasPending() {
+        // 끝낸 수를 먼저 읽어야 함: 끝난 요청은 받은 수에도 반드시 들어 있으므로 같으면 남은 요청이 없음
+        // submit은 받은 수를 먼저 올린 뒤 closed를 확인하므로, 여기서 읽은 뒤에 들어온 요청은 거부됨
+        long finished = 0;
+        for (Shard shard : shards) {
+            finished += shard.finished;
+        }
+        long submitted = 0;
+        for (Shard shard : shards) {
+            submitted += shard.submitted.get();
+        }
+        return submitted > finished;
+    }
+
+    /**
+     * 샤드: 자기 계좌의 잔액을 혼자 관리하는 스레드
+     */
+    private final class Shard implements Runnable {
+
+        // 대기 전에 스핀하는 횟수
+        private static final int SPIN_LIMIT = 200;
+
+        // 외부 요청용 링 버퍼 (가득 차면 요청하는 쪽이 기다림)
+        private final MpscRingBuffer<Command> requests;
+
+        // 샤드 간 입금/환불 메시지용 큐
+        // 샤드끼리 서로의 링 버퍼가 비기를 기다리다 멈추는 일이 없도록 크기 제한을 두지 않음
+        private final ConcurrentLinkedQueue<Command> transfers = new ConcurrentLinkedQueue<>();
+
+        // 이 샤드 스레드만 접근하므로 일반 HashMap으로 충분
+        private final Map<Long, long[]> balances = new HashMap<>();
+
+        // 이 샤드로 받은 요청 수 (요청하는 스레드들이 올림)
+        private final AtomicLong submitted = new AtomicLong();
+
+        // 이 샤드에서 결과를 낸 요청 수 (샤드 스레드만 올리고, 멈춘 뒤에는 close()가 올림)
+        private volatile long finished;
+
+        private final Thread thread;
+        private volatile boolean running = true;
+        private volatile boolean sleeping;
+
+        private Shard(int index, int ringCapacity) {
+            this.requests = new MpscRingBuffer<>(ringCapacity);
+            this.thread = new Thread(this, "ledger-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void submit(Command command) {
+            // closed보다 받은 수를 먼저 바꿔야 close()가 이 요청을 기다리지 않고 샤드를 멈추는 일이 없음
+            submitted.incrementAndGet();
+            if (closed) {
+                submitted.decrementAndGet();
+                throw new IllegalStateException("닫힌 원장에는 요청할 수 없습니다.");
+            }
+
+            int spins = 0;
+            while (!requests.offer(command)) {
+                if (!running) {
+                    // close()가 기다리기를 중단하고 샤드를 멈춤: 더 기다려도 자리가 나지 않음
+                    submitted.decrementAndGet();
+                    throw new IllegalStateException("닫힌 원장에는 요청할 수 없습니다.");
+                }
+                // 링 버퍼가 가득 참: 샤드가 따라잡을 때까지 잠시 양보 (backpressure)
+                if (++spins < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            wakeUp();
+        }
+
+        private void failRemaining() {
+            Command command;
+            while ((command = transfers.poll()) != null || (command = requests.poll()) != null) {
+                command.future.completeExceptionally(new IllegalStateException("원장이 닫혀 요청이 처리되지 않았습니다."));
+                finished++;
+            }
+        }
+
+        // 요청 결과를 완료하고 끝낸 요청 수를 올림 (샤드 스레드에서만 호출)
+        private void finish(Command command, Object result) {
+            command.future.complete(result);
+            finished++;
+        }
+
+        private void send(Command command) {
+            transfers.add(command);
+            wakeUp();
+        }
+
+        private void wakeUp() {
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running) {
+                Command command = transfers.poll();
+                if (command == null) {
+                    command = requests.poll();
+                }
+
+                if (command != null) {
+                    handle(command);
+                    idle = 0;
+                    continue;
+                }
+
+                if (++idle < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+
+                // 할 일이 없으면 잠듦 (잠들기 직전에 도착한 요청을 놓치지 않도록 한 번 더 확인)
+                sleeping = true;
+                if (transfers.isEmpty() && requests.isEmpty() && running) {
+                    LockSupport.parkNanos(this, 1_000_000);
+                }
+                sleeping = false;
+            }
+        }
+
+        private void handle(Command command) {
+            switch (command.type) {
+                case OPEN:
+                    balances.put(command.from, new long[]{command.amount});
+                    finish(command, null);
+                    break;
+
+                case DEBIT:
+                    debit(command);
+                    break;
+
+                case CREDIT:
+                    long[] toBalance = balances.get(command.to);
+                    if (toBalance == null) {
+                        // 입금 계좌가 없으면 출금한 금액을 돌려줌
+                        shardOf(command.from).send(command.next(CommandType.REFUND));
+                    } else {
+                        toBalance[0] += command.amount;
+                        finish(command, TransferResult.SUCCESS);
+                    }
+                    break;
+
+                case REFUND:
+                    balances.get(command.from)[0] += command.amount;
+                    finish(command, TransferResult.UNKNOWN_ACCOUNT);
+                    break;
+
+                case BALANCE:
+                    long[] balance = balances.get(command.from);
+                    finish(command, balance == null ? -1L : balance[0]);
+                    break;
+
+                case TOTAL:
+                    long total = 0;
+                    for (long[] value : balances.values()) {
+                        total += value[0];
+                    }
+                    finish(command, total);
+                    break;
+            }
+        }
+
+        private void debit(Command command) {
+            long[] fromBalance = balances.get(command.from);
+            if (fromBalance == null) {
+                finish(command, TransferResult.UNKNOWN_ACCOUNT);
+                return;
+            }
+            if (fromBalance[0] < command.amount) {
+                finish(command, TransferResult.INSUFFICIENT_FUNDS);
+                return;
+            }
+
+            fromBalance[0] -= command.amount;
+
+            Shard target = shardOf(command.to);
+            if (target == this) {
+                // 같은 샤드 안의 이체는 메시지 없이 바로 입금
+                handle(command.next(CommandType.CREDIT));
+            } else {
+                target.send(command.next(CommandType.CREDIT));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int accountCount = 10_000;
+        int producerCount = 4;
+        int transfersPerProducer = 500_000;
+
+        try (ShardedLedger ledger = new ShardedLedger(4, 1 << 14)) {
+            for (int i = 0; i < accountCount; i++) {
+                ledger.openAccount(i, 1_000);
+            }
+            System.out.println("이체 전 전체 잔액: " + ledger.totalBalance());
+
+            ExecutorService executor = Executors.newFixedThreadPool(producerCount);
+            CountDownLatch done = new CountDownLatch(producerCount * transfersPerProducer);
+
+            long startedAt = System.nanoTime();
+            for (int p = 0; p < producerCount; p++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < transfersPerProducer; i++) {
+                        ledger.transfer(random.nextInt(accountCount), random.nextInt(accountCount), 1 + random.nextInt(100))
+                                .whenComplete((result, error) -> done.countDown());
+                    }
+                });
+            }
+            done.await();
+            long elapsed = System.nanoTime() - startedAt;
+            executor.shutdown();
+
+            System.out.println("이체 후 전체 잔액: " + ledger.totalBalance());
+            System.out.println("처리량: " + (long) producerCount * transfersPerProducer * 1_000_000_000L / elapsed
+                    + " transfers/sec");
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.emoney.til.hanghae99.day1.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 계좌 이체용 로그 (메모리 매핑된 세그먼트 파일)
+ *
+ * SafeAccountTransfer는 두 계좌의 락을 잡은 채 잔액을 바꾸고, 락을 놓기 전에 변경 내용을 이 로그에 기록합니다.
+ * (기록에 실패하면 락 안에서 잔액을 되돌림) 같은 계좌의 변경은 락 순서대로 LSN을 받으므로
+ * 장애 후 다시 시작할 때 로그를 처음부터 재생(replay)하면 실제로 적용된 순서대로 잔액이 복구됩니다.
+ * 동기화(awaitDurable)는 락을 놓은 뒤에 기다리므로, 그동안 다른 스레드는 아직 디스크에 없는 잔액을 볼 수 있습니다.
+ * 다만 그 잔액에 의존한 이체는 더 큰 LSN을 받으므로, 동기화가 끝났다고 알린 이체가 아직 디스크에 없는 이체에 의존하지는 않습니다.
+ *
+ * 디스크 동기화(force)는 비싸기 때문에 이체마다 따로 하지 않고 그룹 커밋을 사용합니다.
+ * 동기화를 기다리는 스레드 중 하나가 그때까지 기록된 모든 레코드를 한 번에 force하고,
+ * 그 사이에 쌓인 다른 스레드들은 그 결과를 함께 사용합니다.
+ *
+ * 동기화(force)가 한 번이라도 실패하면 로그는 더 이상 쓸 수 없습니다. (이후 기록과 동기화 대기는 모두 UncheckedIOException)
+ * 실패한 뒤 다시 force해서 성공하더라도 앞서 실패한 페이지가 디스크에 남았는지 알 수 없기 때문입니다.
+ * 이때 이미 적용된 메모리의 잔액은 믿을 수 없으므로 버리고, 다시 시작해서 recoverBalances()로 복구해야 합니다.
+ * (동기화되지 못한 이체는 레코드가 디스크에 남았는지에 따라 복구 결과에 있을 수도, 없을 수도 있음)
+ *
+ * 레코드는 32바이트 고정 크기입니다.
+ * [lsn 8][type 1][account 4][counterparty 4][amount 8][crc32 4][padding 3]
+ * lsn이 0이거나 CRC가 맞지 않는 레코드를 만나면 그 지점을 로그의 끝으로 봅니다. (쓰다 만 레코드)
+ */
+public class TransferLog implements AutoCloseable {
+
+    public static final int RECORD_SIZE = 32;
+
+    // 레코드 종류
+    public static final byte TRANSFER = 1;  // account -> counterparty로 amount 이체
+    public static final byte CREDIT = 2;    // account에 amount 입금 (계좌 개설, 충전)
+    public static final byte DEBIT = 3;     // account에서 amount 출금
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+
+    // 세그먼트를 디스크에 동기화 (테스트에서는 실패를 흉내 낼 수 있도록 바꿔 끼움)
+    private final Consumer<MappedByteBuffer> forcer;
+
+    // 처음 실패한 동기화 (null이 아니면 로그를 더 쓸 수 없음)
+    private volatile UncheckedIOException forceFailure;
+
+    // 기록(append)과 세그먼트 교체는 이 락 안에서만
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    // 디스크 동기화는 한 번에 하나만 (기다리는 동안 다른 스레드들의 기록이 쌓임 = 그룹 커밋)
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Segment current;
+    private long nextLsn;
+    private volatile long lastAppendedLsn;
+    private final AtomicLong durableLsn = new AtomicLong();
+
+    // 통계: force 호출 수
+    private final AtomicLong forceCount = new AtomicLong();
+
+    /**
+     * 로그 레코드
+     */
+    public static final class Record {
+        private final long lsn;
+        private final byte type;
+        private final int account;
+        private final int counterparty;
+        private final long amount;
+
+        Record(long lsn, byte type, int account, int counterparty, long amount) {
+            this.lsn = lsn;
+            this.type = type;
+            this.account = account;
+            this.counterparty = counterparty;
+            this.amount = amount;
+        }
+
+        public long getLsn() {
+            return lsn;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public int getAccount() {
+            return account;
+        }
+
+        public int getCounterparty() {
+            return counterparty;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+    }
+
+    /**
+     * 세그먼트 파일 하나
+     */
+    private static final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(Path path, int size) throws IOException {
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        private void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private TransferLog(Path directory, int segmentSize, Consumer<MappedByteBuffer> forcer) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forcer = forcer;
+    }
+
+    /**
+     * 로그를 엽니다. 기존 세그먼트가 있으면 마지막 유효 레코드 다음부터 이어서 기록합니다.
+     *
+     * @param segmentSize 세그먼트 파일 크기 (레코드 크기의 배수로 내림)
+     */
+    public static TransferLog open(Path directory, int segmentSize) throws IOException {
+        return open(directory, segmentSize, MappedByteBuffer::force);
+    }
+
+    /**
+     * @param forcer 세그먼트를 디스크에 동기화하는 방법 (실패는 UncheckedIOException으로 알림)
+     */
+    static TransferLog open(Path directory, int segmentSize, Consumer<MappedByteBuffer> forcer) throws IOException {
+        int size = segmentSize - segmentSize % RECORD_SIZE;
+        if (size < RECORD_SIZE) {
+            throw new IllegalArgumentException("세그먼트 크기가 너무 작습니다: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+
+        TransferLog log = new TransferLog(directory, size, forcer);
+        List<Path> segments = log.segments();
+
+        if (segments.isEmpty()) {
+            log.nextLsn = 1;
+            log.current = new Segment(log.segmentPath(1), size);
+        } else {
+            // 마지막 세그먼트에서 유효한 레코드의 끝을 찾아 이어서 기록
+            Path last = segments.get(segments.size() - 1);
+            Segment segment = new Segment(last, size);
+            long lastLsn = baseLsnOf(last) - 1;
+            int position = 0;
+            while (position + RECORD_SIZE <= size) {
+                Record record = read(segment.buffer, position);
+                if (record == null || record.lsn != lastLsn + 1) {
+                    break;
+                }
+                lastLsn = record.lsn;
+                position += RECORD_SIZE;
+            }
+
+            // 끝 이후는 세그먼트 끝까지 모두 지움
+            // 쓰다 만 레코드 뒤에 이전 실행의 레코드가 남아 있으면, 새 기록이 그 앞을 채웠을 때
+            // LSN이 이어지는 것처럼 보여 다음 복구 때 다시 읽힐 수 있기 때문
+            boolean dirty = false;
+            for (int i = position; i < size; i++) {
+                if (segment.buffer.get(i) != 0) {
+                    segment.buffer.put(i, (byte) 0);
+                    dirty = true;
+                }
+            }
+            if (dirty) {
+                log.force(segment);
+            }
+            segment.buffer.position(position);
+
+            log.current = segment;
+            log.nextLsn = lastLsn + 1;
+        }
+
+        log.lastAppendedLsn = log.nextLsn - 1;
+        log.durableLsn.set(log.nextLsn - 1);
+        return log;
+    }
+
+    /**
+     * 이체 기록 (아직 디스크에 동기화되지 않음)
+     *
+     * @return 기록된 레코드의 LSN (awaitDurable에 전달)
+     */
+    public long appendTransfer(int fromAccount, int toAccount, long amount) {
+        return append(TRANSFER, fromAccount, toAccount, amount);
+    }
+
+    public long appendCredit(int account, long amount) {
+        return append(CREDIT, account, 0, amount);
+    }
+
+    public long appendDebit(int account, long amount) {
+        return append(DEBIT, account, 0, amount);
+    }
+
+    private long append(byte type, int account, int counterparty, long amount) {
+        appendLock.lock();
+        try {
+            checkNotFailed();
+            if (current.buffer.remaining() < RECORD_SIZE) {
+                rotate();
+            }
+
+            long lsn = nextLsn++;
+            write(current.buffer, lsn, type, account, counterparty, amount);
+            lastAppendedLsn = lsn;
+            return lsn;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * 주어진 LSN까지 디스크에 기록될 때까지 기다립니다. (그룹 커밋)
+     * 먼저 락을 잡은 스레드가 그 시점까지 기록된 모든 레코드를 force하므로,
+     * 동시에 기다리던 다른 스레드들은 대부분 force 없이 바로 반환됩니다.
+     *
+     * @throws UncheckedIOException 동기화에 실패했거나, 이 LSN이 동기화되기 전에 로그가 이미 실패한 경우
+     */
+    public void awaitDurable(long lsn) {
+        if (durableLsn.get() >= lsn) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            if (durableLsn.get() >= lsn) {
+                return;
+            }
+            checkNotFailed();
+
+            // force할 세그먼트와 그 시점까지 기록된 LSN을 함께 읽음
+            Segment segment;
+            long target;
+            appendLock.lock();
+            try {
+                segment = current;
+                target = lastAppendedLsn;
+            } finally {
+                appendLock.unlock();
+            }
+
+            force(segment);
+            forceCount.incrementAndGet();
+            durableLsn.accumulateAndGet(target, Math::max);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 이체를 기록하고 디스크에 동기화될 때까지 기다립니다.
+     */
+    public long appendTransferAndSync(int fromAccount, int toAccount, long amount) {
+        long lsn = appendTransfer(fromAccount, toAccount, amount);
+        awaitDurable(lsn);
+        return lsn;
+    }
+
+    /**
+     * 동기화에 실패해서 더 이상 쓸 수 없는 로그인지 확인
+     */
+    public boolean isFailed() {
+        return forceFailure != null;
+    }
+
+    public long getDurableLsn() {
+        return durableLsn.get();
+    }
+
+    public long getLastAppendedLsn() {
+        return lastAppendedLsn;
+    }
+
+    /**
+     * 지금까지 디스크 동기화(force)를 실행한 횟수
+     * 기록된 레코드 수보다 훨씬 작다면 그룹 커밋이 잘 동작하고 있다는 뜻입니다.
+     */
+    public long getForceCount() {
+        return forceCount.get();
+    }
+
+    /**
+     * 세그먼트가 가득 차면 동기화 후 다음 세그먼트로 교체 (appendLock 안에서 호출)
+     */
+    private void rotate() {
+        try {
+            // 이전 세그먼트의 기록은 모두 내구성을 보장한 뒤 교체
+            force(current);
+            forceCount.incrementAndGet();
+            durableLsn.accumulateAndGet(lastAppendedLsn, Math::max);
+            current.close();
+
+            current = new Segment(segmentPath(nextLsn), segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("세그먼트 교체 실패", e);
+        }
+    }
+
+    /**
+     * 세그먼트를 동기화하고, 실패하면 로그를 더 쓸 수 없게 표시
+     */
+    private void force(Segment segment) {
+        try {
+            forcer.accept(segment.buffer);
+        } catch (UncheckedIOException e) {
+            if (forceFailure == null) {
+                forceFailure = e;
+            }
+            throw e;
+        }
+    }
+
+    private void checkNotFailed() {
+        UncheckedIOException failure = forceFailure;
+        if (failure != null) {
+            throw new UncheckedIOException("디스크 동기화에 실패한 로그는 더 쓸 수 없습니다.", failure.getCause());
+        }
+    }
+
+    /**
+     * 모든 세그먼트의 유효한 레코드를 LSN 순서대로 읽습니다.
+     */
+    public List<Record> readAll() throws IOException {
+        List<Record> records = new ArrayList<>();
+        long expectedLsn = -1;
+
+        for (Path path : segments()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int position = 0; position + RECORD_SIZE <= buffer.capacity(); position += RECORD_SIZE) {
+                    Record record = read(buffer, position);
+                    if (record == null || (expectedLsn > 0 && record.lsn != expectedLsn)) {
+                        break;
+                    }
+                    records.add(record);
+                    expectedLsn = record.lsn + 1;
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * 로그를 재생해서 계좌별 잔액을 복구합니다.
+     *
+     * @return 계좌 ID -> 잔액
+     */
+    public Map<Integer, Long> recoverBalances() throws IOException {
+        Map<Integer, Long> balances = new HashMap<>();
+        for (Record record : readAll()) {
+            switch (record.type) {
+                case TRANSFER:
+                    balances.merge(record.account, -record.amount, Long::sum);
+                    balances.merge(record.counterparty, record.amount, Long::sum);
+                    break;
+                case CREDIT:
+                    balances.merge(record.account, record.amount, Long::sum);
+                    break;
+                case DEBIT:
+                    balances.merge(record.account, -record.amount, Long::sum);
+                    break;
+                default:
+                    throw new IllegalStateException("알 수 없는 레코드 종류: " + record.type);
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            // 동기화에 실패한 로그는 다시 force하지 않음 (성공해도 내구성을 보장할 수 없음)
+            try {
+                if (forceFailure == null) {
+                    force(current);
+                    durableLsn.accumulateAndGet(lastAppendedLsn, Math::max);
+                }
+            } finally {
+                current.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // 파일 이름에 첫 LSN을 0으로 채워 넣어 이름 순 정렬이 곧 LSN 순서가 되도록 함
+    private Path segmentPath(long baseLsn) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, baseLsn, SEGMENT_SUFFIX));
+    }
+
+    private static long baseLsnOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void write(MappedByteBuffer buffer, long lsn, byte type, int account, int counterparty, long amount) {
+        int position = buffer.position();
+        buffer.put(position + 8, type);
+        buffer.putInt(position + 9, account);
+        buffer.putInt(position + 13, counterparty);
+        buffer.putLong(position + 17, amount);
+        buffer.putInt(position + 25, checksum(lsn, type, account, counterparty, amount));
+        // lsn을 마지막에 기록해서, 쓰다 만 레코드는 lsn이 0이거나 CRC가 맞지 않도록 함
+        buffer.putLong(position, lsn);
+        buffer.position(position + RECORD_SIZE);
+    }
+
+    private static Record read(MappedByteBuffer buffer, int position) {
+        long lsn = buffer.getLong(position);
+        if (lsn <= 0) {
+            return null;
+        }
+        byte type = buffer.get(position + 8);
+        int account = buffer.getInt(position + 9);
+        int counterparty = buffer.getInt(position + 13);
+        long amount = buffer.getLong(position + 17);
+        int crc = buffer.getInt(position + 25);
+
+        if (crc != checksum(lsn, type, account, counterparty, amount)) {
+            return null;
+        }
+        return new Record(lsn, type, account, counterparty, amount);
+    }
+
+    private static int checksum(long lsn, byte type, int account, int counterparty, long amount) {
+        CRC32 crc = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (lsn >>> shift));
+        }
+        crc.update(type);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            crc.update(account >>> shift);
+            crc.update(counterparty >>> shift);
+        }
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (amount >>> shift));
+        }
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public String toString() {
+        return "TransferLog{" +
+                "directory=" + directory +
+                ", lastAppendedLsn=" + lastAppendedLsn +
+                ", durableLsn=" + durableLsn.get() +
+                ", forceCount=" + forceCount.get() +
+                '}';
+    }
+}
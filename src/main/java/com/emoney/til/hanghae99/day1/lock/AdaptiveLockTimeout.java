@@ -0,0 +1,96 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import com.emoney.til.metrics.ProfiledLock;
+import com.emoney.til.metrics.RecentLatencies;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 최근 보유 시간으로 tryLock 타임아웃과 재시도 대기 시간을 정하는 정책
+ *
+ * 200ms, 500ms 같은 고정 타임아웃은 락마다 하는 일의 길이를 고려하지 않습니다.
+ * 보유 시간이 수 µs인 락을 200ms 기다리는 것은 이미 문제가 생긴 상황에서 꼬리 지연만 늘리고,
+ * 보유 시간이 수백 ms인 락에 짧은 타임아웃을 주면 정상적인 대기도 실패로 끝납니다.
+ *
+ * ProfiledLock이 기록한 그 락 지점(LockSite)의 최근 보유 시간 백분위와 그 락의 대기자 수를 사용합니다.
+ * - 타임아웃 = 2 × p99 보유 시간 × (대기자 수 + 1), [min, max] 범위로 제한
+ *   (앞의 대기자들이 모두 평소처럼 락을 쓰고 놓을 만큼만 기다림)
+ * - backoff = p50 보유 시간 × (대기자 수 + 1), ±50% 무작위 (재시도 시점 분산)
+ * 보유 시간 기록이 없거나 ProfiledLock이 아니면 처음 주어진 기본값을 사용합니다.
+ */
+public class AdaptiveLockTimeout {
+
+    private static final int SAFETY_FACTOR = 2;
+
+    private final long initialNanos;
+    private final long minNanos;
+    private final long maxNanos;
+
+    /**
+     * @param initial 보유 시간 기록이 없을 때의 타임아웃 (기존 고정값)
+     * @param min 타임아웃/backoff의 하한
+     * @param max 타임아웃/backoff의 상한
+     */
+    public AdaptiveLockTimeout(long initial, long min, long max, TimeUnit unit) {
+        if (min > initial || initial > max) {
+            throw new IllegalArgumentException("min <= initial <= max 이어야 합니다: " + min + ", " + initial + ", " + max);
+        }
+        this.initialNanos = unit.toNanos(initial);
+        this.minNanos = unit.toNanos(min);
+        this.maxNanos = unit.toNanos(max);
+    }
+
+    /**
+     * 이 락에 대해 지금 기다릴 시간 (나노초)
+     */
+    public long timeoutNanos(Lock lock) {
+        if (!(lock instanceof ProfiledLock profiled)) {
+            return initialNanos;
+        }
+        long p99 = profiled.getRecentHoldTimes().getPercentile(99);
+        if (p99 < 0) {
+            return initialNanos;
+        }
+        return clamp(saturatedMultiply(p99, (long) SAFETY_FACTOR * (profiled.getWaiting() + 1)));
+    }
+
+    /**
+     * 이 락을 얻지 못했을 때 다시 시도하기 전에 기다릴 시간 (나노초)
+     */
+    public long backoffNanos(Lock lock) {
+        long base;
+        if (lock instanceof ProfiledLock profiled && profiled.getRecentHoldTimes().getCount() > 0) {
+            base = saturatedMultiply(profiled.getRecentHoldTimes().getPercentile(50), profiled.getWaiting() + 1L);
+        } else {
+            base = initialNanos / 4;
+        }
+        base = Math.max(base, 1);
+        return clamp(base / 2 + ThreadLocalRandom.current().nextLong(base + 1));
+    }
+
+    /**
+     * 적응형 타임아웃만큼 기다리며 락 획득을 시도합니다.
+     * (tryLock()을 먼저 부르면 ProfiledLock이 기다려서 얻은 획득도 tryLock 실패로 세므로 한 번만 호출)
+     */
+    public boolean tryLock(Lock lock) throws InterruptedException {
+        return lock.tryLock(timeoutNanos(lock), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 락을 얻지 못한 뒤 backoff만큼 대기
+     *
+     * @return 인터럽트되지 않았으면 true
+     */
+    public boolean backoff(Lock lock) {
+        return BackoffPolicy.pause(backoffNanos(lock));
+    }
+
+    private long clamp(long nanos) {
+        return Math.min(Math.max(nanos, minNanos), maxNanos);
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        return b != 0 && a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+}
@@ -0,0 +1,198 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 충돌 후 재시도할 때의 대기(backoff) 정책
+ *
+ * 낙관적 락처럼 "실패하면 다시 시도"하는 코드에서 몇 번까지, 얼마나 기다렸다가
+ * 재시도할지를 분리해 두면 부하 상황에 맞게 정책만 바꿔 끼울 수 있습니다.
+ * - fixed: 항상 같은 시간 대기 (기존 동작)
+ * - exponential: 실패할 때마다 대기 시간을 두 배로 늘림
+ * - decorrelatedJitter: 직전 대기 시간을 기준으로 무작위 대기 (재시도가 한 시점에 몰리는 것 방지)
+ * - spinThenPark: 처음 몇 번은 CPU를 양보하며 짧게 스핀하고, 이후에는 스레드를 park
+ */
+public interface BackoffPolicy {
+
+    // 이보다 짧은 대기는 park 대신 스핀으로 처리 (park/unpark 비용이 더 큼)
+    long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    /**
+     * 최대 시도 횟수 (첫 시도 포함)
+     */
+    int maxAttempts();
+
+    /**
+     * 다음 재시도 전에 기다릴 시간
+     *
+     * @param failedAttempts 지금까지 실패한 횟수 (1부터 시작)
+     * @param previousDelayNanos 직전 대기 시간 (첫 대기면 0)
+     * @return 대기 시간 (나노초)
+     */
+    long delayNanos(int failedAttempts, long previousDelayNanos);
+
+    /**
+     * 주어진 시간만큼 대기합니다.
+     * 짧은 대기는 스핀으로, 긴 대기는 park로 처리합니다.
+     *
+     * @return 인터럽트되지 않았으면 true
+     */
+    static boolean pause(long delayNanos) {
+        if (delayNanos < SPIN_THRESHOLD_NANOS) {
+            long deadline = System.nanoTime() + delayNanos;
+            do {
+                Thread.onSpinWait();
+            } while (System.nanoTime() < deadline);
+        } else {
+            LockSupport.parkNanos(delayNanos);
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    static BackoffPolicy fixed(int maxAttempts, long delay, TimeUnit unit) {
+        return new Fixed(maxAttempts, unit.toNanos(delay));
+    }
+
+    static BackoffPolicy exponential(int maxAttempts, long baseDelay, long maxDelay, TimeUnit unit) {
+        return new Exponential(maxAttempts, unit.toNanos(baseDelay), unit.toNanos(maxDelay));
+    }
+
+    static BackoffPolicy decorrelatedJitter(int maxAttempts, long baseDelay, long maxDelay, TimeUnit unit) {
+        return new DecorrelatedJitter(maxAttempts, unit.toNanos(baseDelay), unit.toNanos(maxDelay));
+    }
+
+    static BackoffPolicy spinThenPark(int maxAttempts, int spinAttempts, long parkDelay, long maxDelay, TimeUnit unit) {
+        return new SpinThenPark(maxAttempts, spinAttempts, unit.toNanos(parkDelay), unit.toNanos(maxDelay));
+    }
+
+    private static void checkAttempts(int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("최대 시도 횟수는 1 이상이어야 합니다: " + maxAttempts);
+        }
+    }
+
+    /**
+     * 고정 대기
+     */
+    final class Fixed implements BackoffPolicy {
+        private final int maxAttempts;
+        private final long delayNanos;
+
+        Fixed(int maxAttempts, long delayNanos) {
+            checkAttempts(maxAttempts);
+            this.maxAttempts = maxAttempts;
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        public int maxAttempts() {
+            return maxAttempts;
+        }
+
+        @Override
+        public long delayNanos(int failedAttempts, long previousDelayNanos) {
+            return delayNanos;
+        }
+    }
+
+    /**
+     * 지수 증가 대기: base * 2^(실패 횟수 - 1), 최대 maxDelay
+     */
+    final class Exponential implements BackoffPolicy {
+        private final int maxAttempts;
+        private final long baseNanos;
+        private final long maxNanos;
+
+        Exponential(int maxAttempts, long baseNanos, long maxNanos) {
+            checkAttempts(maxAttempts);
+            this.maxAttempts = maxAttempts;
+            this.baseNanos = baseNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        @Override
+        public int maxAttempts() {
+            return maxAttempts;
+        }
+
+        @Override
+        public long delayNanos(int failedAttempts, long previousDelayNanos) {
+            int shift = Math.min(failedAttempts - 1, 30);
+            long delay = baseNanos << shift;
+            return delay < 0 ? maxNanos : Math.min(delay, maxNanos);
+        }
+    }
+
+    /**
+     * Decorrelated jitter: min(maxDelay, random(base, 직전 대기 * 3))
+     * 여러 스레드가 동시에 충돌해도 다음 재시도 시점이 흩어집니다.
+     */
+    final class DecorrelatedJitter implements BackoffPolicy {
+        private final int maxAttempts;
+        private final long baseNanos;
+        private final long maxNanos;
+
+        DecorrelatedJitter(int maxAttempts, long baseNanos, long maxNanos) {
+            checkAttempts(maxAttempts);
+            this.maxAttempts = maxAttempts;
+            this.baseNanos = baseNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        @Override
+        public int maxAttempts() {
+            return maxAttempts;
+        }
+
+        @Override
+        public long delayNanos(int failedAttempts, long previousDelayNanos) {
+            long upper = Math.max(baseNanos, previousDelayNanos) * 3;
+            if (upper < 0 || upper > maxNanos) {
+                upper = maxNanos;
+            }
+            if (upper <= baseNanos) {
+                return upper;
+            }
+            return ThreadLocalRandom.current().nextLong(baseNanos, upper);
+        }
+    }
+
+    /**
+     * 스핀 후 park: spinAttempts번까지는 스핀(짧게 대기), 이후에는 parkDelay부터 두 배씩 늘리며 park
+     * 충돌이 금방 풀리는 경우에는 컨텍스트 스위칭 없이 바로 재시도할 수 있습니다.
+     */
+    final class SpinThenPark implements BackoffPolicy {
+        // 스핀 구간의 대기 시간 (SPIN_THRESHOLD_NANOS보다 짧아 항상 스핀으로 처리됨)
+        private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+        private final int maxAttempts;
+        private final int spinAttempts;
+        private final long parkNanos;
+        private final long maxNanos;
+
+        SpinThenPark(int maxAttempts, int spinAttempts, long parkNanos, long maxNanos) {
+            checkAttempts(maxAttempts);
+            this.maxAttempts = maxAttempts;
+            this.spinAttempts = spinAttempts;
+            this.parkNanos = Math.max(parkNanos, SPIN_THRESHOLD_NANOS);
+            this.maxNanos = maxNanos;
+        }
+
+        @Override
+        public int maxAttempts() {
+            return maxAttempts;
+        }
+
+        @Override
+        public long delayNanos(int failedAttempts, long previousDelayNanos) {
+            if (failedAttempts <= spinAttempts) {
+                return SPIN_NANOS;
+            }
+            int shift = Math.min(failedAttempts - spinAttempts - 1, 30);
+            long delay = parkNanos << shift;
+            return delay < 0 ? maxNanos : Math.min(delay, maxNanos);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 충돌을 고려한 대량 이체 스케줄러
+ *
+ * 정산처럼 수십만 건의 이체를 한 번에 처리할 때 SafeAccountTransfer.transfer를 건별로 호출하면
+ * 같은 계좌를 쓰는 이체끼리 락 경합과 타임아웃이 반복됩니다.
+ * 이 스케줄러는 먼저 계좌 ID를 기준으로 이체 간의 충돌 관계를 계산해서
+ * 서로 겹치는 계좌가 없는 이체들을 하나의 단계(wave)로 묶고,
+ * 단계마다 ForkJoinPool에서 병렬로 실행합니다.
+ *
+ * 이체 i의 단계 = (출금 계좌와 입금 계좌가 마지막으로 등장한 단계 중 큰 값) + 1
+ * 이렇게 정하면 같은 계좌를 쓰는 이체는 항상 요청 순서대로 서로 다른 단계에서 실행되므로
+ * 계좌별 처리 순서가 결정적(deterministic)으로 유지됩니다.
+ */
+public class BatchTransferScheduler {
+
+    // 이보다 작은 단계는 병렬 실행 비용이 더 크므로 호출 스레드에서 바로 처리
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    // ForkJoin 작업 하나가 처리할 이체 수
+    private static final int CHUNK_SIZE = 256;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * 이체 요청
+     */
+    public static final class Transfer {
+        private final SafeAccountTransfer.Account from;
+        private final SafeAccountTransfer.Account to;
+        private final int amount;
+
+        public Transfer(SafeAccountTransfer.Account from, SafeAccountTransfer.Account to, int amount) {
+            this.from = from;
+            this.to = to;
+            this.amount = amount;
+        }
+    }
+
+    /**
+     * 이체 결과
+     */
+    public enum TransferResult {
+        SUCCESS,
+        INSUFFICIENT_FUNDS,
+        INVALID
+    }
+
+    /**
+     * 대량 이체 결과
+     */
+    public static final class BatchResult {
+        private final List<TransferResult> results;
+        private final int waveCount;
+
+        private BatchResult(List<TransferResult> results, int waveCount) {
+            this.results = results;
+            this.waveCount = waveCount;
+        }
+
+        /**
+         * 요청 순서와 같은 순서의 이체별 결과
+         */
+        public List<TransferResult> getResults() {
+            return results;
+        }
+
+        /**
+         * 실행된 단계 수 (계좌 충돌이 많을수록 커짐)
+         */
+        public int getWaveCount() {
+            return waveCount;
+        }
+    }
+
+    public BatchTransferScheduler() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchTransferScheduler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 이체 목록을 충돌 없는 단계로 나누어 실행합니다.
+     */
+    public BatchResult execute(List<Transfer> transfers) {
+        int size = transfers.size();
+        TransferResult[] results = new TransferResult[size];
+        int[] waveOf = new int[size];
+
+        // 1. 계좌별 마지막 단계를 따라가며 이체마다 단계 배정
+        Map<Integer, Integer> lastWave = new HashMap<>();
+        int waveCount = 0;
+        for (int i = 0; i < size; i++) {
+            Transfer transfer = transfers.get(i);
+            if (transfer.amount <= 0 || transfer.from == transfer.to
+                    || transfer.from.getId() == transfer.to.getId()) {
+                results[i] = TransferResult.INVALID;
+                waveOf[i] = -1;
+                continue;
+            }
+
+            int wave = Math.max(lastWave.getOrDefault(transfer.from.getId(), -1),
+                    lastWave.getOrDefault(transfer.to.getId(), -1)) + 1;
+            lastWave.put(transfer.from.getId(), wave);
+            lastWave.put(transfer.to.getId(), wave);
+            waveOf[i] = wave;
+            waveCount = Math.max(waveCount, wave + 1);
+        }
+
+        // 2. 단계별 이체 인덱스 목록 (계수 정렬)
+        int[] waveSizes = new int[waveCount + 1];
+        for (int wave : waveOf) {
+            if (wave >= 0) {
+                waveSizes[wave + 1]++;
+            }
+        }
+        for (int w = 0; w < waveCount; w++) {
+            waveSizes[w + 1] += waveSizes[w];
+        }
+        int[] starts = Arrays.copyOf(waveSizes, waveCount + 1);
+        int[] ordered = new int[waveSizes[waveCount]];
+        for (int i = 0; i < size; i++) {
+            if (waveOf[i] >= 0) {
+                ordered[starts[waveOf[i]]++] = i;
+            }
+        }
+
+        // 3. 단계 순서대로 실행 (단계 안에서는 계좌가 겹치지 않으므로 병렬 실행)
+        for (int w = 0; w < waveCount; w++) {
+            int from = waveSizes[w];
+            int to = waveSizes[w + 1];
+            if (to - from < PARALLEL_THRESHOLD) {
+                runRange(transfers, ordered, from, to, results);
+            } else {
+                pool.invoke(new WaveTask(transfers, ordered, from, to, results));
+            }
+        }
+
+        List<TransferResult> resultList = new ArrayList<>(size);
+        Collections.addAll(resultList, results);
+        return new BatchResult(Collections.unmodifiableList(resultList), waveCount);
+    }
+
+    private static void runRange(List<Transfer> transfers, int[] ordered, int from, int to,
+                                 TransferResult[] results) {
+        for (int k = from; k < to; k++) {
+            int index = ordered[k];
+            results[index] = apply(transfers.get(index));
+        }
+    }
+
+    /**
+     * 이체 하나를 실행
+     * 같은 단계 안에서는 경합이 없지만, 배치 밖에서 SafeAccountTransfer.transfer를 동시에 쓰는 경우에도
+     * 안전하도록 계좌 락을 ID 순서대로 잡습니다. (경합이 없으므로 비용은 매우 작음)
+     */
+    private static TransferResult apply(Transfer transfer) {
+        SafeAccountTransfer.Account first = transfer.from.getId() < transfer.to.getId() ? transfer.from : transfer.to;
+        SafeAccountTransfer.Account second = first == transfer.from ? transfer.to : transfer.from;
+
+        first.getLock().lock();
+        try {
+            second.getLock().lock();
+            try {
+                if (transfer.from.getBalance() < transfer.amount) {
+                    return TransferResult.INSUFFICIENT_FUNDS;
+                }
+                transfer.from.withdraw(transfer.amount);
+                transfer.to.deposit(transfer.amount);
+                return TransferResult.SUCCESS;
+            } finally {
+                second.getLock().unlock();
+            }
+        } finally {
+            first.getLock().unlock();
+        }
+    }
+
+    /**
+     * 한 단계의 이체를 나누어 병렬로 실행하는 ForkJoin 작업
+     */
+    private static final class WaveTask extends RecursiveAction {
+        private final List<Transfer> transfers;
+        private final int[] ordered;
+        private final int from;
+        private final int to;
+        private final TransferResult[] results;
+
+        private WaveTask(List<Transfer> transfers, int[] ordered, int from, int to, TransferResult[] results) {
+            this.transfers = transfers;
+            this.ordered = ordered;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                runRange(transfers, ordered, from, to, results);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new WaveTask(transfers, ordered, from, middle, results),
+                    new WaveTask(transfers, ordered, middle, to, results));
+        }
+    }
+}
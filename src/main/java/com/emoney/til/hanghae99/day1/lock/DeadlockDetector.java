@@ -0,0 +1,195 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * InstrumentedLock의 대기 그래프에서 순환 대기를 찾는 백그라운드 데드락 탐지기
+ *
+ * 일정 주기로 그래프를 검사하며, 그래프에는 오래 기다리는 스레드만 기록되므로
+ * 검사 비용은 "현재 오래 기다리는 스레드 수"에 비례합니다. (평소에는 거의 0)
+ * 데드락을 발견하면 관련 스레드, 기다리는 락, 대기 위치(스택)를 보고하고,
+ * 설정에 따라 가장 최근에 대기를 시작한 스레드를 희생자로 골라 인터럽트합니다.
+ */
+public class DeadlockDetector implements AutoCloseable {
+
+    private final WaitForGraph graph;
+    private final long intervalMillis;
+    private final boolean interruptVictim;
+    private final Consumer<Report> listener;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 데드락에 관련된 스레드 하나
+     */
+    public static final class Participant {
+        private final String threadName;
+        private final String waitingFor;
+        private final long waitingMillis;
+        private final StackTraceElement[] stackTrace;
+
+        Participant(String threadName, String waitingFor, long waitingMillis, StackTraceElement[] stackTrace) {
+            this.threadName = threadName;
+            this.waitingFor = waitingFor;
+            this.waitingMillis = waitingMillis;
+            this.stackTrace = stackTrace;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public String getWaitingFor() {
+            return waitingFor;
+        }
+
+        public long getWaitingMillis() {
+            return waitingMillis;
+        }
+
+        public StackTraceElement[] getStackTrace() {
+            return stackTrace;
+        }
+    }
+
+    /**
+     * 발견한 데드락 하나에 대한 보고서
+     */
+    public static final class Report {
+        private final List<Participant> participants;
+        private final String victim;
+
+        Report(List<Participant> participants, String victim) {
+            this.participants = Collections.unmodifiableList(participants);
+            this.victim = victim;
+        }
+
+        public List<Participant> getParticipants() {
+            return participants;
+        }
+
+        /**
+         * 인터럽트한 희생자 스레드 이름 (희생자를 고르지 않았으면 null)
+         */
+        public String getVictim() {
+            return victim;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("데드락 발견 (스레드 ").append(participants.size()).append("개)\n");
+            for (Participant participant : participants) {
+                sb.append("  ").append(participant.threadName)
+                        .append(" -> ").append(participant.waitingFor)
+                        .append(" 대기 중 (").append(participant.waitingMillis).append("ms)\n");
+                // 대기 위치를 알 수 있도록 락 내부를 제외한 호출 위치 일부만 출력
+                int printed = 0;
+                for (StackTraceElement element : participant.stackTrace) {
+                    if (element.getClassName().startsWith("java.")) {
+                        continue;
+                    }
+                    sb.append("      at ").append(element).append('\n');
+                    if (++printed == 5) {
+                        break;
+                    }
+                }
+            }
+            if (victim != null) {
+                sb.append("  희생자: ").append(victim).append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    public DeadlockDetector(WaitForGraph graph, long interval, TimeUnit unit,
+                            boolean interruptVictim, Consumer<Report> listener) {
+        this.graph = graph;
+        this.intervalMillis = Math.max(1, unit.toMillis(interval));
+        this.interruptVictim = interruptVictim;
+        this.listener = listener;
+    }
+
+    /**
+     * 전역 그래프를 1초 주기로 검사하고 결과를 표준 에러로 출력하는 탐지기
+     */
+    public static DeadlockDetector withDefaults() {
+        return new DeadlockDetector(WaitForGraph.global(), 1, TimeUnit.SECONDS, false,
+                report -> System.err.println(report));
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadlock-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::detectNow, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 그래프를 한 번 검사합니다.
+     * 이미 보고한 데드락은 다시 보고하지 않습니다.
+     */
+    public List<Report> detectNow() {
+        List<Report> reports = new ArrayList<>();
+        long now = System.nanoTime();
+
+        for (List<Map.Entry<Thread, WaitForGraph.WaitRecord>> cycle : graph.findCycles()) {
+            boolean alreadyReported = true;
+            for (Map.Entry<Thread, WaitForGraph.WaitRecord> edge : cycle) {
+                alreadyReported &= edge.getValue().reported;
+            }
+            if (alreadyReported) {
+                continue;
+            }
+
+            List<Participant> participants = new ArrayList<>();
+            Map.Entry<Thread, WaitForGraph.WaitRecord> youngest = cycle.get(0);
+            for (Map.Entry<Thread, WaitForGraph.WaitRecord> edge : cycle) {
+                WaitForGraph.WaitRecord record = edge.getValue();
+                record.reported = true;
+                participants.add(new Participant(
+                        edge.getKey().getName(),
+                        record.lock.getName(),
+                        TimeUnit.NANOSECONDS.toMillis(now - record.sinceNanos),
+                        edge.getKey().getStackTrace()));
+
+                if (record.sinceNanos > youngest.getValue().sinceNanos) {
+                    youngest = edge;
+                }
+            }
+
+            String victim = null;
+            if (interruptVictim) {
+                // 가장 늦게 대기를 시작한 스레드를 희생자로 선택 (가장 적은 작업을 잃음)
+                Thread victimThread = youngest.getKey();
+                graph.markVictim(victimThread);
+                victimThread.interrupt();
+                victim = victimThread.getName();
+            }
+
+            Report report = new Report(participants, victim);
+            reports.add(report);
+            listener.accept(report);
+        }
+        return reports;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
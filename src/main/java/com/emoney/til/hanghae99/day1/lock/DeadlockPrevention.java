@@ -1,11 +1,14 @@
 package com.emoney.til.hanghae99.day1.lock;
 
+import com.emoney.til.metrics.LockProfiler;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 public class DeadlockPrevention {
 
+    // 락 획득 타임아웃: 처음에는 500ms, 이후에는 각 락의 최근 보유 시간에 맞춰 1ms ~ 5s
+    private final AdaptiveLockTimeout lockTimeout = new AdaptiveLockTimeout(500, 1, 5_000, TimeUnit.MILLISECONDS);
+
     public static void main(String[] args) {
         // 데드락이 발생하는 예제
         System.out.println("=== 데드락 발생 가능성 있는 코드 실행 ===");
@@ -29,9 +32,9 @@ public class DeadlockPrevention {
      * 데드락을 방지하는 방법을 보여주는 메서드
      */
     public void runDeadlockPrevention() {
-        // 공유 자원을 나타내는 두 개의 ReentrantLock 객체
-        final Lock firstLock = new ReentrantLock();
-        final Lock secondLock = new ReentrantLock();
+        // 공유 자원을 나타내는 두 개의 락 (보유 시간을 기록하는 ProfiledLock)
+        final Lock firstLock = LockProfiler.global().newLock("DeadlockPrevention.first");
+        final Lock secondLock = LockProfiler.global().newLock("DeadlockPrevention.second");
 
         // 첫 번째 스레드 - 자원을 획득하는 순서가 firstLock -> secondLock
         Thread thread1 = new Thread(() -> {
@@ -39,15 +42,15 @@ public class DeadlockPrevention {
             boolean secondLockAcquired = false;
 
             try {
-                // tryLock을 사용하여 락 획득 시도 (타임아웃 설정)
-                firstLockAcquired = firstLock.tryLock(500, TimeUnit.MILLISECONDS);
+                // tryLock을 사용하여 락 획득 시도 (적응형 타임아웃)
+                firstLockAcquired = lockTimeout.tryLock(firstLock);
                 if (firstLockAcquired) {
                     System.out.println("Thread 1: 첫 번째 락 획득");
 
                     // 작업 시뮬레이션
                     Thread.sleep(100);
 
-                    secondLockAcquired = secondLock.tryLock(500, TimeUnit.MILLISECONDS);
+                    secondLockAcquired = lockTimeout.tryLock(secondLock);
                     if (secondLockAcquired) {
                         System.out.println("Thread 1: 두 번째 락 획득");
 
@@ -84,14 +87,14 @@ public class DeadlockPrevention {
 
             try {
                 // 첫 번째 스레드와 동일한 순서로 락 획득 시도
-                firstLockAcquired = firstLock.tryLock(500, TimeUnit.MILLISECONDS);
+                firstLockAcquired = lockTimeout.tryLock(firstLock);
                 if (firstLockAcquired) {
                     System.out.println("Thread 2: 첫 번째 락 획득");
 
                     // 작업 시뮬레이션
                     Thread.sleep(100);
 
-                    secondLockAcquired = secondLock.tryLock(500, TimeUnit.MILLISECONDS);
+                    secondLockAcquired = lockTimeout.tryLock(secondLock);
                     if (secondLockAcquired) {
                         System.out.println("Thread 2: 두 번째 락 획득");
 
@@ -107,8 +110,8 @@ public class DeadlockPrevention {
                         System.out.println("Thread 2: 첫 번째 락 해제 후 잠시 대기");
                         firstLockAcquired = false;
 
-                        // 잠시 대기 후 다시 시도
-                        Thread.sleep(200);
+                        // 두 번째 락의 최근 보유 시간만큼 대기 후 다시 시도
+                        lockTimeout.backoff(secondLock);
 
                         // 재시도 로직 (실제 코드에서는 이 부분을 재귀 호출이나 루프로 구현할 수 있음)
                         System.out.println("Thread 2: 재시도 중...");
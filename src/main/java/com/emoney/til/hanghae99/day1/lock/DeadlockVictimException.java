@@ -0,0 +1,15 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+/**
+ * 데드락 탐지기가 교착 상태를 풀기 위해 희생자로 선택한 스레드에서 발생하는 예외
+ *
+ * lock()은 인터럽트로 중단되지 않으므로, 희생자로 선택된 경우에만 이 예외로 대기를 중단합니다.
+ * 락을 획득하지 못한 상태이므로 해당 락은 해제하면 안 되고, 이미 잡고 있던 다른 락은
+ * 호출자의 finally 블록에서 정상적으로 해제됩니다.
+ */
+public class DeadlockVictimException extends RuntimeException {
+
+    public DeadlockVictimException(String lockName) {
+        super("데드락 희생자로 선택되어 락 대기를 중단합니다: " + lockName);
+    }
+}
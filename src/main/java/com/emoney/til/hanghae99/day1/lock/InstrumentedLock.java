@@ -0,0 +1,143 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 데드락 탐지를 위해 대기 정보를 기록하는 ReentrantLock
+ *
+ * 소유자(owner)는 ReentrantLock이 이미 관리하고 있으므로 따로 기록하지 않고,
+ * 대기(waiter) 정보만 WaitForGraph에 남깁니다.
+ * 락을 바로 얻거나 짧게 기다린 경우에는 아무것도 기록하지 않고,
+ * 대기 시간이 임계값(waitThreshold)을 넘은 경우에만 기록하므로 평소 비용은 거의 없습니다.
+ */
+public class InstrumentedLock extends ReentrantLock {
+
+    // 이 시간보다 오래 기다릴 때만 wait-for 그래프에 기록
+    private static final long DEFAULT_WAIT_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final String name;
+    private final WaitForGraph graph;
+    private final long waitThresholdNanos;
+
+    public InstrumentedLock(String name) {
+        this(name, WaitForGraph.global(), DEFAULT_WAIT_THRESHOLD_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    public InstrumentedLock(String name, WaitForGraph graph, long waitThreshold, TimeUnit unit) {
+        this.name = name;
+        this.graph = graph;
+        this.waitThresholdNanos = unit.toNanos(waitThreshold);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 현재 락을 소유한 스레드 (없으면 null)
+     */
+    Thread currentOwner() {
+        return getOwner();
+    }
+
+    /**
+     * 락 획득
+     * 인터럽트로는 중단되지 않지만, 데드락 희생자로 선택되면 DeadlockVictimException을 던집니다.
+     */
+    @Override
+    public void lock() {
+        if (super.tryLock()) {
+            return;
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                awaitLock();
+                break;
+            } catch (InterruptedException e) {
+                if (graph.consumeVictim(Thread.currentThread())) {
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new DeadlockVictimException(name);
+                }
+                // 일반 인터럽트는 lock()의 약속대로 기억만 해 두고 계속 대기
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (super.tryLock()) {
+            return;
+        }
+
+        try {
+            awaitLock();
+        } catch (InterruptedException e) {
+            graph.consumeVictim(Thread.currentThread());
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+        if (super.tryLock()) {
+            return true;
+        }
+
+        long timeoutNanos = unit.toNanos(timeout);
+        try {
+            if (timeoutNanos <= waitThresholdNanos) {
+                return super.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+            if (super.tryLock(waitThresholdNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+
+            Thread current = Thread.currentThread();
+            graph.beginWait(current, this);
+            try {
+                return super.tryLock(timeoutNanos - waitThresholdNanos, TimeUnit.NANOSECONDS);
+            } finally {
+                graph.endWait(current);
+            }
+        } catch (InterruptedException e) {
+            graph.consumeVictim(Thread.currentThread());
+            throw e;
+        }
+    }
+
+    /**
+     * 임계값까지는 기록 없이 기다리고, 그 이후에는 대기 정보를 남기고 기다림
+     */
+    private void awaitLock() throws InterruptedException {
+        if (super.tryLock(waitThresholdNanos, TimeUnit.NANOSECONDS)) {
+            return;
+        }
+
+        Thread current = Thread.currentThread();
+        graph.beginWait(current, this);
+        try {
+            super.lockInterruptibly();
+        } finally {
+            graph.endWait(current);
+        }
+    }
+
+    @Override
+    public String toString() {
+        Thread owner = getOwner();
+        return "InstrumentedLock{" +
+                "name='" + name + '\'' +
+                ", owner=" + (owner == null ? "없음" : owner.getName()) +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package com.emoney.til.hanghae99.day1.lock;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -34,16 +35,23 @@ public class OrderedResourceLock {
             processResources(resource3, resource2);
         }, "Task-3");
 
+        Thread task4 = new Thread(() -> {
+            // 세 자원을 모두 사용하는 작업 (개수와 관계없이 같은 방식으로 처리)
+            processResources(resource3, resource1, resource2);
+        }, "Task-4");
+
         // 모든 작업 시작
         task1.start();
         task2.start();
         task3.start();
+        task4.start();
 
         // 작업 완료 대기
         try {
             task1.join();
             task2.join();
             task3.join();
+            task4.join();
             System.out.println("모든 작업이 정상적으로 완료되었습니다.");
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -51,61 +59,179 @@ public class OrderedResourceLock {
     }
 
     /**
-     * 두 개의 자원을 안전하게 처리하는 메서드
+     * 여러 자원을 안전하게 처리하는 메서드
      * 자원의 ID 순서에 따라 락을 획득하므로 데드락이 발생하지 않음
+     * (acquireAll이 배열을 정렬하므로 로그에는 획득한 순서대로 출력됨)
      */
-    public static void processResources(Resource res1, Resource res2) {
-        // ID가 낮은 자원과 높은 자원 결정
-        Resource lowerIdResource;
-        Resource higherIdResource;
-
-        if (res1.getId() < res2.getId()) {
-            lowerIdResource = res1;
-            higherIdResource = res2;
-        } else {
-            lowerIdResource = res2;
-            higherIdResource = res1;
-        }
-
-        // 항상 ID가 낮은 자원의 락부터 획득 (중요: 모든 스레드가 동일한 순서로 락 획득)
-        try {
-            lowerIdResource.getLock().lock();
-            System.out.println(Thread.currentThread().getName() + ": "
-                + lowerIdResource.getName() + " 자원 락 획득 (ID: " + lowerIdResource.getId() + ")");
-
-            // 작업 시뮬레이션
-            Thread.sleep(100);
-
-            higherIdResource.getLock().lock();
+    public static void processResources(Resource... resources) {
+        // 모든 자원의 락을 ID 순서대로 획득하고, 블록을 벗어나면 역순으로 해제
+        try (ResourceLocks locks = acquireAll(resources)) {
             System.out.println(Thread.currentThread().getName() + ": "
-                + higherIdResource.getName() + " 자원 락 획득 (ID: " + higherIdResource.getId() + ")");
-
-            // 두 자원을 모두 획득한 후 작업 수행
-            System.out.println(Thread.currentThread().getName() + ": "
-                + lowerIdResource.getName() + "와 " + higherIdResource.getName()
-                + " 자원을 사용하여 작업 중...");
+                + locks.size() + "개 자원 락 획득 " + describe(resources));
 
             // 실제 작업 시뮬레이션
             Thread.sleep(500);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
+        }
+
+        System.out.println(Thread.currentThread().getName() + ": 자원 락 해제 " + describe(resources));
+    }
+
+    private static String describe(Resource[] resources) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < resources.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(resources[i].getName()).append("(ID: ").append(resources[i].getId()).append(")");
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * 여러 자원의 락을 ID 순서대로 모두 획득합니다.
+     * 반환된 ResourceLocks를 close하면 획득한 역순으로 해제됩니다. (try-with-resources 사용)
+     *
+     * 할당을 줄이기 위해 복사본을 만들지 않고 전달된 배열을 그 자리에서 ID 순으로 정렬합니다.
+     * 따라서 호출 후 배열의 순서가 바뀌며, 반환된 ResourceLocks도 이 배열을 그대로 참조합니다.
+     * 원래 순서가 필요하면 호출하는 쪽에서 clone()한 배열을 넘기고, 락을 쥔 동안 배열을 수정하지 마세요.
+     *
+     * @param resources 획득할 자원 (호출 후 ID 순으로 정렬됨, 같은 자원이 여러 번 있으면 한 번만 획득)
+     */
+    public static ResourceLocks acquireAll(Resource... resources) {
+        sortById(resources);
+
+        ResourceLocks locks = new ResourceLocks(resources);
+        try {
+            for (int i = 0; i < resources.length; i++) {
+                if (isDuplicate(resources, i)) {
+                    continue;
+                }
+                resources[i].getLock().lock();
+                locks.acquired = i + 1;
+            }
+        } catch (RuntimeException | Error e) {
+            locks.close();
+            throw e;
+        }
+        return locks;
+    }
+
+    /**
+     * 제한 시간 안에 모든 자원의 락을 획득합니다. (all-or-nothing)
+     * 하나라도 제한 시간 안에 얻지 못하면 이미 획득한 락을 모두 해제하고 null을 반환합니다.
+     *
+     * acquireAll과 마찬가지로 전달된 배열을 그 자리에서 ID 순으로 정렬합니다. (실패해도 정렬된 채로 남음)
+     *
+     * @param resources 획득할 자원 (호출 후 ID 순으로 정렬됨)
+     * @return 모두 획득하면 ResourceLocks, 시간 초과면 null
+     */
+    public static ResourceLocks tryAcquireAll(long timeout, TimeUnit unit, Resource... resources)
+            throws InterruptedException {
+        sortById(resources);
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        ResourceLocks locks = new ResourceLocks(resources);
+        boolean success = false;
+        try {
+            for (int i = 0; i < resources.length; i++) {
+                if (isDuplicate(resources, i)) {
+                    continue;
+                }
+                if (!resources[i].getLock().tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return null;
+                }
+                locks.acquired = i + 1;
+            }
+            success = true;
+            return locks;
         } finally {
-            // 획득한 순서의 역순으로 락 해제
-            System.out.println(Thread.currentThread().getName() + ": "
-                + higherIdResource.getName() + " 자원 락 해제 (ID: " + higherIdResource.getId() + ")");
-            higherIdResource.getLock().unlock();
+            // 시간 초과, 인터럽트, 예외 모두 획득한 락을 되돌림
+            if (!success) {
+                locks.close();
+            }
+        }
+    }
 
-            System.out.println(Thread.currentThread().getName() + ": "
-                + lowerIdResource.getName() + " 자원 락 해제 (ID: " + lowerIdResource.getId() + ")");
-            lowerIdResource.getLock().unlock();
+    /**
+     * ID 순 삽입 정렬 (자원 수가 적으므로 추가 메모리 없이 충분히 빠름)
+     * ID가 같은데 서로 다른 자원이면 순서를 정할 수 없으므로 예외를 던집니다.
+     */
+    private static void sortById(Resource[] resources) {
+        for (int i = 1; i < resources.length; i++) {
+            Resource current = resources[i];
+            int j = i - 1;
+            while (j >= 0 && resources[j].getId() > current.getId()) {
+                resources[j + 1] = resources[j];
+                j--;
+            }
+            resources[j + 1] = current;
+        }
+
+        for (int i = 1; i < resources.length; i++) {
+            if (resources[i].getId() == resources[i - 1].getId() && resources[i] != resources[i - 1]) {
+                throw new IllegalArgumentException("같은 ID를 가진 서로 다른 자원이 있습니다: " + resources[i].getId());
+            }
+        }
+    }
+
+    private static boolean isDuplicate(Resource[] resources, int index) {
+        return index > 0 && resources[index] == resources[index - 1];
+    }
+
+    /**
+     * acquireAll로 획득한 락 묶음
+     * 획득할 때마다 새로 만들므로 이미 닫은 객체를 다시 닫아도 나중에 획득한 락에는 영향이 없습니다.
+     * (짧게 쓰고 버리는 객체라 JIT의 탈출 분석으로 할당이 제거되는 경우가 많음)
+     */
+    public static final class ResourceLocks implements AutoCloseable {
+
+        private final Resource[] resources;
+        private int acquired;
+        private boolean open = true;
+
+        private ResourceLocks(Resource[] resources) {
+            this.resources = resources;
+        }
+
+        /**
+         * 획득한 서로 다른 자원의 수
+         */
+        public int size() {
+            int count = 0;
+            for (int i = 0; i < acquired; i++) {
+                if (!isDuplicate(resources, i)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * 획득한 역순으로 락 해제
+         */
+        @Override
+        public void close() {
+            if (!open) {
+                return;
+            }
+            open = false;
+
+            for (int i = acquired - 1; i >= 0; i--) {
+                if (!isDuplicate(resources, i)) {
+                    resources[i].getLock().unlock();
+                }
+            }
+            acquired = 0;
         }
     }
 
     /**
      * 자원 클래스
      */
-    static class Resource {
+    public static class Resource {
         private final int id;
         private final String name;
         private final Lock lock;
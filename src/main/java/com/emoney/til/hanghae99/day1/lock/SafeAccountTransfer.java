@@ -1,8 +1,13 @@
 package com.emoney.til.hanghae99.day1.lock;
 
+import com.emoney.til.hanghae99.day1.ledger.TransferLog;
+import com.emoney.til.metrics.LockProfiler;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 계좌 이체 시 데드락을 방지하는 예제
@@ -12,6 +17,35 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class SafeAccountTransfer {
 
+    // 계좌 락 타임아웃: 처음에는 200ms, 이후에는 계좌 락의 최근 보유 시간에 맞춰 1ms ~ 2s
+    private static final AdaptiveLockTimeout LOCK_TIMEOUT =
+            new AdaptiveLockTimeout(200, 1, 2_000, TimeUnit.MILLISECONDS);
+
+    /**
+     * 이체 실행 설정 (호출마다 넘기므로 동시에 실행 중인 다른 이체에 영향을 주지 않음)
+     *
+     * @param verbose 이체 과정 로그 출력 여부 (대량 이체에서는 끔)
+     * @param networkDelayMillis 출금과 입금 사이의 네트워크 지연 시뮬레이션 (스트레스 테스트에서는 0)
+     */
+    public record Options(boolean verbose, long networkDelayMillis) {
+
+        // 데모 기본값: 로그 출력, 100ms 지연
+        public static final Options DEFAULT = new Options(true, 100);
+
+        public Options {
+            if (networkDelayMillis < 0) {
+                throw new IllegalArgumentException("지연 시간은 음수일 수 없습니다: " + networkDelayMillis);
+            }
+        }
+
+        /**
+         * 로그를 출력하지 않는 설정
+         */
+        public static Options quiet(long networkDelayMillis) {
+            return new Options(false, networkDelayMillis);
+        }
+    }
+
     public static void main(String[] args) {
         // 계좌 생성
         Account account1 = new Account(1, 1000);
@@ -46,6 +80,60 @@ public class SafeAccountTransfer {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+
+        // 가상 스레드 모드: 이체마다 가상 스레드 하나 (10만 건 동시 이체)
+        System.out.println("\n===== 가상 스레드 대량 이체 =====");
+        runWithVirtualThreads(100_000, 100_000);
+    }
+
+    /**
+     * 이체 요청마다 가상 스레드 하나를 사용해서 대량의 이체를 동시에 실행합니다.
+     * 계좌 락이 ReentrantLock이므로 락 대기나 sleep 중에도 가상 스레드가 캐리어 스레드를 점유하지 않습니다.
+     *
+     * @param transferCount 동시 이체 수
+     * @param accountCount 계좌 수
+     */
+    public static void runWithVirtualThreads(int transferCount, int accountCount) {
+        Account[] accounts = new Account[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = new Account(i, 1000);
+        }
+
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger failure = new AtomicInteger();
+        // 이 실행의 이체만 로그를 끔 (동시에 실행 중인 다른 이체의 설정은 그대로)
+        Options options = Options.quiet(Options.DEFAULT.networkDelayMillis());
+
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < transferCount; i++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Account from = accounts[random.nextInt(accountCount)];
+                    Account to = accounts[random.nextInt(accountCount)];
+                    if (from == to || !transfer(from, to, 1 + random.nextInt(100), null, options)) {
+                        failure.incrementAndGet();
+                    } else {
+                        success.incrementAndGet();
+                    }
+                });
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        long total = 0;
+        for (Account account : accounts) {
+            total += account.getBalance();
+        }
+        System.out.println("이체 " + transferCount + "건: 성공 " + success.get() + ", 실패 " + failure.get()
+                + ", 소요 시간 " + elapsedMillis + "ms");
+        System.out.println("전체 잔액: " + total + " (기대값 " + accountCount * 1000L + ")");
+    }
+
+    private static void log(Options options, String message) {
+        if (options.verbose()) {
+            System.out.println(Thread.currentThread().getName() + message);
+        }
     }
 
     /**
@@ -57,79 +145,165 @@ public class SafeAccountTransfer {
      * @return 이체 성공 여부
      */
     public static boolean transfer(Account fromAccount, Account toAccount, int amount) {
+        return transfer(fromAccount, toAccount, amount, null, Options.DEFAULT);
+    }
+
+    /**
+     * 이체 내용을 선행 기록 로그(WAL)에 남기면서 계좌 이체를 수행하는 메서드
+     *
+     * 두 계좌의 락을 잡은 상태에서 출금과 입금을 모두 적용한 뒤에 로그에 기록하므로
+     * 계좌별 로그 순서와 실제 적용 순서가 같고, 중간에 중단된 이체가 로그에 남지 않습니다.
+     * 기록에 실패하면 락을 놓기 전에 출금과 입금을 되돌리므로 로그에 없는 이체가 잔액에 남지도 않습니다.
+     * 디스크 동기화는 락을 놓은 뒤에 기다리므로, 동기화 중에도 다른 이체가 같은 계좌를 사용할 수 있고
+     * 동시에 기다리는 이체들은 한 번의 force로 함께 커밋됩니다. (그룹 커밋)
+     * 동기화에 실패하면 이미 다른 스레드가 바뀐 잔액을 보고 이체했을 수 있으므로 되돌리지 않습니다.
+     * 대신 로그가 실패 상태가 되어 이후의 이체는 모두 거부되고(기록 실패로 되돌림), 잔액은 로그에서 다시 복구해야 합니다.
+     *
+     * @param log 이체를 기록할 로그 (null이면 기록하지 않음)
+     * @return 이체 성공 여부 (true면 로그가 디스크에 기록된 뒤 반환)
+     * @throws java.io.UncheckedIOException 로그 기록에 실패한 경우 (두 계좌의 잔액은 이체 전으로 되돌림),
+     *         또는 디스크 동기화에 실패한 경우 (잔액은 이체된 그대로이고 내구성은 보장되지 않음)
+     */
+    public static boolean transfer(Account fromAccount, Account toAccount, int amount, TransferLog log) {
+        return transfer(fromAccount, toAccount, amount, log, Options.DEFAULT);
+    }
+
+    /**
+     * 로그 출력과 네트워크 지연을 지정해서 계좌 이체를 수행하는 메서드
+     *
+     * @param log 이체를 기록할 로그 (null이면 기록하지 않음)
+     * @param options 이 이체의 실행 설정
+     * @return 이체 성공 여부 (true면 로그가 디스크에 기록된 뒤 반환)
+     * @throws java.io.UncheckedIOException 로그 기록에 실패한 경우 (두 계좌의 잔액은 이체 전으로 되돌림),
+     *         또는 디스크 동기화에 실패한 경우 (잔액은 이체된 그대로이고 내구성은 보장되지 않음)
+     */
+    public static boolean transfer(Account fromAccount, Account toAccount, int amount, TransferLog log,
+                                   Options options) {
+        long networkDelayMillis = options.networkDelayMillis();
         // 최대 재시도 횟수
         int retryCount = 3;
+        long lsn = 0;
+        boolean transferred = false;
+        Lock contendedLock = null;
+
+        while (retryCount > 0 && !transferred) {
+            // 직전에 락을 얻지 못했다면, 그 락의 최근 보유 시간만큼 기다렸다가 재시도 (락을 모두 놓은 상태)
+            if (contendedLock != null) {
+                if (!LOCK_TIMEOUT.backoff(contendedLock)) {
+                    log(options, ": 인터럽트 발생");
+                    return false;
+                }
+                contendedLock = null;
+            }
 
-        while (retryCount > 0) {
             boolean fromLockAcquired = false;
             boolean toLockAcquired = false;
 
             try {
-                // 출금 계좌 락 획득 시도 (타임아웃 설정)
-                fromLockAcquired = fromAccount.getLock().tryLock(200, TimeUnit.MILLISECONDS);
+                // 출금 계좌 락 획득 시도 (적응형 타임아웃)
+                fromLockAcquired = LOCK_TIMEOUT.tryLock(fromAccount.getLock());
                 if (!fromLockAcquired) {
-                    System.out.println(Thread.currentThread().getName() + ": 출금 계좌 락 획득 실패, 재시도 중...");
+                    log(options, ": 출금 계좌 락 획득 실패, 재시도 중...");
                     retryCount--;
+                    contendedLock = fromAccount.getLock();
                     continue;
                 }
 
-                System.out.println(Thread.currentThread().getName() + ": 출금 계좌 " + fromAccount.getId() + " 락 획득");
+                log(options, ": 출금 계좌 " + fromAccount.getId() + " 락 획득");
 
-                // 입금 계좌 락 획득 시도 (타임아웃 설정)
-                toLockAcquired = toAccount.getLock().tryLock(200, TimeUnit.MILLISECONDS);
+                // 입금 계좌 락 획득 시도 (적응형 타임아웃)
+                toLockAcquired = LOCK_TIMEOUT.tryLock(toAccount.getLock());
                 if (!toLockAcquired) {
-                    System.out.println(Thread.currentThread().getName() + ": 입금 계좌 락 획득 실패, 재시도 중...");
+                    log(options, ": 입금 계좌 락 획득 실패, 재시도 중...");
                     retryCount--;
+                    contendedLock = toAccount.getLock();
                     continue;
                 }
 
-                System.out.println(Thread.currentThread().getName() + ": 입금 계좌 " + toAccount.getId() + " 락 획득");
+                log(options, ": 입금 계좌 " + toAccount.getId() + " 락 획득");
 
                 // 출금 가능 여부 확인
                 if (fromAccount.getBalance() < amount) {
-                    System.out.println(Thread.currentThread().getName() + ": 잔액 부족!");
+                    log(options, ": 잔액 부족!");
                     return false;
                 }
 
                 // 이체 작업 시뮬레이션 (출금 후 입금)
-                System.out.println(Thread.currentThread().getName() + ": 계좌 " + fromAccount.getId() +
+                log(options, ": 계좌 " + fromAccount.getId() +
                     "에서 " + toAccount.getId() + "로 " + amount + "원 이체 중...");
 
                 // 실제 이체 작업 수행
                 fromAccount.withdraw(amount);
 
                 // 네트워크 지연 시뮬레이션
-                Thread.sleep(100);
+                if (networkDelayMillis > 0) {
+                    try {
+                        Thread.sleep(networkDelayMillis);
+                    } catch (InterruptedException e) {
+                        // 입금 전에 중단되면 출금을 되돌림 (로그에는 아직 기록하지 않았으므로 남길 것이 없음)
+                        fromAccount.deposit(amount);
+                        Thread.currentThread().interrupt();
+                        log(options, ": 인터럽트 발생, 출금 취소");
+                        return false;
+                    }
+                }
 
                 toAccount.deposit(amount);
 
-                System.out.println(Thread.currentThread().getName() + ": 이체 완료!");
-                return true;
+                // 출금과 입금이 모두 적용된 뒤에 로그에 기록 (아직 두 계좌의 락을 잡고 있으므로 계좌별 순서는 유지됨)
+                if (log != null) {
+                    try {
+                        lsn = log.appendTransfer(fromAccount.getId(), toAccount.getId(), amount);
+                    } catch (RuntimeException e) {
+                        // 세그먼트 매핑/교체 실패: 복구하면 사라질 이체이므로 잔액도 되돌림
+                        toAccount.withdraw(amount);
+                        fromAccount.deposit(amount);
+                        log(options, ": 로그 기록 실패, 이체 취소");
+                        throw e;
+                    }
+                }
+
+                log(options, ": 이체 완료!");
+                transferred = true;
 
             } catch (InterruptedException e) {
-                System.out.println(Thread.currentThread().getName() + ": 인터럽트 발생");
+                log(options, ": 인터럽트 발생");
                 return false;
             } finally {
                 // 중요: 획득한 락은 반드시 해제 (역순으로 해제)
                 if (toLockAcquired) {
                     toAccount.getLock().unlock();
-                    System.out.println(Thread.currentThread().getName() + ": 입금 계좌 " + toAccount.getId() + " 락 해제");
+                    log(options, ": 입금 계좌 " + toAccount.getId() + " 락 해제");
                 }
                 if (fromLockAcquired) {
                     fromAccount.getLock().unlock();
-                    System.out.println(Thread.currentThread().getName() + ": 출금 계좌 " + fromAccount.getId() + " 락 해제");
+                    log(options, ": 출금 계좌 " + fromAccount.getId() + " 락 해제");
                 }
             }
         }
 
-        System.out.println(Thread.currentThread().getName() + ": 최대 재시도 횟수 초과, 이체 실패");
-        return false;
+        if (!transferred) {
+            log(options, ": 최대 재시도 횟수 초과, 이체 실패");
+            return false;
+        }
+
+        // 락을 놓은 뒤에 디스크 동기화 대기
+        if (log != null) {
+            try {
+                log.awaitDurable(lsn);
+            } catch (RuntimeException e) {
+                // 락을 놓은 뒤라 다른 이체가 이 잔액을 이미 썼을 수 있으므로 되돌리지 않음 (로그가 이후 이체를 막음)
+                log(options, ": 디스크 동기화 실패, 이체는 적용되었지만 내구성은 보장되지 않음");
+                throw e;
+            }
+        }
+        return true;
     }
 
     /**
      * 계좌 클래스
      */
-    static class Account {
+    public static class Account {
         private final int id;
         private int balance;
         private final Lock lock;
@@ -137,7 +311,8 @@ public class SafeAccountTransfer {
         public Account(int id, int initialBalance) {
             this.id = id;
             this.balance = initialBalance;
-            this.lock = new ReentrantLock();
+            // 계좌 락의 경합은 "SafeAccountTransfer.account" 지점으로 모아서 기록
+            this.lock = LockProfiler.global().newLock("SafeAccountTransfer.account");
         }
 
         public int getId() {
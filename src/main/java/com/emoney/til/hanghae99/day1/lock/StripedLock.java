@@ -0,0 +1,71 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 스트라이프(Striped) 락 테이블
+ *
+ * 키마다 락을 하나씩 만드는 대신 고정된 개수의 락(stripe)을 미리 만들어 두고,
+ * 키의 해시값으로 사용할 stripe를 선택합니다.
+ * 상품이 수백만 개로 늘어나도 락이 차지하는 메모리는 stripe 개수만큼으로 일정합니다.
+ *
+ * 서로 다른 키가 같은 stripe에 배정되면 불필요한 대기가 생길 수 있으므로
+ * stripe 개수는 동시에 실행되는 스레드 수보다 넉넉하게 잡는 것이 좋습니다.
+ */
+public class StripedLock {
+
+    // 인덱스 계산을 비트 연산으로 하기 위해 stripe 개수는 2의 거듭제곱으로 맞춤
+    private final Lock[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripeCount 원하는 stripe 개수 (2의 거듭제곱으로 올림됨)
+     */
+    public StripedLock(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripe 개수는 1 이상이어야 합니다: " + stripeCount);
+        }
+
+        int size = ceilingPowerOfTwo(stripeCount);
+        this.stripes = new Lock[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 키에 해당하는 stripe 락을 반환합니다.
+     * 같은 키는 항상 같은 락을 반환합니다.
+     */
+    public Lock getLock(Object key) {
+        return stripes[indexFor(key)];
+    }
+
+    /**
+     * 키가 배정되는 stripe 인덱스
+     */
+    public int indexFor(Object key) {
+        int h = key.hashCode();
+        // HashMap과 같은 방식으로 상위 비트를 섞어 하위 비트만 쓰는 마스킹의 편향을 줄임
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+
+    /**
+     * 실제로 생성된 stripe 개수
+     */
+    public int size() {
+        return stripes.length;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        if (value > (1 << 30)) {
+            throw new IllegalArgumentException("stripe 개수가 너무 큽니다: " + value);
+        }
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
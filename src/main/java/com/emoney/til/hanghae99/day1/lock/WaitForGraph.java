@@ -0,0 +1,139 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 대기 그래프(wait-for graph)
+ *
+ * "스레드 T가 락 L을 기다린다"는 간선과 "락 L은 스레드 U가 가지고 있다"는 간선을 따라가다가
+ * 처음 스레드로 돌아오면 데드락(순환 대기)입니다.
+ * 대기 간선은 InstrumentedLock이 오래 기다릴 때만 기록하고,
+ * 소유 간선은 탐지 시점에 락에서 직접 읽습니다.
+ */
+public class WaitForGraph {
+
+    private static final WaitForGraph GLOBAL = new WaitForGraph();
+
+    // 스레드 -> 기다리고 있는 락
+    private final ConcurrentHashMap<Thread, WaitRecord> waiting = new ConcurrentHashMap<>();
+
+    // 데드락을 풀기 위해 희생자로 선택된 스레드
+    private final Set<Thread> victims = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 대기 정보
+     */
+    static final class WaitRecord {
+        final InstrumentedLock lock;
+        final long sinceNanos;
+        volatile boolean reported;
+
+        WaitRecord(InstrumentedLock lock, long sinceNanos) {
+            this.lock = lock;
+            this.sinceNanos = sinceNanos;
+        }
+    }
+
+    /**
+     * 별도로 지정하지 않은 InstrumentedLock이 사용하는 그래프
+     */
+    public static WaitForGraph global() {
+        return GLOBAL;
+    }
+
+    void beginWait(Thread thread, InstrumentedLock lock) {
+        waiting.put(thread, new WaitRecord(lock, System.nanoTime()));
+    }
+
+    void endWait(Thread thread) {
+        waiting.remove(thread);
+    }
+
+    void markVictim(Thread thread) {
+        victims.add(thread);
+    }
+
+    /**
+     * 희생자 표시를 확인하고 지웁니다.
+     *
+     * @return 희생자로 선택된 스레드였으면 true
+     */
+    boolean consumeVictim(Thread thread) {
+        return victims.remove(thread);
+    }
+
+    /**
+     * 현재 오래 기다리고 있는 스레드 수
+     */
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * 순환 대기를 모두 찾습니다.
+     * 각 순환은 대기 순서대로 나열된 (스레드, 대기 정보) 목록입니다.
+     */
+    List<List<Map.Entry<Thread, WaitRecord>>> findCycles() {
+        List<List<Map.Entry<Thread, WaitRecord>>> cycles = new ArrayList<>();
+        Set<Thread> visited = new HashSet<>();
+
+        for (Thread start : waiting.keySet()) {
+            if (visited.contains(start)) {
+                continue;
+            }
+
+            // start에서 출발해 "기다리는 락의 소유자"를 따라감
+            List<Map.Entry<Thread, WaitRecord>> path = new ArrayList<>();
+            Map<Thread, Integer> positions = new HashMap<>();
+            Thread current = start;
+
+            while (current != null && !visited.contains(current)) {
+                WaitRecord record = waiting.get(current);
+                if (record == null) {
+                    break;
+                }
+
+                positions.put(current, path.size());
+                path.add(Map.entry(current, record));
+                visited.add(current);
+
+                Thread owner = record.lock.currentOwner();
+                Integer cycleStart = owner == null ? null : positions.get(owner);
+                if (cycleStart != null) {
+                    List<Map.Entry<Thread, WaitRecord>> cycle =
+                            new ArrayList<>(path.subList(cycleStart, path.size()));
+                    if (isStillDeadlocked(cycle)) {
+                        cycles.add(cycle);
+                    }
+                    break;
+                }
+                current = owner;
+            }
+        }
+        return cycles;
+    }
+
+    /**
+     * 그래프를 읽는 동안 상태가 바뀌었을 수 있으므로, 순환의 모든 간선이 여전히 유효한지 다시 확인
+     */
+    private boolean isStillDeadlocked(List<Map.Entry<Thread, WaitRecord>> cycle) {
+        for (int i = 0; i < cycle.size(); i++) {
+            Map.Entry<Thread, WaitRecord> edge = cycle.get(i);
+            Thread next = cycle.get((i + 1) % cycle.size()).getKey();
+
+            if (waiting.get(edge.getKey()) != edge.getValue()) {
+                return false;
+            }
+            if (edge.getValue().lock.currentOwner() != next) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package com.emoney.til.hanghae99.day1.stress;
+
+import com.emoney.til.hanghae99.day1.lock.SafeAccountTransfer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 계좌 이체 시나리오 (SafeAccountTransfer.transfer)
+ * 키는 출금 계좌이고, 입금 계좌와 금액은 스레드 난수로 고릅니다.
+ *
+ * 불변 조건
+ * - 잔액은 실행 중에도 음수가 되지 않음
+ * - 끝난 뒤: 전체 잔액 합계가 처음과 같음
+ *
+ * 이체는 로그 없이 실행하고, 이체 안의 네트워크 지연은 시나리오마다 정합니다. (기본 0ms)
+ */
+public class AccountTransferScenario implements StressScenario {
+
+    private final int initialBalance;
+    private final int maxAmount;
+    private final SafeAccountTransfer.Account[] accounts;
+    private final SafeAccountTransfer.Options options;
+
+    public AccountTransferScenario(int accountCount, int initialBalance, int maxAmount) {
+        this(accountCount, initialBalance, maxAmount, 0);
+    }
+
+    /**
+     * @param networkDelayMillis 이체마다 출금과 입금 사이에 기다리는 시간
+     */
+    public AccountTransferScenario(int accountCount, int initialBalance, int maxAmount, long networkDelayMillis) {
+        if (accountCount < 2) {
+            throw new IllegalArgumentException("계좌는 2개 이상이어야 합니다: " + accountCount);
+        }
+        this.initialBalance = initialBalance;
+        this.maxAmount = maxAmount;
+        this.options = SafeAccountTransfer.Options.quiet(networkDelayMillis);
+        this.accounts = new SafeAccountTransfer.Account[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = new SafeAccountTransfer.Account(i, initialBalance);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "계좌 이체";
+    }
+
+    @Override
+    public int getKeyCount() {
+        return accounts.length;
+    }
+
+    @Override
+    public boolean execute(int key, SplittableRandom random) {
+        // 출금 계좌를 뺀 나머지 중에서 입금 계좌 선택
+        int to = random.nextInt(accounts.length - 1);
+        if (to >= key) {
+            to++;
+        }
+        return SafeAccountTransfer.transfer(accounts[key], accounts[to], 1 + random.nextInt(maxAmount), null, options);
+    }
+
+    @Override
+    public List<String> checkWhileRunning() {
+        List<String> violations = new ArrayList<>();
+        for (SafeAccountTransfer.Account account : accounts) {
+            int balance = account.getBalance();
+            if (balance < 0) {
+                violations.add("계좌 " + account.getId() + " 잔액이 음수: " + balance);
+            }
+        }
+        return violations;
+    }
+
+    @Override
+    public List<String> checkAfterRun() {
+        List<String> violations = checkWhileRunning();
+        long total = 0;
+        for (SafeAccountTransfer.Account account : accounts) {
+            total += account.getBalance();
+        }
+        long expected = (long) initialBalance * accounts.length;
+        if (total != expected) {
+            violations.add("전체 잔액 불일치: " + total + " != " + expected);
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,93 @@
+package com.emoney.til.hanghae99.day1.stress;
+
+import com.emoney.til.hanghae99.day1.DatabaseConcurrencyExample;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 재고 감소 시나리오 (DatabaseConcurrencyExample의 전략 하나)
+ *
+ * 불변 조건
+ * - 재고는 실행 중에도 음수가 되지 않음
+ * - 끝난 뒤: 남은 재고 + 성공한 감소 수량 = 처음 재고 (초과 판매, 갱신 유실 없음)
+ */
+public class StockDecrementScenario implements StressScenario {
+
+    private final String method;
+    private final int productCount;
+    private final int initialStock;
+    private final int maxQuantity;
+    private final DatabaseConcurrencyExample example;
+    private final String[] productIds;
+    private final AtomicLongArray sold;
+
+    /**
+     * @param method optimistic, pessimistic, cas, stamped, mvcc, sharded, combining
+     * @param maxQuantity 요청 하나의 최대 감소 수량 (1 ~ maxQuantity)
+     */
+    public StockDecrementScenario(String method, int productCount, int initialStock, int maxQuantity) {
+        this.method = method;
+        // mvcc 방식일 때만 MVCC 테이블을 켬 (다른 방식의 쓰기에 버전 공개 비용이 섞이지 않도록)
+        this.example = new DatabaseConcurrencyExample("mvcc".equals(method));
+        this.productCount = productCount;
+        this.initialStock = initialStock;
+        this.maxQuantity = maxQuantity;
+        this.productIds = new String[productCount];
+        this.sold = new AtomicLongArray(productCount);
+        for (int i = 0; i < productCount; i++) {
+            productIds[i] = "STRESS-" + i;
+            example.addProduct(productIds[i], initialStock);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "재고 감소(" + method + ")";
+    }
+
+    @Override
+    public int getKeyCount() {
+        return productCount;
+    }
+
+    @Override
+    public boolean execute(int key, SplittableRandom random) {
+        int quantity = 1 + random.nextInt(maxQuantity);
+        if (!example.decreaseStock(method, productIds[key], quantity)) {
+            return false;
+        }
+        sold.addAndGet(key, quantity);
+        return true;
+    }
+
+    @Override
+    public List<String> checkWhileRunning() {
+        List<String> violations = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            int stock = example.getStock(method, productIds[i]);
+            if (stock < 0) {
+                violations.add(productIds[i] + " 재고가 음수: " + stock);
+            }
+        }
+        return violations;
+    }
+
+    @Override
+    public List<String> checkAfterRun() {
+        List<String> violations = checkWhileRunning();
+        for (int i = 0; i < productCount; i++) {
+            int stock = example.getStock(method, productIds[i]);
+            if (stock + sold.get(i) != initialStock) {
+                violations.add(productIds[i] + " 재고 불일치: 남은 재고 " + stock + " + 판매 " + sold.get(i)
+                        + " != 처음 재고 " + initialStock);
+            }
+        }
+        return violations;
+    }
+
+    public DatabaseConcurrencyExample getExample() {
+        return example;
+    }
+}
@@ -0,0 +1,388 @@
+package com.emoney.til.hanghae99.day1.stress;
+
+import com.emoney.til.hanghae99.day1.KeySkew;
+import com.emoney.til.metrics.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 동시성 예제용 스트레스 하네스
+ *
+ * 고정된 작은 스레드 풀과 sleep으로는 경쟁 상태가 운 좋을 때만 드러나고, 실패해도 다시 만들 수 없습니다.
+ * 이 하네스는 시나리오를 여러 스레드로 정해진 시간(또는 횟수)만큼 실행하면서
+ * - 실행 중/종료 후 불변 조건을 검사하고
+ * - 처리량(ops/s)과 지연 시간 백분위를 보고하며
+ * - 모든 무작위 선택을 시드 하나에서 파생시킵니다.
+ *
+ * 시드로 정해지는 것: 스레드별 키 시퀀스, 시나리오가 쓰는 난수(수량, 상대 계좌), 연산 사이에 양보(yield)하는 지점.
+ * 기본 모드에서는 스레드들이 실제로 동시에 실행되므로 연산끼리 섞이는 순서(interleaving)는 운영체제 스케줄링에 달려 있고,
+ * 같은 시드로 다시 실행해도 재현되는 것은 스레드별 연산 목록(횟수 제한을 쓴 경우)뿐입니다.
+ * 실패가 드러날 확률을 높이는 데 쓰고, 재현은 보장하지 않습니다.
+ *
+ * deterministic(true)이면 시드로 만든 스케줄러가 매 연산마다 다음에 실행할 스레드를 골라 한 번에 한 스레드만 연산을 실행합니다.
+ * 연산 단위의 실행 순서까지 시드로 정해지므로 같은 시드는 같은 순서, 같은 결과를 다시 만들어 냅니다.
+ * (연산 안에서의 경쟁은 생기지 않으므로 연산 사이의 순서에 따라 달라지는 문제를 재현할 때 씀,
+ *  시나리오가 스레드 식별자처럼 실행마다 달라지는 값에 의존하면 그 부분은 재현되지 않음)
+ *
+ * 사용 예:
+ *   new StressHarness(new StockDecrementScenario("optimistic", 16, 10_000, 3))
+ *       .threads(8).duration(2, TimeUnit.SECONDS).skew("zipf").seed(42).run();
+ */
+public class StressHarness {
+
+    // 실행 중 불변 조건 위반을 몇 개까지 모을지
+    private static final int MAX_VIOLATIONS = 20;
+
+    private final StressScenario scenario;
+    private int threads = 4;
+    private long durationNanos = TimeUnit.SECONDS.toNanos(1);
+    private long operationsPerThread;
+    private String skew = "uniform";
+    private long seed = System.nanoTime();
+    private int yieldPercent = 10;
+    private long checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private boolean deterministic;
+
+    // 위반이나 예외가 나오면 모든 스레드를 멈춤
+    private volatile boolean stopped;
+
+    // deterministic 모드의 실행 순서 (기본 모드에서는 null)
+    private TurnScheduler scheduler;
+
+    public StressHarness(StressScenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public StressHarness threads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("스레드 수는 0보다 커야 합니다: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * 실행 시간 (operationsPerThread를 지정하면 둘 중 먼저 도달한 쪽에서 멈춤)
+     */
+    public StressHarness duration(long duration, TimeUnit unit) {
+        this.durationNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * 스레드당 연산 수 (0이면 시간으로만 제한)
+     */
+    public StressHarness operationsPerThread(long operationsPerThread) {
+        this.operationsPerThread = operationsPerThread;
+        return this;
+    }
+
+    /**
+     * 키 분포: uniform, zipf, hot
+     */
+    public StressHarness skew(String skew) {
+        // 잘못된 이름은 실행 전에 바로 실패
+        KeySkew.sequence(skew, 1, 0);
+        this.skew = skew;
+        return this;
+    }
+
+    public StressHarness seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * 연산 전에 Thread.yield()를 호출할 확률 (%, 시드로 결정)
+     * 스레드가 연산 도중에 밀려나는 경우를 늘려 경쟁 구간을 넓힙니다.
+     */
+    public StressHarness yieldPercent(int yieldPercent) {
+        this.yieldPercent = yieldPercent;
+        return this;
+    }
+
+    public StressHarness checkInterval(long interval, TimeUnit unit) {
+        this.checkIntervalNanos = unit.toNanos(interval);
+        return this;
+    }
+
+    /**
+     * true면 시드로 연산 단위의 실행 순서까지 정함 (operationsPerThread 필요, duration은 안전장치로만 사용)
+     */
+    public StressHarness deterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+        return this;
+    }
+
+    /**
+     * deterministic 모드의 스케줄러
+     * 차례인 스레드만 연산 하나를 실행하고, 끝나면 시드 난수로 아직 끝나지 않은 스레드 중 다음 차례를 고릅니다.
+     */
+    private final class TurnScheduler {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition turnChanged = lock.newCondition();
+        private final SplittableRandom random;
+        private final boolean[] finished;
+        private int remaining;
+        private int current = -1;
+
+        private TurnScheduler(long seed, int threads) {
+            this.random = new SplittableRandom(seed);
+            this.finished = new boolean[threads];
+            this.remaining = threads;
+        }
+
+        private void start() {
+            lock.lock();
+            try {
+                pickNext();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 자기 차례가 될 때까지 대기
+         *
+         * @return 멈춘 경우 false
+         */
+        private boolean awaitTurn(int worker) throws InterruptedException {
+            lock.lock();
+            try {
+                while (current != worker && !stopped) {
+                    turnChanged.await();
+                }
+                return !stopped;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 연산 하나를 마치고 차례를 넘김
+         */
+        private void endTurn() {
+            lock.lock();
+            try {
+                pickNext();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 스레드가 끝남 (연산을 모두 마쳤거나 예외, 인터럽트로 빠져나온 경우)
+         * 이 스레드의 차례였다면 다음 차례를 고름
+         */
+        private void finish(int worker) {
+            lock.lock();
+            try {
+                if (finished[worker]) {
+                    return;
+                }
+                finished[worker] = true;
+                remaining--;
+                if (current == worker) {
+                    pickNext();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void wakeAll() {
+            lock.lock();
+            try {
+                turnChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // lock 안에서 호출
+        private void pickNext() {
+            current = -1;
+            if (remaining > 0) {
+                int skip = random.nextInt(remaining);
+                for (int i = 0; i < finished.length; i++) {
+                    if (!finished[i] && skip-- == 0) {
+                        current = i;
+                        break;
+                    }
+                }
+            }
+            turnChanged.signalAll();
+        }
+    }
+
+    /**
+     * 스레드 하나의 실행 상태
+     */
+    private final class Worker implements Runnable {
+        private final int index;
+        private final int[] keys;
+        private final SplittableRandom random;
+        private final CountDownLatch start;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long operations;
+        private long failed;
+        private Throwable error;
+
+        private Worker(int index, long threadSeed, CountDownLatch start) {
+            this.index = index;
+            this.keys = KeySkew.sequence(skew, scenario.getKeyCount(), threadSeed);
+            this.random = new SplittableRandom(threadSeed);
+            this.start = start;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+                long deadline = System.nanoTime() + durationNanos;
+                int cursor = 0;
+                while (true) {
+                    if (scheduler != null && !scheduler.awaitTurn(index)) {
+                        break;
+                    }
+                    // 시간 확인은 64번에 한 번
+                    if (stopped || (operationsPerThread > 0 && operations >= operationsPerThread)
+                            || ((operations & 63) == 0 && System.nanoTime() - deadline >= 0)) {
+                        break;
+                    }
+                    int key = keys[cursor++ & (KeySkew.SEQUENCE_LENGTH - 1)];
+                    // 양보 지점은 두 모드에서 같은 난수를 쓰도록 항상 뽑음 (deterministic 모드에서는 순서를 스케줄러가 정함)
+                    if (random.nextInt(100) < yieldPercent && scheduler == null) {
+                        Thread.yield();
+                    }
+
+                    long startedAt = System.nanoTime();
+                    boolean success = scenario.execute(key, random);
+                    latency.record(System.nanoTime() - startedAt);
+                    operations++;
+                    if (!success) {
+                        failed++;
+                    }
+                    if (scheduler != null) {
+                        scheduler.endTurn();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                error = t;
+                stop();
+            } finally {
+                if (scheduler != null) {
+                    scheduler.finish(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * 시나리오 실행
+     */
+    public StressResult run() throws InterruptedException {
+        if (deterministic && operationsPerThread == 0) {
+            throw new IllegalStateException("deterministic 모드는 operationsPerThread가 필요합니다.");
+        }
+        stopped = false;
+        SplittableRandom seeds = new SplittableRandom(seed);
+        // 스레드 시드를 모두 뽑은 뒤의 난수로 순서를 정하면 스레드 수가 같을 때 스레드별 연산 목록은 두 모드에서 같음
+        long[] threadSeeds = new long[threads];
+        for (int i = 0; i < threads; i++) {
+            threadSeeds[i] = seeds.nextLong();
+        }
+        scheduler = deterministic ? new TurnScheduler(seeds.nextLong(), threads) : null;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Worker> workers = new ArrayList<>(threads);
+        List<Thread> threadList = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(i, threadSeeds[i], start);
+            Thread thread = new Thread(worker, "stress-" + i);
+            workers.add(worker);
+            threadList.add(thread);
+            thread.start();
+        }
+
+        Set<String> violations = new LinkedHashSet<>();
+        long startedAt = System.nanoTime();
+        if (scheduler != null) {
+            scheduler.start();
+        }
+        start.countDown();
+
+        // 실행 중 불변 조건 검사 (위반이 나오면 바로 멈춤)
+        for (Thread thread : threadList) {
+            while (thread.isAlive()) {
+                thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(checkIntervalNanos)));
+                if (addAll(violations, scenario.checkWhileRunning())) {
+                    stop();
+                }
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        addAll(violations, scenario.checkAfterRun());
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long operations = 0;
+        long failed = 0;
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < workers.size(); i++) {
+            Worker worker = workers.get(i);
+            latency.add(worker.latency);
+            operations += worker.operations;
+            failed += worker.failed;
+            if (worker.error != null) {
+                errors.add("stress-" + i + ": " + worker.error);
+            }
+        }
+        return new StressResult(scenario.getName(), seed, threads, skew, elapsedNanos,
+                operations, failed, latency, new ArrayList<>(violations), errors);
+    }
+
+    private void stop() {
+        stopped = true;
+        TurnScheduler current = scheduler;
+        if (current != null) {
+            current.wakeAll();
+        }
+    }
+
+    private static boolean addAll(Set<String> violations, List<String> found) {
+        for (String violation : found) {
+            if (violations.size() >= MAX_VIOLATIONS) {
+                break;
+            }
+            violations.add(violation);
+        }
+        return !found.isEmpty();
+    }
+
+    /**
+     * 모든 재고 전략과 계좌 이체를 실행
+     * 첫 번째 인자로 시드를 주면 그 시드로 다시 실행합니다.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+        for (String method : new String[]{"optimistic", "pessimistic", "cas", "stamped", "mvcc", "sharded", "combining"}) {
+            StressResult result = new StressHarness(new StockDecrementScenario(method, 16, 100_000, 3))
+                    .threads(threads).duration(2, TimeUnit.SECONDS).skew("zipf").seed(seed).run();
+            System.out.println(result);
+        }
+
+        StressResult result = new StressHarness(new AccountTransferScenario(64, 1_000, 100))
+                .threads(threads).duration(2, TimeUnit.SECONDS).skew("zipf").seed(seed).run();
+        System.out.println(result);
+    }
+}
@@ -0,0 +1,106 @@
+package com.emoney.til.hanghae99.day1.stress;
+
+import com.emoney.til.metrics.LatencyHistogram;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스트레스 실행 결과
+ * 불변 조건 위반이나 예외가 있으면 실패이며, 같은 시드로 다시 실행하면 스레드별 연산 목록이 재현됩니다.
+ * (deterministic 모드면 스레드 사이의 실행 순서까지)
+ */
+public class StressResult {
+
+    private final String scenario;
+    private final long seed;
+    private final int threads;
+    private final String skew;
+    private final long elapsedNanos;
+    private final long operations;
+    private final long failedOperations;
+    private final LatencyHistogram latency;
+    private final List<String> violations;
+    private final List<String> errors;
+
+    StressResult(String scenario, long seed, int threads, String skew, long elapsedNanos,
+                 long operations, long failedOperations, LatencyHistogram latency,
+                 List<String> violations, List<String> errors) {
+        this.scenario = scenario;
+        this.seed = seed;
+        this.threads = threads;
+        this.skew = skew;
+        this.elapsedNanos = elapsedNanos;
+        this.operations = operations;
+        this.failedOperations = failedOperations;
+        this.latency = latency;
+        this.violations = List.copyOf(violations);
+        this.errors = List.copyOf(errors);
+    }
+
+    /**
+     * 불변 조건 위반과 예외가 모두 없으면 true
+     */
+    public boolean isPassed() {
+        return violations.isEmpty() && errors.isEmpty();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    /**
+     * false를 돌려준 연산 수 (재고 부족, 재시도 초과 등)
+     */
+    public long getFailedOperations() {
+        return failedOperations;
+    }
+
+    public double getOpsPerSecond() {
+        return elapsedNanos == 0 ? 0 : operations * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * 연산 하나의 소요 시간 분포 (나노초)
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder()
+                .append("[").append(isPassed() ? "통과" : "실패").append("] ").append(scenario)
+                .append(" (스레드 ").append(threads).append(", 키 분포 ").append(skew)
+                .append(", seed=").append(seed).append(")\n")
+                .append("  연산 ").append(operations).append("건 (실패 ").append(failedOperations).append("건), ")
+                .append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append("ms, ")
+                .append(String.format("%.0f ops/s", getOpsPerSecond())).append('\n')
+                .append("  지연(ns): p50=").append(latency.getPercentile(50))
+                .append(", p90=").append(latency.getPercentile(90))
+                .append(", p99=").append(latency.getPercentile(99))
+                .append(", p99.9=").append(latency.getPercentile(99.9))
+                .append(", max=").append(latency.getMax());
+        for (String violation : violations) {
+            report.append("\n  위반: ").append(violation);
+        }
+        for (String error : errors) {
+            report.append("\n  예외: ").append(error);
+        }
+        if (!isPassed()) {
+            report.append("\n  재현: 같은 설정에 seed(").append(seed).append("L)로 다시 실행");
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.emoney.til.hanghae99.day1.stress;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 스트레스 하네스에서 반복 실행할 시나리오
+ *
+ * 하네스가 키 분포에 따라 고른 키와 스레드별 시드 난수를 넘겨주므로,
+ * 시나리오는 수량/상대 계좌 같은 나머지 선택도 이 난수로만 해야 같은 시드에서 같은 연산이 재현됩니다.
+ */
+public interface StressScenario {
+
+    String getName();
+
+    /**
+     * 키 개수 (상품 수, 계좌 수)
+     */
+    int getKeyCount();
+
+    /**
+     * 연산 하나 실행
+     *
+     * @param key 0 ~ getKeyCount()-1
+     * @param random 이 스레드 전용 난수 (시드로부터 결정됨)
+     * @return 연산 성공 여부 (재고 부족, 재시도 초과처럼 정상적인 실패는 false)
+     */
+    boolean execute(int key, SplittableRandom random);
+
+    /**
+     * 실행 중에도 항상 성립해야 하는 조건 검사 (예: 재고는 음수가 되지 않음)
+     *
+     * @return 위반 내용 (없으면 빈 목록)
+     */
+    default List<String> checkWhileRunning() {
+        return List.of();
+    }
+
+    /**
+     * 모든 스레드가 끝난 뒤 성립해야 하는 조건 검사 (예: 전체 잔액 보존)
+     *
+     * @return 위반 내용 (없으면 빈 목록)
+     */
+    List<String> checkAfterRun();
+}
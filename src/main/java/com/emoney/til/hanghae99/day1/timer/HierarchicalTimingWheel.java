@@ -0,0 +1,252 @@
+package com.emoney.til.hanghae99.day1.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계층형 타이밍 휠 (hierarchical timing wheel)
+ *
+ * 만료 시각이 있는 항목이 수백만 개일 때 항목마다 ScheduledExecutorService 작업을 만들면
+ * 작업 객체와 우선순위 큐(O(log n)) 비용이 커집니다.
+ * 타이밍 휠은 시간을 tick 단위 칸(slot)으로 나누고, 항목을 만료 tick에 해당하는 칸의 연결 리스트에 넣습니다.
+ * - 등록/취소: O(1) (칸 계산 후 이중 연결 리스트에 넣고 빼기)
+ * - tick 진행: O(1) + 그 칸에서 만료된 항목 수
+ *
+ * 칸 수(wheelSize)보다 먼 만료 시각은 위 단계의 휠에 넣습니다.
+ * 단계 n의 칸 하나는 tick × wheelSize^n 길이이며, 아래 단계가 한 바퀴 돌 때마다
+ * 위 단계의 칸 하나를 비우면서 항목을 아래 단계로 다시 배치합니다. (cascade, 리눅스 커널 타이머와 같은 방식)
+ *
+ * 시간은 advanceTo(now)를 호출하는 쪽이 진행시키며, 만료된 항목은 락 밖에서 처리할 수 있도록 목록으로 돌려줍니다.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    // 단계 수 (wheelSize가 256이면 256^4 tick까지 표현, 10ms tick 기준 약 1.3년)
+    private static final int LEVELS = 4;
+
+    private final long tickNanos;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final long startNanos;
+
+    // [단계][칸] 마다 연결 리스트의 머리 (빈 칸은 null)
+    private final Timeout<T>[][] heads;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 마지막으로 처리한 tick
+    private long currentTick;
+    private int size;
+
+    // cascade로 아래 단계에 다시 배치한 횟수
+    private long relocations;
+
+    /**
+     * 등록된 항목 (이중 연결 리스트 노드)
+     */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private int level = -1;   // -1이면 휠에 없음 (만료 또는 취소됨)
+        private int slot;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    /**
+     * @param tick tick 길이 (만료 시각의 정밀도)
+     * @param wheelSize 단계별 칸 수 (2의 거듭제곱)
+     * @param startNanos 기준 시각 (System.nanoTime() 등, advanceTo와 같은 시계)
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tick, TimeUnit unit, int wheelSize, long startNanos) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("tick은 0보다 커야 합니다: " + tick);
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("칸 수는 2 이상의 2의 거듭제곱이어야 합니다: " + wheelSize);
+        }
+        this.tickNanos = unit.toNanos(tick);
+        this.wheelBits = Integer.numberOfTrailingZeros(wheelSize);
+        this.wheelMask = wheelSize - 1;
+        this.startNanos = startNanos;
+        this.heads = new Timeout[LEVELS][wheelSize];
+    }
+
+    /**
+     * 만료 시각에 항목 등록
+     * 이미 지난 시각이면 다음 tick에 만료됩니다.
+     */
+    public Timeout<T> schedule(T payload, long deadlineNanos) {
+        long deadlineTick = Math.floorDiv(deadlineNanos - startNanos + tickNanos - 1, tickNanos);
+
+        lock.lock();
+        try {
+            Timeout<T> timeout = new Timeout<>(payload, Math.max(deadlineTick, currentTick + 1));
+            insert(timeout);
+            size++;
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 만료 전에 항목 제거
+     *
+     * @return 휠에 있던 항목을 제거했으면 true (이미 만료되었거나 취소되었으면 false)
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        lock.lock();
+        try {
+            if (timeout.level < 0) {
+                return false;
+            }
+            unlink(timeout);
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 주어진 시각까지 tick을 진행하고 만료된 항목을 돌려줍니다.
+     */
+    public List<T> advanceTo(long nowNanos) {
+        long targetTick = Math.floorDiv(nowNanos - startNanos, tickNanos);
+        List<T> expired = new ArrayList<>();
+
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                // 비어 있으면 칸을 하나씩 돌 필요 없이 바로 이동
+                if (size == 0) {
+                    currentTick = targetTick;
+                    break;
+                }
+                currentTick++;
+                cascade();
+                expireCurrentSlot(expired);
+            }
+            return expired;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * cascade로 항목을 아래 단계에 다시 배치한 누적 횟수
+     * 항목 하나는 처음 들어간 단계에서 0단계까지 단계마다 한 번씩만 내려오므로 (LEVELS - 1)번을 넘지 않습니다.
+     */
+    public long getRelocations() {
+        lock.lock();
+        try {
+            return relocations;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * 아래 단계가 한 바퀴를 돌았으면 위 단계의 현재 칸을 비우고 항목을 다시 배치
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            // 아래 단계의 칸 번호가 0으로 돌아온 경우에만 위 단계로 올라감
+            if ((currentTick & ((1L << (level * wheelBits)) - 1)) != 0) {
+                return;
+            }
+            int slot = (int) ((currentTick >>> (level * wheelBits)) & wheelMask);
+            Timeout<T> node = heads[level][slot];
+            heads[level][slot] = null;
+            while (node != null) {
+                Timeout<T> next = node.next;
+                node.prev = null;
+                node.next = null;
+                insert(node);
+                relocations++;
+                node = next;
+            }
+        }
+    }
+
+    private void expireCurrentSlot(List<T> expired) {
+        int slot = (int) (currentTick & wheelMask);
+        Timeout<T> node = heads[0][slot];
+        heads[0][slot] = null;
+        while (node != null) {
+            Timeout<T> next = node.next;
+            node.prev = null;
+            node.next = null;
+            node.level = -1;
+            expired.add(node.payload);
+            size--;
+            node = next;
+        }
+    }
+
+    /**
+     * 남은 tick 수에 맞는 단계의 칸에 넣음
+     */
+    private void insert(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << ((level + 1) * wheelBits))) {
+            level++;
+        }
+
+        // 가장 높은 단계의 범위를 넘으면 그 단계의 가장 먼 칸에 두었다가 cascade 때 다시 배치
+        long tick = level == LEVELS - 1 && delta >= (1L << (LEVELS * wheelBits))
+                ? currentTick + (1L << (LEVELS * wheelBits)) - 1
+                : timeout.deadlineTick;
+        int slot = (int) ((tick >>> (level * wheelBits)) & wheelMask);
+
+        timeout.level = level;
+        timeout.slot = slot;
+        Timeout<T> head = heads[level][slot];
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        heads[level][slot] = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            heads[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.level = -1;
+    }
+}
@@ -0,0 +1,153 @@
+package com.emoney.til.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 락 없이 기록할 수 있는 지연 시간 히스토그램
+ *
+ * 값을 2의 거듭제곱 구간으로 나누고, 각 구간을 다시 8개로 쪼개어 기록합니다.
+ * (HdrHistogram과 같은 log-linear 방식, 상대 오차 약 12.5%)
+ * 기록은 구간 원소 하나의 원자적 증가와 LongAdder 합계뿐이므로 핫 패스에 두어도 부담이 적습니다.
+ * 모든 스레드가 건드리는 공유 카운터를 두지 않으려고 전체 개수는 구간을 합해서 구하고,
+ * 최대값은 지금 값보다 클 때만 바꿉니다.
+ *
+ * 단위는 호출하는 쪽이 정합니다. (보통 나노초, 재시도 횟수 같은 개수에도 사용 가능)
+ */
+public class LatencyHistogram {
+
+    // 구간 하나를 나누는 개수 = 2^SUB_BUCKET_BITS
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * 값 하나를 기록합니다. 음수는 0으로 기록됩니다.
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        counts.incrementAndGet(indexOf(v));
+        totalSum.add(v);
+        updateMax(v);
+    }
+
+    // 대부분의 기록은 최대값보다 작으므로 읽기만 하고 지나감 (캐시 라인을 독점하지 않음)
+    private void updateMax(long value) {
+        long max;
+        while (value > (max = maxValue.get())) {
+            if (maxValue.compareAndSet(max, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 기록된 값의 개수 (구간별 개수를 합해서 구함)
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * 백분위 값 (해당 구간의 상한값, 최대값을 넘지 않음)
+     *
+     * @param percentile 0 ~ 100
+     */
+    public long getPercentile(double percentile) {
+        // 개수와 누적을 같은 값으로 계산하도록 구간별 개수를 한 번만 읽음
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * 다른 히스토그램의 기록을 모두 더합니다. (스레드별로 따로 기록한 뒤 합칠 때 사용)
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalSum.add(other.totalSum.sum());
+        updateMax(other.maxValue.get());
+    }
+
+    /**
+     * 기록된 값을 모두 지웁니다.
+     * 기록 중에 호출하면 일부 값이 다음 구간으로 넘어갈 수 있습니다.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalSum.reset();
+        maxValue.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", mean=" + String.format("%.1f", getMean()) +
+                ", p50=" + getPercentile(50) +
+                ", p90=" + getPercentile(90) +
+                ", p99=" + getPercentile(99) +
+                ", max=" + getMax() +
+                '}';
+    }
+}
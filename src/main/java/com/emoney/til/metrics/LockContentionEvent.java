@@ -0,0 +1,27 @@
+package com.emoney.til.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * 락을 바로 얻지 못하고 기다린 경우의 JFR 이벤트
+ * 이벤트의 duration이 대기 시간입니다. (기본 임계값 1ms 이상만 기록)
+ */
+@Name("com.emoney.til.LockContention")
+@Label("Lock Contention")
+@Category({"Application", "Locks"})
+@Description("ProfiledLock을 얻기 위해 기다린 구간")
+@Threshold("1 ms")
+class LockContentionEvent extends Event {
+
+    @Label("Site")
+    String site;
+
+    @Label("Queue Length")
+    @Description("대기 시작 시 먼저 기다리던 스레드 수")
+    int queueLength;
+}
@@ -0,0 +1,101 @@
+package com.emoney.til.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * 락 경합 프로파일러
+ *
+ * 사용 지점(site) 이름별로 LockSite를 관리하고, 그 지점에 기록하는 ProfiledLock을 만들어 줍니다.
+ * 어떤 락이 실제로 병목인지는 지점별 대기 시간/보유 시간 분포를 비교해 보면 알 수 있습니다.
+ * - 대기 시간이 길고 보유 시간도 길다: 락 안에서 하는 일이 너무 많음
+ * - 대기 시간만 길고 보유 시간은 짧다: 락을 쓰는 스레드가 너무 많음 (락 분할 필요)
+ *
+ * 통계는 /metrics/locks 엔드포인트와 JFR 이벤트(com.emoney.til.LockSiteStatistics)로 볼 수 있습니다.
+ */
+public class LockProfiler {
+
+    private static final LockProfiler GLOBAL = new LockProfiler();
+
+    static {
+        // JFR 기록 중에만 주기적으로 호출됨
+        FlightRecorder.addPeriodicEvent(LockSiteStatisticsEvent.class, GLOBAL::emitStatistics);
+    }
+
+    private final ConcurrentHashMap<String, LockSite> sites = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public LockProfiler() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param clock 대기/보유 시간을 잴 때 쓰는 현재 시각 (나노초, 보통 System::nanoTime)
+     */
+    public LockProfiler(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * 애플리케이션 전체에서 공유하는 프로파일러
+     */
+    public static LockProfiler global() {
+        return GLOBAL;
+    }
+
+    /**
+     * 새 ReentrantLock을 감싼 ProfiledLock 생성
+     */
+    public ProfiledLock newLock(String siteName) {
+        return wrap(siteName, new ReentrantLock());
+    }
+
+    /**
+     * 기존 락을 감싸서 주어진 지점에 기록하도록 함
+     */
+    public ProfiledLock wrap(String siteName, Lock lock) {
+        return new ProfiledLock(lock, site(siteName), clock);
+    }
+
+    public LockSite site(String siteName) {
+        LockSite site = sites.get(siteName);
+        return site != null ? site : sites.computeIfAbsent(siteName, LockSite::new);
+    }
+
+    /**
+     * 이름 순으로 정렬한 모든 지점
+     */
+    public List<LockSite> getSites() {
+        List<LockSite> result = new ArrayList<>(sites.values());
+        result.sort(Comparator.comparing(LockSite::getName));
+        return result;
+    }
+
+    public void reset() {
+        for (LockSite site : sites.values()) {
+            site.reset();
+        }
+    }
+
+    private void emitStatistics() {
+        for (LockSite site : sites.values()) {
+            LockSiteStatisticsEvent event = new LockSiteStatisticsEvent();
+            event.site = site.getName();
+            event.acquisitions = site.getAcquisitions();
+            event.contendedAcquisitions = site.getContendedAcquisitions();
+            event.tryLockFailures = site.getTryLockFailures();
+            event.waiting = site.getWaiting();
+            event.waitP50 = site.getWaitTime().getPercentile(50);
+            event.waitP99 = site.getWaitTime().getPercentile(99);
+            event.holdP50 = site.getHoldTime().getPercentile(50);
+            event.holdP99 = site.getHoldTime().getPercentile(99);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.emoney.til.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 락 경합 통계 조회 API
+ *
+ * GET    /metrics/locks : 지점별 통계 (시간 단위는 나노초)
+ * DELETE /metrics/locks : 통계 초기화
+ */
+@RestController
+@RequestMapping("/metrics/locks")
+public class LockProfilerController {
+
+    private final LockProfiler profiler = LockProfiler.global();
+
+    @GetMapping
+    public List<Map<String, Object>> sites() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (LockSite site : profiler.getSites()) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("site", site.getName());
+            summary.put("acquisitions", site.getAcquisitions());
+            summary.put("contendedAcquisitions", site.getContendedAcquisitions());
+            summary.put("tryLockFailures", site.getTryLockFailures());
+            summary.put("waiting", site.getWaiting());
+            summary.put("waitNanos", summarize(site.getWaitTime()));
+            summary.put("holdNanos", summarize(site.getHoldTime()));
+            summary.put("queueLength", summarize(site.getQueueLength()));
+            result.add(summary);
+        }
+        return result;
+    }
+
+    @DeleteMapping
+    public void reset() {
+        profiler.reset();
+    }
+
+    private static Map<String, Object> summarize(LatencyHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getCount());
+        summary.put("mean", histogram.getMean());
+        summary.put("p50", histogram.getPercentile(50));
+        summary.put("p90", histogram.getPercentile(90));
+        summary.put("p99", histogram.getPercentile(99));
+        summary.put("max", histogram.getMax());
+        return summary;
+    }
+}
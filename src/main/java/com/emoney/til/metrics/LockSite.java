@@ -0,0 +1,143 @@
+package com.emoney.til.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 이름 붙은 락 사용 지점(site)별 경합 통계
+ *
+ * 같은 이름으로 만든 ProfiledLock은 모두 하나의 LockSite에 기록합니다.
+ * (예: 계좌마다 락이 있어도 "SafeAccountTransfer.account" 하나로 모아서 봄)
+ * - waitTime: 바로 얻지 못한 경우 락을 얻기까지 기다린 시간 (나노초)
+ * - holdTime: 락을 잡고 있던 시간 (나노초, 경합이 없던 획득은 일부만 표본으로 기록)
+ * - queueLength: 기다리기 시작할 때 앞에서 기다리던 스레드 수
+ * - recentHoldTimes: 최근 보유 시간 RECENT_HOLD_SAMPLES개 (타임아웃/backoff 계산용 이동 백분위)
+ *   계좌처럼 락이 많아도 메모리가 락 수에 비례해 늘지 않도록 락마다 두지 않고 지점에서 공유
+ */
+public class LockSite {
+
+    // 지점마다 보관하는 최근 보유 시간 개수
+    private static final int RECENT_HOLD_SAMPLES = 128;
+
+    private final String name;
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+    private final LatencyHistogram queueLength = new LatencyHistogram();
+    private final RecentLatencies recentHoldTimes = new RecentLatencies(RECENT_HOLD_SAMPLES);
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder tryLockFailures = new LongAdder();
+
+    // 지금 이 지점의 락을 기다리고 있는 스레드 수
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    LockSite(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 락 획득 횟수
+     */
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * 바로 얻지 못하고 기다려야 했던 획득 횟수
+     */
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.sum();
+    }
+
+    /**
+     * tryLock이 락을 얻지 못하고 실패한 횟수 (타임아웃 포함)
+     */
+    public long getTryLockFailures() {
+        return tryLockFailures.sum();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    public LatencyHistogram getHoldTime() {
+        return holdTime;
+    }
+
+    public LatencyHistogram getQueueLength() {
+        return queueLength;
+    }
+
+    /**
+     * 이 지점 락들의 최근 보유 시간 (나노초, reset과 상관없이 최근 값만 유지)
+     */
+    public RecentLatencies getRecentHoldTimes() {
+        return recentHoldTimes;
+    }
+
+    public void reset() {
+        waitTime.reset();
+        holdTime.reset();
+        queueLength.reset();
+        acquisitions.reset();
+        contendedAcquisitions.reset();
+        tryLockFailures.reset();
+    }
+
+    /**
+     * 대기 시작 (현재 대기 중인 스레드 수를 기록)
+     *
+     * @return 이 스레드보다 먼저 기다리던 스레드 수
+     */
+    int beginWait() {
+        int ahead = waiting.getAndIncrement();
+        queueLength.record(ahead);
+        return ahead;
+    }
+
+    void endWait() {
+        waiting.decrementAndGet();
+    }
+
+    void recordAcquired() {
+        acquisitions.increment();
+    }
+
+    void recordContendedAcquired(long waitNanos) {
+        acquisitions.increment();
+        contendedAcquisitions.increment();
+        waitTime.record(waitNanos);
+    }
+
+    void recordReleased(long holdNanos) {
+        holdTime.record(holdNanos);
+        recentHoldTimes.record(holdNanos);
+    }
+
+    void recordTryLockFailure() {
+        tryLockFailures.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "LockSite{" +
+                "name='" + name + '\'' +
+                ", acquisitions=" + getAcquisitions() +
+                ", contended=" + getContendedAcquisitions() +
+                ", tryLockFailures=" + getTryLockFailures() +
+                ", wait=" + waitTime +
+                ", hold=" + holdTime +
+                ", queue=" + queueLength +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.emoney.til.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 락 사용 지점별 누적 통계를 주기적으로 남기는 JFR 이벤트 (LockProfiler가 등록)
+ */
+@Name("com.emoney.til.LockSiteStatistics")
+@Label("Lock Site Statistics")
+@Category({"Application", "Locks"})
+@Description("LockSite별 누적 획득 횟수와 대기/보유 시간 백분위")
+@Period("1 s")
+@StackTrace(false)
+class LockSiteStatisticsEvent extends Event {
+
+    @Label("Site")
+    String site;
+
+    @Label("Acquisitions")
+    long acquisitions;
+
+    @Label("Contended Acquisitions")
+    long contendedAcquisitions;
+
+    @Label("TryLock Failures")
+    long tryLockFailures;
+
+    @Label("Waiting Threads")
+    int waiting;
+
+    @Label("Wait p50")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitP50;
+
+    @Label("Wait p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitP99;
+
+    @Label("Hold p50")
+    @Timespan(Timespan.NANOSECONDS)
+    long holdP50;
+
+    @Label("Hold p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long holdP99;
+}
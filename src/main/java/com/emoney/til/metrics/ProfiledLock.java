@@ -0,0 +1,307 @@
+package com.emoney.til.metrics;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.function.LongSupplier;
+
+/**
+ * 대기 시간, 보유 시간, tryLock 실패, 대기열 길이를 LockSite에 기록하는 Lock 래퍼
+ *
+ * 먼저 tryLock()으로 바로 얻어 보고, 실패한 경우에만 대기 시간, 대기열 길이, JFR 이벤트를 기록합니다.
+ * 경합이 없는 획득은 횟수만 세고, 보유 시간은 SAMPLE_INTERVAL번에 한 번만 재므로
+ * 평소의 추가 비용은 LongAdder 증가 한 번 정도입니다.
+ * 기다린 획득도 같은 비율로 표본을 뽑습니다. (기다린 획득만 항상 재면 보유 시간 분포가 경합 쪽으로 치우치고,
+ * 그 분포로 타임아웃을 정하는 AdaptiveLockTimeout도 함께 치우침)
+ *
+ * 지점의 최근 보유 시간(getRecentHoldTimes)과 이 락의 현재 대기자 수(getWaiting)로
+ * 타임아웃이나 backoff를 최근 상황에 맞게 정할 수 있습니다.
+ * (최근 보유 시간은 락마다 두면 계좌 수만큼 링 버퍼가 생기므로 같은 지점의 락끼리 공유)
+ *
+ * 주의
+ * - 바로 얻기를 먼저 시도하므로 공정(fair) 락을 감싸면 공정성이 보장되지 않습니다.
+ * - newCondition()의 await 중에는 락을 놓으므로, await 전까지를 보유 시간 하나로 기록하고 깨어난 뒤부터 다시 잽니다.
+ *   (await 중에 다른 스레드가 얻은 락도 그 스레드의 보유 시간으로 기록됨)
+ */
+public class ProfiledLock implements Lock {
+
+    // 보유 시간 표본 간격 (2의 거듭제곱)
+    private static final int SAMPLE_INTERVAL = 16;
+
+    private final Lock delegate;
+    private final LockSite site;
+    private final LongSupplier clock;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    // 아래 필드는 락을 소유한 스레드만 읽고 씀 (락이 가시성을 보장)
+    private Thread owner;
+    private int holdCount;
+    private long acquiredAt;      // 0이면 이번 보유 시간은 기록하지 않음
+    private int acquireSequence;
+
+    ProfiledLock(Lock delegate, LockSite site, LongSupplier clock) {
+        this.delegate = delegate;
+        this.site = site;
+        this.clock = clock;
+    }
+
+    public LockSite getSite() {
+        return site;
+    }
+
+    /**
+     * 이 락 지점의 최근 보유 시간 (나노초, 같은 지점의 락끼리 공유)
+     */
+    public RecentLatencies getRecentHoldTimes() {
+        return site.getRecentHoldTimes();
+    }
+
+    /**
+     * 지금 이 락을 기다리고 있는 스레드 수
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    @Override
+    public void lock() {
+        if (delegate.tryLock()) {
+            acquired(0, false);
+            return;
+        }
+
+        long startedAt = clock.getAsLong();
+        LockContentionEvent event = beginWait();
+        try {
+            delegate.lock();
+        } finally {
+            endWait();
+        }
+        acquired(finishWait(event, startedAt), true);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (delegate.tryLock()) {
+            acquired(0, false);
+            return;
+        }
+
+        long startedAt = clock.getAsLong();
+        LockContentionEvent event = beginWait();
+        try {
+            delegate.lockInterruptibly();
+        } finally {
+            endWait();
+        }
+        acquired(finishWait(event, startedAt), true);
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (delegate.tryLock()) {
+            acquired(0, false);
+            return true;
+        }
+        site.recordTryLockFailure();
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (delegate.tryLock()) {
+            acquired(0, false);
+            return true;
+        }
+
+        long startedAt = clock.getAsLong();
+        LockContentionEvent event = beginWait();
+        boolean locked;
+        try {
+            locked = delegate.tryLock(time, unit);
+        } finally {
+            endWait();
+        }
+
+        if (!locked) {
+            site.recordTryLockFailure();
+            return false;
+        }
+        acquired(finishWait(event, startedAt), true);
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        // 소유자가 아니면 기록하지 않고 원래 락의 예외(IllegalMonitorStateException)를 그대로 전달
+        if (owner == Thread.currentThread() && --holdCount == 0) {
+            owner = null;
+            if (acquiredAt != 0) {
+                long held = clock.getAsLong() - acquiredAt;
+                site.recordReleased(held);
+            }
+        }
+        delegate.unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new ProfiledCondition(delegate.newCondition());
+    }
+
+    private void acquired(long waitNanos, boolean contended) {
+        if (holdCount++ == 0) {
+            owner = Thread.currentThread();
+            startHold();
+        }
+        if (contended) {
+            site.recordContendedAcquired(waitNanos);
+        } else {
+            site.recordAcquired();
+        }
+    }
+
+    // 경합 여부와 관계없이 같은 비율로 보유 시간을 잴 획득을 고름
+    private void startHold() {
+        boolean sampled = (acquireSequence++ & (SAMPLE_INTERVAL - 1)) == 0;
+        acquiredAt = sampled ? clock.getAsLong() : 0;
+    }
+
+    /**
+     * await 직전: 원래 락이 완전히 풀리므로 지금까지의 보유 시간을 기록하고 소유 정보를 비움
+     *
+     * @return 깨어난 뒤 되돌릴 재진입 횟수 (소유자가 아니면 0, 원래 Condition이 예외를 던짐)
+     */
+    private int beforeAwait() {
+        if (owner != Thread.currentThread()) {
+            return 0;
+        }
+        int savedHoldCount = holdCount;
+        if (acquiredAt != 0) {
+            site.recordReleased(clock.getAsLong() - acquiredAt);
+        }
+        owner = null;
+        holdCount = 0;
+        return savedHoldCount;
+    }
+
+    /**
+     * await에서 돌아온 직후: 원래 락을 다시 얻은 상태이므로 소유 정보를 되돌리고 새 보유 시간을 시작
+     */
+    private void afterAwait(int savedHoldCount) {
+        if (savedHoldCount == 0) {
+            return;
+        }
+        owner = Thread.currentThread();
+        holdCount = savedHoldCount;
+        startHold();
+    }
+
+    /**
+     * await 동안 ProfiledLock의 소유 정보를 비워 두는 Condition
+     * (그대로 두면 await 중에 락을 얻은 다른 스레드를 재진입으로 보고 보유 시간을 빠뜨림)
+     */
+    private final class ProfiledCondition implements Condition {
+
+        private final Condition delegate;
+
+        private ProfiledCondition(Condition delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            int saved = beforeAwait();
+            try {
+                delegate.await();
+            } finally {
+                afterAwait(saved);
+            }
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            int saved = beforeAwait();
+            try {
+                delegate.awaitUninterruptibly();
+            } finally {
+                afterAwait(saved);
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            int saved = beforeAwait();
+            try {
+                return delegate.awaitNanos(nanosTimeout);
+            } finally {
+                afterAwait(saved);
+            }
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            int saved = beforeAwait();
+            try {
+                return delegate.await(time, unit);
+            } finally {
+                afterAwait(saved);
+            }
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            int saved = beforeAwait();
+            try {
+                return delegate.awaitUntil(deadline);
+            } finally {
+                afterAwait(saved);
+            }
+        }
+
+        @Override
+        public void signal() {
+            delegate.signal();
+        }
+
+        @Override
+        public void signalAll() {
+            delegate.signalAll();
+        }
+    }
+
+    private LockContentionEvent beginWait() {
+        waiting.incrementAndGet();
+        int ahead = site.beginWait();
+        LockContentionEvent event = new LockContentionEvent();
+        if (event.isEnabled()) {
+            event.site = site.getName();
+            event.queueLength = ahead;
+            event.begin();
+        }
+        return event;
+    }
+
+    private void endWait() {
+        waiting.decrementAndGet();
+        site.endWait();
+    }
+
+    private long finishWait(LockContentionEvent event, long startedAt) {
+        long waited = clock.getAsLong() - startedAt;
+        if (event.isEnabled()) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+        return waited;
+    }
+
+    @Override
+    public String toString() {
+        return "ProfiledLock{" + site.getName() + ", " + delegate + '}';
+    }
+}
@@ -0,0 +1,101 @@
+package com.emoney.til.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 최근 N개의 값만 보관하는 이동(moving) 백분위 계산기
+ *
+ * LatencyHistogram은 처음부터의 누적 분포라서 부하가 바뀌어도 천천히 따라갑니다.
+ * 이 클래스는 링 버퍼에 최근 값만 남겨 두고, 백분위를 물어볼 때 정렬해서 계산합니다.
+ * 정렬 결과는 새 값이 RECOMPUTE_INTERVAL개(보관 개수보다 크면 보관 개수) 쌓일 때까지 재사용합니다.
+ */
+public class RecentLatencies {
+
+    private static final int RECOMPUTE_INTERVAL = 8;
+
+    // 아직 값이 쓰이지 않은 칸 (기록하는 값은 0 이상)
+    private static final long UNSET = -1;
+
+    private final AtomicLongArray samples;
+    private final int recomputeInterval;
+    private final AtomicLong count = new AtomicLong();
+
+    // 마지막으로 정렬한 결과와 그때의 기록 수
+    private volatile Snapshot snapshot = new Snapshot(0, new long[0]);
+
+    private static final class Snapshot {
+        private final long count;
+        private final long[] sorted;
+
+        private Snapshot(long count, long[] sorted) {
+            this.count = count;
+            this.sorted = sorted;
+        }
+    }
+
+    public RecentLatencies(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("보관 개수는 1 이상이어야 합니다: " + capacity);
+        }
+        long[] initial = new long[capacity];
+        Arrays.fill(initial, UNSET);
+        this.samples = new AtomicLongArray(initial);
+        this.recomputeInterval = Math.min(RECOMPUTE_INTERVAL, capacity);
+    }
+
+    /**
+     * 칸 번호를 먼저 받고 값을 쓰므로, 그 사이에 정렬하면 아직 쓰이지 않은 칸은 건너뛰고
+     * 링을 한 바퀴 돈 뒤라면 그 칸의 이전 값을 읽습니다.
+     */
+    public void record(long value) {
+        long index = count.getAndIncrement();
+        samples.set((int) (index % samples.length()), Math.max(value, 0));
+    }
+
+    /**
+     * 지금까지 기록된 전체 개수 (보관 중인 개수가 아님)
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * 최근 값들의 백분위 (기록이 없으면 -1)
+     *
+     * @param percentile 0 ~ 100
+     */
+    public long getPercentile(double percentile) {
+        long[] sorted = sorted();
+        if (sorted.length == 0) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(sorted.length * Math.min(Math.max(percentile, 0), 100.0) / 100.0);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private long[] sorted() {
+        Snapshot current = snapshot;
+        long total = count.get();
+        if (total == current.count || (current.count > 0 && total - current.count < recomputeInterval)) {
+            return current.sorted;
+        }
+
+        int size = (int) Math.min(total, samples.length());
+        long[] copy = new long[size];
+        int filled = 0;
+        for (int i = 0; i < size; i++) {
+            long sample = samples.get(i);
+            if (sample != UNSET) {
+                copy[filled++] = sample;
+            }
+        }
+        if (filled < size) {
+            copy = Arrays.copyOf(copy, filled);
+        }
+        Arrays.sort(copy);
+        snapshot = new Snapshot(total, copy);
+        return copy;
+    }
+}
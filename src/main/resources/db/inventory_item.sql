@@ -0,0 +1,13 @@
+-- 재고 테이블 (com.emoney.til.hanghae99.day1.db.InventoryItem)
+-- 테스트 프로필(application-test.yml)만 임베디드 H2에 시작할 때마다 이 스크립트를 실행하고 엔티티와 맞는지 확인합니다.
+-- 기본 프로필은 공유 MySQL의 스키마를 건드리지도 확인하지도 않으므로, 그 DB에서 저장소를 쓰려면 직접 한 번 실행해야 합니다.
+--   mysql -h <host> -u <user> -p inflearn-msa < src/main/resources/db/inventory_item.sql
+-- SELECT ... FOR UPDATE와 조건부 UPDATE가 행 락으로 동작하려면 InnoDB여야 합니다. (MySQL 5.5 이후 기본 엔진)
+-- stock >= 0 검사는 MySQL 8.0.16 이후에만 적용되며, 저장소 코드의 재고 확인을 대신하지 않습니다.
+CREATE TABLE IF NOT EXISTS inventory_item (
+    id      VARCHAR(64) NOT NULL,
+    stock   INT         NOT NULL,
+    version BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT chk_inventory_item_stock CHECK (stock >= 0)
+);
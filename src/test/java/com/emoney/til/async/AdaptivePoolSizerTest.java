@@ -0,0 +1,83 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 계단형 부하 변화에서 AdaptivePoolSizer가 수렴하는지 확인하는 시뮬레이션
+ * 실제 스레드 대신 주기(1초)마다 처리량/큐 길이를 계산하는 유체 모델을 사용하므로 결과가 항상 같습니다.
+ */
+public class AdaptivePoolSizerTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizerTest.class);
+
+  private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+  private static final long SERVICE = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final double UTILIZATION = 0.8;
+
+  @Test
+  public void testConvergesUnderStepLoad() {
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(2, 200, UTILIZATION, TimeUnit.MILLISECONDS.toNanos(50));
+    double[] rates = {50, 400, 100, 1_000, 20};
+    int phaseLength = 30;
+
+    int size = 5;
+    double backlog = 0;
+    List<Integer> sizes = new ArrayList<>();
+    for (double rate : rates) {
+      int expected = (int) Math.ceil(rate * SERVICE / INTERVAL / UTILIZATION);
+      int changesInTail = 0;
+      for (int tick = 0; tick < phaseLength; tick++) {
+        // 이번 주기: size개 스레드가 SERVICE씩 걸리는 작업을 처리
+        double capacity = (double) size * INTERVAL / SERVICE;
+        double arrivals = rate * INTERVAL / 1e9;
+        double served = Math.min(backlog + arrivals, capacity);
+        double nextBacklog = backlog + arrivals - served;
+        // 리틀의 법칙: 평균 대기 = 평균 큐 길이 / 처리율
+        double meanWait = served == 0 ? 0 : (backlog + nextBacklog) / 2 / (served / INTERVAL);
+        backlog = nextBacklog;
+
+        AdaptivePoolSizer.Sample sample = new AdaptivePoolSizer.Sample(INTERVAL, (long) served,
+            (long) (served * SERVICE), (long) (served * meanWait), (int) backlog);
+        int next = sizer.nextSize(size, sample);
+        if (tick >= phaseLength / 2 && next != size) {
+          changesInTail++;
+        }
+        size = next;
+        sizes.add(size);
+      }
+
+      logger.info("rate={}/s expected={} final={} backlog={}", rate, expected, size, (int) backlog);
+      int tolerance = Math.max(1, (int) Math.ceil(expected * 0.2));
+      assertTrue(Math.abs(size - Math.max(expected, 2)) <= tolerance,
+          "rate " + rate + ": 기대 " + expected + ", 실제 " + size + " " + sizes);
+      assertEquals(0, changesInTail, "수렴한 뒤에는 크기가 바뀌면 안 됩니다: " + sizes);
+      assertEquals(0, (int) backlog, "밀린 작업을 모두 처리해야 합니다.");
+    }
+    logger.info("sizes: {}", sizes);
+  }
+
+  @Test
+  public void testRespectsBounds() {
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(3, 20, UTILIZATION, TimeUnit.MILLISECONDS.toNanos(50));
+    AdaptivePoolSizer.Sample idle = new AdaptivePoolSizer.Sample(INTERVAL, 0, 0, 0, 0);
+    AdaptivePoolSizer.Sample stuck = new AdaptivePoolSizer.Sample(INTERVAL, 0, 0, 0, 1_000);
+
+    int size = 10;
+    for (int i = 0; i < 20; i++) {
+      size = sizer.nextSize(size, idle);
+    }
+    assertEquals(3, size, "부하가 없으면 최소 크기까지 줄어야 합니다.");
+
+    for (int i = 0; i < 20; i++) {
+      size = sizer.nextSize(size, stuck);
+    }
+    assertEquals(20, size, "끝나는 작업 없이 큐만 쌓이면 최대 크기까지 늘어야 합니다.");
+  }
+}
@@ -0,0 +1,82 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 작업이 밀리면 core/max를 늘리고, 부하가 사라지면 최소 크기까지 줄이는지 확인
+ * 조정 주기를 1시간으로 두고 adjust()를 직접 호출하므로 조정 시점은 테스트가 정합니다.
+ */
+public class AdaptiveThreadPoolTaskExecutorTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(AdaptiveThreadPoolTaskExecutorTest.class);
+
+  @Test
+  public void testResizesUnderLoad() throws InterruptedException {
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(2, 16, 0.8, TimeUnit.MILLISECONDS.toNanos(10));
+    AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor(sizer, 1, TimeUnit.HOURS);
+    executor.setQueueCapacity(100);
+    executor.setThreadNamePrefix("adaptive-test-");
+    executor.initialize();
+    assertEquals(2, executor.getCorePoolSize());
+    assertEquals(3, executor.getMaxPoolSize());
+
+    // 2개 스레드가 막힌 채로 작업 20개가 큐에 쌓임
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(22);
+    for (int i = 0; i < 22; i++) {
+      executor.execute(() -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    waitUntil(() -> executor.getActiveCount() == 2);
+    assertEquals(20, executor.getQueueSize());
+
+    // 끝난 작업 없이 큐만 쌓였으므로 한 주기에 2배씩 늘어남
+    executor.adjust();
+    logger.info("after first adjust: core={}, max={}", executor.getCorePoolSize(), executor.getMaxPoolSize());
+    assertEquals(4, executor.getCorePoolSize());
+    assertEquals(6, executor.getMaxPoolSize());
+    // 늘어난 core만큼 큐의 작업을 실행할 스레드가 바로 생김
+    waitUntil(() -> executor.getActiveCount() == 4);
+
+    executor.adjust();
+    assertEquals(8, executor.getCorePoolSize());
+    assertEquals(12, executor.getMaxPoolSize());
+    waitUntil(() -> executor.getActiveCount() == 8);
+
+    release.countDown();
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+
+    // 부하가 사라지면 주기마다 25%씩 최소 크기까지 줄어듦
+    executor.adjust();
+    for (int i = 0; i < 10 && executor.getCorePoolSize() > sizer.getMinSize(); i++) {
+      executor.adjust();
+      logger.info("shrinking: core={}, max={}", executor.getCorePoolSize(), executor.getMaxPoolSize());
+    }
+    assertEquals(2, executor.getCorePoolSize());
+    assertEquals(3, executor.getMaxPoolSize());
+
+    executor.shutdown();
+  }
+
+  private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "조건을 기다리다 시간이 초과되었습니다.");
+      Thread.sleep(5);
+    }
+  }
+}
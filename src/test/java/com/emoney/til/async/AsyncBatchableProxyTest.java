@@ -0,0 +1,97 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * 스프링이 만든 실제 프록시를 통해 @Batchable 호출이 묶여서 제출되는지 확인
+ * 프록시에는 @Async 어드바이저 안쪽에 호출을 세는 어드바이스를 하나 더 붙여서,
+ * 묶인 호출도 @Async 인터셉터만 건너뛰고 나머지 어드바이스를 작업 스레드에서 거치는지 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class AsyncBatchableProxyTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(AsyncBatchableProxyTest.class);
+
+  @Autowired
+  private AsyncService asyncService;
+
+  @Autowired
+  private InnerAdvice innerAdvice;
+
+  @Test
+  public void testBatchableCallsAreBatchedThroughRealProxy() {
+    AsyncMethodStats batches = AsyncMetrics.global().stats("AsyncService.asyncBatchedMethod[batch]");
+    long batchesBefore = batches.getSubmitted();
+    int invocationsBefore = innerAdvice.invocations.get();
+
+    int callCount = 250;
+    List<CompletableFuture<Integer>> futures = new ArrayList<>(callCount);
+    for (int i = 0; i < callCount; i++) {
+      futures.add(asyncService.asyncBatchedMethod(i));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).orTimeout(10, TimeUnit.SECONDS).join();
+
+    for (int i = 0; i < callCount; i++) {
+      assertEquals(i, futures.get(i).join());
+    }
+    long batchCount = batches.getSubmitted() - batchesBefore;
+    logger.info("{} calls submitted as {} tasks, advised on {}", callCount, batchCount, innerAdvice.threads);
+    // 최대 100건씩 묶이므로 작업 수는 호출 수보다 훨씬 적어야 함
+    assertTrue(batchCount >= 3 && batchCount <= callCount / 10, "호출이 묶이지 않았습니다: " + batchCount);
+
+    // 안쪽 어드바이스는 호출마다 작업 스레드에서 실행되어야 함
+    assertEquals(callCount, innerAdvice.invocations.get() - invocationsBefore);
+    assertFalse(innerAdvice.threads.contains(Thread.currentThread().getName()));
+    assertFalse(innerAdvice.threads.contains("micro-batch-timer"));
+  }
+
+  @TestConfiguration
+  static class InnerAdviceConfig {
+
+    @Bean
+    static InnerAdvice innerAdvice() {
+      return new InnerAdvice();
+    }
+  }
+
+  /**
+   * @Batchable 메서드에 기존 어드바이저 뒤(@Async 안쪽)로 호출을 세는 어드바이스를 붙이는 후처리기
+   */
+  static class InnerAdvice extends AbstractAdvisingBeanPostProcessor {
+
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    InnerAdvice() {
+      MethodInterceptor counting = invocation -> {
+        invocations.incrementAndGet();
+        threads.add(Thread.currentThread().getName());
+        return invocation.proceed();
+      };
+      this.advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(Batchable.class),
+          counting);
+      setBeforeExistingAdvisors(false);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * async.executor.* 설정값 검증
+ */
+public class AsyncConfigTest {
+
+  @Test
+  public void testUnknownModeFailsFast() {
+    AsyncExecutorProperties properties = new AsyncExecutorProperties();
+    properties.setMode("virtaul");
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> new AsyncConfig().taskExecutor(properties, OverloadPolicy.fail()));
+    assertTrue(e.getMessage().contains("virtaul"), e.getMessage());
+  }
+
+  @Test
+  public void testUnknownOverloadPolicyFailsFast() {
+    AsyncExecutorProperties properties = new AsyncExecutorProperties();
+    properties.getOverload().setPolicy("caller-run");
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> new AsyncConfig().overloadPolicy(properties));
+    assertTrue(e.getMessage().contains("caller-run"), e.getMessage());
+  }
+}
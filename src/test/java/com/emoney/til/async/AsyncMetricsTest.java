@@ -0,0 +1,169 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AsyncDispatchInterceptor + AsyncMetricsTaskDecorator가 메서드별 통계를 기록하는지 확인
+ * (스프링의 @Async 어드바이저 대신 작업을 직접 Executor에 제출하는 MethodInvocation 사용)
+ */
+public class AsyncMetricsTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(AsyncMetricsTest.class);
+
+  private final AsyncMetrics metrics = new AsyncMetrics();
+  private final List<Throwable> handled = new ArrayList<>();
+  private final AsyncDispatchInterceptor interceptor =
+      new AsyncDispatchInterceptor((ex, method, params) -> handled.add(ex), metrics);
+
+  @Test
+  public void testRecordsQueueWaitAndRunTime() throws Throwable {
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    Executor executor = decorating(pool);
+    Method method = Sample.class.getMethod("work");
+
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add((CompletableFuture<?>) interceptor.invoke(invocation(method, executor, () -> {
+        sleep(50);
+        return "done";
+      })));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+    // future는 작업 안에서 완료되므로 종료 기록까지 보려면 작업 스레드가 끝나기를 기다림
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+    AsyncMethodStats stats = metrics.stats(method);
+    logger.info("{}", stats);
+    assertEquals("Sample.work", stats.getName());
+    assertEquals(3L, stats.getSubmitted());
+    assertEquals(3L, stats.getCompleted());
+    assertEquals(0L, stats.getFailed());
+    assertEquals(0, stats.getInFlight());
+    // 스레드가 하나뿐이므로 세 번째 작업은 앞의 두 작업(약 100ms)만큼 기다림
+    assertTrue(stats.getQueueWait().getMax() >= TimeUnit.MILLISECONDS.toNanos(80),
+        "큐 대기 시간이 기록되지 않았습니다: " + stats.getQueueWait());
+    assertTrue(stats.getRunTime().getPercentile(50) >= TimeUnit.MILLISECONDS.toNanos(40),
+        "실행 시간이 기록되지 않았습니다: " + stats.getRunTime());
+  }
+
+  @Test
+  public void testRecordsFailuresAndRejections() throws Throwable {
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(1), OverloadPolicy.fail());
+    Executor executor = decorating(pool);
+    Method method = Sample.class.getMethod("fail");
+
+    CompletableFuture<?> first = (CompletableFuture<?>) interceptor.invoke(invocation(method, executor, () -> {
+      sleep(100);
+      throw new IllegalStateException("boom");
+    }));
+    CompletableFuture<?> second = (CompletableFuture<?>) interceptor.invoke(invocation(method, executor, () -> "ok"));
+    // 실행 중 1 + 큐 1이 가득 찬 상태라 거부되고, 예외 대신 실패한 future가 돌아옴
+    CompletableFuture<?> third = (CompletableFuture<?>) interceptor.invoke(invocation(method, executor, () -> "ok"));
+
+    assertTrue(third.isCompletedExceptionally());
+    assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+    assertEquals("ok", second.get(5, TimeUnit.SECONDS));
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+    AsyncMethodStats stats = metrics.stats(method);
+    logger.info("{}", stats);
+    assertEquals(3L, stats.getSubmitted());
+    assertEquals(2L, stats.getCompleted());
+    assertEquals(1L, stats.getFailed());
+    assertEquals(1L, stats.getRejected());
+    assertEquals(0.5, stats.getFailureRate(), 0.0001);
+    assertEquals(0, stats.getInFlight());
+    assertTrue(handled.isEmpty(), "CompletableFuture를 반환하는 메서드의 실패는 future로 전달되어야 합니다.");
+  }
+
+  @Test
+  public void testVoidRejectionGoesToExceptionHandler() throws Throwable {
+    Method method = Sample.class.getMethod("fireAndForget");
+    Executor full = task -> {
+      throw new RejectedExecutionException("full");
+    };
+
+    assertNull(interceptor.invoke(invocation(method, full, () -> null)));
+    assertEquals(1, handled.size());
+    assertInstanceOf(RejectedExecutionException.class, handled.get(0));
+    assertEquals(1L, metrics.stats(method).getRejected());
+    assertEquals(0, metrics.stats(method).getInFlight());
+  }
+
+  // 스프링의 ThreadPoolTaskExecutor처럼 제출하는 스레드에서 decorator 적용
+  private static Executor decorating(Executor executor) {
+    AsyncMetricsTaskDecorator decorator = new AsyncMetricsTaskDecorator();
+    return task -> executor.execute(decorator.decorate(task));
+  }
+
+  /**
+   * @Async 어드바이저 대신 body를 executor에서 실행하는 호출
+   */
+  private static MethodInvocation invocation(Method method, Executor executor, Body body) {
+    return new TestMethodInvocation(new Sample(), method, new Object[0], () -> {
+      if (method.getReturnType() == void.class) {
+        executor.execute(() -> {
+          try {
+            body.call();
+          } catch (Exception ignored) {
+            // void 메서드의 예외는 AsyncUncaughtExceptionHandler 몫
+          }
+        });
+        return null;
+      }
+      return CompletableFuture.supplyAsync(() -> {
+        try {
+          return body.call();
+        } catch (RuntimeException e) {
+          throw e;
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      }, executor);
+    });
+  }
+
+  @FunctionalInterface
+  private interface Body {
+    Object call() throws Exception;
+  }
+
+  public static class Sample {
+
+    public CompletableFuture<String> work() {
+      return null;
+    }
+
+    public CompletableFuture<String> fail() {
+      return null;
+    }
+
+    public void fireAndForget() {
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
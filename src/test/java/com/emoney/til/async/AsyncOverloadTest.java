@@ -0,0 +1,145 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.AsyncAnnotationAdvisor;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * 스레드 1개 + 큐 1칸짜리 taskExecutor에서 @Async 호출이 거부되거나 큐에서 버려지면
+ * 호출자가 예외 대신 실패한 CompletableFuture를 받는지 확인
+ * (AsyncDispatchInterceptor가 @Async 어드바이저 바깥에 붙어 있어야 호출한 스레드에서 거부를 받을 수 있음)
+ */
+@SpringBootTest(properties = {
+    "async.executor.mode=adaptive",
+    "async.executor.adaptive.min-pool-size=1",
+    "async.executor.adaptive.max-pool-size=1",
+    "async.executor.adaptive.queue-capacity=1",
+    "async.executor.adaptive.interval=1h",
+    "async.executor.overload.policy=shed-lowest-priority",
+    "async.executor.bulkhead.enabled=false"
+})
+@ActiveProfiles("test")
+public class AsyncOverloadTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(AsyncOverloadTest.class);
+
+  @Autowired
+  private PrioritizedCalls calls;
+
+  @Test
+  public void testDispatchInterceptorWrapsAsyncAdvisor() {
+    List<Advisor> advisors = List.of(((Advised) calls).getAdvisors());
+    logger.info("advisors: {}", advisors);
+
+    int dispatchIndex = -1;
+    int asyncIndex = -1;
+    for (int i = 0; i < advisors.size(); i++) {
+      if (advisors.get(i).getAdvice() instanceof AsyncDispatchInterceptor) {
+        dispatchIndex = i;
+      } else if (advisors.get(i) instanceof AsyncAnnotationAdvisor) {
+        asyncIndex = i;
+      }
+    }
+    assertTrue(dispatchIndex >= 0, "AsyncDispatchInterceptor가 붙어 있어야 합니다.");
+    assertTrue(asyncIndex >= 0, "@Async 어드바이저가 붙어 있어야 합니다.");
+    assertTrue(dispatchIndex < asyncIndex, "AsyncDispatchInterceptor가 @Async 어드바이저 바깥에 있어야 합니다.");
+  }
+
+  @Test
+  public void testRejectedCallReturnsFailedFuture() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> running = occupyWorker(release);
+    CompletableFuture<String> queued = calls.low("queued");
+
+    // 큐에 이보다 낮은 우선순위의 작업이 없으므로 거부되고, 예외가 아니라 실패한 future로 돌아옴
+    CompletableFuture<String> rejected = assertDoesNotThrow(() -> calls.low("rejected"));
+    assertRejected(rejected);
+
+    release.countDown();
+    assertEquals("running", running.get(5, TimeUnit.SECONDS));
+    assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testShedCallFailsItsFuture() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> running = occupyWorker(release);
+    CompletableFuture<String> low = calls.low("low");
+
+    // 우선순위가 높은 호출이 대기 중인 low를 밀어냄
+    CompletableFuture<String> high = calls.high("high");
+    assertRejected(low);
+
+    release.countDown();
+    assertEquals("running", running.get(5, TimeUnit.SECONDS));
+    assertEquals("high", high.get(5, TimeUnit.SECONDS));
+  }
+
+  // 하나뿐인 작업 스레드를 release까지 붙잡아 둠
+  private CompletableFuture<String> occupyWorker(CountDownLatch release) throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<String> running = calls.block(started, release);
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    return running;
+  }
+
+  private static void assertRejected(CompletableFuture<String> future) {
+    ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+    logger.info("expected failure: {}", e.getCause().getMessage());
+    assertInstanceOf(RejectedExecutionException.class, e.getCause());
+  }
+
+  @TestConfiguration
+  static class PrioritizedCallsConfig {
+
+    @Bean
+    public PrioritizedCalls prioritizedCalls() {
+      return new PrioritizedCalls();
+    }
+  }
+
+  static class PrioritizedCalls {
+
+    @Async("taskExecutor")
+    @AsyncPriority(10)
+    public CompletableFuture<String> block(CountDownLatch started, CountDownLatch release) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return CompletableFuture.failedFuture(e);
+      }
+      return CompletableFuture.completedFuture("running");
+    }
+
+    @Async("taskExecutor")
+    @AsyncPriority(0)
+    public CompletableFuture<String> low(String param) {
+      return CompletableFuture.completedFuture(param);
+    }
+
+    @Async("taskExecutor")
+    @AsyncPriority(5)
+    public CompletableFuture<String> high(String param) {
+      return CompletableFuture.completedFuture(param);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * 가상 스레드 모드에서 asyncMethodWithResult(2초 sleep)를 10,000건 동시에 호출
+ * 고정 스레드 풀(max 10, queue 25)에서는 35건을 넘는 호출이 거부되고, 전부 받더라도 10건씩 처리되어 약 2,000초가 걸립니다.
+ */
+@SpringBootTest(properties = {
+    "async.executor.mode=virtual",
+    "async.executor.virtual.max-concurrency=10000",
+    "logging.level.com.emoney.til.async.AsyncService=WARN"
+})
+@ActiveProfiles("test")
+public class AsyncVirtualThreadLoadTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(AsyncVirtualThreadLoadTest.class);
+
+  @Autowired
+  private AsyncService asyncService;
+
+  @Test
+  public void testTenThousandConcurrentCalls() {
+    int callCount = 10_000;
+    List<CompletableFuture<String>> futures = new ArrayList<>(callCount);
+
+    long startedAt = System.nanoTime();
+    for (int i = 0; i < callCount; i++) {
+      futures.add(asyncService.asyncMethodWithResult("load-" + i));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).orTimeout(60, TimeUnit.SECONDS).join();
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+    logger.info("{} calls completed in {}ms ({} calls/s)",
+        callCount, elapsedMillis, callCount * 1000L / Math.max(1, elapsedMillis));
+    for (int i = 0; i < callCount; i++) {
+      assertEquals("Result for: load-" + i, futures.get(i).join());
+    }
+    // 한 건이 2초이므로 모두 동시에 실행되었다면 수 초 안에 끝남
+    assertTrue(elapsedMillis < 20_000, "호출이 동시에 처리되지 않았습니다: " + elapsedMillis + "ms");
+  }
+
+  /**
+   * 동시 실행 한도(20)보다 훨씬 많은 1,000건을 한꺼번에 호출해도 동시에 실행되는 호출은 한도를 넘지 않아야 합니다.
+   * (설정이 달라서 별도 컨텍스트로 실행)
+   */
+  @SpringBootTest(properties = {
+      "async.executor.mode=virtual",
+      "async.executor.virtual.max-concurrency=" + LimitedConcurrencyTest.MAX_CONCURRENCY,
+      "async.executor.virtual.max-waiting=10000"
+  })
+  @ActiveProfiles("test")
+  public static class LimitedConcurrencyTest {
+
+    static final int MAX_CONCURRENCY = 20;
+
+    @Autowired
+    private ConcurrencyProbe probe;
+
+    @Test
+    public void testPeakConcurrencyStaysWithinLimit() {
+      int callCount = 1_000;
+      List<CompletableFuture<Integer>> futures = new ArrayList<>(callCount);
+      for (int i = 0; i < callCount; i++) {
+        futures.add(probe.call(i));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).orTimeout(60, TimeUnit.SECONDS).join();
+
+      logger.info("{} calls, peak concurrency {} (limit {})", callCount, probe.getPeak(), MAX_CONCURRENCY);
+      for (int i = 0; i < callCount; i++) {
+        assertEquals(i, (int) futures.get(i).join());
+      }
+      assertTrue(probe.getPeak() <= MAX_CONCURRENCY, "동시 실행 수가 한도를 넘었습니다: " + probe.getPeak());
+      assertTrue(probe.getPeak() > 1, "호출이 동시에 실행되지 않았습니다: " + probe.getPeak());
+    }
+
+    @TestConfiguration
+    static class ProbeConfig {
+
+      @Bean
+      public ConcurrencyProbe concurrencyProbe() {
+        return new ConcurrencyProbe();
+      }
+    }
+  }
+
+  /**
+   * 동시에 실행 중인 호출 수의 최댓값을 기록하는 @Async 메서드
+   */
+  static class ConcurrencyProbe {
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    @Async("taskExecutor")
+    public CompletableFuture<Integer> call(int i) {
+      peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return CompletableFuture.failedFuture(e);
+      } finally {
+        running.decrementAndGet();
+      }
+      return CompletableFuture.completedFuture(i);
+    }
+
+    int getPeak() {
+      return peak.get();
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class BoundedVirtualThreadExecutorTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(BoundedVirtualThreadExecutorTest.class);
+
+  @Test
+  public void testConcurrencyLimit() throws InterruptedException {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    BoundedVirtualThreadExecutor executor =
+        new BoundedVirtualThreadExecutor("test-vt-", 50, 10_000, task -> fail("거부되면 안 됩니다."));
+
+    int taskCount = 1_000;
+    CountDownLatch done = new CountDownLatch(taskCount);
+    for (int i = 0; i < taskCount; i++) {
+      executor.execute(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(5);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          running.decrementAndGet();
+          done.countDown();
+        }
+      });
+    }
+
+    assertTrue(done.await(30, TimeUnit.SECONDS));
+    logger.info("max concurrent tasks: {}", maxRunning.get());
+    assertTrue(maxRunning.get() <= 50, "동시 실행 수가 제한을 넘었습니다: " + maxRunning.get());
+    executor.close();
+    assertEquals(taskCount, executor.getCompletedCount());
+  }
+
+  @Test
+  public void testBlockingTasksRunConcurrently() throws InterruptedException {
+    // 10,000개의 200ms 블로킹 작업: 스레드 10개 풀이면 200초, 가상 스레드면 약 0.2초 + 생성 비용
+    BoundedVirtualThreadExecutor executor =
+        new BoundedVirtualThreadExecutor("test-vt-", 10_000, 0, task -> fail("거부되면 안 됩니다."));
+    int taskCount = 10_000;
+    CountDownLatch done = new CountDownLatch(taskCount);
+
+    long startedAt = System.nanoTime();
+    for (int i = 0; i < taskCount; i++) {
+      executor.execute(() -> {
+        try {
+          Thread.sleep(200);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        done.countDown();
+      });
+    }
+    assertTrue(done.await(30, TimeUnit.SECONDS));
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+    logger.info("{} blocking tasks finished in {}ms ({} tasks/s)",
+        taskCount, elapsedMillis, taskCount * 1000L / Math.max(1, elapsedMillis));
+    assertTrue(elapsedMillis < 10_000, "블로킹 작업이 동시에 실행되지 않았습니다: " + elapsedMillis + "ms");
+    executor.close();
+  }
+
+  @Test
+  public void testRejectsWhenFullAndAfterClose() throws InterruptedException {
+    AtomicInteger rejected = new AtomicInteger();
+    BoundedVirtualThreadExecutor executor =
+        new BoundedVirtualThreadExecutor("test-vt-", 2, 3, task -> rejected.incrementAndGet());
+
+    CountDownLatch release = new CountDownLatch(1);
+    for (int i = 0; i < 10; i++) {
+      executor.execute(() -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+    // 실행 2 + 대기 3 = 5개만 받음
+    assertEquals(5, rejected.get());
+    assertEquals(5L, executor.getRejectedCount());
+
+    release.countDown();
+    executor.close();
+    assertEquals(5L, executor.getCompletedCount(), "close는 남은 작업을 기다려야 합니다.");
+
+    executor.execute(() -> fail("종료 후에는 실행되면 안 됩니다."));
+    assertEquals(6, rejected.get());
+  }
+}
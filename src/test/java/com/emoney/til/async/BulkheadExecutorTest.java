@@ -0,0 +1,418 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class BulkheadExecutorTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(BulkheadExecutorTest.class);
+
+  @Test
+  public void testSlowMethodDoesNotStarveOthers() throws Exception {
+    BulkheadExecutor executor = new BulkheadExecutor(Executors.newCachedThreadPool(), 0);
+    CountDownLatch release = new CountDownLatch(1);
+
+    // slow 구획(예약 2, 빌리기 0)을 가득 채우고 큐에도 쌓음
+    for (int i = 0; i < 6; i++) {
+      submit(executor, "slow", () -> await(release));
+    }
+
+    // fast 구획은 자기 예약분에서 바로 실행됨
+    CountDownLatch fastDone = new CountDownLatch(2);
+    submit(executor, "fast", fastDone::countDown);
+    submit(executor, "fast", fastDone::countDown);
+    assertTrue(fastDone.await(5, TimeUnit.SECONDS), "느린 구획 때문에 다른 구획이 실행되지 못했습니다.");
+
+    release.countDown();
+    // close()는 큐에서 기다리는 작업을 거부하므로 모두 끝난 뒤 종료
+    waitUntil(() -> executor.getCompartment("slow").getCompleted() == 6);
+    executor.close();
+    assertEquals(6L, executor.getCompartment("slow").getCompleted());
+    assertEquals(0L, executor.getCompartment("slow").getBorrowed());
+  }
+
+  @Test
+  public void testBorrowsIdleCapacityAndReturnsItToOwner() throws Exception {
+    BulkheadExecutor executor = new BulkheadExecutor(Executors.newCachedThreadPool(), 0);
+    // fast 구획을 먼저 등록 (예약 2, 아직 쉬는 중)
+    CountDownLatch registered = new CountDownLatch(1);
+    submit(executor, "fast", registered::countDown);
+    assertTrue(registered.await(5, TimeUnit.SECONDS));
+    assertEquals(2, executor.getTotalSlots());
+
+    List<CountDownLatch> releases = new ArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch allStarted = new CountDownLatch(4);
+    for (int i = 0; i < 6; i++) {
+      CountDownLatch release = new CountDownLatch(1);
+      releases.add(release);
+      submit(executor, "borrower", () -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        allStarted.countDown();
+        await(release);
+        running.decrementAndGet();
+      });
+    }
+    // 예약 2 + fast의 쉬는 예약분 2를 빌려서 4건이 동시에 실행
+    assertTrue(allStarted.await(5, TimeUnit.SECONDS), "쉬는 자리를 빌려 쓰지 못했습니다.");
+    assertEquals(4, executor.getBusySlots());
+    assertEquals(2L, executor.getCompartment("borrower").getBorrowed());
+
+    // 자리가 모두 찼으므로 fast는 기다렸다가, 자리가 나면 빌려 쓰는 대기 작업보다 먼저 실행됨
+    CountDownLatch fastDone = new CountDownLatch(1);
+    AtomicLong borrowerStartedBeforeFast = new AtomicLong();
+    submit(executor, "fast", () -> {
+      borrowerStartedBeforeFast.set(executor.getCompartment("borrower").getStarted());
+      fastDone.countDown();
+    });
+    assertEquals(1, fastDone.getCount());
+    releases.get(0).countDown();
+    assertTrue(fastDone.await(5, TimeUnit.SECONDS), "자리가 나면 예약분을 기다리던 구획이 먼저 실행되어야 합니다.");
+    assertEquals(4L, borrowerStartedBeforeFast.get());
+
+    releases.forEach(CountDownLatch::countDown);
+    waitUntil(() -> executor.getCompartment("borrower").getCompleted() == 6);
+    executor.close();
+    logger.info("compartments: {}", executor.getCompartments());
+    assertEquals(4, maxRunning.get());
+    assertEquals(6L, executor.getCompartment("borrower").getCompleted());
+  }
+
+  @Test
+  public void testRejectsWhenQueueIsFull() throws Exception {
+    BulkheadExecutor executor = new BulkheadExecutor(Executors.newCachedThreadPool(), 0);
+    CountDownLatch release = new CountDownLatch(1);
+
+    // 예약 2 + 큐 10
+    for (int i = 0; i < 12; i++) {
+      submit(executor, "slow", () -> await(release));
+    }
+    assertThrows(RejectedExecutionException.class, () -> submit(executor, "slow", () -> { }));
+    assertEquals(1L, executor.getCompartment("slow").getRejected());
+
+    release.countDown();
+    // close()는 큐에서 기다리는 작업을 거부하므로 모두 끝난 뒤 종료
+    waitUntil(() -> executor.getCompartment("slow").getCompleted() == 12);
+    executor.close();
+    assertEquals(12L, executor.getCompartment("slow").getCompleted());
+  }
+
+  @Test
+  public void testUnannotatedTasksGoToDelegate() throws Exception {
+    List<Runnable> delegated = new CopyOnWriteArrayList<>();
+    BulkheadExecutor executor = new BulkheadExecutor(delegated::add, 0);
+
+    Runnable plain = () -> { };
+    executor.execute(plain);
+    submit(executor, "plain", () -> { });
+
+    assertEquals(2, delegated.size());
+    assertEquals(plain, delegated.get(0));
+    assertTrue(executor.getCompartments().isEmpty());
+    executor.close();
+  }
+
+  @Test
+  public void testQueueOverflowRunsOnCallerWithCallerRunsPolicy() throws Exception {
+    BulkheadExecutor executor = new BulkheadExecutor(Executors.newCachedThreadPool(), 0,
+        OverloadPolicy.callerRuns(1, TimeUnit.SECONDS));
+    CountDownLatch release = new CountDownLatch(1);
+    for (int i = 0; i < 12; i++) {
+      submit(executor, "slow", () -> await(release));
+    }
+
+    // 예약 2 + 큐 10이 가득 찼으므로 호출 스레드에서 실행됨
+    List<String> ranOn = new CopyOnWriteArrayList<>();
+    submit(executor, "slow", () -> ranOn.add(Thread.currentThread().getName()));
+    assertEquals(List.of(Thread.currentThread().getName()), ranOn);
+    assertEquals(0L, executor.getCompartment("slow").getRejected());
+
+    release.countDown();
+    // close()는 큐에서 기다리는 작업을 거부하므로 모두 끝난 뒤 종료
+    waitUntil(() -> executor.getCompartment("slow").getCompleted() == 12);
+    executor.close();
+    assertEquals(12L, executor.getCompartment("slow").getCompleted());
+  }
+
+  @Test
+  public void testQueueOverflowWaitsWithBlockingSubmitPolicy() throws Exception {
+    BulkheadExecutor executor = new BulkheadExecutor(Executors.newCachedThreadPool(), 0,
+        OverloadPolicy.blockingSubmit(5, TimeUnit.SECONDS));
+    CountDownLatch release = new CountDownLatch(1);
+    for (int i = 0; i < 12; i++) {
+      submit(executor, "slow", () -> await(release));
+    }
+
+    // 자리가 나면 큐에 들어가서 구획에서 실행됨
+    Thread.ofPlatform().start(() -> {
+      sleep(200);
+      release.countDown();
+    });
+    CountDownLatch done = new CountDownLatch(1);
+    long startedAt = System.nanoTime();
+    submit(executor, "slow", done::countDown);
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) >= 100, "큐에 자리가 날 때까지 기다려야 합니다.");
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+
+    waitUntil(() -> executor.getCompartment("slow").getCompleted() == 13);
+    executor.close();
+    assertEquals(13L, executor.getCompartment("slow").getCompleted());
+    assertEquals(0L, executor.getCompartment("slow").getRejected());
+  }
+
+  @Test
+  public void testQueueOverflowShedsLowerPriorityTask() throws Exception {
+    BulkheadExecutor executor = new BulkheadExecutor(Executors.newCachedThreadPool(), 0,
+        OverloadPolicy.shedLowestPriority());
+    CountDownLatch release = new CountDownLatch(1);
+    List<AsyncDispatch> dispatches = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      dispatches.add(submit(executor, "slow", i < 11 ? 5 : 0, () -> await(release)));
+    }
+
+    // 큐에서 우선순위가 가장 낮은 작업을 밀어내고 들어감
+    AsyncDispatch urgent = submit(executor, "slow", 10, () -> { });
+    AsyncDispatch shed = dispatches.get(11);
+    CompletionException e = assertThrows(CompletionException.class, () -> shed.getDropped().join());
+    assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    assertFalse(urgent.getDropped().isDone());
+    // 같은 우선순위끼리는 밀어내지 않음
+    assertThrows(RejectedExecutionException.class, () -> submit(executor, "slow", 5, () -> { }));
+
+    release.countDown();
+    // close()는 큐에서 기다리는 작업을 거부하므로 모두 끝난 뒤 종료
+    waitUntil(() -> executor.getCompartment("slow").getCompleted() == 12);
+    executor.close();
+    assertEquals(12L, executor.getCompartment("slow").getCompleted());
+  }
+
+  @Test
+  public void testDelegateBorrowingCountsAgainstMaxBorrow() throws Exception {
+    ThreadPoolTaskExecutor delegate = new ThreadPoolTaskExecutor();
+    delegate.setCorePoolSize(6);
+    delegate.setMaxPoolSize(6);
+    delegate.setQueueCapacity(10);
+    delegate.initialize();
+    BulkheadExecutor executor = new BulkheadExecutor(delegate, 0);
+
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    for (int i = 0; i < 8; i++) {
+      int expected = Math.min(i + 1, 4);
+      submit(executor, "borrower", () -> {
+        running.incrementAndGet();
+        await(release);
+      });
+      // delegate의 활성 스레드 수가 반영된 뒤에 다음 작업을 제출
+      waitUntil(() -> running.get() == expected);
+    }
+
+    // 예약 2 + delegate의 남는 자리에서 maxBorrow 2, delegate에 자리가 남아 있어도 나머지는 구획의 큐에서 대기
+    assertEquals(2, executor.getBusySlots());
+    assertEquals(2, executor.getDelegateBorrowed());
+    assertEquals(4, executor.getCompartment("borrower").getQueued());
+    assertEquals(2L, executor.getCompartment("borrower").getBorrowed());
+    assertEquals(4, delegate.getActiveCount());
+
+    release.countDown();
+    // close()는 큐에서 기다리는 작업을 거부하므로 모두 끝난 뒤 종료
+    waitUntil(() -> executor.getCompartment("borrower").getCompleted() == 8);
+    executor.close();
+    assertEquals(8L, executor.getCompartment("borrower").getCompleted());
+  }
+
+  @Test
+  public void testQueuedTaskLaunchedFromWorkerIsNotRunInlineOrBlocked() throws Exception {
+    for (OverloadPolicy policy : List.of(OverloadPolicy.callerRuns(1, TimeUnit.SECONDS),
+        OverloadPolicy.blockingSubmit(5, TimeUnit.SECONDS))) {
+      // 스레드 1개, 큐 없음: 작업을 마친 스레드가 대기 작업을 넘길 때 delegate는 가득 찬 상태
+      ThreadPoolTaskExecutor delegate = new ThreadPoolTaskExecutor();
+      delegate.setCorePoolSize(1);
+      delegate.setMaxPoolSize(1);
+      delegate.setQueueCapacity(0);
+      delegate.setRejectedExecutionHandler(policy);
+      delegate.initialize();
+      BulkheadExecutor executor = new BulkheadExecutor(delegate, 0);
+
+      CountDownLatch release = new CountDownLatch(1);
+      submit(executor, "single", () -> await(release));
+      waitUntil(() -> delegate.getActiveCount() == 1);
+      AtomicInteger ran = new AtomicInteger();
+      AsyncDispatch queued = submit(executor, "single", 0, ran::incrementAndGet);
+      assertEquals(1, executor.getCompartment("single").getQueued());
+
+      long startedAt = System.nanoTime();
+      release.countDown();
+      CompletionException e = assertThrows(CompletionException.class,
+          () -> queued.getDropped().orTimeout(5, TimeUnit.SECONDS).join());
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+      assertInstanceOf(RejectedExecutionException.class, e.getCause());
+      // delegate의 스레드에서 대기 작업을 실행하지도, 큐에 자리가 나기를 기다리지도 않고 바로 거부
+      assertEquals(0, ran.get(), policy.getName());
+      assertTrue(elapsedMillis < 2_000, policy.getName() + " 정책이 delegate의 스레드를 " + elapsedMillis + "ms 동안 막았습니다.");
+
+      waitUntil(() -> executor.getBusySlots() == 0);
+      executor.close();
+      assertEquals(1L, executor.getCompartment("single").getCompleted());
+      assertEquals(1L, executor.getCompartment("single").getRejected());
+      assertEquals(1L, policy.getRejectedCount());
+    }
+  }
+
+  @Test
+  public void testCloseRejectsQueuedTasks() throws Exception {
+    BulkheadExecutor executor = new BulkheadExecutor(Executors.newCachedThreadPool(), 0);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(2);
+    List<AsyncDispatch> dispatches = new ArrayList<>();
+    AtomicInteger ran = new AtomicInteger();
+    for (int i = 0; i < 5; i++) {
+      dispatches.add(submit(executor, "slow", 0, () -> {
+        started.countDown();
+        await(release);
+        ran.incrementAndGet();
+      }));
+    }
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    Thread closer = Thread.ofPlatform().start(() -> {
+      try {
+        executor.close();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    // 큐에서 기다리던 3건은 실행되지 않고 거부로 알림
+    for (AsyncDispatch dispatch : dispatches.subList(2, 5)) {
+      assertThrows(CompletionException.class, () -> dispatch.getDropped().orTimeout(5, TimeUnit.SECONDS).join());
+    }
+    assertThrows(RejectedExecutionException.class, () -> submit(executor, "slow", () -> { }));
+
+    // 실행 중인 작업은 끝날 때까지 기다림
+    release.countDown();
+    closer.join(5_000);
+    assertFalse(closer.isAlive());
+    assertEquals(2, ran.get());
+    assertEquals(2L, executor.getCompartment("slow").getCompleted());
+    assertEquals(4L, executor.getCompartment("slow").getRejected());
+    assertEquals(0, executor.getBusySlots());
+  }
+
+  @Test
+  public void testDelegateRejectionReleasesSlot() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    List<AsyncDispatch> shedByDelegate = new CopyOnWriteArrayList<>();
+    BulkheadExecutor executor = new BulkheadExecutor(task -> {
+      switch (calls.incrementAndGet()) {
+        case 1:
+          throw new RejectedExecutionException("delegate is full");
+        case 2:
+          // delegate의 큐에 들어갔다가 밀려난 경우
+          shedByDelegate.add(AsyncDispatch.current());
+          AsyncDispatch.current().drop(new RejectedExecutionException("shed by delegate"));
+          break;
+        default:
+          task.run();
+      }
+    }, 0);
+
+    assertThrows(RejectedExecutionException.class, () -> submit(executor, "slow", () -> { }));
+    assertEquals(0, executor.getBusySlots());
+
+    AsyncDispatch dropped = submit(executor, "slow", 0, () -> { });
+    assertTrue(dropped.getDropped().isCompletedExceptionally(), "delegate가 버린 작업은 호출자에게 알려야 합니다.");
+    assertNotSame(dropped, shedByDelegate.get(0));
+    assertEquals(0, executor.getBusySlots());
+
+    AtomicInteger ran = new AtomicInteger();
+    submit(executor, "slow", ran::incrementAndGet);
+    assertEquals(1, ran.get());
+
+    executor.close();
+    BulkheadExecutor.Compartment slow = executor.getCompartment("slow");
+    assertEquals(3L, slow.getStarted());
+    assertEquals(1L, slow.getCompleted());
+    assertEquals(2L, slow.getRejected());
+  }
+
+  // @Async 호출처럼 AsyncDispatch를 둔 상태로 제출
+  private static void submit(BulkheadExecutor executor, String methodName, Runnable task) throws Exception {
+    submit(executor, methodName, 0, task);
+  }
+
+  private static AsyncDispatch submit(BulkheadExecutor executor, String methodName, int priority, Runnable task)
+      throws Exception {
+    Method method = Sample.class.getMethod(methodName);
+    AsyncDispatch dispatch = new AsyncDispatch(method, priority);
+    AsyncDispatch previous = AsyncDispatch.enter(dispatch);
+    try {
+      executor.execute(task);
+    } finally {
+      AsyncDispatch.exit(previous);
+    }
+    return dispatch;
+  }
+
+  public static class Sample {
+
+    @Bulkhead(value = "slow", maxConcurrent = 2, maxBorrow = 0, queueCapacity = 10)
+    public void slow() {
+    }
+
+    @Bulkhead(value = "fast", maxConcurrent = 2, maxBorrow = 0)
+    public void fast() {
+    }
+
+    @Bulkhead(value = "borrower", maxConcurrent = 2, maxBorrow = 2, queueCapacity = 10)
+    public void borrower() {
+    }
+
+    @Bulkhead(value = "single", maxConcurrent = 1, maxBorrow = 0)
+    public void single() {
+    }
+
+    public void plain() {
+    }
+  }
+
+  private static void waitUntil(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "조건을 만족하지 못했습니다.");
+      sleep(1);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class MicroBatcherTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(MicroBatcherTest.class);
+
+  @Test
+  public void testFlushesWhenSizeIsReached() {
+    List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    MicroBatcher<Integer> batcher = new MicroBatcher<>("size", 10, 1, TimeUnit.MINUTES, batches::add);
+
+    for (int i = 0; i < 25; i++) {
+      batcher.add(i);
+    }
+    assertEquals(2, batches.size());
+    assertEquals(10, batches.get(0).size());
+    assertEquals(5, batcher.getPending());
+
+    batcher.flush();
+    assertEquals(3, batches.size());
+    assertEquals(List.of(20, 21, 22, 23, 24), batches.get(2));
+    assertEquals(2L, batcher.getSizeFlushCount());
+    assertEquals(0, batcher.getPending());
+  }
+
+  @Test
+  public void testFlushesWhenDelayExpires() throws InterruptedException {
+    CountDownLatch flushed = new CountDownLatch(1);
+    List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    MicroBatcher<Integer> batcher = new MicroBatcher<>("time", 100, 20, TimeUnit.MILLISECONDS, batch -> {
+      batches.add(batch);
+      flushed.countDown();
+    });
+
+    batcher.add(1);
+    batcher.add(2);
+    batcher.add(3);
+    assertTrue(flushed.await(5, TimeUnit.SECONDS), "시간 기준으로 넘기지 않았습니다.");
+    assertEquals(List.of(List.of(1, 2, 3)), batches);
+    assertEquals(1L, batcher.getTimeFlushCount());
+  }
+
+  @Test
+  public void testBatchesAsyncCallsAndCompletesEachFuture() throws Throwable {
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    AtomicInteger submittedTasks = new AtomicInteger();
+    AsyncMetrics metrics = new AsyncMetrics();
+    AsyncDispatchInterceptor interceptor = new AsyncDispatchInterceptor((ex, method, params) -> { }, metrics,
+        method -> task -> {
+          submittedTasks.incrementAndGet();
+          pool.execute(task);
+        });
+    Method method = Sample.class.getMethod("handle", int.class);
+    Sample target = new Sample();
+
+    int callCount = 120;
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    for (int i = 0; i < callCount; i++) {
+      futures.add((CompletableFuture<?>) interceptor.invoke(invocation(target, method, i)));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+    for (int i = 0; i < callCount; i++) {
+      assertEquals(i * 2, futures.get(i).join());
+    }
+    // 50 + 50 (크기 기준) + 20 (시간 기준)
+    assertEquals(3, submittedTasks.get());
+    assertEquals(callCount, target.calls.get());
+
+    AsyncMethodStats calls = metrics.stats(method);
+    AsyncMethodStats batches = metrics.stats(AsyncMetrics.nameOf(method) + "[batch]");
+    logger.info("{}", calls);
+    logger.info("{}", batches);
+    assertEquals((long) callCount, calls.getCompleted());
+    assertEquals(0, calls.getInFlight());
+    assertEquals(3L, batches.getSubmitted());
+  }
+
+  @Test
+  public void testRejectedBatchFailsEveryCall() throws Throwable {
+    AsyncMetrics metrics = new AsyncMetrics();
+    AsyncDispatchInterceptor interceptor = new AsyncDispatchInterceptor((ex, method, params) -> { }, metrics,
+        method -> task -> {
+          throw new RejectedExecutionException("full");
+        });
+    Method method = Sample.class.getMethod("handle", int.class);
+
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      futures.add((CompletableFuture<?>) interceptor.invoke(invocation(new Sample(), method, i)));
+    }
+    for (CompletableFuture<?> future : futures) {
+      assertTrue(future.isCompletedExceptionally());
+    }
+    assertEquals(50L, metrics.stats(method).getRejected());
+    assertEquals(0, metrics.stats(method).getInFlight());
+  }
+
+  /**
+   * 시간 기준 flush는 모든 MicroBatcher가 함께 쓰는 타이머 스레드에서 제출되므로,
+   * 풀이 가득 차도 caller-runs/blocking-submit 정책이 타이머 스레드를 붙잡지 않고 바로 거부해야 합니다.
+   */
+  @Test
+  public void testTimerFlushIsNeverRunOrBlockedOnTimerThread() throws Throwable {
+    Method method = Sample.class.getMethod("handle", int.class);
+    for (OverloadPolicy policy : List.of(OverloadPolicy.callerRuns(1, TimeUnit.SECONDS),
+        OverloadPolicy.blockingSubmit(30, TimeUnit.SECONDS))) {
+      CountDownLatch release = new CountDownLatch(1);
+      ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(1), policy);
+      // 실행 중 1 + 큐 1로 풀을 가득 채움
+      pool.execute(() -> await(release));
+      pool.execute(() -> { });
+
+      Sample target = new Sample();
+      AsyncDispatchInterceptor interceptor = new AsyncDispatchInterceptor((ex, m, params) -> { }, new AsyncMetrics(),
+          m -> pool);
+      CompletableFuture<?> future = (CompletableFuture<?>) interceptor.invoke(invocation(target, method, 1));
+
+      ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS),
+          policy.getName() + " 정책이 타이머 스레드를 붙잡았습니다.");
+      assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+      assertEquals(0, target.calls.get(), "타이머 스레드에서 실행되면 안 됩니다.");
+
+      release.countDown();
+      pool.shutdown();
+      assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+  }
+
+  /**
+   * close()는 모여 있는 호출을 바로 제출하고, 그 뒤의 호출은 실패한 future로 돌려줘야 합니다.
+   */
+  @Test
+  public void testCloseFlushesBufferedCallsAndRejectsLaterCalls() throws Throwable {
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    AsyncMetrics metrics = new AsyncMetrics();
+    AsyncDispatchInterceptor interceptor = new AsyncDispatchInterceptor((ex, m, params) -> { }, metrics,
+        m -> pool);
+    Method method = Sample.class.getMethod("handleSlowly", int.class);
+    Sample target = new Sample();
+
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add((CompletableFuture<?>) interceptor.invoke(invocation(target, method, i)));
+    }
+    interceptor.close();
+    for (int i = 0; i < 3; i++) {
+      assertEquals(i * 2, futures.get(i).get(5, TimeUnit.SECONDS));
+    }
+
+    CompletableFuture<?> late = (CompletableFuture<?>) interceptor.invoke(invocation(target, method, 3));
+    assertTrue(late.isCompletedExceptionally(), "닫힌 뒤의 호출은 거부되어야 합니다.");
+    assertEquals(3, target.calls.get());
+    assertEquals(1L, metrics.stats(method).getRejected());
+    pool.shutdown();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static MethodInvocation invocation(Object target, Method method, Object... arguments) {
+    return new TestMethodInvocation(target, method, arguments, () -> {
+      throw new AssertionError("@Batchable 호출은 @Async 어드바이저로 넘어가면 안 됩니다.");
+    });
+  }
+
+  public static class Sample {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Batchable(maxSize = 50, maxDelayMillis = 20)
+    public CompletableFuture<Integer> handle(int value) {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture(value * 2);
+    }
+
+    // 시간 기준으로는 넘기지 않음 (close 확인용)
+    @Batchable(maxSize = 50, maxDelayMillis = 60_000)
+    public CompletableFuture<Integer> handleSlowly(int value) {
+      return handle(value);
+    }
+  }
+}
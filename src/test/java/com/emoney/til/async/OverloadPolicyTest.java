@@ -0,0 +1,268 @@
+package com.emoney.til.async;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 스레드 1개 + 큐 2칸짜리 풀을 worker 작업으로 막아 두고 각 정책이 넘친 작업을 어떻게 처리하는지 확인
+ */
+public class OverloadPolicyTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(OverloadPolicyTest.class);
+
+  @Test
+  public void testFailRejectsImmediately() throws InterruptedException {
+    OverloadPolicy policy = OverloadPolicy.fail();
+    CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolExecutor executor = saturatedPool(policy, new LinkedBlockingQueue<>(2), release);
+
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    assertEquals(1L, policy.getRejectedCount());
+
+    release.countDown();
+    shutdown(executor);
+  }
+
+  @Test
+  public void testCallerRunsWithinBudget() throws InterruptedException {
+    OverloadPolicy policy = OverloadPolicy.callerRuns(50, TimeUnit.MILLISECONDS);
+    CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolExecutor executor = saturatedPool(policy, new LinkedBlockingQueue<>(2), release);
+
+    List<Thread> ranOn = new CopyOnWriteArrayList<>();
+    executor.execute(() -> {
+      ranOn.add(Thread.currentThread());
+      sleep(60);
+    });
+    assertEquals(List.of(Thread.currentThread()), ranOn, "넘친 작업은 호출한 스레드에서 실행되어야 합니다.");
+
+    // 1초 구간의 예산(50ms)을 다 썼으므로 이번에는 거부
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> ranOn.add(Thread.currentThread())));
+    assertEquals(1, ranOn.size());
+
+    logger.info("caller-runs counters: {}", policy.getCounters());
+    assertEquals(1L, counter(policy, "callerRan"));
+    assertEquals(1L, counter(policy, "rejected"));
+
+    release.countDown();
+    shutdown(executor);
+  }
+
+  @Test
+  public void testCallerRunsRejectsWhenExpectedRunExceedsBudget() throws InterruptedException {
+    OverloadPolicy policy = OverloadPolicy.callerRuns(50, TimeUnit.MILLISECONDS);
+    CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolExecutor executor = saturatedPool(policy, new LinkedBlockingQueue<>(2), release);
+
+    // 이 메서드는 보통 40ms씩 걸림
+    AsyncMethodStats stats = new AsyncMethodStats("slow");
+    for (int i = 0; i < 10; i++) {
+      stats.recordFinished(TimeUnit.MILLISECONDS.toNanos(40));
+    }
+
+    List<Thread> ranOn = new CopyOnWriteArrayList<>();
+    submit(executor, stats, () -> {
+      ranOn.add(Thread.currentThread());
+      sleep(20);
+    });
+    assertEquals(1, ranOn.size());
+
+    // 쓴 시간(20ms)은 예산보다 적지만 예상 시간(40ms)을 더하면 넘으므로 실행하지 않고 거부
+    assertThrows(RejectedExecutionException.class,
+        () -> submit(executor, stats, () -> ranOn.add(Thread.currentThread())));
+    assertEquals(1, ranOn.size());
+    assertEquals(1L, counter(policy, "callerRan"));
+    assertEquals(1L, counter(policy, "rejected"));
+
+    release.countDown();
+    shutdown(executor);
+  }
+
+  @Test
+  public void testBlockingSubmitWaitsForQueueSpace() throws InterruptedException {
+    OverloadPolicy policy = OverloadPolicy.blockingSubmit(5, TimeUnit.SECONDS);
+    CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolExecutor executor = saturatedPool(policy, new LinkedBlockingQueue<>(2), release);
+
+    Thread releaser = new Thread(() -> {
+      sleep(100);
+      release.countDown();
+    });
+    releaser.start();
+
+    CountDownLatch ran = new CountDownLatch(1);
+    long startedAt = System.nanoTime();
+    executor.execute(ran::countDown);
+    long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    assertTrue(waitedMillis >= 50, "큐에 자리가 날 때까지 기다려야 합니다: " + waitedMillis + "ms");
+    logger.info("blocking-submit counters: {}", policy.getCounters());
+    assertEquals(1L, counter(policy, "acceptedAfterWait"));
+    assertEquals(0L, policy.getRejectedCount());
+    shutdown(executor);
+  }
+
+  @Test
+  public void testBlockingSubmitTimesOut() throws InterruptedException {
+    OverloadPolicy policy = OverloadPolicy.blockingSubmit(50, TimeUnit.MILLISECONDS);
+    CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolExecutor executor = saturatedPool(policy, new LinkedBlockingQueue<>(2), release);
+
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    assertEquals(1L, counter(policy, "timedOut"));
+    assertEquals(1L, policy.getRejectedCount());
+
+    release.countDown();
+    shutdown(executor);
+  }
+
+  @Test
+  public void testShedLowestPriority() throws InterruptedException {
+    OverloadPolicy policy = OverloadPolicy.shedLowestPriority();
+    CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new BoundedPriorityBlockingQueue(2), policy);
+    CountDownLatch started = new CountDownLatch(1);
+    executor.execute(() -> {
+      started.countDown();
+      await(release);
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    List<String> order = new CopyOnWriteArrayList<>();
+    AsyncDispatch lowFirst = submit(executor, 0, () -> order.add("low-1"));
+    AsyncDispatch lowSecond = submit(executor, 0, () -> order.add("low-2"));
+
+    // 큐가 가득 찬 상태에서 우선순위 5가 들어오면 가장 늦게 꺼낼 low-2가 버려짐
+    submit(executor, 5, () -> order.add("high"));
+    assertFalse(lowFirst.getDropped().isDone());
+    CompletionException dropped = assertThrows(CompletionException.class, () -> lowSecond.getDropped().join());
+    assertInstanceOf(RejectedExecutionException.class, dropped.getCause());
+
+    // 더 낮은 우선순위가 없으면 들어온 작업이 거부됨
+    assertThrows(RejectedExecutionException.class, () -> submit(executor, 0, () -> order.add("low-3")));
+
+    release.countDown();
+    shutdown(executor);
+    assertEquals(List.of("high", "low-1"), order);
+    logger.info("shed-lowest-priority counters: {}", policy.getCounters());
+    assertEquals(1L, counter(policy, "shed"));
+    assertEquals(1L, policy.getRejectedCount());
+  }
+
+  @Test
+  public void testPriorityQueueOrder() throws InterruptedException {
+    BoundedPriorityBlockingQueue queue = new BoundedPriorityBlockingQueue(10);
+    Runnable a = () -> { };
+    Runnable b = () -> { };
+    Runnable c = () -> { };
+    Runnable d = () -> { };
+    offer(queue, 0, a);
+    offer(queue, 3, b);
+    offer(queue, 0, c);
+    offer(queue, 3, d);
+
+    // 우선순위가 높은 순, 같은 우선순위는 먼저 들어온 순
+    assertEquals(b, queue.take());
+    assertEquals(d, queue.take());
+    assertEquals(a, queue.take());
+    assertEquals(c, queue.poll());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void testPriorityQueueCapacity() throws InterruptedException {
+    BoundedPriorityBlockingQueue queue = new BoundedPriorityBlockingQueue(2);
+    assertTrue(queue.offer(() -> { }));
+    assertTrue(queue.offer(() -> { }));
+    assertFalse(queue.offer(() -> { }));
+    assertFalse(queue.offer(() -> { }, 10, TimeUnit.MILLISECONDS));
+    assertEquals(0, queue.remainingCapacity());
+
+    queue.poll();
+    assertEquals(1, queue.remainingCapacity());
+  }
+
+  /**
+   * worker 하나를 release까지 막아 두고 큐를 채운 풀
+   */
+  private static ThreadPoolExecutor saturatedPool(OverloadPolicy policy, LinkedBlockingQueue<Runnable> queue,
+      CountDownLatch release) throws InterruptedException {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, queue, policy);
+    CountDownLatch started = new CountDownLatch(1);
+    executor.execute(() -> {
+      started.countDown();
+      await(release);
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    while (queue.remainingCapacity() > 0) {
+      executor.execute(() -> { });
+    }
+    return executor;
+  }
+
+  // @Async 호출처럼 AsyncDispatch를 둔 상태로 제출
+  private static AsyncDispatch submit(ThreadPoolExecutor executor, int priority, Runnable task) {
+    return submit(executor, new AsyncDispatch(null, priority), task);
+  }
+
+  private static AsyncDispatch submit(ThreadPoolExecutor executor, AsyncMethodStats stats, Runnable task) {
+    return submit(executor, new AsyncDispatch(null, 0, stats), task);
+  }
+
+  private static AsyncDispatch submit(ThreadPoolExecutor executor, AsyncDispatch dispatch, Runnable task) {
+    AsyncDispatch previous = AsyncDispatch.enter(dispatch);
+    try {
+      executor.execute(task);
+    } finally {
+      AsyncDispatch.exit(previous);
+    }
+    return dispatch;
+  }
+
+  private static void offer(BoundedPriorityBlockingQueue queue, int priority, Runnable task) {
+    AsyncDispatch previous = AsyncDispatch.enter(new AsyncDispatch(null, priority));
+    try {
+      assertTrue(queue.offer(task));
+    } finally {
+      AsyncDispatch.exit(previous);
+    }
+  }
+
+  private static long counter(OverloadPolicy policy, String name) {
+    return policy.getCounters().get(name);
+  }
+
+  private static void shutdown(ThreadPoolExecutor executor) throws InterruptedException {
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
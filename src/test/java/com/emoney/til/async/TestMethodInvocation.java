@@ -0,0 +1,54 @@
+package com.emoney.til.async;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 프록시 없이 인터셉터를 직접 호출하는 테스트용 MethodInvocation
+ * proceed()는 다음 어드바이저(@Async 등) 대신 주어진 동작을 실행합니다.
+ */
+class TestMethodInvocation implements MethodInvocation {
+
+  @FunctionalInterface
+  interface Proceed {
+    Object proceed() throws Throwable;
+  }
+
+  private final Object target;
+  private final Method method;
+  private final Object[] arguments;
+  private final Proceed proceed;
+
+  TestMethodInvocation(Object target, Method method, Object[] arguments, Proceed proceed) {
+    this.target = target;
+    this.method = method;
+    this.arguments = arguments;
+    this.proceed = proceed;
+  }
+
+  @Override
+  public Method getMethod() {
+    return method;
+  }
+
+  @Override
+  public Object[] getArguments() {
+    return arguments;
+  }
+
+  @Override
+  public Object getThis() {
+    return target;
+  }
+
+  @Override
+  public Object proceed() throws Throwable {
+    return proceed.proceed();
+  }
+
+  @Override
+  public AccessibleObject getStaticPart() {
+    return method;
+  }
+}
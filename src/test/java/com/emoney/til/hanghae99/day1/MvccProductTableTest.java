@@ -0,0 +1,114 @@
+package com.emoney.til.hanghae99.day1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MvccProductTable 테스트
+ */
+public class MvccProductTableTest {
+
+    /**
+     * 스냅샷은 연 뒤의 쓰기를 보지 않아야 합니다.
+     */
+    @Test
+    public void testSnapshotIsolation() {
+        MvccProductTable table = new MvccProductTable();
+        table.insert("P1", 100);
+        table.insert("P2", 200);
+
+        try (MvccProductTable.Snapshot snapshot = table.openSnapshot()) {
+            assertTrue(table.decreaseStock("P1", 30));
+            assertTrue(table.transferStock("P2", "P1", 50));
+            table.insert("P3", 10);
+
+            assertEquals(Map.of("P1", 100, "P2", 200), snapshot.scan(), "스냅샷 이후의 쓰기가 보이면 안 됩니다.");
+            assertEquals(-1, snapshot.getStock("P3"));
+            assertEquals(120, table.getStock("P1"));
+            assertEquals(Map.of("P1", 120, "P2", 150, "P3", 10), table.scan());
+        }
+        assertFalse(table.decreaseStock("P3", 11), "재고보다 많이 감소할 수 없습니다.");
+    }
+
+    /**
+     * 재고를 옮기는 쓰기가 계속되는 동안에도 모든 스냅샷의 합계는 같아야 합니다.
+     */
+    @Test
+    public void testScansAreNeverTorn() throws InterruptedException {
+        int productCount = 32;
+        MvccProductTable table = new MvccProductTable();
+        for (int i = 0; i < productCount; i++) {
+            table.insert("P" + i, 1_000);
+        }
+        long expectedTotal = productCount * 1_000L;
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger transfers = new AtomicInteger();
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            writers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    int from = random.nextInt(productCount);
+                    int to = random.nextInt(productCount);
+                    if (table.transferStock("P" + from, "P" + to, 1 + random.nextInt(10))) {
+                        transfers.incrementAndGet();
+                    }
+                }
+            });
+            writers[w].start();
+        }
+
+        int scans = 0;
+        long deadline = System.currentTimeMillis() + 500;
+        while (System.currentTimeMillis() < deadline) {
+            long total = 0;
+            for (int stock : table.scan().values()) {
+                total += stock;
+            }
+            assertEquals(expectedTotal, total, "스냅샷의 합계가 달라졌습니다.");
+            scans++;
+        }
+        running.set(false);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        System.out.println("이동 " + transfers.get() + "건 동안 전체 조회 " + scans + "번, 남은 버전 " + table.getVersionCount());
+        assertTrue(transfers.get() > 0);
+        assertEquals(0, table.getActiveSnapshotCount());
+    }
+
+    /**
+     * 열린 스냅샷이 읽는 버전은 남기고, 닫은 뒤에는 행마다 최신 버전 하나만 남아야 합니다.
+     */
+    @Test
+    public void testOldVersionsAreCollected() {
+        MvccProductTable table = new MvccProductTable();
+        table.insert("P1", 10_000);
+        table.insert("P2", 10_000);
+
+        MvccProductTable.Snapshot snapshot = table.openSnapshot();
+        for (int i = 0; i < 1_000; i++) {
+            table.decreaseStock("P1", 1);
+        }
+        assertTrue(table.getVersionCount() > 1_000, "스냅샷이 열려 있는 동안에는 버전이 남아야 합니다.");
+        assertEquals(10_000, snapshot.getStock("P1"));
+
+        snapshot.close();
+        assertEquals(2, table.getVersionCount(), "스냅샷을 닫으면 최신 버전만 남아야 합니다.");
+        assertTrue(table.getCollectedVersions() >= 1_000);
+
+        // 스냅샷이 없으면 쓰기가 자기 행을 정리하므로 버전이 쌓이지 않음
+        for (int i = 0; i < 1_000; i++) {
+            table.decreaseStock("P2", 1);
+        }
+        assertTrue(table.getVersionCount() <= 2 + 256, "버전이 쌓였습니다: " + table.getVersionCount());
+        assertEquals(Map.of("P1", 9_000, "P2", 9_000), table.scan());
+    }
+}
@@ -0,0 +1,152 @@
+package com.emoney.til.hanghae99.day1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StockReservations 테스트
+ */
+public class StockReservationsTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * 확정은 재고를 유지하고, 취소/만료는 재고를 되돌려야 합니다.
+     */
+    @Test
+    public void testConfirmCancelExpire() {
+        DatabaseConcurrencyExample example = new DatabaseConcurrencyExample();
+        example.addProduct("P1", 10);
+        StockReservations reservations = new StockReservations(example, 10, TimeUnit.MILLISECONDS, clock::get);
+
+        long confirmed = reservations.reserve("P1", 3, 1, TimeUnit.SECONDS);
+        long cancelled = reservations.reserve("P1", 2, 1, TimeUnit.SECONDS);
+        long expired = reservations.reserve("P1", 4, 1, TimeUnit.SECONDS);
+        assertEquals(-1L, reservations.reserve("P1", 2, 1, TimeUnit.SECONDS), "재고(1)보다 많이 예약할 수 없습니다.");
+        assertEquals(1, example.getProduct("P1").getStock());
+
+        assertTrue(reservations.confirm(confirmed));
+        assertTrue(reservations.cancel(cancelled));
+        assertFalse(reservations.cancel(cancelled), "이미 취소된 예약입니다.");
+        assertEquals(3, example.getProduct("P1").getStock());
+
+        advance(990);
+        assertEquals(0, reservations.expireDue(), "유효 시간 전에 만료되면 안 됩니다.");
+        advance(20);
+        assertEquals(1, reservations.expireDue());
+        assertEquals(7, example.getProduct("P1").getStock());
+
+        assertFalse(reservations.confirm(expired), "만료된 예약은 확정할 수 없습니다.");
+        assertEquals(0, reservations.getPendingCount());
+        assertEquals(1L, reservations.getConfirmedCount());
+        assertEquals(1L, reservations.getCancelledCount());
+        assertEquals(1L, reservations.getExpiredCount());
+    }
+
+    /**
+     * 확정과 만료가 동시에 일어나도 한쪽만 처리되어 재고가 맞아야 합니다.
+     */
+    @Test
+    public void testConfirmRacesWithExpiry() throws InterruptedException {
+        int count = 20_000;
+        DatabaseConcurrencyExample example = new DatabaseConcurrencyExample();
+        example.addProduct("P1", count);
+        StockReservations reservations = new StockReservations(example, 1, TimeUnit.MILLISECONDS, clock::get);
+
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = reservations.reserve("P1", 1, 1 + i % 50, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, example.getProduct("P1").getStock());
+
+        AtomicInteger confirmed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = offset; i < count; i += 4) {
+                    if (reservations.confirm(ids[i])) {
+                        confirmed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        Thread expirer = new Thread(() -> {
+            for (int i = 0; i < 60; i++) {
+                advance(1);
+                reservations.expireDue();
+            }
+        });
+
+        start.countDown();
+        expirer.start();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        expirer.join();
+        advance(100);
+        reservations.expireDue();
+
+        long expired = reservations.getExpiredCount();
+        System.out.println("확정: " + confirmed.get() + ", 만료: " + expired);
+        assertEquals(count, confirmed.get() + expired, "예약마다 확정/만료 중 하나만 처리되어야 합니다.");
+        assertEquals((long) expired, example.getProduct("P1").getStock(), "만료된 수량만큼만 재고가 돌아와야 합니다.");
+        assertEquals(0, reservations.getPendingCount());
+    }
+
+    /**
+     * 실제 시계로 만료 스레드가 재고를 되돌리고, 닫으면 만료 스레드가 끝나는지 확인
+     */
+    @Test
+    public void testTickerExpires() throws InterruptedException {
+        Set<Thread> before = timerThreads();
+        Thread ticker;
+        try (DatabaseConcurrencyExample example = new DatabaseConcurrencyExample()) {
+            example.addProduct("P1", 5);
+
+            long id = example.reserveStock("P1", 5, 50, TimeUnit.MILLISECONDS);
+            assertTrue(id > 0);
+            assertEquals(0, example.getProduct("P1").getStock());
+
+            Set<Thread> started = timerThreads();
+            started.removeAll(before);
+            assertEquals(1, started.size(), "예약하면 만료 스레드가 하나 시작되어야 합니다.");
+            ticker = started.iterator().next();
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (example.getProduct("P1").getStock() != 5 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(5, example.getProduct("P1").getStock(), "유효 시간이 지나면 재고가 돌아와야 합니다.");
+            assertFalse(example.confirmReservation(id));
+        }
+
+        ticker.join(5_000);
+        assertFalse(ticker.isAlive(), "닫은 뒤에는 만료 스레드가 끝나야 합니다.");
+    }
+
+    private static Set<Thread> timerThreads() {
+        Set<Thread> threads = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("stock-reservation-timer")) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+}
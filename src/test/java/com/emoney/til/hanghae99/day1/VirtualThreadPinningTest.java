@@ -0,0 +1,102 @@
+package com.emoney.til.hanghae99.day1;
+
+import com.emoney.til.hanghae99.day1.lock.SafeAccountTransfer;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * 가상 스레드 고정(pinning) 테스트
+ *
+ * JFR의 jdk.VirtualThreadPinned 이벤트를 기록하면서 가상 스레드 모드를 실행하고,
+ * 고정 이벤트가 하나라도 발생하면 실패합니다.
+ */
+public class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * 재고 감소의 모든 방식을 10만 개의 가상 스레드로 실행해도 고정이 발생하지 않아야 합니다.
+     */
+    @Test
+    public void testInventoryPathsDoNotPin() throws Exception {
+        List<RecordedEvent> pinned = recordPinnedEvents(() -> {
+            for (String method : new String[]{"optimistic", "pessimistic", "cas", "stamped", "sharded", "combining"}) {
+                new DatabaseConcurrencyExample().testConcurrency(100_000, method, true);
+            }
+        });
+
+        assertEquals(0, pinned.size(), "가상 스레드 고정이 발생하면 안 됩니다: " + describe(pinned));
+    }
+
+    /**
+     * 가상 스레드로 대량 이체를 실행해도 고정이 발생하지 않아야 합니다.
+     */
+    @Test
+    public void testTransferPathDoesNotPin() throws Exception {
+        List<RecordedEvent> pinned = recordPinnedEvents(() -> SafeAccountTransfer.runWithVirtualThreads(100_000, 100_000));
+
+        assertEquals(0, pinned.size(), "가상 스레드 고정이 발생하면 안 됩니다: " + describe(pinned));
+    }
+
+    /**
+     * synchronized 블록 안에서 블로킹하면 고정 이벤트가 기록되어야 합니다.
+     * (위 테스트들이 이벤트를 놓쳐서 통과하는 것이 아님을 확인)
+     */
+    @Test
+    public void testPinningIsDetected() throws Exception {
+        Object monitor = new Object();
+        List<RecordedEvent> pinned = recordPinnedEvents(() -> {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                executor.submit(() -> {
+                    synchronized (monitor) {
+                        Thread.sleep(50);
+                    }
+                    return null;
+                });
+            }
+        });
+
+        assertFalse(pinned.isEmpty(), "synchronized 안에서의 sleep은 고정 이벤트로 기록되어야 합니다.");
+    }
+
+    private interface Workload {
+        void run() throws Exception;
+    }
+
+    private static List<RecordedEvent> recordPinnedEvents(Workload workload) throws Exception {
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                // 기본 임계값(20ms)보다 짧은 고정도 모두 기록
+                recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+                recording.start();
+                workload.run();
+                recording.stop();
+                recording.dump(file);
+            }
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> PINNED_EVENT.equals(event.getEventType().getName()))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String describe(List<RecordedEvent> events) {
+        StringBuilder sb = new StringBuilder();
+        for (RecordedEvent event : events.subList(0, Math.min(events.size(), 3))) {
+            sb.append('\n').append(event.getStackTrace());
+        }
+        return sb.toString();
+    }
+}
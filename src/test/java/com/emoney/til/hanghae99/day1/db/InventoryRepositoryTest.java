@@ -0,0 +1,111 @@
+package com.emoney.til.hanghae99.day1.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.emoney.til.hanghae99.day1.lock.BackoffPolicy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * ConcurrencyTest의 재고 시나리오를 임베디드 DB(H2)의 실제 행 락으로 검증하는 테스트
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class InventoryRepositoryTest {
+
+    @Autowired
+    private InventoryItemJpaRepository itemRepository;
+
+    @Autowired
+    private OptimisticInventoryRepository optimisticRepository;
+
+    @Autowired
+    private PessimisticInventoryRepository pessimisticRepository;
+
+    @Autowired
+    private ConditionalUpdateInventoryRepository conditionalUpdateRepository;
+
+    private Map<String, InventoryRepository> strategies() {
+        // 테스트에서는 충돌이 많으므로 재시도 횟수를 넉넉하게
+        optimisticRepository.setBackoffPolicy(
+                BackoffPolicy.decorrelatedJitter(200, 1, 20, TimeUnit.MILLISECONDS));
+
+        Map<String, InventoryRepository> strategies = new LinkedHashMap<>();
+        strategies.put("optimistic", optimisticRepository);
+        strategies.put("pessimistic", pessimisticRepository);
+        strategies.put("conditional-update", conditionalUpdateRepository);
+        return strategies;
+    }
+
+    /**
+     * 재고보다 적은 요청이 동시에 들어오면 모두 성공해야 합니다.
+     */
+    @Test
+    public void testAllRequestsSucceedWithinStock() throws InterruptedException {
+        for (Map.Entry<String, InventoryRepository> entry : strategies().entrySet()) {
+            resetStock("P1", 100);
+
+            int successCount = runConcurrently(entry.getValue(), "P1", 20, 50);
+
+            assertEquals(50, successCount, entry.getKey() + ": 모든 작업이 성공적으로 완료되어야 합니다.");
+            assertEquals(50, entry.getValue().getStock("P1"));
+        }
+    }
+
+    /**
+     * 재고보다 많은 요청이 몰려도 재고만큼만 성공하고 재고는 음수가 되지 않아야 합니다.
+     */
+    @Test
+    public void testNoOversellAndThroughput() throws InterruptedException {
+        for (Map.Entry<String, InventoryRepository> entry : strategies().entrySet()) {
+            resetStock("P1", 100);
+
+            long startedAt = System.nanoTime();
+            int successCount = runConcurrently(entry.getValue(), "P1", 20, 300);
+            long elapsed = System.nanoTime() - startedAt;
+
+            System.out.println(entry.getKey() + " 처리량: "
+                    + 300L * 1_000_000_000L / Math.max(elapsed, 1) + " requests/sec");
+
+            assertEquals(100, successCount, entry.getKey() + ": 재고만큼만 성공해야 합니다.");
+            assertEquals(0, entry.getValue().getStock("P1"));
+        }
+    }
+
+    private void resetStock(String productId, int stock) {
+        itemRepository.deleteAll();
+        itemRepository.save(new InventoryItem(productId, stock));
+    }
+
+    private int runConcurrently(InventoryRepository repository, String productId,
+                                int threadCount, int requestCount) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        AtomicInteger successCount = new AtomicInteger(0);
+
+        for (int i = 0; i < requestCount; i++) {
+            executor.submit(() -> {
+                try {
+                    if (repository.decreaseStock(productId, 1)) {
+                        successCount.incrementAndGet();
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(60, TimeUnit.SECONDS), "모든 요청이 제한 시간 내에 처리되어야 합니다.");
+        executor.shutdown();
+        return successCount.get();
+    }
+}
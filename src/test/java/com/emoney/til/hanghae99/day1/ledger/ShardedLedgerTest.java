@@ -0,0 +1,140 @@
+package com.emoney.til.hanghae99.day1.ledger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ShardedLedger 테스트
+ */
+public class ShardedLedgerTest {
+
+    /**
+     * 교차 이체가 많이 몰려도 락 타임아웃 실패 없이 모두 처리되고 전체 잔액이 보존되어야 합니다.
+     */
+    @Test
+    public void testConcurrentTransfersConserveBalance() throws InterruptedException {
+        int accountCount = 1_000;
+        int producerCount = 8;
+        int transfersPerProducer = 50_000;
+
+        try (ShardedLedger ledger = new ShardedLedger(4, 1 << 12)) {
+            for (int i = 0; i < accountCount; i++) {
+                ledger.openAccount(i, 1_000).join();
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(producerCount);
+            CountDownLatch done = new CountDownLatch(producerCount * transfersPerProducer);
+            AtomicInteger success = new AtomicInteger();
+            AtomicInteger unexpected = new AtomicInteger();
+
+            long startedAt = System.nanoTime();
+            for (int p = 0; p < producerCount; p++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < transfersPerProducer; i++) {
+                        ledger.transfer(random.nextInt(accountCount), random.nextInt(accountCount), 1 + random.nextInt(50))
+                                .whenComplete((result, error) -> {
+                                    if (result == ShardedLedger.TransferResult.SUCCESS) {
+                                        success.incrementAndGet();
+                                    } else if (result != ShardedLedger.TransferResult.INSUFFICIENT_FUNDS) {
+                                        unexpected.incrementAndGet();
+                                    }
+                                    done.countDown();
+                                });
+                    }
+                });
+            }
+
+            assertTrue(done.await(60, TimeUnit.SECONDS), "모든 이체가 처리되어야 합니다.");
+            long elapsed = System.nanoTime() - startedAt;
+            executor.shutdown();
+
+            System.out.println("샤드 원장 처리량: "
+                    + (long) producerCount * transfersPerProducer * 1_000_000_000L / elapsed + " transfers/sec");
+
+            assertEquals(0, unexpected.get(), "잔액 부족 외의 실패가 있으면 안 됩니다.");
+            assertTrue(success.get() > 0);
+            assertEquals(accountCount * 1_000L, ledger.totalBalance(), "전체 잔액이 보존되어야 합니다.");
+        }
+    }
+
+    /**
+     * 잔액 부족, 없는 계좌로의 이체(환불)를 올바르게 처리해야 합니다.
+     */
+    @Test
+    public void testInsufficientFundsAndRefund() {
+        try (ShardedLedger ledger = new ShardedLedger(2, 16)) {
+            ledger.openAccount(1, 100).join();
+            ledger.openAccount(2, 0).join();
+
+            assertEquals(ShardedLedger.TransferResult.INSUFFICIENT_FUNDS, ledger.transfer(1, 2, 101).join());
+            assertEquals(ShardedLedger.TransferResult.SUCCESS, ledger.transfer(1, 2, 40).join());
+            assertEquals(ShardedLedger.TransferResult.UNKNOWN_ACCOUNT, ledger.transfer(1, 999, 10).join());
+            assertEquals(ShardedLedger.TransferResult.UNKNOWN_ACCOUNT, ledger.transfer(999, 1, 10).join());
+
+            // 없는 계좌로 보낸 금액은 환불되어야 함
+            assertEquals(60L, (long) ledger.balance(1).join());
+            assertEquals(40L, (long) ledger.balance(2).join());
+            assertEquals(-1L, (long) ledger.balance(999).join());
+        }
+    }
+
+    /**
+     * close()는 이미 받은 이체를 (다른 샤드로 넘어간 입금까지) 모두 처리한 뒤 멈추고,
+     * 닫힌 뒤의 요청은 기다리지 않고 바로 거부해야 합니다.
+     */
+    @Test
+    public void testCloseDrainsPendingAndRejectsNewRequests() {
+        int accountCount = 100;
+        int transferCount = 10_000;
+        ShardedLedger ledger = new ShardedLedger(4, 16);
+        for (int i = 0; i < accountCount; i++) {
+            ledger.openAccount(i, 1_000);
+        }
+
+        List<CompletableFuture<ShardedLedger.TransferResult>> futures = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < transferCount; i++) {
+            futures.add(ledger.transfer(random.nextInt(accountCount), random.nextInt(accountCount), 1 + random.nextInt(50)));
+        }
+        ledger.close();
+
+        for (CompletableFuture<ShardedLedger.TransferResult> future : futures) {
+            assertTrue(future.isDone(), "close()가 끝나면 받은 이체는 모두 완료되어야 합니다.");
+            assertFalse(future.isCompletedExceptionally(), "받은 이체는 실패 없이 처리되어야 합니다.");
+        }
+        assertThrows(IllegalStateException.class, () -> ledger.transfer(1, 2, 10));
+        assertThrows(IllegalStateException.class, ledger::totalBalance);
+    }
+
+    /**
+     * 링 버퍼는 가득 차면 거부하고, 넣은 순서대로 꺼내야 합니다.
+     */
+    @Test
+    public void testRingBufferOrderAndCapacity() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4), "가득 차면 거부해야 합니다.");
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.valueOf(i), buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.offer(5), "다음 바퀴에도 사용할 수 있어야 합니다.");
+        assertEquals(Integer.valueOf(5), buffer.poll());
+    }
+}
@@ -0,0 +1,350 @@
+package com.emoney.til.hanghae99.day1.ledger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.emoney.til.hanghae99.day1.lock.SafeAccountTransfer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * TransferLog 테스트
+ */
+public class TransferLogTest {
+
+    /**
+     * 여러 스레드가 동시에 기록하고 동기화를 기다리면 force가 여러 이체에 공유되어야 하고,
+     * 다시 열어서 재생한 잔액은 메모리의 잔액과 같아야 합니다.
+     */
+    @Test
+    public void testGroupCommitAndRecovery() throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        int accountCount = 100;
+        int threadCount = 8;
+        int transfersPerThread = 2_000;
+        long[] balances = new long[accountCount];
+
+        try (TransferLog log = TransferLog.open(directory, 1 << 20)) {
+            for (int i = 0; i < accountCount; i++) {
+                log.appendCredit(i, 1_000);
+                balances[i] = 1_000;
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+            long startedAt = System.nanoTime();
+            Future<?>[] futures = new Future<?>[threadCount];
+            for (int t = 0; t < threadCount; t++) {
+                futures[t] = executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        int from = random.nextInt(accountCount);
+                        int to = random.nextInt(accountCount);
+                        long amount = 1 + random.nextInt(10);
+                        long lsn;
+                        // 잔액 변경과 로그 기록 순서를 맞추기 위해 잔액 배열 단위로 동기화
+                        synchronized (balances) {
+                            lsn = log.appendTransfer(from, to, amount);
+                            balances[from] -= amount;
+                            balances[to] += amount;
+                        }
+                        log.awaitDurable(lsn);
+                        assertTrue(log.getDurableLsn() >= lsn, "동기화 후에는 내구성이 보장되어야 합니다.");
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            long elapsed = System.nanoTime() - startedAt;
+            executor.shutdown();
+
+            long records = (long) threadCount * transfersPerThread;
+            System.out.println("WAL 처리량: " + records * 1_000_000_000L / elapsed + " transfers/sec"
+                    + ", force 횟수: " + log.getForceCount() + " / 기록 수: " + records);
+        }
+
+        // 다시 열어서 재생
+        try (TransferLog recovered = TransferLog.open(directory, 1 << 20)) {
+            Map<Integer, Long> replayed = recovered.recoverBalances();
+            long total = 0;
+            for (int i = 0; i < accountCount; i++) {
+                assertEquals(balances[i], (long) replayed.get(i), "계좌 " + i + "의 잔액이 복구되어야 합니다.");
+                total += replayed.get(i);
+            }
+            assertEquals(accountCount * 1_000L, total, "전체 잔액이 보존되어야 합니다.");
+            assertEquals(accountCount + (long) threadCount * transfersPerThread, recovered.getLastAppendedLsn());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * 여러 스레드가 기록을 마친 뒤 동시에 동기화를 기다리면, 한 번의 force로 모두 커밋되어야 합니다.
+     * 매 라운드마다 appenderCount개의 기록이 force 한 번을 공유하므로 force 비율은 정확히 1/appenderCount입니다.
+     */
+    @Test
+    public void testGroupCommitBatchesConcurrentAppenders() throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        int appenderCount = 8;
+        int rounds = 50;
+
+        try (TransferLog log = TransferLog.open(directory, 1 << 20)) {
+            CyclicBarrier appended = new CyclicBarrier(appenderCount);
+            CyclicBarrier synced = new CyclicBarrier(appenderCount);
+            ExecutorService executor = Executors.newFixedThreadPool(appenderCount);
+            Future<?>[] futures = new Future<?>[appenderCount];
+            for (int t = 0; t < appenderCount; t++) {
+                int account = t;
+                futures[t] = executor.submit(() -> {
+                    for (int round = 0; round < rounds; round++) {
+                        long lsn = log.appendCredit(account, 1);
+                        // 모든 스레드가 기록을 마친 뒤에 동기화를 시작
+                        appended.await();
+                        log.awaitDurable(lsn);
+                        // 다음 라운드의 기록이 이번 라운드의 force에 섞이지 않도록 대기
+                        synced.await();
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertEquals((long) appenderCount * rounds, log.getDurableLsn());
+            assertEquals(rounds, log.getForceCount(),
+                    "라운드마다 " + appenderCount + "개의 기록이 한 번의 force로 커밋되어야 합니다.");
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * 세그먼트가 가득 차면 다음 세그먼트로 넘어가고, 복구 시 모든 세그먼트를 순서대로 읽어야 합니다.
+     * 다시 연 뒤에는 이어지는 LSN으로 기록되어야 합니다.
+     */
+    @Test
+    public void testSegmentRotation() throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        int segmentSize = TransferLog.RECORD_SIZE * 10;
+
+        try {
+            try (TransferLog log = TransferLog.open(directory, segmentSize)) {
+                log.appendCredit(1, 1_000);
+                for (int i = 0; i < 34; i++) {
+                    log.appendTransferAndSync(1, 2, 10);
+                }
+            }
+            assertEquals(4, countSegments(directory), "35개 레코드는 4개 세그먼트에 나뉘어 기록되어야 합니다.");
+
+            try (TransferLog log = TransferLog.open(directory, segmentSize)) {
+                assertEquals(35, log.getLastAppendedLsn());
+                assertEquals(36, log.appendTransferAndSync(2, 1, 40));
+            }
+
+            try (TransferLog log = TransferLog.open(directory, segmentSize)) {
+                List<TransferLog.Record> records = log.readAll();
+                assertEquals(36, records.size());
+                for (int i = 0; i < records.size(); i++) {
+                    assertEquals(i + 1, records.get(i).getLsn(), "LSN이 연속되어야 합니다.");
+                }
+
+                Map<Integer, Long> balances = log.recoverBalances();
+                assertEquals(1_000 - 340 + 40, (long) balances.get(1));
+                assertEquals(340 - 40, (long) balances.get(2));
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * 쓰다 만 레코드(CRC 불일치)는 로그의 끝으로 보고 무시해야 하며,
+     * 다시 연 뒤의 기록이 그 자리를 덮어써야 합니다.
+     */
+    @Test
+    public void testTornRecordIsIgnored() throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+
+        try {
+            try (TransferLog log = TransferLog.open(directory, 4096)) {
+                log.appendCredit(1, 500);
+                log.appendTransferAndSync(1, 2, 100);
+            }
+
+            // 세 번째 레코드 자리에 lsn만 기록되고 나머지가 깨진 상황을 흉내냄
+            Path segment = listSegments(directory).get(0);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                ByteBuffer torn = ByteBuffer.allocate(16);
+                torn.putLong(3).putLong(0x7F7F7F7F7F7F7F7FL).flip();
+                channel.write(torn, 2L * TransferLog.RECORD_SIZE);
+            }
+
+            try (TransferLog log = TransferLog.open(directory, 4096)) {
+                assertEquals(2, log.readAll().size(), "깨진 레코드는 읽히지 않아야 합니다.");
+                assertEquals(3, log.appendTransferAndSync(2, 1, 30));
+
+                Map<Integer, Long> balances = log.recoverBalances();
+                assertEquals(430L, (long) balances.get(1));
+                assertEquals(70L, (long) balances.get(2));
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * 쓰다 만 레코드 뒤에 이전 실행의 레코드가 남아 있어도,
+     * 다시 연 뒤의 기록이 그 앞을 채웠을 때 남은 레코드가 이어서 읽히면 안 됩니다.
+     */
+    @Test
+    public void testStaleRecordsAfterTornRecordAreWiped() throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+
+        try {
+            try (TransferLog log = TransferLog.open(directory, 4096)) {
+                log.appendCredit(1, 500);
+                log.appendTransfer(1, 2, 100);
+                log.appendTransfer(1, 2, 100);
+                log.appendTransferAndSync(1, 2, 100);
+            }
+
+            // 세 번째 레코드만 깨뜨리고 네 번째 레코드(lsn 4)는 그대로 남김
+            Path segment = listSegments(directory).get(0);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                ByteBuffer torn = ByteBuffer.allocate(16);
+                torn.putLong(3).putLong(0x7F7F7F7F7F7F7F7FL).flip();
+                channel.write(torn, 2L * TransferLog.RECORD_SIZE);
+            }
+
+            try (TransferLog log = TransferLog.open(directory, 4096)) {
+                assertEquals(2, log.readAll().size());
+                assertEquals(3, log.appendTransferAndSync(2, 1, 30));
+            }
+
+            try (TransferLog log = TransferLog.open(directory, 4096)) {
+                assertEquals(3, log.readAll().size(), "이전 실행의 lsn 4 레코드가 다시 읽히면 안 됩니다.");
+                assertEquals(4, log.appendTransferAndSync(2, 1, 10));
+
+                Map<Integer, Long> balances = log.recoverBalances();
+                assertEquals(440L, (long) balances.get(1));
+                assertEquals(60L, (long) balances.get(2));
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static long countSegments(Path directory) throws IOException {
+        return listSegments(directory).size();
+    }
+
+    /**
+     * 로그 기록에 실패한 이체는 잔액에도 남지 않아야 합니다. (복구하면 사라지는 이체가 메모리에만 있으면 안 됨)
+     */
+    @Test
+    public void testFailedAppendRevertsTransfer() throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        // 레코드 하나 크기의 세그먼트: 다음 기록에서 세그먼트를 교체해야 함
+        try (TransferLog log = TransferLog.open(directory, TransferLog.RECORD_SIZE)) {
+            log.appendCredit(1, 1_000);
+            // 디렉터리를 지워서 다음 세그먼트를 만들지 못하게 함
+            deleteRecursively(directory);
+
+            SafeAccountTransfer.Account from = new SafeAccountTransfer.Account(1, 1_000);
+            SafeAccountTransfer.Account to = new SafeAccountTransfer.Account(2, 1_000);
+            assertThrows(UncheckedIOException.class,
+                    () -> SafeAccountTransfer.transfer(from, to, 300, log, SafeAccountTransfer.Options.quiet(0)));
+
+            assertEquals(1_000, from.getBalance(), "기록되지 않은 출금은 되돌려야 합니다.");
+            assertEquals(1_000, to.getBalance(), "기록되지 않은 입금은 되돌려야 합니다.");
+            assertEquals(1, log.getLastAppendedLsn());
+            // 실패해도 두 계좌의 락은 놓아야 함
+            assertTrue(from.getLock().tryLock());
+            from.getLock().unlock();
+            assertTrue(to.getLock().tryLock());
+            to.getLock().unlock();
+        }
+    }
+
+    /**
+     * 디스크 동기화에 실패하면 이체는 예외로 끝나고, 로그는 이후의 기록을 모두 거부해야 합니다.
+     * (동기화 전에 다른 스레드가 잔액을 썼을 수 있으므로 실패한 이체는 되돌리지 않음)
+     */
+    @Test
+    public void testFailedSyncStopsTheLog() throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        AtomicBoolean failForce = new AtomicBoolean();
+        try (TransferLog log = TransferLog.open(directory, 1 << 16, buffer -> {
+            if (failForce.get()) {
+                throw new UncheckedIOException(new IOException("디스크 오류 흉내"));
+            }
+            buffer.force();
+        })) {
+            log.awaitDurable(log.appendCredit(1, 1_000));
+            log.awaitDurable(log.appendCredit(2, 1_000));
+
+            SafeAccountTransfer.Account from = new SafeAccountTransfer.Account(1, 1_000);
+            SafeAccountTransfer.Account to = new SafeAccountTransfer.Account(2, 1_000);
+            failForce.set(true);
+            assertThrows(UncheckedIOException.class,
+                    () -> SafeAccountTransfer.transfer(from, to, 300, log, SafeAccountTransfer.Options.quiet(0)));
+
+            assertTrue(log.isFailed());
+            assertEquals(2, log.getDurableLsn());
+            assertEquals(700, from.getBalance(), "동기화 실패는 이미 적용된 잔액을 되돌리지 않습니다.");
+            assertEquals(1_300, to.getBalance());
+            assertTrue(from.getLock().tryLock());
+            from.getLock().unlock();
+            assertTrue(to.getLock().tryLock());
+            to.getLock().unlock();
+
+            // 디스크가 다시 괜찮아져도 실패한 로그에는 기록하지 않고, 다음 이체는 되돌림
+            failForce.set(false);
+            assertThrows(UncheckedIOException.class,
+                    () -> SafeAccountTransfer.transfer(from, to, 100, log, SafeAccountTransfer.Options.quiet(0)));
+            assertEquals(700, from.getBalance());
+            assertEquals(1_300, to.getBalance());
+            assertEquals(3, log.getLastAppendedLsn());
+            assertThrows(UncheckedIOException.class, () -> log.awaitDurable(3));
+        }
+
+        // 동기화되지 못한 이체는 복구 결과에 있을 수도 없을 수도 있지만, 전체 잔액은 보존되어야 함
+        try (TransferLog log = TransferLog.open(directory, 1 << 16)) {
+            Map<Integer, Long> recovered = log.recoverBalances();
+            assertEquals(2_000, recovered.get(1) + recovered.get(2));
+            assertTrue(recovered.get(1) == 1_000 || recovered.get(1) == 700, "복구된 잔액: " + recovered);
+        }
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
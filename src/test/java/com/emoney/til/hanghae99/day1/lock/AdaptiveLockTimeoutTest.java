@@ -0,0 +1,140 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import com.emoney.til.metrics.LockProfiler;
+import com.emoney.til.metrics.ProfiledLock;
+import com.emoney.til.metrics.RecentLatencies;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AdaptiveLockTimeout 테스트
+ */
+public class AdaptiveLockTimeoutTest {
+
+    // ProfiledLock은 획득 시각 0을 "보유 시간을 재지 않음"으로 쓰므로 0이 아닌 값에서 시작
+    private static final long START_NANOS = 1_000_000;
+
+    /**
+     * 보유 시간이 짧은 락은 오래 잡혀 있으면 고정 타임아웃(200ms)보다 훨씬 빨리 실패해야 합니다.
+     */
+    @Test
+    public void testShortHoldLockFailsFast() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(START_NANOS);
+        ProfiledLock lock = new LockProfiler(clock::get).newLock("test.short");
+        AdaptiveLockTimeout timeout = new AdaptiveLockTimeout(200, 1, 2_000, TimeUnit.MILLISECONDS);
+
+        // 보유 시간 10µs
+        for (int i = 0; i < 64; i++) {
+            lock.lock();
+            clock.addAndGet(TimeUnit.MICROSECONDS.toNanos(10));
+            lock.unlock();
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), timeout.timeoutNanos(lock), "하한(1ms)까지 줄어야 합니다.");
+
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = holdUntil(lock, release);
+        boolean acquired = timeout.tryLock(lock);
+        release.countDown();
+        holder.join();
+
+        assertFalse(acquired, "1ms만 기다리고 실패해야 합니다.");
+    }
+
+    /**
+     * 보유 시간이 긴 락은 기본값(5ms)보다 길게 기다려서 정상적인 대기를 실패로 만들지 않아야 합니다.
+     */
+    @Test
+    public void testLongHoldLockWaitsLonger() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(START_NANOS);
+        ProfiledLock lock = new LockProfiler(clock::get).newLock("test.long");
+        AdaptiveLockTimeout timeout = new AdaptiveLockTimeout(5, 1, 2_000, TimeUnit.MILLISECONDS);
+
+        // 보유 시간 40ms
+        lock.lock();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+        lock.unlock();
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(80), timeout.timeoutNanos(lock), "p99 보유 시간의 2배여야 합니다.");
+        long backoff = timeout.backoffNanos(lock);
+        assertTrue(backoff >= TimeUnit.MILLISECONDS.toNanos(20) && backoff <= TimeUnit.MILLISECONDS.toNanos(60),
+                "backoff는 p50 보유 시간의 ±50% 범위여야 합니다: " + backoff);
+
+        // 기다리는 스레드가 생기면 바로 놓는 보유자 (기본값 5ms였다면 놓기 전에 포기했을 수 있음)
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = holdUntil(lock, release);
+        Thread releaser = new Thread(() -> {
+            while (lock.getWaiting() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+        });
+        releaser.start();
+        boolean acquired = timeout.tryLock(lock);
+        if (acquired) {
+            lock.unlock();
+        }
+        release.countDown();
+        releaser.join();
+        holder.join();
+
+        assertTrue(acquired, "평소 보유 시간만큼은 기다려서 락을 얻어야 합니다.");
+        assertEquals(0, lock.getSite().getTryLockFailures(), "기다려서 얻은 획득은 tryLock 실패가 아닙니다.");
+    }
+
+    /**
+     * 보유 시간 기록이 없거나 ProfiledLock이 아니면 기본값을 사용해야 합니다.
+     */
+    @Test
+    public void testFallsBackToInitialTimeout() {
+        AdaptiveLockTimeout timeout = new AdaptiveLockTimeout(200, 1, 2_000, TimeUnit.MILLISECONDS);
+        Lock plain = new ReentrantLock();
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), timeout.timeoutNanos(plain));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), timeout.timeoutNanos(new LockProfiler().newLock("test.empty")));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLockTimeout(0, 1, 2, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 백분위는 최근 값만으로 계산되어야 합니다. (부하가 바뀌면 따라감)
+     */
+    @Test
+    public void testRecentPercentilesFollowLatestSamples() {
+        RecentLatencies recent = new RecentLatencies(16);
+        assertEquals(-1, recent.getPercentile(99));
+
+        for (int i = 0; i < 16; i++) {
+            recent.record(1_000);
+        }
+        assertEquals(1_000, recent.getPercentile(99));
+
+        for (int i = 0; i < 16; i++) {
+            recent.record(10);
+        }
+        assertEquals(10, recent.getPercentile(99), "오래된 값은 밀려나야 합니다.");
+        assertEquals(32, recent.getCount());
+    }
+
+    private static Thread holdUntil(Lock lock, CountDownLatch release) throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        locked.await();
+        return holder;
+    }
+}
@@ -0,0 +1,99 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BatchTransferScheduler 테스트
+ */
+public class BatchTransferSchedulerTest {
+
+    /**
+     * 병렬로 실행해도 요청 순서대로 하나씩 실행한 것과 결과와 잔액이 완전히 같아야 합니다.
+     */
+    @Test
+    public void testParallelWavesMatchSequentialExecution() {
+        int accountCount = 500;
+        int transferCount = 200_000;
+
+        SafeAccountTransfer.Account[] parallelAccounts = createAccounts(accountCount);
+        SafeAccountTransfer.Account[] sequentialAccounts = createAccounts(accountCount);
+
+        List<BatchTransferScheduler.Transfer> transfers = new ArrayList<>(transferCount);
+        int[][] plan = new int[transferCount][];
+        Random random = new Random(7);
+        for (int i = 0; i < transferCount; i++) {
+            int from = random.nextInt(accountCount);
+            int to = random.nextInt(accountCount);
+            int amount = 1 + random.nextInt(300);
+            plan[i] = new int[]{from, to, amount};
+            transfers.add(new BatchTransferScheduler.Transfer(parallelAccounts[from], parallelAccounts[to], amount));
+        }
+
+        long startedAt = System.nanoTime();
+        BatchTransferScheduler.BatchResult batch = new BatchTransferScheduler().execute(transfers);
+        long elapsed = System.nanoTime() - startedAt;
+        System.out.println("대량 이체 처리량: " + (long) transferCount * 1_000_000_000L / elapsed
+                + " transfers/sec, 단계 수: " + batch.getWaveCount());
+
+        // 같은 이체를 요청 순서대로 하나씩 실행한 기대값
+        for (int i = 0; i < transferCount; i++) {
+            int[] step = plan[i];
+            SafeAccountTransfer.Account from = sequentialAccounts[step[0]];
+            SafeAccountTransfer.Account to = sequentialAccounts[step[1]];
+
+            BatchTransferScheduler.TransferResult expected;
+            if (step[0] == step[1]) {
+                expected = BatchTransferScheduler.TransferResult.INVALID;
+            } else if (from.getBalance() < step[2]) {
+                expected = BatchTransferScheduler.TransferResult.INSUFFICIENT_FUNDS;
+            } else {
+                from.withdraw(step[2]);
+                to.deposit(step[2]);
+                expected = BatchTransferScheduler.TransferResult.SUCCESS;
+            }
+            assertEquals(expected, batch.getResults().get(i), i + "번째 이체 결과가 달라졌습니다.");
+        }
+
+        long total = 0;
+        for (int i = 0; i < accountCount; i++) {
+            assertEquals(sequentialAccounts[i].getBalance(), parallelAccounts[i].getBalance());
+            total += parallelAccounts[i].getBalance();
+        }
+        assertEquals(accountCount * 1_000L, total, "전체 잔액이 보존되어야 합니다.");
+    }
+
+    /**
+     * 계좌가 겹치지 않는 이체는 한 단계에, 겹치는 이체는 다음 단계에 배정되어야 합니다.
+     */
+    @Test
+    public void testWaveAssignment() {
+        SafeAccountTransfer.Account[] accounts = createAccounts(4);
+        List<BatchTransferScheduler.Transfer> transfers = List.of(
+                new BatchTransferScheduler.Transfer(accounts[0], accounts[1], 10),
+                new BatchTransferScheduler.Transfer(accounts[2], accounts[3], 10),
+                new BatchTransferScheduler.Transfer(accounts[1], accounts[2], 10),
+                new BatchTransferScheduler.Transfer(accounts[3], accounts[3], 10));
+
+        BatchTransferScheduler.BatchResult batch = new BatchTransferScheduler().execute(transfers);
+
+        assertEquals(2, batch.getWaveCount());
+        assertEquals(BatchTransferScheduler.TransferResult.INVALID, batch.getResults().get(3));
+        assertEquals(990, accounts[0].getBalance());
+        assertEquals(1_000, accounts[1].getBalance());
+        assertEquals(1_000, accounts[2].getBalance());
+        assertEquals(1_010, accounts[3].getBalance());
+    }
+
+    private SafeAccountTransfer.Account[] createAccounts(int count) {
+        SafeAccountTransfer.Account[] accounts = new SafeAccountTransfer.Account[count];
+        for (int i = 0; i < count; i++) {
+            accounts[i] = new SafeAccountTransfer.Account(i, 1_000);
+        }
+        return accounts;
+    }
+}
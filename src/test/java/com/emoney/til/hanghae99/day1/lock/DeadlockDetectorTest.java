@@ -0,0 +1,103 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * InstrumentedLock / DeadlockDetector 테스트
+ */
+public class DeadlockDetectorTest {
+
+    /**
+     * 락 순서가 뒤바뀐 두 스레드의 데드락을 탐지하고, 희생자를 중단시켜 풀어야 합니다.
+     */
+    @Test
+    public void testDetectsAndBreaksDeadlock() throws InterruptedException {
+        WaitForGraph graph = new WaitForGraph();
+        InstrumentedLock lockA = new InstrumentedLock("A", graph, 5, TimeUnit.MILLISECONDS);
+        InstrumentedLock lockB = new InstrumentedLock("B", graph, 5, TimeUnit.MILLISECONDS);
+
+        List<DeadlockDetector.Report> reports = new CopyOnWriteArrayList<>();
+        AtomicInteger victims = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch bothHoldFirstLock = new CountDownLatch(2);
+
+        Runnable forward = () -> lockBoth(lockA, lockB, bothHoldFirstLock, victims, completed);
+        Runnable backward = () -> lockBoth(lockB, lockA, bothHoldFirstLock, victims, completed);
+
+        try (DeadlockDetector detector = new DeadlockDetector(graph, 20, TimeUnit.MILLISECONDS, true, reports::add)) {
+            detector.start();
+
+            Thread thread1 = new Thread(forward, "worker-1");
+            Thread thread2 = new Thread(backward, "worker-2");
+            thread1.start();
+            thread2.start();
+            thread1.join(5_000);
+            thread2.join(5_000);
+
+            assertFalse(thread1.isAlive() || thread2.isAlive(), "데드락이 풀려서 두 스레드 모두 끝나야 합니다.");
+        }
+
+        assertEquals(1, reports.size(), "데드락은 한 번만 보고되어야 합니다.");
+        assertEquals(2, reports.get(0).getParticipants().size());
+        assertNotNull(reports.get(0).getVictim());
+        assertEquals(1, victims.get(), "희생자는 하나여야 합니다.");
+        assertEquals(1, completed.get(), "희생자가 아닌 스레드는 작업을 마쳐야 합니다.");
+        assertEquals(0, graph.getWaitingCount());
+    }
+
+    /**
+     * 경합만 있고 순환이 없으면 데드락으로 보고하면 안 됩니다.
+     */
+    @Test
+    public void testNoFalsePositiveOnPlainContention() throws InterruptedException {
+        WaitForGraph graph = new WaitForGraph();
+        InstrumentedLock lock = new InstrumentedLock("A", graph, 1, TimeUnit.MILLISECONDS);
+        DeadlockDetector detector = new DeadlockDetector(graph, 1, TimeUnit.SECONDS, true, report -> { });
+
+        lock.lock();
+        Thread waiter = new Thread(() -> {
+            lock.lock();
+            lock.unlock();
+        }, "waiter");
+        waiter.start();
+
+        // waiter가 그래프에 기록될 때까지 대기
+        while (graph.getWaitingCount() == 0) {
+            Thread.sleep(1);
+        }
+        assertTrue(detector.detectNow().isEmpty(), "순환이 없으면 데드락이 아닙니다.");
+
+        lock.unlock();
+        waiter.join(1_000);
+        assertFalse(waiter.isAlive());
+    }
+
+    private void lockBoth(InstrumentedLock first, InstrumentedLock second, CountDownLatch bothHoldFirstLock,
+                          AtomicInteger victims, AtomicInteger completed) {
+        first.lock();
+        try {
+            bothHoldFirstLock.countDown();
+            bothHoldFirstLock.await();
+
+            second.lock();
+            try {
+                completed.incrementAndGet();
+            } finally {
+                second.unlock();
+            }
+        } catch (DeadlockVictimException e) {
+            victims.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            first.unlock();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.emoney.til.hanghae99.day1.lock;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * OrderedResourceLock.acquireAll / tryAcquireAll 테스트
+ */
+public class OrderedResourceLockTest {
+
+    /**
+     * 스레드마다 임의의 순서로 3 ~ 20개의 자원을 잡아도 데드락 없이 끝나야 합니다.
+     */
+    @Test
+    public void testAcquireAllWithoutDeadlock() throws InterruptedException {
+        OrderedResourceLock.Resource[] resources = createResources(30);
+        int[] counters = new int[resources.length];
+
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        for (int t = 0; t < threadCount; t++) {
+            executor.submit(() -> {
+                try {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int op = 0; op < 2_000; op++) {
+                        OrderedResourceLock.Resource[] picked = new OrderedResourceLock.Resource[3 + random.nextInt(18)];
+                        for (int i = 0; i < picked.length; i++) {
+                            picked[i] = resources[random.nextInt(resources.length)];
+                        }
+
+                        try (OrderedResourceLock.ResourceLocks locks = OrderedResourceLock.acquireAll(picked)) {
+                            // 락으로 보호되는 일반 int 카운터 (중복 자원은 한 번만 증가)
+                            for (int i = 0; i < picked.length; i++) {
+                                if (i == 0 || picked[i] != picked[i - 1]) {
+                                    counters[picked[i].getId()]++;
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS), "모든 스레드가 데드락 없이 완료되어야 합니다.");
+        executor.shutdown();
+
+        for (OrderedResourceLock.Resource resource : resources) {
+            assertFalse(((ReentrantLock) resource.getLock()).isLocked(), "모든 락이 해제되어야 합니다.");
+        }
+    }
+
+    /**
+     * 제한 시간 안에 하나라도 얻지 못하면 이미 얻은 락까지 모두 되돌려야 합니다.
+     */
+    @Test
+    public void testTryAcquireAllRollsBackOnTimeout() throws InterruptedException {
+        OrderedResourceLock.Resource[] resources = createResources(10);
+
+        // 다른 스레드가 5번 자원을 잡고 있는 상황
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            resources[5].getLock().lock();
+            try {
+                held.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                resources[5].getLock().unlock();
+            }
+        });
+        holder.start();
+        held.await();
+
+        OrderedResourceLock.ResourceLocks locks =
+                OrderedResourceLock.tryAcquireAll(50, TimeUnit.MILLISECONDS, resources.clone());
+        assertNull(locks, "5번 자원을 얻지 못했으므로 실패해야 합니다.");
+        for (int i = 0; i < 5; i++) {
+            assertFalse(((ReentrantLock) resources[i].getLock()).isHeldByCurrentThread(),
+                    "먼저 얻은 락은 모두 해제되어야 합니다.");
+        }
+
+        release.countDown();
+        holder.join();
+
+        try (OrderedResourceLock.ResourceLocks acquired =
+                     OrderedResourceLock.tryAcquireAll(1, TimeUnit.SECONDS, resources.clone())) {
+            assertNotNull(acquired);
+            assertEquals(10, acquired.size());
+        }
+    }
+
+    /**
+     * 중첩 획득을 지원하고, 이미 닫은 객체를 다시 닫아도 나중에 획득한 락은 그대로 유지되어야 합니다.
+     */
+    @Test
+    public void testClosingStaleHandleKeepsLaterLocks() {
+        OrderedResourceLock.Resource[] resources = createResources(4);
+
+        OrderedResourceLock.ResourceLocks first;
+        try (OrderedResourceLock.ResourceLocks outer = OrderedResourceLock.acquireAll(resources[2], resources[0])) {
+            first = outer;
+            try (OrderedResourceLock.ResourceLocks inner = OrderedResourceLock.acquireAll(resources[3], resources[1])) {
+                assertNotSame(outer, inner);
+                assertEquals(2, inner.size());
+            }
+        }
+
+        try (OrderedResourceLock.ResourceLocks again = OrderedResourceLock.acquireAll(resources[0], resources[2])) {
+            assertNotSame(first, again);
+            first.close();
+            assertTrue(((ReentrantLock) resources[0].getLock()).isHeldByCurrentThread(),
+                    "닫힌 객체를 다시 닫아도 새로 획득한 락은 해제되면 안 됩니다.");
+            assertEquals(2, again.size());
+        }
+        assertFalse(((ReentrantLock) resources[0].getLock()).isLocked());
+    }
+
+    /**
+     * ID가 같은 서로 다른 자원은 순서를 정할 수 없으므로 거부해야 합니다.
+     */
+    @Test
+    public void testRejectsDuplicateIds() {
+        OrderedResourceLock.Resource a = new OrderedResourceLock.Resource(1, "A");
+        OrderedResourceLock.Resource b = new OrderedResourceLock.Resource(1, "B");
+
+        assertThrows(IllegalArgumentException.class, () -> OrderedResourceLock.acquireAll(a, b));
+        assertFalse(((ReentrantLock) a.getLock()).isLocked());
+    }
+
+    /**
+     * 문서화된 대로 전달된 배열은 그 자리에서 ID 순으로 정렬되어야 합니다.
+     */
+    @Test
+    public void testSortsCallerArrayInPlace() throws InterruptedException {
+        OrderedResourceLock.Resource[] resources = createResources(3);
+        OrderedResourceLock.Resource[] passed = {resources[2], resources[0], resources[1]};
+
+        try (OrderedResourceLock.ResourceLocks locks = OrderedResourceLock.acquireAll(passed)) {
+            assertEquals(3, locks.size());
+        }
+        assertArrayEquals(resources, passed);
+
+        OrderedResourceLock.Resource[] timed = {resources[1], resources[2], resources[0]};
+        try (OrderedResourceLock.ResourceLocks locks =
+                     OrderedResourceLock.tryAcquireAll(1, TimeUnit.SECONDS, timed)) {
+            assertNotNull(locks);
+        }
+        assertArrayEquals(resources, timed);
+    }
+
+    private OrderedResourceLock.Resource[] createResources(int count) {
+        OrderedResourceLock.Resource[] resources = new OrderedResourceLock.Resource[count];
+        for (int i = 0; i < count; i++) {
+            resources[i] = new OrderedResourceLock.Resource(i, "Resource-" + i);
+        }
+        return resources;
+    }
+}
@@ -0,0 +1,211 @@
+package com.emoney.til.hanghae99.day1.stress;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StressHarness 테스트
+ */
+public class StressHarnessTest {
+
+    /**
+     * 모든 재고 전략이 인기 상품에 몰리는 부하에서도 불변 조건을 지켜야 합니다.
+     */
+    @Test
+    public void testStockStrategiesKeepInvariants() throws InterruptedException {
+        for (String method : new String[]{"optimistic", "pessimistic", "cas", "stamped", "mvcc", "sharded", "combining"}) {
+            StressResult result = new StressHarness(new StockDecrementScenario(method, 8, 1_000_000, 3))
+                    .threads(8).duration(300, TimeUnit.MILLISECONDS).skew("zipf").seed(42).run();
+            System.out.println(result);
+            assertTrue(result.isPassed(), result.toString());
+            assertTrue(result.getOperations() > 0);
+            assertEquals(result.getOperations(), result.getLatency().getCount());
+        }
+    }
+
+    /**
+     * 계좌 이체는 전체 잔액을 보존해야 합니다.
+     */
+    @Test
+    public void testTransfersConserveBalance() throws InterruptedException {
+        StressResult result = new StressHarness(new AccountTransferScenario(16, 1_000, 100))
+                .threads(8).duration(300, TimeUnit.MILLISECONDS).skew("zipf").seed(7).run();
+        System.out.println(result);
+        assertTrue(result.isPassed(), result.toString());
+    }
+
+    /**
+     * 같은 시드면 스레드마다 같은 연산 순서가 나와야 합니다.
+     */
+    @Test
+    public void testSameSeedReplaysSameOperations() throws InterruptedException {
+        List<String> first = recordOperations(1234);
+        List<String> second = recordOperations(1234);
+        List<String> other = recordOperations(4321);
+
+        assertEquals(first, second, "같은 시드는 같은 연산을 실행해야 합니다.");
+        assertNotEquals(first, other);
+    }
+
+    /**
+     * deterministic 모드에서는 같은 시드면 스레드 사이의 실행 순서와 결과까지 같아야 합니다.
+     */
+    @Test
+    public void testDeterministicModeReplaysInterleaving() throws InterruptedException {
+        String first = recordInterleaving(1234);
+        assertEquals(first, recordInterleaving(1234), "같은 시드는 같은 실행 순서를 만들어야 합니다.");
+        assertNotEquals(first, recordInterleaving(4321));
+
+        // 재고보다 요청이 많으므로 어떤 요청이 실패할지는 실행 순서에 따라 정해짐
+        long[] failed = new long[2];
+        for (int run = 0; run < 2; run++) {
+            StressResult result = new StressHarness(new StockDecrementScenario("pessimistic", 4, 200, 3))
+                    .threads(4).operationsPerThread(300).duration(10, TimeUnit.SECONDS)
+                    .skew("zipf").seed(42).deterministic(true).run();
+            assertTrue(result.isPassed(), result.toString());
+            assertEquals(1_200L, result.getOperations());
+            failed[run] = result.getFailedOperations();
+        }
+        assertTrue(failed[0] > 0);
+        assertEquals(failed[0], failed[1], "같은 시드는 같은 결과를 만들어야 합니다.");
+    }
+
+    @Test
+    public void testDeterministicModeRequiresOperationLimit() {
+        StressHarness harness = new StressHarness(new RecordingScenario(4)).threads(4).deterministic(true);
+        assertThrows(IllegalStateException.class, harness::run);
+    }
+
+    /**
+     * 검사 후 쓰기 사이에 락이 없는 잘못된 구현은 하네스가 잡아내고, 재현용 시드를 보고해야 합니다.
+     */
+    @Test
+    public void testDetectsLostUpdate() throws InterruptedException {
+        StressResult result = new StressHarness(new UnsafeCounterScenario(1_000_000))
+                .threads(4).duration(1, TimeUnit.SECONDS).skew("hot").seed(99).run();
+        System.out.println(result);
+
+        assertFalse(result.isPassed(), "갱신 유실을 찾아야 합니다.");
+        assertEquals(99L, result.getSeed());
+        assertTrue(result.toString().contains("seed=99"));
+    }
+
+    private List<String> recordOperations(long seed) throws InterruptedException {
+        RecordingScenario scenario = new RecordingScenario(4);
+        StressResult result = new StressHarness(scenario)
+                .threads(4).operationsPerThread(500).duration(10, TimeUnit.SECONDS)
+                .skew("zipf").seed(seed).run();
+        assertEquals(2_000L, result.getOperations());
+
+        List<String> operations = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            operations.add("stress-" + i + "=" + scenario.log[i]);
+        }
+        return operations;
+    }
+
+    private String recordInterleaving(long seed) throws InterruptedException {
+        StringBuffer order = new StringBuffer();
+        StressScenario scenario = new RecordingScenario(4) {
+            @Override
+            public boolean execute(int key, SplittableRandom random) {
+                order.append(Thread.currentThread().getName()).append(':').append(key).append(',');
+                return true;
+            }
+        };
+        StressResult result = new StressHarness(scenario)
+                .threads(4).operationsPerThread(200).duration(10, TimeUnit.SECONDS)
+                .skew("zipf").seed(seed).deterministic(true).run();
+        assertEquals(800L, result.getOperations());
+        return order.toString();
+    }
+
+    /**
+     * 스레드별로 (키, 난수) 순서를 기록하는 시나리오
+     */
+    private static class RecordingScenario implements StressScenario {
+        private final StringBuilder[] log;
+
+        RecordingScenario(int threads) {
+            log = new StringBuilder[threads];
+            for (int i = 0; i < threads; i++) {
+                log[i] = new StringBuilder();
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "기록";
+        }
+
+        @Override
+        public int getKeyCount() {
+            return 100;
+        }
+
+        @Override
+        public boolean execute(int key, SplittableRandom random) {
+            int thread = Integer.parseInt(Thread.currentThread().getName().substring("stress-".length()));
+            log[thread].append(key).append(':').append(random.nextInt(10)).append(',');
+            return true;
+        }
+
+        @Override
+        public List<String> checkAfterRun() {
+            return List.of();
+        }
+    }
+
+    /**
+     * 락 없이 읽고-검사하고-쓰는 잘못된 재고 감소
+     */
+    private static class UnsafeCounterScenario implements StressScenario {
+        private final int initialStock;
+        private volatile int stock;
+        private final AtomicLong sold = new AtomicLong();
+
+        UnsafeCounterScenario(int initialStock) {
+            this.initialStock = initialStock;
+            this.stock = initialStock;
+        }
+
+        @Override
+        public String getName() {
+            return "잘못된 재고 감소";
+        }
+
+        @Override
+        public int getKeyCount() {
+            return 1;
+        }
+
+        @Override
+        public boolean execute(int key, SplittableRandom random) {
+            int current = stock;
+            if (current <= 0) {
+                return false;
+            }
+            // 검사와 쓰기 사이에서 다른 스레드에게 양보 (경쟁 구간)
+            if (random.nextInt(4) == 0) {
+                Thread.yield();
+            }
+            stock = current - 1;
+            sold.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public List<String> checkAfterRun() {
+            if (stock + sold.get() != initialStock) {
+                return List.of("갱신 유실: " + stock + " + " + sold.get() + " != " + initialStock);
+            }
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.emoney.til.hanghae99.day1.timer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HierarchicalTimingWheel 테스트 (가짜 시계 사용)
+ */
+public class HierarchicalTimingWheelTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * 여러 단계에 걸친 만료 시각이 모두 만료 시각 이후, 한 tick 안에 만료되어야 합니다.
+     */
+    @Test
+    public void testExpiresWithinOneTickAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, TimeUnit.MILLISECONDS, 16, 0);
+        Random random = new Random(42);
+
+        // 16칸 휠: 단계 0은 16 tick, 단계 1은 256 tick, 단계 2는 4096 tick 범위
+        int count = 5_000;
+        for (int i = 0; i < count; i++) {
+            long deadline = 1 + (long) (random.nextDouble() * 20_000 * TICK);
+            wheel.schedule(deadline, deadline);
+        }
+        assertEquals(count, wheel.size());
+
+        int expired = 0;
+        long now = 0;
+        while (wheel.size() > 0) {
+            now += TICK;
+            for (long deadline : wheel.advanceTo(now)) {
+                assertTrue(deadline <= now, "만료 시각 전에 만료되면 안 됩니다: " + deadline + " > " + now);
+                assertTrue(deadline > now - TICK, "한 tick 넘게 늦게 만료되면 안 됩니다: " + deadline + ", " + now);
+                expired++;
+            }
+        }
+        assertEquals(count, expired);
+    }
+
+    /**
+     * 시계가 여러 tick을 건너뛰어도 그 사이의 항목이 모두 만료되어야 합니다.
+     */
+    @Test
+    public void testAdvanceSkipsManyTicks() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, TimeUnit.MILLISECONDS, 16, 0);
+        wheel.schedule("near", 5 * TICK);
+        wheel.schedule("far", 1_000 * TICK);
+
+        assertEquals(List.of("near"), wheel.advanceTo(500 * TICK));
+        assertTrue(wheel.advanceTo(999 * TICK).isEmpty());
+        assertEquals(List.of("far"), wheel.advanceTo(5_000 * TICK));
+
+        // 빈 휠은 바로 이동하고, 이미 지난 시각은 다음 tick에 만료
+        wheel.schedule("past", 0);
+        assertTrue(wheel.advanceTo(5_000 * TICK).isEmpty());
+        assertEquals(List.of("past"), wheel.advanceTo(5_001 * TICK));
+    }
+
+    /**
+     * 취소한 항목은 만료되지 않고, 두 번 취소할 수 없어야 합니다.
+     */
+    @Test
+    public void testCancel() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, TimeUnit.MILLISECONDS, 16, 0);
+        List<HierarchicalTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            timeouts.add(wheel.schedule(i, (i + 1) * 7 * TICK));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertTrue(wheel.cancel(timeouts.get(i)));
+            assertFalse(wheel.cancel(timeouts.get(i)), "이미 취소된 항목입니다.");
+        }
+        assertEquals(50, wheel.size());
+
+        List<Integer> expired = wheel.advanceTo(1_000 * TICK);
+        assertEquals(50, expired.size());
+        assertTrue(expired.stream().allMatch(i -> i % 2 == 1), "취소한 항목이 만료되었습니다: " + expired);
+        assertFalse(wheel.cancel(timeouts.get(1)), "이미 만료된 항목은 취소할 수 없습니다.");
+    }
+
+    /**
+     * 100만 개를 등록/취소/만료시켜도 각 연산이 항목 수에 비례해 느려지지 않아야 합니다.
+     * 등록/취소는 연결 리스트 연산 하나이고, 만료까지의 추가 작업은 cascade 재배치뿐이므로
+     * 항목당 재배치 횟수가 항목 수와 관계없이 단계 수 이하인지 확인합니다. (시간은 출력만 함)
+     */
+    @Test
+    public void testMillionEntries() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, TimeUnit.MILLISECONDS, 256, 0);
+        int count = 1_000_000;
+        List<HierarchicalTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>(count);
+        Random random = new Random(7);
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            // 최대 10분 (60,000 tick, 단계 0~1)
+            timeouts.add(wheel.schedule(i, 1 + (long) (random.nextDouble() * 60_000 * TICK)));
+        }
+        long scheduledAt = System.nanoTime();
+        for (int i = 0; i < count; i += 4) {
+            wheel.cancel(timeouts.get(i));
+        }
+        long cancelledAt = System.nanoTime();
+
+        int expired = 0;
+        for (long now = 0; wheel.size() > 0; now += TICK) {
+            expired += wheel.advanceTo(now).size();
+        }
+        long finishedAt = System.nanoTime();
+
+        System.out.println("등록 " + count + "건: " + TimeUnit.NANOSECONDS.toMillis(scheduledAt - startedAt) + "ms"
+                + ", 취소 " + (count / 4) + "건: " + TimeUnit.NANOSECONDS.toMillis(cancelledAt - scheduledAt) + "ms"
+                + ", 만료 " + expired + "건: " + TimeUnit.NANOSECONDS.toMillis(finishedAt - cancelledAt) + "ms");
+        assertEquals(count - count / 4, expired);
+
+        // 최대 60,000 tick이면 단계 1까지만 쓰므로 항목마다 많아야 한 번 (단계 1 -> 0) 재배치
+        long relocations = wheel.getRelocations();
+        System.out.println("재배치 " + relocations + "건 (항목당 " + String.format("%.2f", (double) relocations / count) + ")");
+        assertTrue(relocations <= count, "항목당 재배치가 한 번을 넘으면 안 됩니다: " + relocations);
+    }
+
+    /**
+     * 항목 수가 10배가 되어도 항목당 재배치 횟수는 늘지 않아야 합니다. (O(1))
+     */
+    @Test
+    public void testRelocationsPerEntryDoNotGrowWithSize() {
+        double small = relocationsPerEntry(10_000);
+        double large = relocationsPerEntry(100_000);
+
+        System.out.println("항목당 재배치: 1만 건 " + small + ", 10만 건 " + large);
+        assertTrue(small <= 3 && large <= 3, "항목당 재배치는 (단계 수 - 1) 이하여야 합니다: " + small + ", " + large);
+        assertTrue(Math.abs(small - large) < 0.05, "항목 수와 관계없이 비슷해야 합니다: " + small + ", " + large);
+    }
+
+    // 단계 0~3을 모두 쓰도록 16칸 휠에 최대 50,000 tick 범위로 등록하고 모두 만료시킴
+    private static double relocationsPerEntry(int count) {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, TimeUnit.MILLISECONDS, 16, 0);
+        Random random = new Random(11);
+        for (int i = 0; i < count; i++) {
+            wheel.schedule(i, 1 + (long) (random.nextDouble() * 50_000 * TICK));
+        }
+        for (long now = 0; wheel.size() > 0; now += TICK) {
+            wheel.advanceTo(now);
+        }
+        return (double) wheel.getRelocations() / count;
+    }
+}
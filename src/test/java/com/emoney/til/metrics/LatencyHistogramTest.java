@@ -0,0 +1,77 @@
+package com.emoney.til.metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyHistogram 테스트
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5_000.5, histogram.getMean(), 0.001);
+
+        // 구간 상한값을 반환하므로 실제 값 이상, 상대 오차 12.5% 이내
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p50 >= 5_000 && p50 <= 5_000 * 1.125, "p50: " + p50);
+        assertTrue(p99 >= 9_900 && p99 <= 10_000, "p99: " + p99);
+        assertEquals(10_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testBucketBoundariesAreContiguous() {
+        // 각 구간의 상한 + 1은 다음 구간의 시작이어야 함
+        for (int index = 0; index < 400; index++) {
+            long upper = LatencyHistogram.upperBoundOf(index);
+            assertEquals(index, LatencyHistogram.indexOf(upper));
+            assertEquals(index + 1, LatencyHistogram.indexOf(upper + 1));
+        }
+    }
+
+    @Test
+    public void testConcurrentRecordsAndAdd() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (long value = 1; value <= 10_000; value++) {
+                    histogram.record(value);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 개수는 구간 합으로 구하므로 동시에 기록해도 빠지는 값이 없어야 함
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5_000.5, histogram.getMean(), 0.001);
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.record(20_000);
+        merged.add(histogram);
+        assertEquals(40_001, merged.getCount());
+        assertEquals(20_000, merged.getMax());
+    }
+
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+}
@@ -0,0 +1,193 @@
+package com.emoney.til.metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * LockProfiler / ProfiledLock 테스트
+ */
+public class LockProfilerTest {
+
+    /**
+     * 락을 오래 잡고 있는 동안 기다린 스레드들의 대기 시간, 보유 시간, 대기열 길이가 기록되어야 합니다.
+     */
+    @Test
+    public void testRecordsWaitHoldAndQueueLength() throws InterruptedException {
+        LockProfiler profiler = new LockProfiler();
+        ProfiledLock lock = profiler.newLock("test.site");
+        LockSite site = lock.getSite();
+        int waiterCount = 3;
+
+        CountDownLatch done = new CountDownLatch(waiterCount);
+        lock.lock();
+        try {
+            for (int i = 0; i < waiterCount; i++) {
+                new Thread(() -> {
+                    lock.lock();
+                    try {
+                        // 짧은 작업
+                    } finally {
+                        lock.unlock();
+                    }
+                    done.countDown();
+                }).start();
+            }
+
+            // 모든 스레드가 대기열에 들어올 때까지 기다린 뒤 조금 더 잡고 있음
+            while (site.getWaiting() < waiterCount) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(30);
+        } finally {
+            lock.unlock();
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1L + waiterCount, site.getAcquisitions());
+        assertEquals(waiterCount, site.getContendedAcquisitions(), "기다린 획득만 경합으로 세어야 합니다.");
+        assertEquals(0, site.getWaiting());
+        assertTrue(site.getWaitTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(30), "대기 시간이 기록되어야 합니다.");
+        assertTrue(site.getHoldTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(30), "보유 시간이 기록되어야 합니다.");
+        assertEquals(waiterCount - 1, site.getQueueLength().getMax(), "마지막 대기자 앞에는 다른 대기자가 있어야 합니다.");
+    }
+
+    /**
+     * tryLock 실패(즉시 실패, 타임아웃)가 모두 세어져야 합니다.
+     */
+    @Test
+    public void testCountsTryLockFailures() throws InterruptedException {
+        LockProfiler profiler = new LockProfiler();
+        ProfiledLock lock = profiler.newLock("test.tryLock");
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        locked.await();
+
+        assertFalse(lock.tryLock());
+        assertFalse(lock.tryLock(10, TimeUnit.MILLISECONDS));
+        release.countDown();
+        holder.join();
+
+        assertTrue(lock.tryLock(10, TimeUnit.MILLISECONDS));
+        lock.unlock();
+
+        assertEquals(2, lock.getSite().getTryLockFailures());
+        assertEquals(2, lock.getSite().getAcquisitions());
+    }
+
+    /**
+     * 재진입한 경우 보유 시간은 가장 바깥쪽 unlock에서 한 번만 기록되어야 하고,
+     * 소유하지 않은 스레드의 unlock은 원래 락처럼 예외를 던져야 합니다.
+     */
+    @Test
+    public void testReentrantHoldIsRecordedOnce() {
+        LockProfiler profiler = new LockProfiler();
+        ProfiledLock lock = profiler.newLock("test.reentrant");
+
+        lock.lock();
+        lock.lock();
+        lock.unlock();
+        assertEquals(0, lock.getSite().getHoldTime().getCount(), "안쪽 unlock에서는 기록하지 않아야 합니다.");
+        lock.unlock();
+
+        assertEquals(2, lock.getSite().getAcquisitions());
+        assertEquals(1, lock.getSite().getHoldTime().getCount());
+        assertThrows(IllegalMonitorStateException.class, lock::unlock);
+        assertSame(lock.getSite(), profiler.site("test.reentrant"), "같은 이름은 같은 지점에 기록되어야 합니다.");
+    }
+
+    /**
+     * Condition.await 중에는 락이 풀리므로, 그동안 락을 얻은 스레드의 보유 시간이 기록되어야 하고
+     * 기다린 스레드의 보유 시간에는 await 시간이 들어가지 않아야 합니다.
+     */
+    @Test
+    public void testConditionAwaitReleasesOwnership() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        ProfiledLock lock = new LockProfiler(clock::get).newLock("test.condition");
+        Condition signalled = lock.newCondition();
+        CountDownLatch holding = new CountDownLatch(1);
+        AtomicBoolean ready = new AtomicBoolean();
+
+        Thread waiter = new Thread(() -> {
+            lock.lock();
+            try {
+                clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+                holding.countDown();
+                while (!ready.get()) {
+                    signalled.awaitUninterruptibly();
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+        waiter.start();
+        holding.await();
+
+        // waiter가 await으로 락을 놓아야 얻을 수 있음
+        lock.lock();
+        try {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+            ready.set(true);
+            signalled.signal();
+        } finally {
+            lock.unlock();
+        }
+        waiter.join();
+
+        LockSite site = lock.getSite();
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), site.getHoldTime().getMax(),
+                "await 전까지만 waiter의 보유 시간이어야 합니다.");
+
+        // 소유 정보가 남아 있으면 이후 획득을 모두 재진입으로 보고 보유 시간을 기록하지 않음
+        long recorded = site.getHoldTime().getCount();
+        for (int i = 0; i < 16; i++) {
+            lock.lock();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+            lock.unlock();
+        }
+        assertEquals(recorded + 1, site.getHoldTime().getCount(), "16번 중 한 번은 보유 시간을 기록해야 합니다.");
+        assertThrows(IllegalMonitorStateException.class, signalled::await);
+    }
+
+    /**
+     * 경합이 없는 획득은 횟수를 모두 세고, 보유 시간은 일부만 표본으로 기록해야 합니다.
+     * (추가 비용 측정은 src/jmh의 LockProfilerBenchmark)
+     */
+    @Test
+    public void testUncontendedAcquisitionsAreCountedAndSampled() {
+        LockProfiler profiler = new LockProfiler();
+        Lock profiled = profiler.newLock("test.uncontended");
+        int iterations = 1_000;
+
+        for (int i = 0; i < iterations; i++) {
+            profiled.lock();
+            profiled.unlock();
+        }
+
+        LockSite site = profiler.site("test.uncontended");
+        assertEquals(iterations, site.getAcquisitions());
+        assertEquals(0, site.getContendedAcquisitions());
+        assertEquals(0, site.getWaitTime().getCount(), "기다리지 않은 획득의 대기 시간은 기록하지 않아야 합니다.");
+        long sampled = site.getHoldTime().getCount();
+        assertTrue(sampled > 0 && sampled < iterations, "보유 시간은 일부만 기록되어야 합니다: " + sampled);
+    }
+}